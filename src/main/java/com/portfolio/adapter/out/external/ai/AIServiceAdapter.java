@@ -57,10 +57,17 @@ public class AIServiceAdapter implements AIServicePort {
     @Override
     public AIServicePort.ClaudeAnalysisResult analyzeRepository(String repoName, String description, 
                                                                String readmeContent, List<String> topics, String language) {
+        return analyzeRepository(repoName, description, readmeContent, topics, language, false);
+    }
+    
+    @Override
+    public AIServicePort.ClaudeAnalysisResult analyzeRepository(String repoName, String description,
+                                                               String readmeContent, List<String> topics, String language,
+                                                               boolean permitHeld) {
         log.debug("Analyzing repository with AI: {}", repoName);
         
         try {
-            return aiService.analyzeRepository(repoName, description, readmeContent, topics, language);
+            return aiService.analyzeRepository(repoName, description, readmeContent, topics, language, permitHeld);
         } catch (Exception e) {
             log.error("Error analyzing repository with AI", e);
             // Return minimal fallback data
@@ -82,16 +89,44 @@ public class AIServiceAdapter implements AIServicePort {
     }
     
     @Override
-    public String chat(String systemPrompt, String userPrompt) {
+    public boolean isAnalysisCached(String repoName, String description, String readmeContent,
+                                    List<String> topics, String language) {
+        try {
+            return aiService.isAnalysisCached(repoName, description, readmeContent, topics, language);
+        } catch (Exception e) {
+            log.debug("Analysis cache probe failed for {}: {}", repoName, e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public AIServicePort.AnalysisBatch submitAnalysisBatch(List<AIServicePort.RepositoryAnalysisInput> inputs) {
+        log.debug("Submitting {} repository analyses as a Message Batch", inputs.size());
+        // No fallback: the caller curates the sources another way when the batch cannot be submitted
+        return aiService.submitAnalysisBatch(inputs);
+    }
+    
+    @Override
+    public AIServicePort.AnalysisBatchStatus pollAnalysisBatch(AIServicePort.AnalysisBatch batch) {
+        return aiService.pollAnalysisBatch(batch);
+    }
+    
+    @Override
+    public void cancelAnalysisBatch(AIServicePort.AnalysisBatch batch) {
+        aiService.cancelAnalysisBatch(batch);
+    }
+    
+    @Override
+    public AIServicePort.ChatReply chatReply(String systemPrompt, String userPrompt) {
         log.debug("Chat request with system prompt length: {}, user prompt length: {}", 
                  systemPrompt != null ? systemPrompt.length() : 0, 
                  userPrompt != null ? userPrompt.length() : 0);
         
         try {
-            return aiService.chat(systemPrompt, userPrompt);
+            return aiService.chatReply(systemPrompt, userPrompt);
         } catch (Exception e) {
             log.error("Error in chat request", e);
-            return "Lo siento, no puedo generar una respuesta en este momento.";
+            return AIServicePort.ChatReply.fallback("Lo siento, no puedo generar una respuesta en este momento.");
         }
     }
 }
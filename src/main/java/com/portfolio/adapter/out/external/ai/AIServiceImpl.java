@@ -2,16 +2,10 @@ package com.portfolio.adapter.out.external.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaEntity;
-import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaRepository;
-import com.portfolio.adapter.out.persistence.jpa.SkillJpaEntity;
-import com.portfolio.adapter.out.persistence.jpa.SkillJpaRepository;
 import com.portfolio.core.port.out.AIServicePort;
+import com.portfolio.service.ClaudeAnalysisCacheService;
 import com.portfolio.service.ClaudeTokenBudgetService;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import com.portfolio.service.ResiliencePolicyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,44 +13,70 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class AIServiceImpl {
     private static final Logger log = LoggerFactory.getLogger(AIServiceImpl.class);
+
+    /**
+     * Bump whenever the analysis prompt or its parsing changes in a way that should
+     * invalidate cached analyses
+     */
+    static final int ANALYSIS_PROMPT_VERSION = 2;
+
+    private static final int MAX_OUTPUT_TOKENS = 1000;
+
+    /**
+     * Name of the resilience4j instances guarding Messages API calls
+     */
+    public static final String CLAUDE_POLICY = "claude";
     
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final ClaudeTokenBudgetService tokenBudgetService;
-    private final SkillJpaRepository skillRepository;
-    private final ExperienceJpaRepository experienceRepository;
+    private final ClaudeAnalysisCacheService analysisCache;
+    private final ClaudeMessageBatchClient batchClient;
+    private final ResiliencePolicyService resiliencePolicies;
+    private final PortfolioPromptContext portfolioContext;
+    private final ClaudeRequestCoalescer requestCoalescer;
     private final String anthropicApiKey;
     private final String anthropicApiUrl;
-    private final String portfolioToneContextConfig;
-    private volatile String portfolioToneContext = null;
-    private volatile String portfolioSkillsContext = null;
-    private volatile String portfolioExperiencesContext = null;
+    private final String anthropicModel;
+    private final boolean promptCachingEnabled;
+    // Reservations of submitted Message Batches, committed once their results are read
+    private final Map<String, ClaudeTokenBudgetService.TokenReservation> batchReservations = new ConcurrentHashMap<>();
 
     public AIServiceImpl(RestTemplate restTemplate, ObjectMapper objectMapper,
                         ClaudeTokenBudgetService tokenBudgetService,
-                        SkillJpaRepository skillRepository,
-                        ExperienceJpaRepository experienceRepository,
+                        ClaudeAnalysisCacheService analysisCache,
+                        ClaudeMessageBatchClient batchClient,
+                        ResiliencePolicyService resiliencePolicies,
+                        PortfolioPromptContext portfolioContext,
+                        ClaudeRequestCoalescer requestCoalescer,
                         @Value("${anthropic.api.key:}") String anthropicApiKey,
                         @Value("${anthropic.api.url:https://api.anthropic.com/v1/messages}") String anthropicApiUrl,
-                        @Value("${portfolio.ai.context.tone:}") String portfolioToneContextConfig) {
+                        @Value("${anthropic.model:claude-3-haiku-20240307}") String anthropicModel,
+                        @Value("${anthropic.prompt-caching.enabled:true}") boolean promptCachingEnabled) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.tokenBudgetService = tokenBudgetService;
-        this.skillRepository = skillRepository;
-        this.experienceRepository = experienceRepository;
+        this.analysisCache = analysisCache;
+        this.batchClient = batchClient;
+        this.resiliencePolicies = resiliencePolicies;
+        this.portfolioContext = portfolioContext;
+        this.requestCoalescer = requestCoalescer;
         this.anthropicApiKey = anthropicApiKey;
         this.anthropicApiUrl = anthropicApiUrl;
-        this.portfolioToneContextConfig = portfolioToneContextConfig;
+        this.anthropicModel = anthropicModel;
+        this.promptCachingEnabled = promptCachingEnabled;
 
         if (anthropicApiKey != null && !anthropicApiKey.trim().isEmpty()) {
             log.info("Anthropic API key configured successfully");
@@ -65,166 +85,6 @@ public class AIServiceImpl {
         }
     }
 
-    /**
-     * Initialize AI context after all dependencies are injected
-     * This method runs after Spring has fully initialized the bean
-     */
-    @PostConstruct
-    public void initializeContext() {
-        log.info("Initializing AI portfolio context...");
-        try {
-            loadPortfolioToneContext();
-            loadPortfolioSkillsContext();
-            loadPortfolioExperiencesContext();
-            log.info("AI portfolio context initialized successfully");
-        } catch (Exception e) {
-            log.error("Failed to initialize AI context, will use defaults: {}", e.getMessage(), e);
-            // Set defaults to ensure the service can still operate
-            if (portfolioToneContext == null) {
-                portfolioToneContext = getDefaultPortfolioTone();
-            }
-            if (portfolioSkillsContext == null) {
-                portfolioSkillsContext = "Skills Context: No skills data available yet\n";
-            }
-            if (portfolioExperiencesContext == null) {
-                portfolioExperiencesContext = "Experiences Context: No experience data available yet\n";
-            }
-        }
-    }
-    
-    /**
-     * Load portfolio tone context from application configuration
-     * This replaces the previous file system access approach which had security issues
-     */
-    private void loadPortfolioToneContext() {
-        try {
-            if (portfolioToneContextConfig != null && !portfolioToneContextConfig.trim().isEmpty()) {
-                // Use configured tone context from application.properties
-                portfolioToneContext = portfolioToneContextConfig;
-                log.info("Portfolio tone context loaded from configuration ({} characters)",
-                        portfolioToneContext.length());
-            } else {
-                // Fall back to default if not configured
-                portfolioToneContext = getDefaultPortfolioTone();
-                log.warn("No portfolio tone context configured, using default");
-            }
-        } catch (Exception e) {
-            log.error("Error loading portfolio tone context: {}", e.getMessage(), e);
-            portfolioToneContext = getDefaultPortfolioTone();
-        }
-    }
-    
-    private String getDefaultPortfolioTone() {
-        return "Portfolio Tone Context:\n" +
-               "- Title: \"Catalytic Architect & Full-Stack Engineer\"\n" +
-               "- Hero: \"Your team doesn't need more developers. It needs a phase catalyst.\"\n" +
-               "- Sub: \"I break systems that have outgrown their chaos but are not yet ready for stability.\"\n" +
-               "- About: \"Technical catalyst and architecture strategist. I expose what is broken and engineer coherence where chaos once reigned. I do not adapt, I transform. I do not deconfigure, I reconfigure.\"\n" +
-               "- Key phrases: \"Dissonance sparks transformation\", \"Refactoring cultures drives true development\", \"Code is the output, not the objective\"\n";
-    }
-
-    /**
-     * Load portfolio skills context from database
-     * Provides AI with Bernard's technical skill set for better context matching
-     */
-    private void loadPortfolioSkillsContext() {
-        try {
-            List<SkillJpaEntity> skills = skillRepository.findAll();
-
-            if (skills.isEmpty()) {
-                log.warn("No skills found in database for AI context");
-                portfolioSkillsContext = "Skills Context: No skills data available yet\n";
-                return;
-            }
-
-            StringBuilder skillsBuilder = new StringBuilder();
-            skillsBuilder.append("\n=== BERNARD'S TECHNICAL SKILLS ===\n");
-            skillsBuilder.append("Use these to understand Bernard's expertise and suggest relevant skill connections:\n\n");
-
-            // Group by category for better context
-            Map<String, List<SkillJpaEntity>> skillsByCategory = skills.stream()
-                    .collect(Collectors.groupingBy(skill ->
-                            skill.getCategory() != null ? skill.getCategory().toString() : "UNCATEGORIZED"));
-
-            skillsByCategory.forEach((category, categorySkills) -> {
-                skillsBuilder.append(String.format("**%s:**\n", category));
-                categorySkills.forEach(skill -> {
-                    skillsBuilder.append(String.format("  - %s", skill.getName()));
-                    if (skill.getLevel() != null) {
-                        skillsBuilder.append(String.format(" [Level: %s]", skill.getLevel()));
-                    }
-                    if (skill.getDescription() != null && !skill.getDescription().isEmpty()) {
-                        skillsBuilder.append(String.format(" - %s", skill.getDescription()));
-                    }
-                    skillsBuilder.append("\n");
-                });
-                skillsBuilder.append("\n");
-            });
-
-            portfolioSkillsContext = skillsBuilder.toString();
-            log.info("Portfolio skills context loaded: {} skills across {} categories",
-                     skills.size(), skillsByCategory.size());
-
-        } catch (Exception e) {
-            log.error("Error loading portfolio skills context: {}", e.getMessage());
-            portfolioSkillsContext = "Skills Context: Error loading skills data\n";
-        }
-    }
-
-    /**
-     * Load portfolio experiences context from database
-     * Provides AI with Bernard's professional history for better matching
-     */
-    private void loadPortfolioExperiencesContext() {
-        try {
-            List<ExperienceJpaEntity> experiences = experienceRepository.findAll();
-
-            if (experiences.isEmpty()) {
-                log.warn("No experiences found in database for AI context");
-                portfolioExperiencesContext = "Experiences Context: No experience data available yet\n";
-                return;
-            }
-
-            StringBuilder expBuilder = new StringBuilder();
-            expBuilder.append("\n=== BERNARD'S PROFESSIONAL EXPERIENCES ===\n");
-            expBuilder.append("Use these to suggest relevant experience connections and career narrative:\n\n");
-
-            // Sort by current position first, then by start date
-            experiences.stream()
-                    .sorted((e1, e2) -> {
-                        if (Boolean.TRUE.equals(e1.getIsCurrentPosition())) return -1;
-                        if (Boolean.TRUE.equals(e2.getIsCurrentPosition())) return 1;
-                        return 0;
-                    })
-                    .forEach(exp -> {
-                        expBuilder.append(String.format("**%s** at %s",
-                                exp.getJobTitle(), exp.getCompanyName()));
-                        if (Boolean.TRUE.equals(exp.getIsCurrentPosition())) {
-                            expBuilder.append(" [CURRENT]");
-                        }
-                        expBuilder.append("\n");
-
-                        if (exp.getType() != null) {
-                            expBuilder.append(String.format("  Type: %s\n", exp.getType()));
-                        }
-                        if (exp.getDescription() != null && !exp.getDescription().isEmpty()) {
-                            String truncatedDesc = exp.getDescription().length() > 200 ?
-                                    exp.getDescription().substring(0, 197) + "..." :
-                                    exp.getDescription();
-                            expBuilder.append(String.format("  Description: %s\n", truncatedDesc));
-                        }
-                        expBuilder.append("\n");
-                    });
-
-            portfolioExperiencesContext = expBuilder.toString();
-            log.info("Portfolio experiences context loaded: {} experiences", experiences.size());
-
-        } catch (Exception e) {
-            log.error("Error loading portfolio experiences context: {}", e.getMessage());
-            portfolioExperiencesContext = "Experiences Context: Error loading experience data\n";
-        }
-    }
-
     public String generateProjectSummary(String title, String description, String technologies) {
         if (title == null || title.trim().isEmpty()) {
             log.warn("Invalid title provided for project summary generation");
@@ -244,8 +104,8 @@ public class AIServiceImpl {
         }
         
         try {
-            String prompt = buildProjectSummaryPrompt(title, description, technologies);
-            String response = callClaudeApi(prompt);
+            ClaudePrompt prompt = buildProjectSummaryPrompt(title, description, technologies);
+            String response = requestCoalescer.call(prompt, () -> callClaudeApi(prompt));
             return parseProjectSummaryResponse(response, title, description, technologies);
         } catch (Exception e) {
             log.error("Error generating project summary for '{}': {}", title, e.getMessage());
@@ -265,8 +125,8 @@ public class AIServiceImpl {
         }
         
         try {
-            String prompt = buildDynamicMessagePrompt(technologies);
-            String response = callClaudeApi(prompt);
+            ClaudePrompt prompt = buildDynamicMessagePrompt(technologies);
+            String response = requestCoalescer.call(prompt, () -> callClaudeApi(prompt));
             return parseDynamicMessageResponse(response, technologies);
         } catch (Exception e) {
             log.error("Error generating dynamic message for technologies '{}': {}", technologies, e.getMessage());
@@ -278,6 +138,15 @@ public class AIServiceImpl {
     
     public AIServicePort.ClaudeAnalysisResult analyzeRepository(String repoName, String description, 
                                                                String readmeContent, List<String> topics, String language) {
+        return analyzeRepository(repoName, description, readmeContent, topics, language, false);
+    }
+    
+    /**
+     * @param permitHeld the caller already took a claude rate limiter permit for this analysis
+     */
+    public AIServicePort.ClaudeAnalysisResult analyzeRepository(String repoName, String description,
+                                                               String readmeContent, List<String> topics, String language,
+                                                               boolean permitHeld) {
         if (repoName == null || repoName.trim().isEmpty()) {
             log.warn("Invalid repository name provided for analysis");
             return createMockAnalysisResult("unknown-repo", description, topics, language);
@@ -291,10 +160,21 @@ public class AIServiceImpl {
         }
         
         try {
+            ClaudePrompt prompt = buildAnalysisPrompt(repoName, description, readmeContent, topics, language);
+            // Same prompt, prompt version and model as an earlier analysis: reuse it at no token cost
+            String cacheKey = ClaudeAnalysisCacheService.key(ANALYSIS_PROMPT_VERSION, anthropicModel, prompt.text());
+            Optional<String> cached = analysisCache.find(cacheKey);
+            if (cached.isPresent()) {
+                log.debug("Reusing cached Claude analysis for: {}", repoName);
+                return parseClaudeResponse(cached.get(), repoName, description, topics);
+            }
+
             log.debug("Making Claude API call for repository: {}", repoName);
-            String prompt = buildAnalysisPrompt(repoName, description, readmeContent, topics, language);
-            String response = callClaudeApi(prompt);
+            String response = callClaudeApi(prompt, permitHeld);
             log.debug("Claude API response received successfully for: {}", repoName);
+            if (isAnalysisJson(response)) {
+                analysisCache.store(cacheKey, anthropicModel, ANALYSIS_PROMPT_VERSION, response);
+            }
             return parseClaudeResponse(response, repoName, description, topics);
         } catch (IllegalArgumentException e) {
             log.error("Invalid input for Claude API call for repository: {}", repoName, e);
@@ -306,7 +186,34 @@ public class AIServiceImpl {
         }
     }
     
-    private String buildAnalysisPrompt(String repoName, String description, String readmeContent, 
+    /**
+     * Whether {@link #analyzeRepository} would answer without a Claude call: the analysis is
+     * cached, or there is no API key and the answer is mock data.
+     */
+    public boolean isAnalysisCached(String repoName, String description, String readmeContent,
+                                    List<String> topics, String language) {
+        if (repoName == null || repoName.trim().isEmpty()
+                || anthropicApiKey == null || anthropicApiKey.trim().isEmpty()) {
+            return true;
+        }
+        ClaudePrompt prompt = buildAnalysisPrompt(repoName, description, readmeContent, topics, language);
+        return analysisCache.contains(ClaudeAnalysisCacheService.key(ANALYSIS_PROMPT_VERSION, anthropicModel, prompt.text()));
+    }
+    
+    /**
+     * A Claude prompt split into the portfolio context shared by every request, sent as a
+     * cacheable system block, and the part specific to this request
+     */
+    record ClaudePrompt(String system, String user) {
+        /**
+         * The whole prompt as one text, for cache keys and token estimates
+         */
+        String text() {
+            return system != null ? system + "\n\n" + user : user;
+        }
+    }
+    
+    private ClaudePrompt buildAnalysisPrompt(String repoName, String description, String readmeContent, 
                                       List<String> topics, String language) {
         if (repoName == null || repoName.trim().isEmpty()) {
             throw new IllegalArgumentException("Repository name cannot be null or empty");
@@ -314,19 +221,7 @@ public class AIServiceImpl {
         
         StringBuilder prompt = new StringBuilder(4096);
         
-        // Add dynamically loaded portfolio tone context
-        prompt.append("You are creating content for Bernard Uriza's portfolio website.\n\n");
-        prompt.append(portfolioToneContext != null ? portfolioToneContext : getDefaultPortfolioTone());
-        prompt.append("\n");
-
-        // Inject Bernard's skills and experiences context for better analysis
-        if (portfolioSkillsContext != null) {
-            prompt.append(portfolioSkillsContext);
-        }
-        if (portfolioExperiencesContext != null) {
-            prompt.append(portfolioExperiencesContext);
-        }
-        prompt.append("\nUse Bernard's skills and experiences to suggest relevant connections and validate technical alignment.\n");
+        prompt.append("Use Bernard's skills and experiences to suggest relevant connections and validate technical alignment.\n");
         prompt.append("When suggesting skills or experiences, reference existing ones from the context above.\n\n");
 
         prompt.append("Analyze this GitHub repository and create content that matches the portfolio's bold, transformative tone:\n\n");
@@ -369,76 +264,259 @@ public class AIServiceImpl {
         prompt.append("}\n\n");
         prompt.append("Return ONLY the JSON, no additional text.");
         
-        return prompt.toString();
+        return new ClaudePrompt(portfolioContext.text(), prompt.toString());
     }
     
-    @Retry(name = "claude", fallbackMethod = "callClaudeApiFallback")
-    @CircuitBreaker(name = "claude", fallbackMethod = "callClaudeApiFallback")
-    @RateLimiter(name = "claude")
-    @TimeLimiter(name = "claude")
-    private String callClaudeApi(String prompt) throws Exception {
-        // Check token budget before making the call
-        int estimatedTokens = estimateTokenUsage(prompt);
-        ClaudeTokenBudgetService.BudgetResult budgetResult = tokenBudgetService.useTokens(estimatedTokens, "claude_api_call");
-        
-        if (!budgetResult.isAllowed()) {
-            log.warn("Claude API call blocked due to budget limit: {}", budgetResult.getReason());
-            throw new RuntimeException("Claude API budget exceeded: " + budgetResult.getReason());
+    /**
+     * One Messages API call under the claude retry, circuit breaker, rate limiter and time
+     * limiter. The token reservation covers all attempts.
+     */
+    private String callClaudeApi(ClaudePrompt prompt) throws Exception {
+        return callClaudeApi(prompt, false);
+    }
+    
+    /**
+     * @param permitHeld the caller already took a claude rate limiter permit, which covers
+     *                   the first attempt
+     */
+    private String callClaudeApi(ClaudePrompt prompt, boolean permitHeld) throws Exception {
+        // Reserve the worst case up front; the usage Claude reports is committed afterwards
+        ClaudeTokenBudgetService.TokenReservation reservation =
+            tokenBudgetService.reserve(estimateTokenUsage(prompt), "claude_api_call");
+        
+        if (!reservation.isAllowed()) {
+            log.warn("Claude API call blocked due to budget limit: {}", reservation.getReason());
+            throw new RuntimeException("Claude API budget exceeded: " + reservation.getReason());
         }
+        try {
+            JsonNode message = resiliencePolicies.call(CLAUDE_POLICY, permitHeld, () -> postMessage(prompt));
+            ClaudeTokenBudgetService.TokenUsage usage = usageOf(message);
+            if (usage != null) {
+                tokenBudgetService.commit(reservation, usage);
+            } else {
+                // Answered without a usage report: keep the estimate
+                tokenBudgetService.commit(reservation, reservation.getTokens());
+            }
+            String text = messageText(message);
+            if (text != null) {
+                return text;
+            }
+            
+            throw new RuntimeException("Failed to get valid response from Claude API");
+        } finally {
+            // No-op once committed; otherwise the call failed and the reservation is returned
+            tokenBudgetService.release(reservation);
+        }
+    }
+    
+    private JsonNode postMessage(ClaudePrompt prompt) throws Exception {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("x-api-key", anthropicApiKey);
         headers.set("anthropic-version", "2023-06-01");
         
-        Map<String, Object> requestBody = Map.of(
-            "model", "claude-3-haiku-20240307",
-            "max_tokens", 1000,
-            "messages", List.of(
-                Map.of("role", "user", "content", prompt)
-            )
-        );
-        
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(messageParams(prompt), headers);
         ResponseEntity<String> response = restTemplate.exchange(
             anthropicApiUrl, HttpMethod.POST, request, String.class);
         
-        if (response.getStatusCode() == HttpStatus.OK) {
-            JsonNode responseNode = objectMapper.readTree(response.getBody());
-            JsonNode contentArray = responseNode.path("content");
-            if (contentArray.isArray() && contentArray.size() > 0) {
-                return contentArray.get(0).path("text").asText();
+        if (response.getStatusCode() != HttpStatus.OK) {
+            throw new RuntimeException("Claude API answered " + response.getStatusCode());
+        }
+        return objectMapper.readTree(response.getBody());
+    }
+    
+    /**
+     * Messages API request for a single-turn prompt; also the params of a Message Batch request.
+     * The system block is marked for prompt caching, so repeated context is read from the
+     * cache at a fraction of the input token cost.
+     */
+    private Map<String, Object> messageParams(ClaudePrompt prompt) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("model", anthropicModel);
+        params.put("max_tokens", MAX_OUTPUT_TOKENS);
+        if (prompt.system() != null) {
+            Map<String, Object> systemBlock = new LinkedHashMap<>();
+            systemBlock.put("type", "text");
+            systemBlock.put("text", prompt.system());
+            if (promptCachingEnabled) {
+                systemBlock.put("cache_control", Map.of("type", "ephemeral"));
             }
+            params.put("system", List.of(systemBlock));
         }
-        
-        throw new RuntimeException("Failed to get valid response from Claude API");
+        params.put("messages", List.of(
+            Map.of("role", "user", "content", prompt.user())
+        ));
+        return params;
+    }
+    
+    /**
+     * Tokens a Messages API response was billed for, cached and uncached, or null without a usage block
+     */
+    private ClaudeTokenBudgetService.TokenUsage usageOf(JsonNode message) {
+        JsonNode usage = message.path("usage");
+        if (!usage.isObject()) {
+            return null;
+        }
+        return new ClaudeTokenBudgetService.TokenUsage(
+            usage.path("input_tokens").asInt(),
+            usage.path("cache_creation_input_tokens").asInt(),
+            usage.path("cache_read_input_tokens").asInt(),
+            usage.path("output_tokens").asInt());
     }
     
     /**
-     * Fallback method for Claude API calls
+     * Text of the first content block of a Messages API response, or null
      */
-    @SuppressWarnings("unused")
-    private String callClaudeApiFallback(String prompt, Exception ex) {
-        log.warn("Claude API fallback triggered due to: {}", ex.getMessage());
+    private String messageText(JsonNode message) {
+        JsonNode contentArray = message.path("content");
+        if (contentArray.isArray() && contentArray.size() > 0) {
+            return contentArray.get(0).path("text").asText();
+        }
+        return null;
+    }
+    
+    /**
+     * Build one analysis request per input and submit those Claude has to answer as a single
+     * Message Batch. Their estimated tokens stay reserved until the batch results are read.
+     */
+    public AIServicePort.AnalysisBatch submitAnalysisBatch(List<AIServicePort.RepositoryAnalysisInput> inputs) {
+        Map<String, AIServicePort.ClaudeAnalysisResult> ready = new HashMap<>();
+        Map<String, AIServicePort.RepositoryAnalysisInput> submitted = new LinkedHashMap<>();
+        Map<String, String> rejected = new HashMap<>();
+        Map<String, String> cacheKeys = new HashMap<>();
+        Map<String, Map<String, Object>> params = new LinkedHashMap<>();
+        boolean mock = anthropicApiKey == null || anthropicApiKey.trim().isEmpty();
+        int remainingTokens = mock ? 0 : tokenBudgetService.getRemainingTokens();
+        int batchTokens = 0;
+        
+        for (AIServicePort.RepositoryAnalysisInput input : inputs) {
+            if (mock || input.repoName() == null || input.repoName().trim().isEmpty()) {
+                ready.put(input.customId(), createMockAnalysisResult(
+                    input.repoName() != null ? input.repoName() : "unknown-repo",
+                    input.description(), input.topics(), input.language()));
+                continue;
+            }
+            ClaudePrompt prompt = buildAnalysisPrompt(input.repoName(), input.description(), input.readmeContent(),
+                input.topics(), input.language());
+            String cacheKey = ClaudeAnalysisCacheService.key(ANALYSIS_PROMPT_VERSION, anthropicModel, prompt.text());
+            Optional<String> cached = analysisCache.find(cacheKey);
+            if (cached.isPresent()) {
+                ready.put(input.customId(),
+                    parseClaudeResponse(cached.get(), input.repoName(), input.description(), input.topics()));
+                continue;
+            }
+            int estimatedTokens = estimateTokenUsage(prompt);
+            if (batchTokens + estimatedTokens > remainingTokens) {
+                rejected.put(input.customId(), "Claude token budget exhausted");
+                continue;
+            }
+            batchTokens += estimatedTokens;
+            params.put(input.customId(), messageParams(prompt));
+            submitted.put(input.customId(), input);
+            cacheKeys.put(input.customId(), cacheKey);
+        }
         
-        if (ex.getMessage() != null && ex.getMessage().contains("budget")) {
-            return "{\"project\":{\"name\":\"Draft Project\",\"description\":\"AI curation temporarily disabled due to budget limits\",\"technologies\":[],\"url\":\"\"},\"skills\":[],\"experiences\":[]}";
+        if (params.isEmpty()) {
+            return new AIServicePort.AnalysisBatch(null, ready, submitted, rejected, cacheKeys);
         }
+        ClaudeTokenBudgetService.TokenReservation reservation =
+            tokenBudgetService.reserve(batchTokens, "claude_message_batch");
+        if (!reservation.isAllowed()) {
+            // Concurrent calls took the budget since it was read above
+            submitted.keySet().forEach(customId -> rejected.put(customId, "Claude token budget exhausted"));
+            return new AIServicePort.AnalysisBatch(null, ready, Map.of(), rejected, Map.of());
+        }
+        ClaudeMessageBatchClient.BatchInfo batch;
+        try {
+            batch = batchClient.create(params);
+        } catch (RuntimeException e) {
+            tokenBudgetService.release(reservation);
+            throw e;
+        }
+        batchReservations.put(batch.id(), reservation);
+        log.info("Submitted Message Batch {} with {} repository analyses ({} answered without Claude)",
+                batch.id(), params.size(), ready.size());
+        return new AIServicePort.AnalysisBatch(batch.id(), ready, submitted, rejected, cacheKeys);
+    }
+    
+    public AIServicePort.AnalysisBatchStatus pollAnalysisBatch(AIServicePort.AnalysisBatch batch) {
+        if (!batch.isSubmitted()) {
+            return new AIServicePort.AnalysisBatchStatus(true, Map.of(), Map.of());
+        }
+        ClaudeMessageBatchClient.BatchInfo info = batchClient.retrieve(batch.batchId());
+        if (!info.isEnded()) {
+            return AIServicePort.AnalysisBatchStatus.inProgress();
+        }
+        
+        Map<String, AIServicePort.ClaudeAnalysisResult> results = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        ClaudeTokenBudgetService.TokenUsage usage = new ClaudeTokenBudgetService.TokenUsage(0, 0, 0, 0);
+        List<JsonNode> lines = info.resultsUrl() != null ? batchClient.results(info.resultsUrl()) : List.of();
+        for (JsonNode line : lines) {
+            String customId = line.path("custom_id").asText();
+            AIServicePort.RepositoryAnalysisInput input = batch.submitted().get(customId);
+            if (input == null) {
+                continue;
+            }
+            JsonNode result = line.path("result");
+            String text = "succeeded".equals(result.path("type").asText()) ? messageText(result.path("message")) : null;
+            if (text == null) {
+                errors.put(customId, describeBatchFailure(result));
+                continue;
+            }
+            ClaudeTokenBudgetService.TokenUsage requestUsage = usageOf(result.path("message"));
+            if (requestUsage != null) {
+                usage = usage.plus(requestUsage);
+            }
+            if (isAnalysisJson(text)) {
+                analysisCache.store(batch.cacheKeys().get(customId), anthropicModel, ANALYSIS_PROMPT_VERSION, text);
+            }
+            results.put(customId, parseClaudeResponse(text, input.repoName(), input.description(), input.topics()));
+        }
+        batch.submitted().keySet().stream()
+            .filter(customId -> !results.containsKey(customId) && !errors.containsKey(customId))
+            .forEach(customId -> errors.put(customId, "missing from batch results"));
         
-        return "{\"project\":{\"name\":\"Draft Project\",\"description\":\"AI curation temporarily unavailable\",\"technologies\":[],\"url\":\"\"},\"skills\":[],\"experiences\":[]}";
+        ClaudeTokenBudgetService.TokenReservation reservation = batchReservations.remove(batch.batchId());
+        if (reservation != null) {
+            tokenBudgetService.commit(reservation, usage);
+        } else {
+            // Submitted before a restart; that reservation went with the old process
+            tokenBudgetService.recordPromptUsage("claude_message_batch", usage);
+        }
+        log.info("Message Batch {} ended: {} analyses, {} failed", batch.batchId(), results.size(), errors.size());
+        return new AIServicePort.AnalysisBatchStatus(true, results, errors);
+    }
+    
+    public void cancelAnalysisBatch(AIServicePort.AnalysisBatch batch) {
+        if (batch.isSubmitted()) {
+            ClaudeTokenBudgetService.TokenReservation reservation = batchReservations.remove(batch.batchId());
+            if (reservation != null) {
+                // Requests processed before the cancellation are billed; keep the estimate
+                tokenBudgetService.commit(reservation, reservation.getTokens());
+            }
+            batchClient.cancel(batch.batchId());
+            log.info("Requested cancellation of Message Batch {}", batch.batchId());
+        }
+    }
+    
+    private String describeBatchFailure(JsonNode result) {
+        String type = result.path("type").asText("unknown");
+        JsonNode error = result.path("error").path("error");
+        return error.hasNonNull("message") ? type + ": " + error.path("message").asText() : type;
     }
     
     /**
-     * Estimate token usage for a prompt (rough estimation)
+     * Upper estimate of the tokens a prompt can use, reserved until Claude reports the real usage
      */
-    private int estimateTokenUsage(String prompt) {
+    private int estimateTokenUsage(ClaudePrompt prompt) {
         if (prompt == null) return 0;
         
         // Rough estimation: 1 token ≈ 4 characters for English text
-        // Add overhead for response tokens (typically 2-3x the prompt)
-        int promptTokens = prompt.length() / 4;
-        int responseTokens = promptTokens * 2; // Conservative estimate
+        // The response can never exceed max_tokens
+        int promptTokens = prompt.text().length() / 4;
         
-        return promptTokens + responseTokens;
+        return promptTokens + MAX_OUTPUT_TOKENS;
     }
     
     private AIServicePort.ClaudeAnalysisResult parseClaudeResponse(String response, String fallbackName, 
@@ -471,6 +549,17 @@ public class AIServiceImpl {
         }
     }
     
+    /**
+     * Only well-formed analyses are cached; a garbled answer is worth asking for again
+     */
+    private boolean isAnalysisJson(String response) {
+        try {
+            return response != null && objectMapper.readTree(response).path("project").isObject();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
     private List<String> parseStringArray(JsonNode arrayNode, List<String> fallback) {
         if (!arrayNode.isArray()) return fallback != null ? new ArrayList<>(fallback) : new ArrayList<>();
         
@@ -505,21 +594,10 @@ public class AIServiceImpl {
         return new AIServicePort.ClaudeAnalysisResult(projectData, skills, experiences);
     }
     
-    private String buildProjectSummaryPrompt(String title, String description, String technologies) {
+    private ClaudePrompt buildProjectSummaryPrompt(String title, String description, String technologies) {
         StringBuilder prompt = new StringBuilder();
 
-        prompt.append("You are creating content for Bernard Uriza's portfolio website.\n\n");
-        prompt.append(portfolioToneContext != null ? portfolioToneContext : getDefaultPortfolioTone());
-        prompt.append("\n");
-
-        // Inject Bernard's skills and experiences context
-        if (portfolioSkillsContext != null) {
-            prompt.append(portfolioSkillsContext);
-        }
-        if (portfolioExperiencesContext != null) {
-            prompt.append(portfolioExperiencesContext);
-        }
-        prompt.append("\nUse Bernard's background to create a summary that reflects his expertise and experience.\n\n");
+        prompt.append("Use Bernard's background to create a summary that reflects his expertise and experience.\n\n");
 
         prompt.append("Create a powerful, catalytic summary for this project that matches the portfolio's transformative tone:\n\n");
         prompt.append("Project Title: ").append(title).append("\n");
@@ -533,24 +611,13 @@ public class AIServiceImpl {
         prompt.append("- CRITICAL: Maximum 180 characters - be concise and impactful\n");
         prompt.append("- Return ONLY the summary text, no explanations\n");
         
-        return prompt.toString();
+        return new ClaudePrompt(portfolioContext.text(), prompt.toString());
     }
     
-    private String buildDynamicMessagePrompt(String technologies) {
+    private ClaudePrompt buildDynamicMessagePrompt(String technologies) {
         StringBuilder prompt = new StringBuilder();
 
-        prompt.append("You are creating content for Bernard Uriza's portfolio website.\n\n");
-        prompt.append(portfolioToneContext != null ? portfolioToneContext : getDefaultPortfolioTone());
-        prompt.append("\n");
-
-        // Inject Bernard's skills and experiences context
-        if (portfolioSkillsContext != null) {
-            prompt.append(portfolioSkillsContext);
-        }
-        if (portfolioExperiencesContext != null) {
-            prompt.append(portfolioExperiencesContext);
-        }
-        prompt.append("\nReference Bernard's expertise when crafting the message about these technologies.\n\n");
+        prompt.append("Reference Bernard's expertise when crafting the message about these technologies.\n\n");
 
         prompt.append("Create an engaging, catalytic message about these technologies that matches the portfolio's tone:\n\n");
         prompt.append("Technologies: ").append(technologies != null ? technologies : "Modern technology stack").append("\n\n");
@@ -562,7 +629,7 @@ public class AIServiceImpl {
         prompt.append("- Maximum 250 characters\n");
         prompt.append("- Return ONLY the message text, no explanations\n");
         
-        return prompt.toString();
+        return new ClaudePrompt(portfolioContext.text(), prompt.toString());
     }
     
     private String parseProjectSummaryResponse(String response, String fallbackTitle, String fallbackDescription, String fallbackTech) {
@@ -697,41 +764,43 @@ public class AIServiceImpl {
      * @return AI response
      */
     public String chat(String systemPrompt, String userPrompt) {
+        return chatReply(systemPrompt, userPrompt).text();
+    }
+    
+    /**
+     * Chat request; every reply that is not Claude's answer is marked as a fallback
+     */
+    public AIServicePort.ChatReply chatReply(String systemPrompt, String userPrompt) {
         if (userPrompt == null || userPrompt.trim().isEmpty()) {
             log.warn("Empty user prompt provided to chat method");
-            return "No se proporcionó una consulta válida.";
+            return AIServicePort.ChatReply.fallback("No se proporcionó una consulta válida.");
         }
         
         if (anthropicApiKey == null || anthropicApiKey.trim().isEmpty()) {
             log.warn("Claude API key not configured, returning default response");
-            return "El análisis AI no está disponible en este momento.";
+            return AIServicePort.ChatReply.fallback("El análisis AI no está disponible en este momento.");
         }
         
         try {
-            String fullPrompt = buildChatPrompt(systemPrompt, userPrompt);
-            String response = callClaudeApi(fullPrompt);
+            ClaudePrompt prompt = buildChatPrompt(systemPrompt, userPrompt);
+            // Visitors asking the same question at once share one Claude call
+            String response = requestCoalescer.call(prompt, () -> callClaudeApi(prompt));
             
             if (response != null && !response.trim().isEmpty()) {
-                return response.trim();
+                return AIServicePort.ChatReply.answered(response.trim());
             } else {
-                return "No se pudo generar una respuesta válida.";
+                return AIServicePort.ChatReply.fallback("No se pudo generar una respuesta válida.");
             }
             
         } catch (Exception e) {
             log.error("Error in chat API call", e);
-            return "Error generando respuesta AI: " + e.getMessage();
+            return AIServicePort.ChatReply.fallback("Error generando respuesta AI: " + e.getMessage());
         }
     }
     
-    private String buildChatPrompt(String systemPrompt, String userPrompt) {
-        StringBuilder prompt = new StringBuilder();
-        
-        if (systemPrompt != null && !systemPrompt.trim().isEmpty()) {
-            prompt.append(systemPrompt.trim()).append("\n\n");
-        }
-        
-        prompt.append(userPrompt.trim());
-        
-        return prompt.toString();
+    private ClaudePrompt buildChatPrompt(String systemPrompt, String userPrompt) {
+        // Callers pass fixed instructions as the system prompt; sent as the system block they are cached
+        String system = systemPrompt != null && !systemPrompt.trim().isEmpty() ? systemPrompt.trim() : null;
+        return new ClaudePrompt(system, userPrompt.trim());
     }
 }
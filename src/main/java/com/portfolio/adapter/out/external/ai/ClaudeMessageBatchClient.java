@@ -0,0 +1,114 @@
+package com.portfolio.adapter.out.external.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client for the Anthropic Message Batches API: create a batch, check its status,
+ * cancel it and download its JSONL results.
+ */
+@Component
+public class ClaudeMessageBatchClient {
+
+    static final String STATUS_ENDED = "ended";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String anthropicApiKey;
+    private final String batchesUrl;
+
+    public ClaudeMessageBatchClient(RestTemplate restTemplate, ObjectMapper objectMapper,
+                                    @Value("${anthropic.api.key:}") String anthropicApiKey,
+                                    @Value("${anthropic.api.batches-url:https://api.anthropic.com/v1/messages/batches}") String batchesUrl) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.anthropicApiKey = anthropicApiKey;
+        this.batchesUrl = batchesUrl;
+    }
+
+    /**
+     * Submit one Messages API request per custom id
+     */
+    public BatchInfo create(Map<String, Map<String, Object>> paramsByCustomId) {
+        List<Map<String, Object>> requests = new ArrayList<>(paramsByCustomId.size());
+        paramsByCustomId.forEach((customId, params) -> requests.add(Map.of("custom_id", customId, "params", params)));
+        return toBatchInfo(exchange(batchesUrl, HttpMethod.POST, Map.of("requests", requests)));
+    }
+
+    public BatchInfo retrieve(String batchId) {
+        return toBatchInfo(exchange(batchesUrl + "/" + batchId, HttpMethod.GET, null));
+    }
+
+    public BatchInfo cancel(String batchId) {
+        return toBatchInfo(exchange(batchesUrl + "/" + batchId + "/cancel", HttpMethod.POST, null));
+    }
+
+    /**
+     * Result lines of an ended batch, in no particular order
+     */
+    public List<JsonNode> results(String resultsUrl) {
+        String body = exchange(resultsUrl, HttpMethod.GET, null);
+        List<JsonNode> lines = new ArrayList<>();
+        if (body == null) {
+            return lines;
+        }
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private String exchange(String url, HttpMethod method, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("x-api-key", anthropicApiKey);
+        headers.set("anthropic-version", "2023-06-01");
+
+        ResponseEntity<String> response = restTemplate.exchange(url, method, new HttpEntity<>(body, headers), String.class);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Message Batches API returned " + response.getStatusCode() + " for " + url);
+        }
+        return response.getBody();
+    }
+
+    private BatchInfo toBatchInfo(String body) {
+        JsonNode node = readTree(body);
+        String resultsUrl = node.path("results_url").isTextual() ? node.path("results_url").asText() : null;
+        return new BatchInfo(node.path("id").asText(), node.path("processing_status").asText(), resultsUrl);
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed Message Batches API response", e);
+        }
+    }
+
+    /**
+     * @param processingStatus in_progress, canceling or ended
+     * @param resultsUrl       set once the batch has ended
+     */
+    public record BatchInfo(String id, String processingStatus, String resultsUrl) {
+
+        public boolean isEnded() {
+            return STATUS_ENDED.equals(processingStatus);
+        }
+    }
+}
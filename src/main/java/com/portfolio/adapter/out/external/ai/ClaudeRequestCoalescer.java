@@ -0,0 +1,88 @@
+package com.portfolio.adapter.out.external.ai;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Single-flight layer with a short-lived result cache for Claude content requests.
+ *
+ * Concurrent byte-identical prompts share one in-flight call: the first caller makes it,
+ * the others wait for its response. The response is then served for {@code ttl} without
+ * another call. A failed call is shared by the callers already waiting for it and is not
+ * cached, so the next request tries again.
+ *
+ * Outcomes are counted in {@code claude.request.coalescing}: {@code called}, {@code joined}
+ * (waited on an in-flight call) and {@code cached}.
+ */
+@Component
+public class ClaudeRequestCoalescer {
+
+    private final AsyncCache<AIServiceImpl.ClaudePrompt, String> responses;
+    private final Counter calledCounter;
+    private final Counter joinedCounter;
+    private final Counter cachedCounter;
+
+    public ClaudeRequestCoalescer(@Value("${anthropic.coalescing.ttl:60s}") Duration ttl,
+                                  @Value("${anthropic.coalescing.max-size:1000}") int maxSize,
+                                  MeterRegistry meterRegistry) {
+        // In-flight calls are never evicted or expired; the TTL starts once the response arrives
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+        this.calledCounter = counter("called", meterRegistry);
+        this.joinedCounter = counter("joined", meterRegistry);
+        this.cachedCounter = counter("cached", meterRegistry);
+    }
+
+    /**
+     * Response to {@code prompt}, from a call already in flight, the cache, or {@code call}
+     */
+    String call(AIServiceImpl.ClaudePrompt prompt, Callable<String> call) throws Exception {
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = responses.asMap().putIfAbsent(prompt, flight);
+        if (existing != null) {
+            (existing.isDone() ? cachedCounter : joinedCounter).increment();
+            return await(existing);
+        }
+
+        calledCounter.increment();
+        try {
+            String response = call.call();
+            // A null response is dropped by the cache, like a failure
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // The cache drops the failed call; waiting callers see the same error
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static String await(CompletableFuture<String> flight) throws Exception {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("claude.request.coalescing")
+                .description("Claude content requests by whether they made a call, joined one in flight or were served from cache")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
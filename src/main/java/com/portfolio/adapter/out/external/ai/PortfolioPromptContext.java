@@ -0,0 +1,241 @@
+package com.portfolio.adapter.out.external.ai;
+
+import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SkillJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SkillJpaRepository;
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Portfolio context sent to Claude as the system block of content requests: tone,
+ * skills and experiences.
+ *
+ * The context is built on first use, not at startup, and kept as one precomputed string
+ * per version. A committed skill or experience change only marks its section stale; the
+ * next prompt reloads that section, reuses the other one and publishes a new version.
+ */
+@Component
+public class PortfolioPromptContext {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioPromptContext.class);
+
+    // Generation of a section whose load failed: never current, so the next prompt retries it
+    private static final long FAILED = -1;
+
+    private final SkillJpaRepository skillRepository;
+    private final ExperienceJpaRepository experienceRepository;
+    private final String portfolioToneContext;
+    // Bumped by every change event; a version built from an older generation is stale
+    private final AtomicLong skillsGeneration = new AtomicLong();
+    private final AtomicLong experiencesGeneration = new AtomicLong();
+    private final Object rebuildLock = new Object();
+    private volatile Version current;
+
+    public PortfolioPromptContext(SkillJpaRepository skillRepository,
+                                  ExperienceJpaRepository experienceRepository,
+                                  @Value("${portfolio.ai.context.tone:}") String portfolioToneContextConfig) {
+        this.skillRepository = skillRepository;
+        this.experienceRepository = experienceRepository;
+        if (portfolioToneContextConfig != null && !portfolioToneContextConfig.trim().isEmpty()) {
+            this.portfolioToneContext = portfolioToneContextConfig;
+            log.info("Portfolio tone context loaded from configuration ({} characters)", portfolioToneContext.length());
+        } else {
+            this.portfolioToneContext = getDefaultPortfolioTone();
+            log.warn("No portfolio tone context configured, using default");
+        }
+    }
+
+    /**
+     * Context text of the current version; identical between changes, so Claude can
+     * serve it from its prompt cache
+     */
+    public String text() {
+        return current().text();
+    }
+
+    /**
+     * Version of the context {@link #text()} returns; increases with every rebuild
+     */
+    public long version() {
+        return current().version();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(PortfolioContentChangedEvent event) {
+        switch (event.section()) {
+            case SKILLS -> skillsGeneration.incrementAndGet();
+            case EXPERIENCES -> experiencesGeneration.incrementAndGet();
+        }
+        log.debug("AI portfolio context: {} changed, rebuilding on next use", event.section());
+    }
+
+    private Version current() {
+        Version version = current;
+        if (version != null && version.isCurrent(skillsGeneration.get(), experiencesGeneration.get())) {
+            return version;
+        }
+        synchronized (rebuildLock) {
+            // Generations are read before loading: a change committed during the load leaves the result stale
+            long skillsGen = skillsGeneration.get();
+            long experiencesGen = experiencesGeneration.get();
+            version = current;
+            if (version != null && version.isCurrent(skillsGen, experiencesGen)) {
+                return version;
+            }
+
+            Section skills = version != null && version.skills().generation() == skillsGen
+                ? version.skills()
+                : loadPortfolioSkillsContext(skillsGen);
+            Section experiences = version != null && version.experiences().generation() == experiencesGen
+                ? version.experiences()
+                : loadPortfolioExperiencesContext(experiencesGen);
+
+            Version rebuilt = new Version(version != null ? version.version() + 1 : 1,
+                skills, experiences, compose(skills.text(), experiences.text()));
+            current = rebuilt;
+            log.info("AI portfolio context version {} built ({} characters)", rebuilt.version(), rebuilt.text().length());
+            return rebuilt;
+        }
+    }
+
+    private String compose(String skills, String experiences) {
+        StringBuilder context = new StringBuilder(4096);
+        context.append("You are creating content for Bernard Uriza's portfolio website.\n\n");
+        context.append(portfolioToneContext);
+        context.append("\n");
+
+        // Inject Bernard's skills and experiences context
+        context.append(skills);
+        context.append(experiences);
+        return context.toString();
+    }
+
+    private String getDefaultPortfolioTone() {
+        return "Portfolio Tone Context:\n" +
+               "- Title: \"Catalytic Architect & Full-Stack Engineer\"\n" +
+               "- Hero: \"Your team doesn't need more developers. It needs a phase catalyst.\"\n" +
+               "- Sub: \"I break systems that have outgrown their chaos but are not yet ready for stability.\"\n" +
+               "- About: \"Technical catalyst and architecture strategist. I expose what is broken and engineer coherence where chaos once reigned. I do not adapt, I transform. I do not deconfigure, I reconfigure.\"\n" +
+               "- Key phrases: \"Dissonance sparks transformation\", \"Refactoring cultures drives true development\", \"Code is the output, not the objective\"\n";
+    }
+
+    /**
+     * Load portfolio skills context from database
+     * Provides AI with Bernard's technical skill set for better context matching
+     */
+    private Section loadPortfolioSkillsContext(long generation) {
+        try {
+            List<SkillJpaEntity> skills = skillRepository.findAll();
+
+            if (skills.isEmpty()) {
+                log.warn("No skills found in database for AI context");
+                return new Section(generation, "Skills Context: No skills data available yet\n");
+            }
+
+            StringBuilder skillsBuilder = new StringBuilder();
+            skillsBuilder.append("\n=== BERNARD'S TECHNICAL SKILLS ===\n");
+            skillsBuilder.append("Use these to understand Bernard's expertise and suggest relevant skill connections:\n\n");
+
+            // Group by category for better context
+            Map<String, List<SkillJpaEntity>> skillsByCategory = skills.stream()
+                    .collect(Collectors.groupingBy(skill ->
+                            skill.getCategory() != null ? skill.getCategory().toString() : "UNCATEGORIZED"));
+
+            skillsByCategory.forEach((category, categorySkills) -> {
+                skillsBuilder.append(String.format("**%s:**\n", category));
+                categorySkills.forEach(skill -> {
+                    skillsBuilder.append(String.format("  - %s", skill.getName()));
+                    if (skill.getLevel() != null) {
+                        skillsBuilder.append(String.format(" [Level: %s]", skill.getLevel()));
+                    }
+                    if (skill.getDescription() != null && !skill.getDescription().isEmpty()) {
+                        skillsBuilder.append(String.format(" - %s", skill.getDescription()));
+                    }
+                    skillsBuilder.append("\n");
+                });
+                skillsBuilder.append("\n");
+            });
+
+            log.info("Portfolio skills context loaded: {} skills across {} categories",
+                     skills.size(), skillsByCategory.size());
+            return new Section(generation, skillsBuilder.toString());
+
+        } catch (Exception e) {
+            log.error("Error loading portfolio skills context: {}", e.getMessage());
+            return new Section(FAILED, "Skills Context: Error loading skills data\n");
+        }
+    }
+
+    /**
+     * Load portfolio experiences context from database
+     * Provides AI with Bernard's professional history for better matching
+     */
+    private Section loadPortfolioExperiencesContext(long generation) {
+        try {
+            List<ExperienceJpaEntity> experiences = experienceRepository.findAll();
+
+            if (experiences.isEmpty()) {
+                log.warn("No experiences found in database for AI context");
+                return new Section(generation, "Experiences Context: No experience data available yet\n");
+            }
+
+            StringBuilder expBuilder = new StringBuilder();
+            expBuilder.append("\n=== BERNARD'S PROFESSIONAL EXPERIENCES ===\n");
+            expBuilder.append("Use these to suggest relevant experience connections and career narrative:\n\n");
+
+            // Sort by current position first, then by start date
+            experiences.stream()
+                    .sorted((e1, e2) -> {
+                        if (Boolean.TRUE.equals(e1.getIsCurrentPosition())) return -1;
+                        if (Boolean.TRUE.equals(e2.getIsCurrentPosition())) return 1;
+                        return 0;
+                    })
+                    .forEach(exp -> {
+                        expBuilder.append(String.format("**%s** at %s",
+                                exp.getJobTitle(), exp.getCompanyName()));
+                        if (Boolean.TRUE.equals(exp.getIsCurrentPosition())) {
+                            expBuilder.append(" [CURRENT]");
+                        }
+                        expBuilder.append("\n");
+
+                        if (exp.getType() != null) {
+                            expBuilder.append(String.format("  Type: %s\n", exp.getType()));
+                        }
+                        if (exp.getDescription() != null && !exp.getDescription().isEmpty()) {
+                            String truncatedDesc = exp.getDescription().length() > 200 ?
+                                    exp.getDescription().substring(0, 197) + "..." :
+                                    exp.getDescription();
+                            expBuilder.append(String.format("  Description: %s\n", truncatedDesc));
+                        }
+                        expBuilder.append("\n");
+                    });
+
+            log.info("Portfolio experiences context loaded: {} experiences", experiences.size());
+            return new Section(generation, expBuilder.toString());
+
+        } catch (Exception e) {
+            log.error("Error loading portfolio experiences context: {}", e.getMessage());
+            return new Section(FAILED, "Experiences Context: Error loading experience data\n");
+        }
+    }
+
+    private record Section(long generation, String text) {
+    }
+
+    private record Version(long version, Section skills, Section experiences, String text) {
+
+        boolean isCurrent(long skillsGeneration, long experiencesGeneration) {
+            return skills.generation() == skillsGeneration && experiences.generation() == experiencesGeneration;
+        }
+    }
+}
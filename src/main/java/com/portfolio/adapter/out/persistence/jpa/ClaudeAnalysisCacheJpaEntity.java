@@ -0,0 +1,106 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raw Claude analysis response addressed by a hash of the prompt that produced it.
+ * Entries are immutable apart from usage bookkeeping: a changed input is a new key.
+ */
+@Entity
+@Table(name = "claude_analysis_cache")
+public class ClaudeAnalysisCacheJpaEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(name = "prompt_version", nullable = false)
+    private Integer promptVersion;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "hit_count", nullable = false)
+    private Integer hitCount = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_used_at", nullable = false)
+    private LocalDateTime lastUsedAt;
+
+    // Entries are only ever inserted through save(), so skip the merge() SELECT for assigned ids
+    @Transient
+    private boolean isNew = true;
+
+    public ClaudeAnalysisCacheJpaEntity() {
+    }
+
+    public ClaudeAnalysisCacheJpaEntity(String cacheKey, String model, Integer promptVersion, String response) {
+        this.cacheKey = cacheKey;
+        this.model = model;
+        this.promptVersion = promptVersion;
+        this.response = response;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (lastUsedAt == null) {
+            lastUsedAt = now;
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return cacheKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public Integer getPromptVersion() {
+        return promptVersion;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public Integer getHitCount() {
+        return hitCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+}
@@ -0,0 +1,28 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ClaudeAnalysisCacheJpaRepository extends JpaRepository<ClaudeAnalysisCacheJpaEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClaudeAnalysisCacheJpaEntity c SET c.hitCount = c.hitCount + 1, c.lastUsedAt = :now " +
+           "WHERE c.cacheKey = :cacheKey")
+    int recordHit(@Param("cacheKey") String cacheKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Remove entries no curation has read since the cutoff
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClaudeAnalysisCacheJpaEntity c WHERE c.lastUsedAt < :cutoff")
+    int deleteUnusedSince(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,69 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * A named lease held by one application instance until it expires or is released.
+ */
+@Entity
+@Table(name = "cluster_leases")
+public class ClusterLeaseJpaEntity implements Persistable<String> {
+
+    @Id
+    @Column(length = 200)
+    private String name;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "acquired_at", nullable = false)
+    private Instant acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // New leases are inserted directly; an existing row means someone else got there first
+    @Transient
+    private boolean isNew = true;
+
+    public ClusterLeaseJpaEntity() {
+    }
+
+    public ClusterLeaseJpaEntity(String name, String owner, Instant acquiredAt, Instant expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.acquiredAt = acquiredAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public Instant getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(Instant acquiredAt) { this.acquiredAt = acquiredAt; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,92 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lease times are always stamped and compared with the database clock ({@code INSTANT}),
+ * so instances with skewed clocks or different time zones still agree on expiry.
+ */
+@Repository
+public interface ClusterLeaseJpaRepository extends JpaRepository<ClusterLeaseJpaEntity, String> {
+
+    /**
+     * Take over an expired lease, or extend one this owner already holds.
+     *
+     * @return 1 when the caller now holds the lease
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClusterLeaseJpaEntity l SET " +
+           "l.acquiredAt = CASE WHEN l.owner = :owner THEN l.acquiredAt ELSE INSTANT END, " +
+           "l.owner = :owner, l.expiresAt = INSTANT + (:ttlSeconds) SECOND " +
+           "WHERE l.name = :name AND (l.expiresAt < INSTANT OR l.owner = :owner)")
+    int takeOver(@Param("name") String name, @Param("owner") String owner, @Param("ttlSeconds") long ttlSeconds);
+
+    /**
+     * Create the lease row; fails with a constraint violation when it already exists.
+     */
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO ClusterLeaseJpaEntity (name, owner, acquiredAt, expiresAt) " +
+           "VALUES (:name, :owner, INSTANT, INSTANT + (:ttlSeconds) SECOND)")
+    int insert(@Param("name") String name, @Param("owner") String owner, @Param("ttlSeconds") long ttlSeconds);
+
+    /**
+     * {@link #takeOver} for several leases in one statement; see which ones the owner now
+     * holds with {@link #findOwners}.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClusterLeaseJpaEntity l SET " +
+           "l.acquiredAt = CASE WHEN l.owner = :owner THEN l.acquiredAt ELSE INSTANT END, " +
+           "l.owner = :owner, l.expiresAt = INSTANT + (:ttlSeconds) SECOND " +
+           "WHERE l.name IN :names AND (l.expiresAt < INSTANT OR l.owner = :owner)")
+    int takeOverAll(@Param("names") Collection<String> names, @Param("owner") String owner,
+                    @Param("ttlSeconds") long ttlSeconds);
+
+    /**
+     * Name and owner of every existing row among {@code names}.
+     */
+    @Query("SELECT l.name, l.owner FROM ClusterLeaseJpaEntity l WHERE l.name IN :names")
+    List<Object[]> findOwners(@Param("names") Collection<String> names);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClusterLeaseJpaEntity l SET l.expiresAt = INSTANT + (:ttlSeconds) SECOND " +
+           "WHERE l.name = :name AND l.owner = :owner AND l.expiresAt >= INSTANT")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("ttlSeconds") long ttlSeconds);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClusterLeaseJpaEntity l SET l.expiresAt = INSTANT + (:ttlSeconds) SECOND " +
+           "WHERE l.name IN :names AND l.owner = :owner AND l.expiresAt >= INSTANT")
+    int renewAll(@Param("names") Collection<String> names, @Param("owner") String owner,
+                 @Param("ttlSeconds") long ttlSeconds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterLeaseJpaEntity l WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    @Query("SELECT l FROM ClusterLeaseJpaEntity l WHERE l.name = :name AND l.expiresAt > INSTANT")
+    Optional<ClusterLeaseJpaEntity> findUnexpired(@Param("name") String name);
+
+    /**
+     * Release several leases by expiring them instead of deleting the rows, so taking them
+     * again is a plain {@link #takeOverAll} without inserts.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClusterLeaseJpaEntity l SET l.expiresAt = INSTANT " +
+           "WHERE l.name IN :names AND l.owner = :owner")
+    int expireAll(@Param("names") Collection<String> names, @Param("owner") String owner);
+}
@@ -0,0 +1,132 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A queued portfolio curation for one source repository.
+ * Workers on any instance claim jobs with SELECT ... FOR UPDATE SKIP LOCKED and hold them
+ * under a time-limited lease; an expired lease makes the job claimable again.
+ */
+@Entity
+@Table(name = "curation_jobs",
+       indexes = {
+           @Index(name = "idx_curation_jobs_claim", columnList = "status, priority DESC, available_at"),
+           @Index(name = "idx_curation_jobs_lease", columnList = "status, lease_expires_at"),
+           @Index(name = "idx_curation_jobs_batch", columnList = "batch_id, status")
+       })
+public class CurationJobJpaEntity {
+
+    public enum Status {
+        PENDING, RUNNING, DONE, DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source_repository_id", nullable = false)
+    private Long sourceRepositoryId;
+
+    @Column(name = "batch_id", length = 64)
+    private String batchId;
+
+    @Column(nullable = false)
+    private boolean recuration;
+
+    @Column(nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CurationJobJpaEntity() {
+    }
+
+    public CurationJobJpaEntity(Long sourceRepositoryId, String batchId, boolean recuration) {
+        this(sourceRepositoryId, batchId, recuration, 0);
+    }
+
+    public CurationJobJpaEntity(Long sourceRepositoryId, String batchId, boolean recuration, int priority) {
+        this.sourceRepositoryId = sourceRepositoryId;
+        this.batchId = batchId;
+        this.recuration = recuration;
+        this.priority = priority;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+        if (this.availableAt == null) {
+            this.availableAt = now;
+        }
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getSourceRepositoryId() { return sourceRepositoryId; }
+    public void setSourceRepositoryId(Long sourceRepositoryId) { this.sourceRepositoryId = sourceRepositoryId; }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public boolean isRecuration() { return recuration; }
+    public void setRecuration(boolean recuration) { this.recuration = recuration; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getAvailableAt() { return availableAt; }
+    public void setAvailableAt(LocalDateTime availableAt) { this.availableAt = availableAt; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
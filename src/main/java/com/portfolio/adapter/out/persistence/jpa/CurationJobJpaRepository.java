@@ -0,0 +1,66 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CurationJobJpaRepository extends JpaRepository<CurationJobJpaEntity, Long> {
+
+    /**
+     * Lock up to {@code limit} due jobs - pending ones and running ones whose lease expired -
+     * highest priority first.
+     * Rows locked by another worker are skipped instead of waited on, so concurrent
+     * claimers never block each other or receive the same job.
+     */
+    @Query(value = "SELECT * FROM curation_jobs " +
+                   "WHERE (status = 'PENDING' AND available_at <= :now) " +
+                   "   OR (status = 'RUNNING' AND lease_expires_at < :now) " +
+                   "ORDER BY priority DESC, available_at, id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<CurationJobJpaEntity> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT j.sourceRepositoryId FROM CurationJobJpaEntity j " +
+           "WHERE j.sourceRepositoryId IN :sourceIds AND j.status IN :statuses")
+    List<Long> findSourceIdsWithStatusIn(@Param("sourceIds") Collection<Long> sourceIds,
+                                         @Param("statuses") Collection<CurationJobJpaEntity.Status> statuses);
+
+    @Query("SELECT j.status, COUNT(j) FROM CurationJobJpaEntity j GROUP BY j.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT j.status, COUNT(j) FROM CurationJobJpaEntity j WHERE j.batchId = :batchId GROUP BY j.status")
+    List<Object[]> countByStatusForBatch(@Param("batchId") String batchId);
+
+    /**
+     * Jobs of a batch that a worker can still pick up soon: running, or pending and due before {@code horizon}
+     */
+    @Query("SELECT COUNT(j) FROM CurationJobJpaEntity j WHERE j.batchId = :batchId AND " +
+           "(j.status = com.portfolio.adapter.out.persistence.jpa.CurationJobJpaEntity.Status.RUNNING OR " +
+           " (j.status = com.portfolio.adapter.out.persistence.jpa.CurationJobJpaEntity.Status.PENDING AND j.availableAt <= :horizon))")
+    long countOutstandingInBatch(@Param("batchId") String batchId, @Param("horizon") LocalDateTime horizon);
+
+    /**
+     * Drop the jobs of a batch no worker has started yet.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CurationJobJpaEntity j WHERE j.batchId = :batchId " +
+           "AND j.status = com.portfolio.adapter.out.persistence.jpa.CurationJobJpaEntity.Status.PENDING")
+    int deletePendingInBatch(@Param("batchId") String batchId);
+
+    List<CurationJobJpaEntity> findByStatusOrderByUpdatedAtDesc(CurationJobJpaEntity.Status status);
+
+    @Modifying
+    @Query("DELETE FROM CurationJobJpaEntity j WHERE j.status = com.portfolio.adapter.out.persistence.jpa.CurationJobJpaEntity.Status.DONE " +
+           "AND j.updatedAt < :cutoff")
+    int deleteDoneBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,60 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Validators of the last successful GitHub API response for an endpoint.
+ * Replayed as If-None-Match / If-Modified-Since so unchanged resources come back as 304.
+ */
+@Entity
+@Table(name = "github_etag_cache",
+       uniqueConstraints = @UniqueConstraint(name = "uk_github_etag_endpoint", columnNames = "endpoint"))
+public class GitHubEtagJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String endpoint;
+
+    @Column(length = 255)
+    private String etag;
+
+    @Column(name = "last_modified", length = 100)
+    private String lastModified;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public GitHubEtagJpaEntity() {
+    }
+
+    public GitHubEtagJpaEntity(String endpoint, String etag, String lastModified) {
+        this.endpoint = endpoint;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateTimestamp() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEndpoint() { return endpoint; }
+    public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+
+    public String getLastModified() { return lastModified; }
+    public void setLastModified(String lastModified) { this.lastModified = lastModified; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
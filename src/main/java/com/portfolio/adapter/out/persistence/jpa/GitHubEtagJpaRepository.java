@@ -0,0 +1,16 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GitHubEtagJpaRepository extends JpaRepository<GitHubEtagJpaEntity, Long> {
+
+    Optional<GitHubEtagJpaEntity> findByEndpoint(String endpoint);
+
+    List<GitHubEtagJpaEntity> findByEndpointIn(Collection<String> endpoints);
+}
@@ -0,0 +1,91 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * README content addressed by its GitHub blob sha and stored gzip-compressed.
+ * Blobs are immutable: a changed README gets a new sha and a new row.
+ */
+@Entity
+@Table(name = "readme_blobs")
+public class ReadmeBlobJpaEntity implements Persistable<String> {
+
+    public static final String ENCODING_GZIP = "gzip";
+    public static final String ENCODING_IDENTITY = "identity";
+
+    @Id
+    @Column(length = 64)
+    private String sha;
+
+    @Column(nullable = false, length = 16)
+    private String encoding;
+
+    @Column(nullable = false, length = 10485760)
+    private byte[] content;
+
+    @Column(name = "original_size", nullable = false)
+    private Integer originalSize;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Blobs are only ever inserted, so skip the merge() SELECT Spring Data does for assigned ids
+    @Transient
+    private boolean isNew = true;
+
+    public ReadmeBlobJpaEntity() {
+    }
+
+    public ReadmeBlobJpaEntity(String sha, String encoding, byte[] content, Integer originalSize) {
+        this.sha = sha;
+        this.encoding = encoding;
+        this.content = content;
+        this.originalSize = originalSize;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return sha;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public Integer getOriginalSize() {
+        return originalSize;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReadmeBlobJpaRepository extends JpaRepository<ReadmeBlobJpaEntity, String> {
+
+    @Query("SELECT b.sha FROM ReadmeBlobJpaEntity b WHERE b.sha IN :shas")
+    List<String> findExistingShas(@Param("shas") Collection<String> shas);
+
+    /**
+     * Remove blobs no source repository points at any more
+     */
+    @Modifying
+    @Query("DELETE FROM ReadmeBlobJpaEntity b WHERE NOT EXISTS " +
+           "(SELECT 1 FROM SourceRepositoryJpaEntity s WHERE s.readmeSha = b.sha)")
+    int deleteOrphans();
+}
@@ -0,0 +1,175 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based writes for GitHub ingest.
+ *
+ * On PostgreSQL a page of repositories is written with one multi-row
+ * {@code INSERT ... ON CONFLICT (github_id) DO UPDATE} and its topics with one DELETE plus one
+ * multi-row INSERT, instead of a merge (and a topic rewrite) per entity. Other databases (H2 in
+ * tests) fall back to {@link SourceRepositoryJpaRepository#saveAll}.
+ *
+ * Only GitHub-owned columns are updated on conflict: sync status and error fields belong to the
+ * curation side and are left as stored.
+ */
+@Repository
+public class SourceRepositoryBulkUpsertRepository {
+    private static final Logger log = LoggerFactory.getLogger(SourceRepositoryBulkUpsertRepository.class);
+
+    // 20 bind parameters per row keeps each statement well below PostgreSQL's 32767 limit
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+    static final int MAX_TOPIC_ROWS_PER_STATEMENT = 5000;
+
+    static final String UPSERT_PREFIX =
+        "INSERT INTO source_repositories (github_id, name, full_name, description, github_repo_url, homepage, " +
+        "language, is_fork, stargazers_count, github_created_at, github_updated_at, github_pushed_at, " +
+        "readme_sha, readme_size, sync_status, last_sync_attempt, sync_error_message, created_at, updated_at, version) VALUES ";
+    static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    static final String UPSERT_SUFFIX =
+        " ON CONFLICT (github_id) DO UPDATE SET " +
+        "name = EXCLUDED.name, full_name = EXCLUDED.full_name, description = EXCLUDED.description, " +
+        "github_repo_url = EXCLUDED.github_repo_url, homepage = EXCLUDED.homepage, language = EXCLUDED.language, " +
+        "is_fork = EXCLUDED.is_fork, stargazers_count = EXCLUDED.stargazers_count, " +
+        "github_created_at = EXCLUDED.github_created_at, github_updated_at = EXCLUDED.github_updated_at, " +
+        "github_pushed_at = EXCLUDED.github_pushed_at, readme_sha = EXCLUDED.readme_sha, " +
+        "readme_size = EXCLUDED.readme_size, updated_at = EXCLUDED.updated_at, " +
+        "version = COALESCE(source_repositories.version, 0) + 1 " +
+        "RETURNING id, github_id, version, created_at, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SourceRepositoryJpaRepository sourceRepositoryRepository;
+
+    private volatile Boolean postgres;
+
+    public SourceRepositoryBulkUpsertRepository(JdbcTemplate jdbcTemplate,
+                                                SourceRepositoryJpaRepository sourceRepositoryRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sourceRepositoryRepository = sourceRepositoryRepository;
+    }
+
+    /**
+     * Insert or update the given repositories keyed by github_id.
+     *
+     * The passed entities receive the generated id, version and timestamps so callers can keep
+     * using them (e.g. for a later saveAll) without reloading.
+     *
+     * @return the persisted entities, in no particular order
+     */
+    @Transactional
+    public List<SourceRepositoryJpaEntity> upsertAll(List<SourceRepositoryJpaEntity> entities) {
+        if (entities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!isPostgres()) {
+            return sourceRepositoryRepository.saveAll(entities);
+        }
+
+        // Duplicate github_ids in one statement would make ON CONFLICT fail ("cannot affect row a second time")
+        Map<Long, SourceRepositoryJpaEntity> byGithubId = new HashMap<>();
+        for (SourceRepositoryJpaEntity entity : entities) {
+            byGithubId.put(entity.getGithubId(), entity);
+        }
+        List<SourceRepositoryJpaEntity> unique = new ArrayList<>(byGithubId.values());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < unique.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<SourceRepositoryJpaEntity> chunk = unique.subList(from, Math.min(unique.size(), from + MAX_ROWS_PER_STATEMENT));
+            upsertChunk(chunk, byGithubId, now);
+        }
+        replaceTopics(unique);
+
+        log.debug("Upserted {} source repositories", unique.size());
+        return unique;
+    }
+
+    private void upsertChunk(List<SourceRepositoryJpaEntity> chunk, Map<Long, SourceRepositoryJpaEntity> byGithubId,
+                             Timestamp now) {
+        List<Object> params = new ArrayList<>(chunk.size() * 19);
+        for (SourceRepositoryJpaEntity entity : chunk) {
+            params.add(entity.getGithubId());
+            params.add(entity.getName());
+            params.add(entity.getFullName());
+            params.add(entity.getDescription());
+            params.add(entity.getGithubRepoUrl());
+            params.add(entity.getHomepage());
+            params.add(entity.getLanguage());
+            params.add(entity.getFork());
+            params.add(entity.getStargazersCount());
+            params.add(entity.getGithubCreatedAt());
+            params.add(entity.getGithubUpdatedAt());
+            params.add(entity.getGithubPushedAt());
+            params.add(entity.getReadmeSha());
+            params.add(entity.getReadmeSize());
+            params.add(entity.getSyncStatus() != null ? entity.getSyncStatus().name() : null);
+            params.add(entity.getLastSyncAttempt() != null ? Timestamp.valueOf(entity.getLastSyncAttempt()) : null);
+            params.add(entity.getSyncErrorMessage());
+            params.add(now);
+            params.add(now);
+        }
+
+        jdbcTemplate.query(buildUpsertSql(chunk.size()), rs -> {
+            SourceRepositoryJpaEntity entity = byGithubId.get(rs.getLong("github_id"));
+            entity.setId(rs.getLong("id"));
+            entity.setVersion(rs.getLong("version"));
+            entity.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            entity.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        }, params.toArray());
+    }
+
+    private void replaceTopics(List<SourceRepositoryJpaEntity> entities) {
+        List<Object> ids = new ArrayList<>(entities.size());
+        List<Object> topicParams = new ArrayList<>();
+        for (SourceRepositoryJpaEntity entity : entities) {
+            ids.add(entity.getId());
+            for (String topic : entity.getTopics()) {
+                topicParams.add(entity.getId());
+                topicParams.add(topic);
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM source_repository_topics WHERE source_repository_id IN ("
+            + placeholders("?", ids.size()) + ")", ids.toArray());
+
+        int rowsPerStatement = MAX_TOPIC_ROWS_PER_STATEMENT * 2;
+        for (int from = 0; from < topicParams.size(); from += rowsPerStatement) {
+            List<Object> chunk = topicParams.subList(from, Math.min(topicParams.size(), from + rowsPerStatement));
+            jdbcTemplate.update("INSERT INTO source_repository_topics (source_repository_id, topic) VALUES "
+                + placeholders("(?, ?)", chunk.size() / 2), chunk.toArray());
+        }
+    }
+
+    static String buildUpsertSql(int rows) {
+        return UPSERT_PREFIX + placeholders(UPSERT_ROW, rows) + UPSERT_SUFFIX;
+    }
+
+    private static String placeholders(String group, int count) {
+        return String.join(", ", Collections.nCopies(count, group));
+    }
+
+    boolean isPostgres() {
+        Boolean detected = postgres;
+        if (detected == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            detected = product != null && product.toLowerCase().contains("postgres");
+            postgres = detected;
+            log.info("Source repository bulk upsert: database {} - {}", product,
+                detected ? "using INSERT ... ON CONFLICT" : "falling back to saveAll");
+        }
+        return detected;
+    }
+}
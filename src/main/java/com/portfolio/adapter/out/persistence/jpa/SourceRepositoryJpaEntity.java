@@ -23,7 +23,8 @@ import java.util.List;
            @Index(name = "idx_source_updated_at", columnList = "updated_at"),
            @Index(name = "idx_source_sync_updated", columnList = "sync_status, updated_at"),
            @Index(name = "idx_source_lang_sync", columnList = "language, sync_status"),
-           @Index(name = "idx_source_stars", columnList = "stargazers_count")
+           @Index(name = "idx_source_stars", columnList = "stargazers_count"),
+           @Index(name = "idx_source_readme_sha", columnList = "readme_sha")
        })
 public class SourceRepositoryJpaEntity {
     
@@ -72,8 +73,15 @@ public class SourceRepositoryJpaEntity {
     @Column(name = "github_updated_at")
     private String githubUpdatedAt;
 
-    @Column(name = "readme_markdown", columnDefinition = "TEXT")
-    private String readmeMarkdown;
+    @Column(name = "github_pushed_at")
+    private String githubPushedAt;
+
+    // README text lives in readme_blobs (see ReadmeStoreService); only the key and size load with the row
+    @Column(name = "readme_sha", length = 64)
+    private String readmeSha;
+
+    @Column(name = "readme_size")
+    private Integer readmeSize;
 
     @Enumerated(EnumType.STRING)
     private SyncStatus syncStatus = SyncStatus.UNSYNCED;
@@ -103,7 +111,7 @@ public class SourceRepositoryJpaEntity {
     public SourceRepositoryJpaEntity(Long id, Long githubId, String name, String fullName, String description,
                                      String githubRepoUrl, String homepage, String language, Boolean fork,
                                      Integer stargazersCount, List<String> topics, String githubCreatedAt,
-                                     String githubUpdatedAt, String readmeMarkdown, SyncStatus syncStatus,
+                                     String githubUpdatedAt, String readmeSha, SyncStatus syncStatus,
                                      LocalDateTime lastSyncAttempt, String syncErrorMessage, LocalDateTime createdAt,
                                      LocalDateTime updatedAt, Long version) {
         this.id = id;
@@ -119,7 +127,7 @@ public class SourceRepositoryJpaEntity {
         this.topics = topics != null ? topics : new ArrayList<>();
         this.githubCreatedAt = githubCreatedAt;
         this.githubUpdatedAt = githubUpdatedAt;
-        this.readmeMarkdown = readmeMarkdown;
+        this.readmeSha = readmeSha;
         this.syncStatus = syncStatus != null ? syncStatus : SyncStatus.UNSYNCED;
         this.lastSyncAttempt = lastSyncAttempt;
         this.syncErrorMessage = syncErrorMessage;
@@ -238,12 +246,32 @@ public class SourceRepositoryJpaEntity {
         this.githubUpdatedAt = githubUpdatedAt;
     }
 
-    public String getReadmeMarkdown() {
-        return readmeMarkdown;
+    public String getGithubPushedAt() {
+        return githubPushedAt;
+    }
+
+    public void setGithubPushedAt(String githubPushedAt) {
+        this.githubPushedAt = githubPushedAt;
+    }
+
+    public String getReadmeSha() {
+        return readmeSha;
+    }
+
+    public void setReadmeSha(String readmeSha) {
+        this.readmeSha = readmeSha;
     }
 
-    public void setReadmeMarkdown(String readmeMarkdown) {
-        this.readmeMarkdown = readmeMarkdown;
+    public Integer getReadmeSize() {
+        return readmeSize;
+    }
+
+    public void setReadmeSize(Integer readmeSize) {
+        this.readmeSize = readmeSize;
+    }
+
+    public boolean hasReadme() {
+        return readmeSha != null;
     }
 
     public SyncStatus getSyncStatus() {
@@ -309,7 +337,8 @@ public class SourceRepositoryJpaEntity {
         private List<String> topics = new ArrayList<>();
         private String githubCreatedAt;
         private String githubUpdatedAt;
-        private String readmeMarkdown;
+        private String githubPushedAt;
+        private String readmeSha;
         private SyncStatus syncStatus = SyncStatus.UNSYNCED;
         private LocalDateTime lastSyncAttempt;
         private String syncErrorMessage;
@@ -382,8 +411,13 @@ public class SourceRepositoryJpaEntity {
             return this;
         }
 
-        public SourceRepositoryJpaEntityBuilder readmeMarkdown(String readmeMarkdown) {
-            this.readmeMarkdown = readmeMarkdown;
+        public SourceRepositoryJpaEntityBuilder githubPushedAt(String githubPushedAt) {
+            this.githubPushedAt = githubPushedAt;
+            return this;
+        }
+
+        public SourceRepositoryJpaEntityBuilder readmeSha(String readmeSha) {
+            this.readmeSha = readmeSha;
             return this;
         }
 
@@ -418,9 +452,11 @@ public class SourceRepositoryJpaEntity {
         }
 
         public SourceRepositoryJpaEntity build() {
-            return new SourceRepositoryJpaEntity(id, githubId, name, fullName, description, githubRepoUrl,
+            SourceRepositoryJpaEntity entity = new SourceRepositoryJpaEntity(id, githubId, name, fullName, description, githubRepoUrl,
                     homepage, language, fork, stargazersCount, topics, githubCreatedAt, githubUpdatedAt,
-                    readmeMarkdown, syncStatus, lastSyncAttempt, syncErrorMessage, createdAt, updatedAt, version);
+                    readmeSha, syncStatus, lastSyncAttempt, syncErrorMessage, createdAt, updatedAt, version);
+            entity.setGithubPushedAt(githubPushedAt);
+            return entity;
         }
     }
 
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +54,11 @@ public interface SourceRepositoryJpaRepository extends JpaRepository<SourceRepos
      */
     @Query("SELECT DISTINCT s FROM SourceRepositoryJpaEntity s LEFT JOIN FETCH s.topics")
     List<SourceRepositoryJpaEntity> findAllWithTopics();
+
+    /**
+     * Same as {@link #findAllWithTopics()} restricted to one page of GitHub ids,
+     * so paged ingest never loads the whole table.
+     */
+    @Query("SELECT DISTINCT s FROM SourceRepositoryJpaEntity s LEFT JOIN FETCH s.topics WHERE s.githubId IN :githubIds")
+    List<SourceRepositoryJpaEntity> findAllWithTopicsByGithubIdIn(@Param("githubIds") Collection<Long> githubIds);
 }
\ No newline at end of file
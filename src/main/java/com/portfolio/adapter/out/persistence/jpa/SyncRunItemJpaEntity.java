@@ -0,0 +1,104 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * How far one source repository got within a sync run.
+ */
+@Entity
+@Table(name = "sync_run_items",
+       indexes = @Index(name = "idx_sync_run_items_stage", columnList = "run_id, stage"))
+@IdClass(SyncRunItemJpaEntity.Key.class)
+public class SyncRunItemJpaEntity implements Persistable<SyncRunItemJpaEntity.Key> {
+
+    public enum Stage {
+        /** Metadata stored; README not confirmed current yet */
+        INGESTED,
+        README_FETCHED,
+        CURATED
+    }
+
+    @Id
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Id
+    @Column(name = "source_repository_id")
+    private Long sourceRepositoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Stage stage;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Only rows known to be missing are saved, so skip the merge lookup
+    @Transient
+    private boolean isNew = true;
+
+    public SyncRunItemJpaEntity() {
+    }
+
+    public SyncRunItemJpaEntity(Long runId, Long sourceRepositoryId, Stage stage, LocalDateTime updatedAt) {
+        this.runId = runId;
+        this.sourceRepositoryId = sourceRepositoryId;
+        this.stage = stage;
+        this.updatedAt = updatedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(runId, sourceRepositoryId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public Long getRunId() { return runId; }
+    public Long getSourceRepositoryId() { return sourceRepositoryId; }
+
+    public Stage getStage() { return stage; }
+    public void setStage(Stage stage) { this.stage = stage; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public static class Key implements Serializable {
+        private Long runId;
+        private Long sourceRepositoryId;
+
+        public Key() {
+        }
+
+        public Key(Long runId, Long sourceRepositoryId) {
+            this.runId = runId;
+            this.sourceRepositoryId = sourceRepositoryId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(runId, key.runId) && Objects.equals(sourceRepositoryId, key.sourceRepositoryId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(runId, sourceRepositoryId);
+        }
+    }
+}
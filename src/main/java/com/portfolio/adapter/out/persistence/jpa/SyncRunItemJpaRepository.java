@@ -0,0 +1,50 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SyncRunItemJpaRepository extends JpaRepository<SyncRunItemJpaEntity, SyncRunItemJpaEntity.Key> {
+
+    @Query("SELECT i.sourceRepositoryId FROM SyncRunItemJpaEntity i " +
+           "WHERE i.runId = :runId AND i.sourceRepositoryId IN :sourceIds")
+    List<Long> findRecordedSourceIds(@Param("runId") Long runId, @Param("sourceIds") Collection<Long> sourceIds);
+
+    @Query("SELECT i.sourceRepositoryId FROM SyncRunItemJpaEntity i " +
+           "WHERE i.runId = :runId AND i.stage = :stage AND i.sourceRepositoryId IN :sourceIds")
+    List<Long> findSourceIdsAtStage(@Param("runId") Long runId, @Param("stage") SyncRunItemJpaEntity.Stage stage,
+                                    @Param("sourceIds") Collection<Long> sourceIds);
+
+    @Query("SELECT i.sourceRepositoryId FROM SyncRunItemJpaEntity i WHERE i.runId = :runId AND i.stage = :stage")
+    List<Long> findAllSourceIdsAtStage(@Param("runId") Long runId, @Param("stage") SyncRunItemJpaEntity.Stage stage);
+
+    @Modifying
+    @Query("UPDATE SyncRunItemJpaEntity i SET i.stage = :stage, i.updatedAt = :now " +
+           "WHERE i.runId = :runId AND i.sourceRepositoryId IN :sourceIds")
+    int updateStage(@Param("runId") Long runId, @Param("sourceIds") Collection<Long> sourceIds,
+                    @Param("stage") SyncRunItemJpaEntity.Stage stage, @Param("now") LocalDateTime now);
+
+    /**
+     * Mark every item of the run whose source has been curated (sync status SYNCED).
+     */
+    @Modifying
+    @Query("UPDATE SyncRunItemJpaEntity i SET i.stage = com.portfolio.adapter.out.persistence.jpa.SyncRunItemJpaEntity.Stage.CURATED, " +
+           "i.updatedAt = :now WHERE i.runId = :runId AND i.sourceRepositoryId IN (" +
+           "SELECT s.id FROM SourceRepositoryJpaEntity s " +
+           "WHERE s.syncStatus = com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity.SyncStatus.SYNCED)")
+    int markCuratedSources(@Param("runId") Long runId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT i.stage, COUNT(i) FROM SyncRunItemJpaEntity i WHERE i.runId = :runId GROUP BY i.stage")
+    List<Object[]> countByStage(@Param("runId") Long runId);
+
+    @Modifying
+    @Query("DELETE FROM SyncRunItemJpaEntity i WHERE i.runId = :runId")
+    int deleteByRunId(@Param("runId") Long runId);
+}
@@ -0,0 +1,123 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A full sync run and its ingest checkpoint.
+ * A run left RUNNING (process died) or FAILED is picked up again by the next sync, which
+ * continues from {@code nextCursor} instead of walking the starred list from the first page.
+ */
+@Entity
+@Table(name = "sync_runs",
+       indexes = @Index(name = "idx_sync_runs_status", columnList = "status, started_at"))
+public class SyncRunJpaEntity {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED, ABANDONED
+    }
+
+    public enum Phase {
+        INGEST, CURATION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RUNNING;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Phase phase = Phase.INGEST;
+
+    @Column(name = "ingest_mode", length = 20)
+    private String ingestMode;
+
+    @Column
+    private Boolean incremental;
+
+    @Column(name = "pages_done", nullable = false)
+    private int pagesDone;
+
+    @Column(name = "next_cursor", length = 1000)
+    private String nextCursor;
+
+    @Column(nullable = false)
+    private int attempts = 1;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public SyncRunJpaEntity() {
+    }
+
+    public SyncRunJpaEntity(String owner) {
+        this.owner = owner;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.startedAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Phase getPhase() { return phase; }
+    public void setPhase(Phase phase) { this.phase = phase; }
+
+    public String getIngestMode() { return ingestMode; }
+    public void setIngestMode(String ingestMode) { this.ingestMode = ingestMode; }
+
+    public Boolean getIncremental() { return incremental; }
+    public void setIncremental(Boolean incremental) { this.incremental = incremental; }
+
+    public int getPagesDone() { return pagesDone; }
+    public void setPagesDone(int pagesDone) { this.pagesDone = pagesDone; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
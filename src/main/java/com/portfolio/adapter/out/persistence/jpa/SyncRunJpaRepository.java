@@ -0,0 +1,30 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SyncRunJpaRepository extends JpaRepository<SyncRunJpaEntity, Long> {
+
+    Optional<SyncRunJpaEntity> findFirstByStatusInOrderByStartedAtDesc(Collection<SyncRunJpaEntity.Status> statuses);
+
+    List<SyncRunJpaEntity> findTop20ByOrderByStartedAtDesc();
+
+    /**
+     * Give up on unfinished runs other than {@code keepId}; they are too old or superseded.
+     */
+    @Modifying
+    @Query("UPDATE SyncRunJpaEntity r SET r.status = com.portfolio.adapter.out.persistence.jpa.SyncRunJpaEntity.Status.ABANDONED, " +
+           "r.finishedAt = :now, r.updatedAt = :now " +
+           "WHERE r.status IN :statuses AND (:keepId IS NULL OR r.id <> :keepId)")
+    int abandonAllExcept(@Param("statuses") Collection<SyncRunJpaEntity.Status> statuses,
+                         @Param("keepId") Long keepId, @Param("now") LocalDateTime now);
+}
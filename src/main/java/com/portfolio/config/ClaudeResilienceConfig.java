@@ -0,0 +1,56 @@
+package com.portfolio.config;
+
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Retry policy for Claude API calls. Attempts and backoff come from
+ * resilience4j.retry.instances.claude; this decides which failures are worth another attempt.
+ */
+@Configuration
+public class ClaudeResilienceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaudeResilienceConfig.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public ClaudeResilienceConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public RetryConfigCustomizer claudeRetryCustomizer() {
+        return RetryConfigCustomizer.of("claude", builder -> builder
+            .retryOnException((Predicate<Throwable>) this::isRetryableClaudeError));
+    }
+
+    private boolean isRetryableClaudeError(Throwable throwable) {
+        // 429 rate limited, 5xx including 529 overloaded
+        if (throwable instanceof HttpClientErrorException.TooManyRequests
+            || throwable instanceof HttpServerErrorException) {
+            log.warn("Claude API unavailable ({}), will retry", throwable.getMessage());
+            meterRegistry.counter("claude.retry.server_error").increment();
+            return true;
+        }
+
+        // Network errors and attempts cut off by the time limiter
+        if (throwable instanceof ResourceAccessException || throwable instanceof TimeoutException) {
+            log.warn("Claude API call failed: {}, will retry", throwable.getMessage());
+            meterRegistry.counter("claude.retry.network_error").increment();
+            return true;
+        }
+
+        // Other client errors would fail the same way again
+        return false;
+    }
+}
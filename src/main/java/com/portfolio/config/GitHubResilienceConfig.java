@@ -1,22 +1,26 @@
 package com.portfolio.config;
 
-import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
 import io.github.resilience4j.retry.Retry;
-import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import java.time.Duration;
+import java.util.function.Predicate;
 
 /**
  * Enhanced Resilience4j configuration for GitHub API integration
  * Handles rate limiting (429), exponential backoff, and detailed metrics
  *
+ * Attempts and backoff come from resilience4j.retry.instances.github; this only decides
+ * which failures are worth retrying. It customizes the auto-configured registry rather
+ * than replacing it, so the properties of every instance stay in effect.
+ *
  * Created by Bernard Orozco
  */
 @Configuration
@@ -31,59 +35,52 @@ public class GitHubResilienceConfig {
     }
 
     @Bean
-    public RetryRegistry githubRetryRegistry() {
-        RetryConfig retryConfig = RetryConfig.custom()
-            .maxAttempts(5)
-            // Exponential backoff: 1s, 2s, 4s, 8s, 16s
-            .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
-                Duration.ofSeconds(1),    // initial interval
-                2.0,                       // multiplier
-                Duration.ofSeconds(30)     // max interval
-            ))
+    public RetryConfigCustomizer githubRetryCustomizer() {
+        return RetryConfigCustomizer.of("github", builder -> builder
             // Retry on specific GitHub API errors
-            .retryOnException(throwable -> {
-                if (throwable instanceof WebClientResponseException webClientEx) {
-                    int statusCode = webClientEx.getStatusCode().value();
-
-                    // Retry on rate limit (429) and server errors (5xx)
-                    if (statusCode == 429) {
-                        log.warn("GitHub rate limit hit (429), will retry with backoff");
-                        meterRegistry.counter("github.rate_limit_hit").increment();
-                        return true;
-                    }
-
-                    if (statusCode >= 500) {
-                        log.warn("GitHub server error ({}), will retry", statusCode);
-                        meterRegistry.counter("github.server_error").increment();
-                        return true;
-                    }
-
-                    // Don't retry on client errors (4xx except 429)
-                    if (statusCode >= 400 && statusCode < 500) {
-                        log.debug("GitHub client error ({}), will not retry", statusCode);
-                        return false;
-                    }
-                }
-
-                // Retry on network errors
-                if (throwable instanceof java.net.SocketTimeoutException ||
-                    throwable instanceof java.io.IOException) {
-                    log.warn("Network error: {}, will retry", throwable.getMessage());
-                    meterRegistry.counter("github.network_error").increment();
-                    return true;
-                }
+            .retryOnException((Predicate<Throwable>) this::isRetryableGitHubError));
+    }
 
+    private boolean isRetryableGitHubError(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException webClientEx) {
+            int statusCode = webClientEx.getStatusCode().value();
+
+            // Retry on rate limit (429) and server errors (5xx)
+            if (statusCode == 429) {
+                log.warn("GitHub rate limit hit (429), will retry with backoff");
+                meterRegistry.counter("github.rate_limit_hit").increment();
+                return true;
+            }
+
+            if (statusCode >= 500) {
+                log.warn("GitHub server error ({}), will retry", statusCode);
+                meterRegistry.counter("github.server_error").increment();
+                return true;
+            }
+
+            // Don't retry on client errors (4xx except 429)
+            if (statusCode >= 400 && statusCode < 500) {
+                log.debug("GitHub client error ({}), will not retry", statusCode);
                 return false;
-            })
-            .retryOnResult(result -> result == null)
-            .build();
-
-        return RetryRegistry.of(retryConfig);
+            }
+        }
+
+        // Retry on network errors and on attempts cut off by the time limiter
+        if (throwable instanceof java.net.SocketTimeoutException ||
+            throwable instanceof java.io.IOException ||
+            throwable instanceof WebClientRequestException ||
+            throwable instanceof java.util.concurrent.TimeoutException) {
+            log.warn("Network error: {}, will retry", throwable.getMessage());
+            meterRegistry.counter("github.network_error").increment();
+            return true;
+        }
+
+        return false;
     }
 
     @Bean
-    public Retry githubApiRetry(RetryRegistry githubRetryRegistry) {
-        Retry retry = githubRetryRegistry.retry("githubApi");
+    public Retry githubApiRetry(RetryRegistry retryRegistry) {
+        Retry retry = retryRegistry.retry("github");
 
         // Register event listeners for metrics
         retry.getEventPublisher()
@@ -0,0 +1,64 @@
+package com.portfolio.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Connection pools for the outbound APIs. GitHub and Claude each get a dedicated Reactor
+ * Netty pool, so parallel ingest and curation reuse kept-alive connections instead of
+ * paying a TLS handshake per request, and one API cannot starve the other of connections.
+ *
+ * Clients negotiate HTTP/2 over TLS and fall back to HTTP/1.1. Pools publish
+ * {@code reactor.netty.connection.provider.*} and clients {@code reactor.netty.http.client.*}
+ * (connect, TLS handshake, response time) to the global Micrometer registry.
+ */
+@Configuration
+public class HttpClientPoolConfig {
+
+    // Shorter than the idle timeouts of the API load balancers, so a pooled connection is not reset under a request
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(20);
+    private static final Duration MAX_LIFE_TIME = Duration.ofMinutes(5);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration PENDING_ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider claudeConnectionProvider(@Value("${anthropic.http.max-connections:16}") int maxConnections) {
+        return pool("claude", maxConnections);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider githubConnectionProvider(@Value("${github.http.max-connections:16}") int maxConnections) {
+        return pool("github", maxConnections);
+    }
+
+    /**
+     * HTTP client on the given pool. Request paths carry repository names and batch ids, so
+     * client metrics are tagged with the API name instead of the URI.
+     */
+    public static HttpClient pooledClient(ConnectionProvider pool, String api) {
+        return HttpClient.create(pool)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) CONNECT_TIMEOUT.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .metrics(true, uri -> api);
+    }
+
+    private static ConnectionProvider pool(String name, int maxConnections) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(PENDING_ACQUIRE_TIMEOUT)
+                .maxIdleTime(MAX_IDLE_TIME)
+                .maxLifeTime(MAX_LIFE_TIME)
+                .evictInBackground(EVICTION_INTERVAL)
+                .metrics(true)
+                .build();
+    }
+}
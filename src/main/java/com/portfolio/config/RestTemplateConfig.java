@@ -5,11 +5,15 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 
@@ -21,12 +25,21 @@ public class RestTemplateConfig {
 
     private static final Logger log = LoggerFactory.getLogger(RestTemplateConfig.class);
 
+    /**
+     * Claude API client, on the pooled Reactor Netty connections of {@link HttpClientPoolConfig}.
+     * Reads give up with the claude time limiter, so a timed-out request does not keep its
+     * connection busy after the limiter abandoned it.
+     */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Qualifier("claudeConnectionProvider") ConnectionProvider claudePool,
+                                     @Value("${resilience4j.timelimiter.instances.claude.timeout-duration:30s}") Duration claudeTimeout) {
         // Spring Boot 3.4+: use connectTimeout/readTimeout on the builder
         return builder
+                .requestFactory(() -> new ReactorClientHttpRequestFactory(
+                        HttpClientPoolConfig.pooledClient(claudePool, "claude")))
                 .connectTimeout(Duration.ofSeconds(10))
-                .readTimeout(Duration.ofSeconds(30))
+                .readTimeout(claudeTimeout)
                 .build();
     }
 
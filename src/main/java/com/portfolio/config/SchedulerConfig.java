@@ -10,7 +10,9 @@ public class SchedulerConfig {
     @Bean
     public ThreadPoolTaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(2);
+        // Keep-alive, budget reset, the interval sync check, curation job polling, the sync lease heartbeat
+        // and Message Batch polling
+        scheduler.setPoolSize(4);
         scheduler.setThreadNamePrefix("sync-scheduler-");
         scheduler.setAwaitTerminationSeconds(30);
         scheduler.setWaitForTasksToCompleteOnShutdown(true);
@@ -1,14 +1,21 @@
 package com.portfolio.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
     
+    /**
+     * GitHub API client builder, on the pooled connections of {@link HttpClientPoolConfig}
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(@Qualifier("githubConnectionProvider") ConnectionProvider githubPool) {
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(HttpClientPoolConfig.pooledClient(githubPool, "github")));
     }
-}
\ No newline at end of file
+}
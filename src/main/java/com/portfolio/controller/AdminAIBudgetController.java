@@ -53,10 +53,17 @@ public class AdminAIBudgetController {
             "budget", Map.of(
                 "dailyBudget", status.getDailyBudget(),
                 "currentUsage", status.getCurrentUsage(),
+                "reservedTokens", status.getReservedTokens(),
                 "remainingTokens", status.getRemainingTokens(),
                 "usagePercentage", Math.round(status.getUsagePercentage() * 100.0) / 100.0,
                 "usagePercentageDisplay", String.format("%.1f%%", status.getUsagePercentage() * 100)
             ),
+            "promptCache", Map.of(
+                "uncachedInputTokens", status.getUncachedInputTokens(),
+                "cacheWriteInputTokens", status.getCacheWriteInputTokens(),
+                "cacheReadInputTokens", status.getCacheReadInputTokens(),
+                "hitRatio", Math.round(tokenBudgetService.getPromptCacheHitRatio() * 1000.0) / 1000.0
+            ),
             "status", Map.of(
                 "warnThresholdExceeded", status.isWarnThresholdExceeded(),
                 "budgetExceeded", status.isBudgetExceeded(),
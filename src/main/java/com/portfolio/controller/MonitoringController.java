@@ -2,6 +2,8 @@ package com.portfolio.controller;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.portfolio.config.monitoring.QueryPerformanceInterceptor;
+import com.portfolio.service.GitHubEtagCacheService;
+import com.portfolio.service.GitHubRateLimitService;
 import com.portfolio.service.KeepAliveService;
 import com.portfolio.service.StartupNotificationService;
 import com.zaxxer.hikari.HikariDataSource;
@@ -49,6 +51,12 @@ public class MonitoringController {
     @Autowired(required = false)
     private QueryPerformanceInterceptor queryPerformanceInterceptor;
 
+    @Autowired(required = false)
+    private GitHubEtagCacheService gitHubEtagCacheService;
+
+    @Autowired(required = false)
+    private GitHubRateLimitService gitHubRateLimitService;
+
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     /**
@@ -621,6 +629,46 @@ public class MonitoringController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * GitHub conditional request statistics (304 hits vs full responses)
+     */
+    @GetMapping("/github/conditional-requests")
+    public ResponseEntity<Map<String, Object>> getGitHubConditionalRequestStats() {
+        Map<String, Object> response = new HashMap<>();
+
+        if (gitHubEtagCacheService == null) {
+            response.put("available", false);
+            response.put("message", "GitHub ETag cache not enabled");
+            return ResponseEntity.ok(response);
+        }
+
+        response.put("available", true);
+        response.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        response.putAll(gitHubEtagCacheService.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GitHub API quota as last reported by X-RateLimit-* headers
+     */
+    @GetMapping("/github/rate-limit")
+    public ResponseEntity<Map<String, Object>> getGitHubRateLimit() {
+        Map<String, Object> response = new HashMap<>();
+
+        if (gitHubRateLimitService == null) {
+            response.put("available", false);
+            response.put("message", "GitHub rate limit tracking not enabled");
+            return ResponseEntity.ok(response);
+        }
+
+        response.put("available", true);
+        response.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        response.putAll(gitHubRateLimitService.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Format uptime in human-readable format
      */
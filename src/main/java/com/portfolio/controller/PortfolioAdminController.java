@@ -7,8 +7,10 @@ import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
 import com.portfolio.core.domain.project.LinkType;
 import com.portfolio.core.domain.project.PortfolioProject;
 import com.portfolio.core.port.out.AIServicePort;
+import com.portfolio.exception.RepositoryLockedException;
 import com.portfolio.service.PortfolioCompletionService;
 import com.portfolio.service.PortfolioService;
+import com.portfolio.service.ReadmeStoreService;
 import com.portfolio.service.SyncSchedulerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,19 +37,22 @@ public class PortfolioAdminController {
     private final SyncSchedulerService syncSchedulerService;
     private final SourceRepositoryJpaRepository sourceRepositoryRepository;
     private final AIServicePort aiService;
+    private final ReadmeStoreService readmeStoreService;
 
     public PortfolioAdminController(PortfolioProjectJpaRepository portfolioRepository,
                                     PortfolioCompletionService completionService,
                                     PortfolioService portfolioService,
                                     SyncSchedulerService syncSchedulerService,
                                     SourceRepositoryJpaRepository sourceRepositoryRepository,
-                                    AIServicePort aiService) {
+                                    AIServicePort aiService,
+                                    ReadmeStoreService readmeStoreService) {
         this.portfolioRepository = portfolioRepository;
         this.completionService = completionService;
         this.portfolioService = portfolioService;
         this.syncSchedulerService = syncSchedulerService;
         this.sourceRepositoryRepository = sourceRepositoryRepository;
         this.aiService = aiService;
+        this.readmeStoreService = readmeStoreService;
     }
 
     // DTOs to avoid Map.of generic inference and null constraints
@@ -558,6 +563,11 @@ public class PortfolioAdminController {
             resp.put("status", "accepted");
             resp.put("message", "Resync triggered");
             return ResponseEntity.accepted().body(resp);
+        } catch (RepositoryLockedException e) {
+            Map<String, Object> err = new HashMap<>();
+            err.put("status", "locked");
+            err.put("message", e.getMessage());
+            return ResponseEntity.status(409).body(err);
         } catch (Exception e) {
             log.error("Failed to resync portfolio {}: {}", id, e.getMessage(), e);
             Map<String, Object> err = new HashMap<>();
@@ -606,7 +616,8 @@ public class PortfolioAdminController {
 
             // Build narrative analysis prompt
             String systemPrompt = buildNarrativeSystemPrompt();
-            String userPrompt = buildNarrativeUserPrompt(sourceRepo, portfolioProject);
+            String readme = readmeStoreService.getMarkdown(sourceRepo);
+            String userPrompt = buildNarrativeUserPrompt(sourceRepo, readme, portfolioProject);
 
             String narrativeInsights = aiService.chat(systemPrompt, userPrompt);
 
@@ -615,7 +626,7 @@ public class PortfolioAdminController {
             return ResponseEntity.ok(new ClaudeAnalysisResponse(
                     narrativeInsights,
                     sourceRepo.getFullName(),
-                    sourceRepo.getReadmeMarkdown()
+                    readme
             ));
 
         } catch (IllegalArgumentException e) {
@@ -661,7 +672,8 @@ public class PortfolioAdminController {
             """;
     }
 
-    private String buildNarrativeUserPrompt(SourceRepositoryJpaEntity sourceRepo, PortfolioProjectJpaEntity portfolioProject) {
+    private String buildNarrativeUserPrompt(SourceRepositoryJpaEntity sourceRepo, String readme,
+                                            PortfolioProjectJpaEntity portfolioProject) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append("Analiza este repositorio GitHub con profundidad arquitectónica y filosófica:\n\n");
@@ -672,10 +684,10 @@ public class PortfolioAdminController {
         prompt.append("TOPICS: ").append(sourceRepo.getTopics() != null ? String.join(", ", sourceRepo.getTopics()) : "None").append("\n");
         prompt.append("STARS: ").append(sourceRepo.getStargazersCount()).append("\n\n");
 
-        if (sourceRepo.getReadmeMarkdown() != null && !sourceRepo.getReadmeMarkdown().trim().isEmpty()) {
-            String truncatedReadme = sourceRepo.getReadmeMarkdown().length() > 3000
-                ? sourceRepo.getReadmeMarkdown().substring(0, 3000) + "..."
-                : sourceRepo.getReadmeMarkdown();
+        if (readme != null && !readme.trim().isEmpty()) {
+            String truncatedReadme = readme.length() > 3000
+                ? readme.substring(0, 3000) + "..."
+                : readme;
             prompt.append("README:\n").append(truncatedReadme).append("\n\n");
         }
 
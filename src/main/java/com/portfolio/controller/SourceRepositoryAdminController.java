@@ -2,6 +2,7 @@ package com.portfolio.controller;
 
 import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
 import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
+import com.portfolio.exception.RepositoryLockedException;
 import com.portfolio.service.GitHubSourceRepositoryService;
 import com.portfolio.service.SyncSchedulerService;
 import org.slf4j.Logger;
@@ -152,6 +153,11 @@ public class SourceRepositoryAdminController {
                 "syncedAt", LocalDateTime.now().toString()
             ));
             
+        } catch (RepositoryLockedException e) {
+            return ResponseEntity.status(409).body(Map.of(
+                "status", "locked",
+                "message", e.getMessage()
+            ));
         } catch (Exception e) {
             log.error("Failed to sync source repository {}: {}", id, e.getMessage(), e);
             return ResponseEntity.status(500).body(Map.of(
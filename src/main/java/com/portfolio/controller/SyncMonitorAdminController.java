@@ -1,6 +1,8 @@
 package com.portfolio.controller;
 
+import com.portfolio.service.CurationJobService;
 import com.portfolio.service.SyncMonitorService;
+import com.portfolio.service.SyncRunService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Admin endpoints to expose sync progress logs for the floating CLI panel.
@@ -18,9 +21,15 @@ public class SyncMonitorAdminController {
     private static final Logger log = LoggerFactory.getLogger(SyncMonitorAdminController.class);
 
     private final SyncMonitorService syncMonitorService;
+    private final CurationJobService curationJobService;
+    private final SyncRunService syncRunService;
 
-    public SyncMonitorAdminController(SyncMonitorService syncMonitorService) {
+    public SyncMonitorAdminController(SyncMonitorService syncMonitorService,
+                                      CurationJobService curationJobService,
+                                      SyncRunService syncRunService) {
         this.syncMonitorService = syncMonitorService;
+        this.curationJobService = curationJobService;
+        this.syncRunService = syncRunService;
         log.debug("SyncMonitorAdminController initialized");
     }
 
@@ -29,6 +38,26 @@ public class SyncMonitorAdminController {
     /** Simple DTO for admin sync logs */
     public record AdminSyncLogEntry(long id, String timestamp, String level, String message) { }
 
+    /** Last sync outcome, including how many repositories the ingest created, changed or left unchanged */
+    public record AdminSyncSummary(String lastSync, boolean inProgress, int totalGitHubProjects,
+                                   int totalDatabaseProjects, int unsyncedProjects,
+                                   int created, int changed, int unchanged) { }
+
+    @GetMapping({"/summary", "/summary/"})
+    public ResponseEntity<AdminSyncSummary> getSummary() {
+        SyncMonitorService.IngestCounts counts = syncMonitorService.getLastIngestCounts();
+        return ResponseEntity.ok(new AdminSyncSummary(
+                ISO.format(syncMonitorService.getLastSyncTime()),
+                syncMonitorService.isSyncInProgress(),
+                syncMonitorService.getTotalGitHubProjects(),
+                syncMonitorService.getTotalDatabaseProjects(),
+                syncMonitorService.getUnsyncedProjects().size(),
+                counts.created(),
+                counts.changed(),
+                counts.unchanged()
+        ));
+    }
+
     /**
      * Fetch sync logs. When an offset is provided, only logs with id greater than offset are returned.
      */
@@ -48,4 +77,62 @@ public class SyncMonitorAdminController {
 
         return ResponseEntity.ok(body);
     }
+
+    /** Dead-lettered curation job */
+    public record AdminDeadCurationJob(long id, long sourceRepositoryId, int attempts, String lastError, String updatedAt) { }
+
+    public record AdminSyncRun(long id, String status, String phase, int attempts, int pagesDone,
+                               String lastError, String startedAt, String finishedAt) { }
+
+    /**
+     * Durable curation queue counts by status
+     */
+    @GetMapping({"/curation-jobs", "/curation-jobs/"})
+    public ResponseEntity<Map<String, Object>> getCurationJobStats() {
+        return ResponseEntity.ok(curationJobService.getStats());
+    }
+
+    @GetMapping({"/curation-jobs/dead", "/curation-jobs/dead/"})
+    public ResponseEntity<List<AdminDeadCurationJob>> getDeadCurationJobs() {
+        List<AdminDeadCurationJob> body = curationJobService.getDeadJobs().stream()
+                .map(job -> new AdminDeadCurationJob(
+                        job.getId(),
+                        job.getSourceRepositoryId(),
+                        job.getAttempts(),
+                        job.getLastError(),
+                        ISO.format(job.getUpdatedAt())
+                ))
+                .toList();
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Give dead-lettered sources a fresh set of attempts
+     */
+    @PostMapping({"/curation-jobs/dead/requeue", "/curation-jobs/dead/requeue/"})
+    public ResponseEntity<Map<String, Object>> requeueDeadCurationJobs() {
+        int requeued = curationJobService.requeueDead();
+        log.info("Requeued {} dead-lettered curation jobs", requeued);
+        return ResponseEntity.ok(Map.of("requeued", requeued));
+    }
+
+    /**
+     * Recent full sync runs; RUNNING or FAILED ones are resumed by the next sync
+     */
+    @GetMapping({"/runs", "/runs/"})
+    public ResponseEntity<List<AdminSyncRun>> getSyncRuns() {
+        List<AdminSyncRun> body = syncRunService.getRecentRuns().stream()
+                .map(run -> new AdminSyncRun(
+                        run.getId(),
+                        run.getStatus().name(),
+                        run.getPhase().name(),
+                        run.getAttempts(),
+                        run.getPagesDone(),
+                        run.getLastError(),
+                        ISO.format(run.getStartedAt()),
+                        run.getFinishedAt() != null ? ISO.format(run.getFinishedAt()) : null
+                ))
+                .toList();
+        return ResponseEntity.ok(body);
+    }
 }
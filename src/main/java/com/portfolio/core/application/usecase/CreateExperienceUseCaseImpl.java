@@ -2,8 +2,10 @@ package com.portfolio.core.application.usecase;
 
 import com.portfolio.core.domain.experience.Experience;
 import com.portfolio.core.domain.experience.ExperienceType;
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
 import com.portfolio.core.port.in.CreateExperienceUseCase;
 import com.portfolio.core.port.out.ExperienceRepositoryPort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -15,16 +17,18 @@ import java.time.LocalDate;
 public class CreateExperienceUseCaseImpl implements CreateExperienceUseCase {
 
     private final ExperienceRepositoryPort experienceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CreateExperienceUseCaseImpl(ExperienceRepositoryPort experienceRepository) {
+    public CreateExperienceUseCaseImpl(ExperienceRepositoryPort experienceRepository, ApplicationEventPublisher eventPublisher) {
         this.experienceRepository = experienceRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
     public Experience createExperience(String jobTitle, String companyName, ExperienceType type, 
                                      String description, LocalDate startDate) {
         Experience experience = Experience.create(jobTitle, companyName, type, description, startDate);
-        return experienceRepository.save(experience);
+        return save(experience);
     }
     
     @Override
@@ -33,6 +37,12 @@ public class CreateExperienceUseCaseImpl implements CreateExperienceUseCase {
         Experience experience = Experience.create(jobTitle, companyName, type, description, startDate)
                 .updateDates(startDate, endDate);
         
-        return experienceRepository.save(experience);
+        return save(experience);
+    }
+    
+    private Experience save(Experience experience) {
+        Experience saved = experienceRepository.save(experience);
+        eventPublisher.publishEvent(PortfolioContentChangedEvent.experiences());
+        return saved;
     }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.portfolio.core.application.usecase;
 
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
 import com.portfolio.core.domain.skill.Skill;
 import com.portfolio.core.domain.skill.SkillCategory;
 import com.portfolio.core.domain.skill.SkillLevel;
 import com.portfolio.core.port.in.CreateSkillUseCase;
 import com.portfolio.core.port.out.SkillRepositoryPort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
@@ -14,9 +16,11 @@ import org.springframework.stereotype.Component;
 public class CreateSkillUseCaseImpl implements CreateSkillUseCase {
 
     private final SkillRepositoryPort skillRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CreateSkillUseCaseImpl(SkillRepositoryPort skillRepository) {
+    public CreateSkillUseCaseImpl(SkillRepositoryPort skillRepository, ApplicationEventPublisher eventPublisher) {
         this.skillRepository = skillRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -24,7 +28,7 @@ public class CreateSkillUseCaseImpl implements CreateSkillUseCase {
         validateSkillDoesNotExist(name);
         
         Skill skill = Skill.create(name, description, category, level);
-        return skillRepository.save(skill);
+        return save(skill);
     }
     
     @Override
@@ -36,7 +40,7 @@ public class CreateSkillUseCaseImpl implements CreateSkillUseCase {
                 .updateExperience(yearsOfExperience)
                 .setFeatured(isFeatured);
                 
-        return skillRepository.save(skill);
+        return save(skill);
     }
     
     private void validateSkillDoesNotExist(String name) {
@@ -44,4 +48,10 @@ public class CreateSkillUseCaseImpl implements CreateSkillUseCase {
             throw new IllegalArgumentException("Skill with name '" + name + "' already exists");
         }
     }
+    
+    private Skill save(Skill skill) {
+        Skill saved = skillRepository.save(skill);
+        eventPublisher.publishEvent(PortfolioContentChangedEvent.skills());
+        return saved;
+    }
 }
\ No newline at end of file
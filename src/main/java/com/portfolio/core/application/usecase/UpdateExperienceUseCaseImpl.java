@@ -2,8 +2,10 @@ package com.portfolio.core.application.usecase;
 
 import com.portfolio.core.domain.experience.Experience;
 import com.portfolio.core.domain.experience.ExperienceType;
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
 import com.portfolio.core.port.in.UpdateExperienceUseCase;
 import com.portfolio.core.port.out.ExperienceRepositoryPort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -15,9 +17,11 @@ import java.time.LocalDate;
 public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
 
     private final ExperienceRepositoryPort experienceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UpdateExperienceUseCaseImpl(ExperienceRepositoryPort experienceRepository) {
+    public UpdateExperienceUseCaseImpl(ExperienceRepositoryPort experienceRepository, ApplicationEventPublisher eventPublisher) {
         this.experienceRepository = experienceRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -26,7 +30,7 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         Experience existingExperience = findExperienceOrThrow(id);
         
         Experience updatedExperience = existingExperience.updateBasicInfo(jobTitle, companyName, type, description);
-        return experienceRepository.save(updatedExperience);
+        return save(updatedExperience);
     }
     
     @Override
@@ -34,7 +38,7 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         Experience existingExperience = findExperienceOrThrow(id);
         
         Experience updatedExperience = existingExperience.updateDates(startDate, endDate);
-        return experienceRepository.save(updatedExperience);
+        return save(updatedExperience);
     }
     
     @Override
@@ -42,7 +46,7 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         Experience existingExperience = findExperienceOrThrow(id);
         
         Experience updatedExperience = existingExperience.endPosition(endDate);
-        return experienceRepository.save(updatedExperience);
+        return save(updatedExperience);
     }
     
     @Override
@@ -50,7 +54,7 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         Experience existingExperience = findExperienceOrThrow(id);
         
         Experience updatedExperience = existingExperience.updateCompanyDetails(companyUrl, location, companyLogoUrl);
-        return experienceRepository.save(updatedExperience);
+        return save(updatedExperience);
     }
     
     @Override
@@ -58,7 +62,7 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         Experience existingExperience = findExperienceOrThrow(id);
         
         Experience updatedExperience = existingExperience.addAchievement(achievement);
-        return experienceRepository.save(updatedExperience);
+        return save(updatedExperience);
     }
     
     @Override
@@ -66,7 +70,7 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         Experience existingExperience = findExperienceOrThrow(id);
         
         Experience updatedExperience = existingExperience.removeAchievement(achievement);
-        return experienceRepository.save(updatedExperience);
+        return save(updatedExperience);
     }
     
     @Override
@@ -74,13 +78,14 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         Experience existingExperience = findExperienceOrThrow(id);
         
         Experience updatedExperience = existingExperience.addTechnology(technology);
-        return experienceRepository.save(updatedExperience);
+        return save(updatedExperience);
     }
     
     @Override
     public void deleteExperience(Long id) {
         Experience existingExperience = findExperienceOrThrow(id);
         experienceRepository.delete(existingExperience);
+        eventPublisher.publishEvent(PortfolioContentChangedEvent.experiences());
     }
     
     private Experience findExperienceOrThrow(Long id) {
@@ -90,4 +95,10 @@ public class UpdateExperienceUseCaseImpl implements UpdateExperienceUseCase {
         return experienceRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Experience not found with ID: " + id));
     }
+    
+    private Experience save(Experience experience) {
+        Experience saved = experienceRepository.save(experience);
+        eventPublisher.publishEvent(PortfolioContentChangedEvent.experiences());
+        return saved;
+    }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.portfolio.core.application.usecase;
 
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
 import com.portfolio.core.domain.skill.Skill;
 import com.portfolio.core.domain.skill.SkillCategory;
 import com.portfolio.core.domain.skill.SkillLevel;
 import com.portfolio.core.port.in.UpdateSkillUseCase;
 import com.portfolio.core.port.out.SkillRepositoryPort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
@@ -14,9 +16,11 @@ import org.springframework.stereotype.Component;
 public class UpdateSkillUseCaseImpl implements UpdateSkillUseCase {
 
     private final SkillRepositoryPort skillRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UpdateSkillUseCaseImpl(SkillRepositoryPort skillRepository) {
+    public UpdateSkillUseCaseImpl(SkillRepositoryPort skillRepository, ApplicationEventPublisher eventPublisher) {
         this.skillRepository = skillRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
@@ -26,7 +30,7 @@ public class UpdateSkillUseCaseImpl implements UpdateSkillUseCase {
         validateNameUniqueness(name, id);
         
         Skill updatedSkill = existingSkill.updateInfo(name, description, category, level);
-        return skillRepository.save(updatedSkill);
+        return save(updatedSkill);
     }
     
     @Override
@@ -34,7 +38,7 @@ public class UpdateSkillUseCaseImpl implements UpdateSkillUseCase {
         Skill existingSkill = findSkillOrThrow(id);
         
         Skill updatedSkill = existingSkill.updateExperience(yearsOfExperience);
-        return skillRepository.save(updatedSkill);
+        return save(updatedSkill);
     }
     
     @Override
@@ -42,7 +46,7 @@ public class UpdateSkillUseCaseImpl implements UpdateSkillUseCase {
         Skill existingSkill = findSkillOrThrow(id);
         
         Skill updatedSkill = existingSkill.setFeatured(featured);
-        return skillRepository.save(updatedSkill);
+        return save(updatedSkill);
     }
     
     @Override
@@ -50,13 +54,14 @@ public class UpdateSkillUseCaseImpl implements UpdateSkillUseCase {
         Skill existingSkill = findSkillOrThrow(id);
         
         Skill updatedSkill = existingSkill.updateUrls(iconUrl, documentationUrl);
-        return skillRepository.save(updatedSkill);
+        return save(updatedSkill);
     }
     
     @Override
     public void deleteSkill(Long id) {
         Skill existingSkill = findSkillOrThrow(id);
         skillRepository.delete(existingSkill);
+        eventPublisher.publishEvent(PortfolioContentChangedEvent.skills());
     }
     
     private Skill findSkillOrThrow(Long id) {
@@ -77,4 +82,10 @@ public class UpdateSkillUseCaseImpl implements UpdateSkillUseCase {
                     throw new IllegalArgumentException("Skill with name '" + name + "' already exists");
                 });
     }
+    
+    private Skill save(Skill skill) {
+        Skill saved = skillRepository.save(skill);
+        eventPublisher.publishEvent(PortfolioContentChangedEvent.skills());
+        return saved;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.portfolio.core.domain.shared;
+
+/**
+ * Published after skills or experiences were written, so views derived from them
+ * (such as the AI portfolio context) can refresh the section that changed.
+ */
+public record PortfolioContentChangedEvent(Section section) {
+
+    public enum Section {
+        SKILLS,
+        EXPERIENCES
+    }
+
+    public static PortfolioContentChangedEvent skills() {
+        return new PortfolioContentChangedEvent(Section.SKILLS);
+    }
+
+    public static PortfolioContentChangedEvent experiences() {
+        return new PortfolioContentChangedEvent(Section.EXPERIENCES);
+    }
+}
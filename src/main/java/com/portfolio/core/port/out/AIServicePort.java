@@ -1,6 +1,7 @@
 package com.portfolio.core.port.out;
 
 import java.util.List;
+import java.util.Map;
 
 public interface AIServicePort {
     
@@ -22,13 +23,108 @@ public interface AIServicePort {
     ClaudeAnalysisResult analyzeRepository(String repoName, String description, 
                                          String readmeContent, List<String> topics, String language);
     
+    /**
+     * {@link #analyzeRepository} for a caller that may already hold a Claude rate limiter
+     * permit for this analysis
+     * @param permitHeld whether the caller took the permit; the first Claude request then
+     *                   uses it instead of taking another
+     */
+    default ClaudeAnalysisResult analyzeRepository(String repoName, String description, String readmeContent,
+                                                   List<String> topics, String language, boolean permitHeld) {
+        return analyzeRepository(repoName, description, readmeContent, topics, language);
+    }
+    
     /**
      * General chat method for AI interactions
      * @param systemPrompt System-level instructions for the AI
      * @param userPrompt User message or prompt
-     * @return AI response
+     * @return AI response, or a canned message when there is none
+     */
+    default String chat(String systemPrompt, String userPrompt) {
+        return chatReply(systemPrompt, userPrompt).text();
+    }
+    
+    /**
+     * Chat request that tells a Claude answer apart from a canned fallback message
+     */
+    ChatReply chatReply(String systemPrompt, String userPrompt);
+    
+    /**
+     * Whether {@link #analyzeRepository} would answer these inputs without a Claude call,
+     * e.g. from the analysis cache. Lets callers skip rate limiting and budget checks.
+     */
+    default boolean isAnalysisCached(String repoName, String description, String readmeContent,
+                                     List<String> topics, String language) {
+        return false;
+    }
+    
+    /**
+     * Submit repository analyses as one Anthropic Message Batch. Analyses that need no
+     * Claude call (cached, or mock data without an API key) are answered in
+     * {@link AnalysisBatch#ready()} and not submitted; requests the token budget refuses
+     * are listed in {@link AnalysisBatch#rejected()}.
+     */
+    AnalysisBatch submitAnalysisBatch(List<RepositoryAnalysisInput> inputs);
+    
+    /**
+     * Check a submitted batch once. Results are only returned after the batch has ended.
+     */
+    AnalysisBatchStatus pollAnalysisBatch(AnalysisBatch batch);
+    
+    /**
+     * Stop a batch that is no longer awaited; requests already processed are still billed.
+     */
+    void cancelAnalysisBatch(AnalysisBatch batch);
+    
+    /**
+     * @param text     reply to show
+     * @param fallback true when {@code text} is a canned message because Claude gave no answer
+     */
+    record ChatReply(String text, boolean fallback) {
+        
+        public static ChatReply answered(String text) {
+            return new ChatReply(text, false);
+        }
+        
+        public static ChatReply fallback(String text) {
+            return new ChatReply(text, true);
+        }
+    }
+    
+    /**
+     * Inputs of one repository analysis
+     * @param customId caller-chosen id the result is reported under ({@code [a-zA-Z0-9_-]{1,64}})
+     */
+    record RepositoryAnalysisInput(String customId, String repoName, String description,
+                                   String readmeContent, List<String> topics, String language) {}
+    
+    /**
+     * @param batchId   Message Batch id, or null when nothing had to be submitted
+     * @param ready     results available without a Claude call, by custom id
+     * @param submitted inputs sent in the batch, by custom id
+     * @param rejected  reason per custom id for inputs that were not submitted
+     * @param cacheKeys analysis cache key per submitted custom id
      */
-    String chat(String systemPrompt, String userPrompt);
+    record AnalysisBatch(String batchId, Map<String, ClaudeAnalysisResult> ready,
+                         Map<String, RepositoryAnalysisInput> submitted, Map<String, String> rejected,
+                         Map<String, String> cacheKeys) {
+        
+        public boolean isSubmitted() {
+            return batchId != null;
+        }
+    }
+    
+    /**
+     * @param ended   whether processing has finished (results, errors, cancellation or expiry)
+     * @param results analyses by custom id
+     * @param errors  failure reason by custom id
+     */
+    record AnalysisBatchStatus(boolean ended, Map<String, ClaudeAnalysisResult> results, Map<String, String> errors) {
+        
+        public static AnalysisBatchStatus inProgress() {
+            return new AnalysisBatchStatus(false, Map.of(), Map.of());
+        }
+    }
     
     /**
      * Result of Claude analysis containing structured data
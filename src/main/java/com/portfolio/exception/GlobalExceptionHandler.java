@@ -83,6 +83,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(problem);
     }
 
+    /**
+     * Handle a source repository locked by a concurrent sync (409)
+     */
+    @ExceptionHandler(RepositoryLockedException.class)
+    public ResponseEntity<ProblemDetailDto> handleRepositoryLocked(
+            RepositoryLockedException ex,
+            HttpServletRequest request) {
+
+        log.info("Repository locked: {} - URI: {}", ex.getMessage(), request.getRequestURI());
+
+        ProblemDetailDto problem = ProblemDetailDto.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .errorCode(ErrorCode.RESOURCE_CONFLICT)
+                .detail(ex.getMessage())
+                .instance(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+    }
+
     /**
      * Handle Spring ResponseStatusException (various status codes)
      */
@@ -0,0 +1,18 @@
+package com.portfolio.exception;
+
+/**
+ * A source repository is being synced or curated by someone else and the lock could not be
+ * taken in time. Retrying later is safe.
+ */
+public class RepositoryLockedException extends RuntimeException {
+    private final Long sourceRepositoryId;
+
+    public RepositoryLockedException(Long sourceRepositoryId) {
+        super("Source repository " + sourceRepositoryId + " is being synced by another operation, try again shortly");
+        this.sourceRepositoryId = sourceRepositoryId;
+    }
+
+    public Long getSourceRepositoryId() {
+        return sourceRepositoryId;
+    }
+}
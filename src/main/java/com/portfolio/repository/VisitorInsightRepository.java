@@ -13,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -43,4 +44,11 @@ public interface VisitorInsightRepository extends JpaRepository<VisitorInsight,
     
     @Query("SELECT AVG(vi.durationSeconds) FROM VisitorInsight vi WHERE vi.durationSeconds IS NOT NULL")
     Double getAverageSessionDuration();
+    
+    /**
+     * Sessions that viewed each project since {@code since}, as [project_repo, count] rows
+     */
+    @Query("SELECT p, COUNT(vi) FROM VisitorInsight vi JOIN vi.projectsViewed p " +
+           "WHERE vi.startedAt >= :since GROUP BY p")
+    List<Object[]> countProjectViewsSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
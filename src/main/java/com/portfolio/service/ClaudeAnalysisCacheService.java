@@ -0,0 +1,154 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.ClaudeAnalysisCacheJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.ClaudeAnalysisCacheJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Persistent cache of Claude repository analyses. Entries are keyed by a hash of the
+ * prompt version, the model and the rendered prompt, so an unchanged repository is
+ * curated again without a Claude call or any token spend.
+ *
+ * Reads and writes run in their own transaction and never fail the caller: a broken
+ * cache only costs the Claude call it would have saved.
+ */
+@Service
+public class ClaudeAnalysisCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaudeAnalysisCacheService.class);
+
+    private final ClaudeAnalysisCacheJpaRepository cacheRepository;
+    private final TransactionTemplate requiresNew;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Value("${portfolio.ai.analysis-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${portfolio.ai.analysis-cache.retention:90d}")
+    private Duration retention;
+
+    public ClaudeAnalysisCacheService(ClaudeAnalysisCacheJpaRepository cacheRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.cacheRepository = cacheRepository;
+        // Curation calls in from its own transaction; a cache failure must not roll that back
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.hitCounter = counter("hit", meterRegistry);
+        this.missCounter = counter("miss", meterRegistry);
+    }
+
+    /**
+     * Cache key for an analysis prompt: SHA-256 over prompt version, model and prompt text
+     */
+    public static String key(int promptVersion, String model, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((promptVersion + "\n" + model + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(prompt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Stored Claude response for a key, recording the hit
+     */
+    public Optional<String> find(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            Optional<String> cached = requiresNew.execute(status -> {
+                Optional<String> response = cacheRepository.findById(key).map(ClaudeAnalysisCacheJpaEntity::getResponse);
+                if (response.isPresent()) {
+                    cacheRepository.recordHit(key, LocalDateTime.now());
+                }
+                return response;
+            });
+            (cached != null && cached.isPresent() ? hitCounter : missCounter).increment();
+            return cached != null ? cached : Optional.empty();
+        } catch (Exception e) {
+            log.warn("Claude analysis cache lookup failed, calling Claude: {}", e.getMessage());
+            missCounter.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether a response is stored for a key, without recording a hit or a miss
+     */
+    public boolean contains(String key) {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            return cacheRepository.existsById(key);
+        } catch (Exception e) {
+            log.debug("Claude analysis cache probe failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Store a Claude response that parsed into a usable analysis
+     */
+    public void store(String key, String model, int promptVersion, String response) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status ->
+                cacheRepository.save(new ClaudeAnalysisCacheJpaEntity(key, model, promptVersion, response)));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance analysed the same prompt concurrently; its entry is equivalent
+            log.debug("Claude analysis {} already cached", key);
+        } catch (Exception e) {
+            log.warn("Failed to cache Claude analysis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop entries that no curation has used within the retention window
+     */
+    @Scheduled(cron = "${portfolio.ai.analysis-cache.purge-cron:0 45 3 * * *}")
+    public int purgeUnused() {
+        try {
+            Integer deleted = requiresNew.execute(status ->
+                cacheRepository.deleteUnusedSince(LocalDateTime.now().minus(retention)));
+            if (deleted != null && deleted > 0) {
+                log.info("Purged {} Claude analyses unused for {}", deleted, retention);
+            }
+            return deleted != null ? deleted : 0;
+        } catch (Exception e) {
+            log.warn("Claude analysis cache purge failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private static Counter counter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("claude.analysis.cache")
+                .description("Claude repository analyses served from the persistent cache (hit) or requested from Claude (miss)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
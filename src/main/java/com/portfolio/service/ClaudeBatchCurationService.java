@@ -0,0 +1,357 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
+import com.portfolio.core.port.out.AIServicePort;
+import com.portfolio.exception.RepositoryLockedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk curation through the Anthropic Message Batches API, meant for large runs such as
+ * the nightly re-curation. Sources are collected while the run produces them; the batch
+ * is submitted on {@link MessageBatchCuration#await}, polled on the task scheduler and
+ * every analysis is applied through {@link PortfolioService#curateFromAnalysis}.
+ *
+ * Message Batches are billed at a lower rate than synchronous calls but can take up to a
+ * day to finish. The run waits only {@code await-timeout} for them, because it holds the
+ * full sync slot, the cluster sync lease and a scheduler thread meanwhile; a batch still
+ * running then is handed off and its results are applied whenever it ends, under the same
+ * repository locks. Its sources are left out of later runs until then. A batch that has not
+ * ended after {@code max-lifetime} is cancelled. Hand-offs live in memory only: after a
+ * restart the batch is left to expire and its sources, still UNSYNCED, are curated again.
+ */
+@Service
+public class ClaudeBatchCurationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaudeBatchCurationService.class);
+    private static final String CUSTOM_ID_PREFIX = "source-";
+
+    private final SourceRepositoryJpaRepository sourceRepositoryRepository;
+    private final ReadmeStoreService readmeStoreService;
+    private final AIServicePort aiService;
+    private final PortfolioService portfolioService;
+    private final PortfolioCurationExecutor curationExecutor;
+    private final SyncLockRegistry syncLockRegistry;
+    private final SyncMonitorService syncMonitorService;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    // Sources in a submitted batch whose results have not been applied yet
+    private final Set<Long> inFlightSources = ConcurrentHashMap.newKeySet();
+
+    @Value("${portfolio.curation.message-batches.enabled:false}")
+    private boolean enabled;
+
+    @Value("${portfolio.curation.message-batches.poll-interval:30s}")
+    private Duration pollInterval;
+
+    @Value("${portfolio.curation.message-batches.await-timeout:15m}")
+    private Duration awaitTimeout;
+
+    @Value("${portfolio.curation.message-batches.max-lifetime:24h}")
+    private Duration maxLifetime;
+
+    @Value("${portfolio.curation.message-batches.max-requests:1000}")
+    private int maxRequestsPerBatch;
+
+    @Value("${portfolio.curation.estimated-tokens-per-source:3000}")
+    private int estimatedTokensPerSource;
+
+    public ClaudeBatchCurationService(SourceRepositoryJpaRepository sourceRepositoryRepository,
+                                      ReadmeStoreService readmeStoreService,
+                                      AIServicePort aiService,
+                                      PortfolioService portfolioService,
+                                      PortfolioCurationExecutor curationExecutor,
+                                      SyncLockRegistry syncLockRegistry,
+                                      SyncMonitorService syncMonitorService,
+                                      TaskScheduler taskScheduler,
+                                      MeterRegistry meterRegistry) {
+        this.sourceRepositoryRepository = sourceRepositoryRepository;
+        this.readmeStoreService = readmeStoreService;
+        this.aiService = aiService;
+        this.portfolioService = portfolioService;
+        this.curationExecutor = curationExecutor;
+        this.syncLockRegistry = syncLockRegistry;
+        this.syncMonitorService = syncMonitorService;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Batch that curates its sources through Message Batches, within {@code limits}
+     */
+    public MessageBatchCuration openBatch(SyncRunLimits limits) {
+        return new MessageBatchCuration(limits);
+    }
+
+    static String customId(Long sourceRepositoryId) {
+        return CUSTOM_ID_PREFIX + sourceRepositoryId;
+    }
+
+    static Long sourceRepositoryId(String customId) {
+        return Long.valueOf(customId.substring(CUSTOM_ID_PREFIX.length()));
+    }
+
+    /**
+     * Collects sources without blocking producers; {@link #await} submits, polls and applies.
+     */
+    public final class MessageBatchCuration implements PortfolioCurationExecutor.CurationBatch {
+        private final SyncRunLimits limits;
+        private final Map<Long, PortfolioCurationExecutor.CurationTask> tasks = new LinkedHashMap<>();
+        private final long openedNanos = System.nanoTime();
+        private int curated;
+        private int failed;
+        private int skipped;
+
+        private MessageBatchCuration(SyncRunLimits limits) {
+            this.limits = limits;
+        }
+
+        @Override
+        public boolean submit(PortfolioCurationExecutor.CurationTask task) {
+            return tasks.putIfAbsent(task.sourceRepositoryId(), task) == null;
+        }
+
+        @Override
+        public PortfolioCurationExecutor.CurationResult await() {
+            long busyStart = System.nanoTime();
+            List<AIServicePort.RepositoryAnalysisInput> inputs = buildInputs();
+            if (!inputs.isEmpty()) {
+                syncMonitorService.appendLog("INFO", String.format(
+                    "Curating %d sources through Claude Message Batches", inputs.size()));
+            }
+
+            List<AIServicePort.AnalysisBatch> batches = new ArrayList<>();
+            for (int from = 0; from < inputs.size(); from += Math.max(1, maxRequestsPerBatch)) {
+                List<AIServicePort.RepositoryAnalysisInput> chunk =
+                    inputs.subList(from, Math.min(inputs.size(), from + Math.max(1, maxRequestsPerBatch)));
+                try {
+                    AIServicePort.AnalysisBatch batch = aiService.submitAnalysisBatch(chunk);
+                    batches.add(batch);
+                    batch.submitted().keySet().forEach(customId -> inFlightSources.add(sourceRepositoryId(customId)));
+                    apply(batch.ready());
+                    skipped += batch.rejected().size();
+                    meterRegistry.counter("sync.portfolio.batch.requests", "outcome", "submitted")
+                        .increment(batch.submitted().size());
+                } catch (Exception e) {
+                    log.warn("Message Batch submission failed, curating {} sources directly: {}", chunk.size(), e.getMessage());
+                    syncMonitorService.appendLog("WARN", "Message Batch submission failed, curating "
+                        + chunk.size() + " sources one by one: " + e.getMessage());
+                    curateDirectly(chunk);
+                }
+            }
+
+            awaitSubmitted(batches);
+            long now = System.nanoTime();
+            return new PortfolioCurationExecutor.CurationResult(curated, failed, skipped,
+                Duration.ofNanos(now - openedNanos), Duration.ofNanos(now - busyStart), Duration.ZERO);
+        }
+
+        /**
+         * Analysis inputs in priority order, leaving out sources beyond the run limits
+         */
+        private List<AIServicePort.RepositoryAnalysisInput> buildInputs() {
+            Map<Long, SourceRepositoryJpaEntity> sources = sourceRepositoryRepository.findAllById(tasks.keySet()).stream()
+                .collect(Collectors.toMap(SourceRepositoryJpaEntity::getId, Function.identity()));
+            List<PortfolioCurationExecutor.CurationTask> ordered = tasks.values().stream()
+                .sorted(Comparator.comparingInt(PortfolioCurationExecutor.CurationTask::priority).reversed())
+                .collect(Collectors.toList());
+
+            List<AIServicePort.RepositoryAnalysisInput> inputs = new ArrayList<>();
+            int reservedTokens = 0;
+            for (PortfolioCurationExecutor.CurationTask task : ordered) {
+                SourceRepositoryJpaEntity source = sources.get(task.sourceRepositoryId());
+                if (source == null) {
+                    log.warn("Skipping curation of {}: source repository no longer exists", task.label());
+                    failed++;
+                    continue;
+                }
+                if (inFlightSources.contains(source.getId())) {
+                    // Still in a batch an earlier run handed off; it is curated when that batch ends
+                    skipped++;
+                    continue;
+                }
+                // The whole batch is spent up front, so the allowance has to cover all of it
+                if (!limits.allowsCuration(reservedTokens + estimatedTokensPerSource)) {
+                    skipped++;
+                    limits.recordDeferred();
+                    meterRegistry.counter("sync.portfolio.deferred", "reason", limits.exhaustedReason()).increment();
+                    continue;
+                }
+                reservedTokens += estimatedTokensPerSource;
+                inputs.add(new AIServicePort.RepositoryAnalysisInput(customId(source.getId()), source.getName(),
+                    source.getDescription(), readmeStoreService.getMarkdown(source), source.getTopics(), source.getLanguage()));
+            }
+            return inputs;
+        }
+
+        private void awaitSubmitted(List<AIServicePort.AnalysisBatch> batches) {
+            Map<AIServicePort.AnalysisBatch, CompletableFuture<AIServicePort.AnalysisBatchStatus>> pending = new LinkedHashMap<>();
+            batches.stream().filter(AIServicePort.AnalysisBatch::isSubmitted).forEach(batch -> pending.put(batch, poll(batch)));
+            long deadline = System.nanoTime() + awaitTimeout.toNanos();
+
+            try {
+                for (Map.Entry<AIServicePort.AnalysisBatch, CompletableFuture<AIServicePort.AnalysisBatchStatus>> entry : pending.entrySet()) {
+                    AIServicePort.AnalysisBatch batch = entry.getKey();
+                    try {
+                        AIServicePort.AnalysisBatchStatus status = entry.getValue()
+                            .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                        apply(status.results());
+                        recordErrors(batch, status.errors());
+                        release(batch);
+                    } catch (TimeoutException e) {
+                        handOff(batch, entry.getValue());
+                    } catch (ExecutionException e) {
+                        log.error("Message Batch {} could not be collected: {}", batch.batchId(), e.getCause().getMessage());
+                        failed += batch.submitted().size();
+                        release(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                pending.forEach((batch, future) -> {
+                    future.cancel(false);
+                    release(batch);
+                });
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Claude Message Batches", e);
+            }
+        }
+
+        /**
+         * Poll on the task scheduler until the batch has ended, or cancel it once it is older
+         * than {@code max-lifetime}. A failed poll is retried on the next tick; the batch keeps
+         * processing on Anthropic's side regardless.
+         */
+        private CompletableFuture<AIServicePort.AnalysisBatchStatus> poll(AIServicePort.AnalysisBatch batch) {
+            CompletableFuture<AIServicePort.AnalysisBatchStatus> done = new CompletableFuture<>();
+            long expiresAt = System.nanoTime() + maxLifetime.toNanos();
+            ScheduledFuture<?> poller = taskScheduler.scheduleWithFixedDelay(() -> {
+                if (done.isDone()) {
+                    return;
+                }
+                if (System.nanoTime() - expiresAt >= 0) {
+                    abandon(batch);
+                    done.completeExceptionally(new TimeoutException("not ended after " + maxLifetime));
+                    return;
+                }
+                try {
+                    AIServicePort.AnalysisBatchStatus status = aiService.pollAnalysisBatch(batch);
+                    if (status.ended()) {
+                        done.complete(status);
+                    }
+                } catch (Exception e) {
+                    log.warn("Polling Message Batch {} failed, retrying: {}", batch.batchId(), e.getMessage());
+                }
+            }, Instant.now().plus(pollInterval), pollInterval);
+            done.whenComplete((status, error) -> poller.cancel(false));
+            return done;
+        }
+
+        /**
+         * Stop waiting for a batch but keep polling it; its results are applied when it ends.
+         * The run counts its sources as skipped.
+         */
+        private void handOff(AIServicePort.AnalysisBatch batch, CompletableFuture<AIServicePort.AnalysisBatchStatus> future) {
+            skipped += batch.submitted().size();
+            syncMonitorService.appendLog("INFO", String.format(
+                "Message Batch %s still running after %s; its %d results are applied when it ends",
+                batch.batchId(), awaitTimeout, batch.submitted().size()));
+            future.whenComplete((status, error) -> {
+                try {
+                    if (status != null) {
+                        apply(status.results());
+                        recordErrors(batch, status.errors());
+                        syncMonitorService.appendLog("INFO", String.format(
+                            "Applied %d results of handed-off Message Batch %s", status.results().size(), batch.batchId()));
+                    }
+                } finally {
+                    release(batch);
+                }
+            });
+        }
+
+        private void release(AIServicePort.AnalysisBatch batch) {
+            batch.submitted().keySet().forEach(customId -> inFlightSources.remove(sourceRepositoryId(customId)));
+        }
+
+        private void abandon(AIServicePort.AnalysisBatch batch) {
+            syncMonitorService.appendLog("WARN", String.format(
+                "Gave up on Message Batch %s after %s; its %d sources stay UNSYNCED",
+                batch.batchId(), maxLifetime, batch.submitted().size()));
+            try {
+                aiService.cancelAnalysisBatch(batch);
+            } catch (Exception e) {
+                log.warn("Failed to cancel Message Batch {}: {}", batch.batchId(), e.getMessage());
+            }
+        }
+
+        private synchronized void recordErrors(AIServicePort.AnalysisBatch batch, Map<String, String> errors) {
+            if (errors.isEmpty()) {
+                return;
+            }
+            // Sources keep their sync status, so the next run asks again
+            failed += errors.size();
+            meterRegistry.counter("sync.portfolio.batch.requests", "outcome", "failed").increment(errors.size());
+            errors.forEach((customId, reason) -> log.warn("Message Batch {} request {} failed: {}", batch.batchId(), customId, reason));
+            syncMonitorService.appendLog("WARN", String.format(
+                "%d analyses of Message Batch %s failed", errors.size(), batch.batchId()));
+        }
+
+        // Synchronized: results of a handed-off batch arrive on a scheduler thread
+        private synchronized void apply(Map<String, AIServicePort.ClaudeAnalysisResult> analyses) {
+            analyses.forEach((customId, analysis) -> {
+                Long sourceRepositoryId = sourceRepositoryId(customId);
+                PortfolioCurationExecutor.CurationTask task = tasks.get(sourceRepositoryId);
+                try (SyncLockRegistry.RepositoryLock lock = syncLockRegistry.lockRepository(sourceRepositoryId)) {
+                    portfolioService.curateFromAnalysis(sourceRepositoryId, analysis);
+                    curated++;
+                    meterRegistry.counter(task != null && task.recuration() ? "sync.portfolio.updated" : "sync.portfolio.created")
+                        .increment();
+                } catch (RepositoryLockedException e) {
+                    // A resync of the same source is running; it curates the source anyway
+                    log.info("Skipping batch result for source {}: {}", sourceRepositoryId, e.getMessage());
+                    skipped++;
+                    meterRegistry.counter("sync.portfolio.skipped.locked").increment();
+                } catch (Exception e) {
+                    log.warn("Failed to apply batch result for source {}: {}", sourceRepositoryId, e.getMessage());
+                    failed++;
+                    meterRegistry.counter("sync.portfolio.failed").increment();
+                }
+            });
+        }
+
+        private void curateDirectly(List<AIServicePort.RepositoryAnalysisInput> chunk) {
+            PortfolioCurationExecutor.CurationResult result = curationExecutor.curateAll(chunk.stream()
+                .map(input -> tasks.get(sourceRepositoryId(input.customId())))
+                .collect(Collectors.toList()));
+            curated += result.curated();
+            failed += result.failed();
+            skipped += result.skipped();
+        }
+    }
+}
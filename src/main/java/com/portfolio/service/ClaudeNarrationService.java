@@ -4,9 +4,12 @@
  */
 package com.portfolio.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.portfolio.model.JourneyEvent;
 import com.portfolio.model.JourneySession;
 import com.portfolio.core.port.out.AIServicePort;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -14,11 +17,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.io.IOException;
 
 @Service
@@ -32,6 +41,7 @@ public class ClaudeNarrationService {
         Rules: No questions, no PII, focus on technical value and business impact.
         Emit one insight per line, pause between insights.
         """;
+    private static final int CACHE_KEY_TOP_PROJECTS = 3;
     
     @Autowired
     private AIServicePort aiService;
@@ -48,6 +58,15 @@ public class ClaudeNarrationService {
     @Value("${app.narration.enabled:true}")
     private boolean narrationEnabled;
     
+    @Value("${app.narration.cache.ttl:30m}")
+    private Duration narrationCacheTtl;
+    
+    @Value("${app.narration.cache.max-size:500}")
+    private int narrationCacheMaxSize;
+    
+    // Narrations by journey feature key: visitors with equivalent journeys share one Claude call
+    private Cache<String, String> narrationCache;
+    
     // Track active streams per IP for rate limiting
     private final Map<String, AtomicInteger> activeStreams = new ConcurrentHashMap<>();
     private static final int MAX_CONCURRENT_STREAMS = 10;
@@ -56,6 +75,14 @@ public class ClaudeNarrationService {
     private final AtomicInteger globalActiveStreams = new AtomicInteger(0);
     private static final int MAX_GLOBAL_STREAMS = 50;
     
+    @PostConstruct
+    void initNarrationCache() {
+        narrationCache = Caffeine.newBuilder()
+            .maximumSize(narrationCacheMaxSize)
+            .expireAfterWrite(narrationCacheTtl)
+            .build();
+    }
+    
     public SseEmitter createNarrationStream(String sessionId, String clientIp) {
         if (!narrationEnabled) {
             logger.info("Narration disabled, returning mock stream");
@@ -138,15 +165,11 @@ public class ClaudeNarrationService {
         Thread.sleep(2000);
     }
 
-    private void generateFreshNarration(SseEmitter emitter, String userPrompt) throws IOException, InterruptedException {
+    private void generateFreshNarration(SseEmitter emitter, String cacheKey, String userPrompt) throws IOException, InterruptedException {
         var timer = metricsService.startNarrationTimer();
         
         try {
-            String response = aiService.chat(SYSTEM_PROMPT, userPrompt);
-            
-            // Estimate tokens used (rough calculation: ~4 chars per token)
-            int estimatedTokens = (userPrompt.length() + (response != null ? response.length() : 0)) / 4;
-            metricsService.recordTokensUsed(estimatedTokens);
+            String response = narration(cacheKey, userPrompt);
             
             if (response != null && !response.trim().isEmpty()) {
                 // Split response into lines and send each with delay
@@ -165,6 +188,79 @@ public class ClaudeNarrationService {
         }
     }
     
+    /**
+     * Narration for a journey: the one generated for an equivalent journey while it is
+     * cached, otherwise a fresh one from Claude
+     */
+    String narration(String cacheKey, String userPrompt) {
+        String cached = narrationCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            metricsService.recordNarrationCacheHit();
+            return cached;
+        }
+        metricsService.recordNarrationCacheMiss();
+        
+        AIServicePort.ChatReply reply = aiService.chatReply(SYSTEM_PROMPT, userPrompt);
+        String response = reply.text();
+        
+        // Estimate tokens used (rough calculation: ~4 chars per token)
+        int estimatedTokens = (userPrompt.length() + (response != null ? response.length() : 0)) / 4;
+        metricsService.recordTokensUsed(estimatedTokens);
+        
+        // A fallback message is no narration; it is never reused for other visitors
+        if (!reply.fallback() && response != null && !response.trim().isEmpty()) {
+            narrationCache.put(cacheKey, response);
+        }
+        return response;
+    }
+    
+    /**
+     * Normalized features of a journey: bucketed route, project view and click counts plus
+     * the most visited projects. Journeys with the same key get the same narration.
+     */
+    static String narrationCacheKey(List<JourneyEvent> events) {
+        long routeEvents = countOfType(events, "route");
+        long projectViews = countOfType(events, "project_view");
+        long projectClicks = countOfType(events, "project_click");
+        
+        Map<String, Long> projectVisits = events.stream()
+            .filter(e -> e.getData() != null)
+            .filter(e -> e.getType() != null && e.getType().startsWith("project_"))
+            .map(e -> e.getData().get("repo"))
+            .filter(Objects::nonNull)
+            .map(repo -> repo.toString().trim().toLowerCase(Locale.ROOT))
+            .filter(repo -> !repo.isEmpty())
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        String topProjects = projectVisits.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(CACHE_KEY_TOP_PROJECTS)
+            .map(Map.Entry::getKey)
+            .sorted(Comparator.naturalOrder())
+            .collect(Collectors.joining(","));
+        
+        return "routes=" + bucket(routeEvents) + ";views=" + bucket(projectViews)
+            + ";clicks=" + bucket(projectClicks) + ";projects=" + topProjects;
+    }
+    
+    private static long countOfType(List<JourneyEvent> events, String type) {
+        return events.stream()
+            .filter(e -> type.equals(e.getType()))
+            .count();
+    }
+    
+    /**
+     * Bucket a count of recent events: 0, 1, 2-3, 4-6 or 7+
+     */
+    private static int bucket(long count) {
+        if (count <= 1) {
+            return (int) count;
+        }
+        if (count <= 3) {
+            return 2;
+        }
+        return count <= 6 ? 3 : 4;
+    }
+    
     private void generateNarrationAsync(SseEmitter emitter, JourneySession session) {
         CompletableFuture.runAsync(() -> {
             try {
@@ -183,7 +279,7 @@ public class ClaudeNarrationService {
                     sendKeepAliveMessage(emitter);
                 } else {
                     // Call Claude API for fresh narrative
-                    generateFreshNarration(emitter, userPrompt);
+                    generateFreshNarration(emitter, narrationCacheKey(events), userPrompt);
                 }
                 
                 // Signal done with explicit event name so clients can stop reconnecting
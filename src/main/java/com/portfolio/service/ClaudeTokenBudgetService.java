@@ -13,11 +13,21 @@ import jakarta.annotation.PostConstruct;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Creado por Bernard Orozco
+ *
+ * Claude calls reserve an estimate before the request, then commit the usage Claude reports
+ * and release the rest of the reservation. The daily budget is checked against committed
+ * usage plus outstanding reservations, so concurrent calls never overrun it together.
+ *
+ * Every reset, daily or manual, starts a new generation. A reservation settles against the
+ * usage of the generation it was taken in; one that outlived a reset only adds what it used.
+ * Usage, outstanding reservations and the generation live in one immutable window swapped by
+ * compare-and-set, so a charge and its generation stamp can never straddle a reset.
  */
 @Service
 public class ClaudeTokenBudgetService {
@@ -44,18 +54,31 @@ public class ClaudeTokenBudgetService {
     @Value("${portfolio.ai.claude.low-budget-threshold:10000}")
     private int lowBudgetThreshold;
 
-    private final AtomicInteger currentTokenUsage = new AtomicInteger(0);
-    private final AtomicReference<LocalDate> lastResetDate = new AtomicReference<>(LocalDate.now());
+    // The budget check only reads this window; every change replaces it
+    private final AtomicReference<BudgetWindow> window = new AtomicReference<>(BudgetWindow.first(LocalDate.now()));
     private final AtomicReference<Boolean> lowBudgetAlertSent = new AtomicReference<>(false);
 
+    // Reporting only, so contention-free adders: the input tokens Claude reported today,
+    // uncached, written to the prompt cache and read from it
+    private final LongAdder uncachedInputTokens = new LongAdder();
+    private final LongAdder cacheWriteInputTokens = new LongAdder();
+    private final LongAdder cacheReadInputTokens = new LongAdder();
+
     private Counter tokenUsageCounter;
     private Counter warnThresholdCounter;
     private Counter budgetExceededCounter;
     private Counter lowBudgetAlertCounter;
+    private Counter uncachedInputCounter;
+    private Counter cacheWriteInputCounter;
+    private Counter cacheReadInputCounter;
+    private Counter outputTokenCounter;
+    private Counter releasedTokenCounter;
     @SuppressWarnings("unused")
     private Gauge remainingTokensGauge;
     @SuppressWarnings("unused")
     private Gauge usagePercentageGauge;
+    @SuppressWarnings("unused")
+    private Gauge promptCacheHitRatioGauge;
     
     @PostConstruct
     public void init() {
@@ -64,6 +87,11 @@ public class ClaudeTokenBudgetService {
         warnThresholdCounter = meterRegistry.counter("claude.budget.warn_threshold_exceeded");
         budgetExceededCounter = meterRegistry.counter("claude.budget.exceeded");
         lowBudgetAlertCounter = meterRegistry.counter("claude.budget.low_budget_alert");
+        uncachedInputCounter = meterRegistry.counter("claude.tokens.input", "cache", "none");
+        cacheWriteInputCounter = meterRegistry.counter("claude.tokens.input", "cache", "write");
+        cacheReadInputCounter = meterRegistry.counter("claude.tokens.input", "cache", "read");
+        outputTokenCounter = meterRegistry.counter("claude.tokens.output");
+        releasedTokenCounter = meterRegistry.counter("claude.tokens.released");
 
         remainingTokensGauge = Gauge.builder("claude.tokens.remaining", this, service -> service.getRemainingTokens())
                 .description("Remaining Claude tokens for today")
@@ -73,6 +101,10 @@ public class ClaudeTokenBudgetService {
                 .description("Percentage of daily Claude budget used")
                 .register(meterRegistry);
 
+        promptCacheHitRatioGauge = Gauge.builder("claude.prompt_cache.hit_ratio", this, service -> service.getPromptCacheHitRatio())
+                .description("Share of today's Claude input tokens read from the prompt cache")
+                .register(meterRegistry);
+
         log.info("Claude token budget service initialized: budget={}, warn_threshold={}, low_budget_threshold={}",
                 dailyTokenBudget, warnThreshold, lowBudgetThreshold);
     }
@@ -83,7 +115,7 @@ public class ClaudeTokenBudgetService {
     public boolean canUseTokens(int tokens) {
         checkAndResetIfNewDay();
         
-        int currentUsage = currentTokenUsage.get();
+        int currentUsage = window.get().usage();
         int potentialUsage = currentUsage + tokens;
         
         if (potentialUsage > dailyTokenBudget) {
@@ -102,39 +134,99 @@ public class ClaudeTokenBudgetService {
      */
     public BudgetResult useTokens(int tokens, String operation) {
         checkAndResetIfNewDay();
+        BudgetResult result = charge(tokens, operation, false).result();
+        if (result.isAllowed()) {
+            tokenUsageCounter.increment(tokens);
+        }
+        return result;
+    }
+
+    /**
+     * Reserve an estimate of the tokens a Claude call may use. The reservation counts against
+     * the budget until it is committed with the real usage or released.
+     */
+    public TokenReservation reserve(int estimatedTokens, String operation) {
+        checkAndResetIfNewDay();
+        Charge charge = charge(estimatedTokens, operation, true);
+        if (!charge.result().isAllowed()) {
+            return TokenReservation.denied(operation, charge.result().getReason());
+        }
+        return TokenReservation.granted(estimatedTokens, operation, charge.generation());
+    }
+
+    /**
+     * Settle a reservation with the usage Claude reported: the budget is charged the billed
+     * tokens and the rest of the estimate is returned. Settling twice has no effect.
+     */
+    public void commit(TokenReservation reservation, TokenUsage usage) {
+        if (reservation.settle()) {
+            recordPromptUsage(reservation.getOperation(), usage);
+            settle(reservation, usage.billedTokens());
+        }
+    }
 
-        // Atomic check-and-update to prevent race conditions
-        // This ensures that multiple concurrent calls don't both succeed when budget is insufficient
-        final int[] previousUsageHolder = new int[1];
-        final boolean[] budgetExceeded = new boolean[1];
+    /**
+     * Settle a reservation at a token count known without a usage report, e.g. the estimate itself
+     */
+    public void commit(TokenReservation reservation, int tokens) {
+        if (reservation.settle()) {
+            settle(reservation, tokens);
+        }
+    }
 
-        int newUsage = currentTokenUsage.updateAndGet(currentUsage -> {
-            previousUsageHolder[0] = currentUsage;
-            int potentialUsage = currentUsage + tokens;
+    /**
+     * Return a whole reservation, for a call that failed before Claude processed it.
+     * A reservation that was already committed is left alone.
+     */
+    public void release(TokenReservation reservation) {
+        if (reservation.settle()) {
+            settle(reservation, 0);
+        }
+    }
 
-            if (potentialUsage > dailyTokenBudget) {
-                // Budget would be exceeded - don't update
-                budgetExceeded[0] = true;
-                return currentUsage;  // Return unchanged value
-            }
+    private void settle(TokenReservation reservation, int actualTokens) {
+        checkAndResetIfNewDay();
+        // Reserved before a daily or manual reset, which already dropped the reservation,
+        // the call only adds what it used
+        window.updateAndGet(current -> current.generation() == reservation.getGeneration()
+                ? current.add(actualTokens - reservation.getTokens(), -reservation.getTokens())
+                : current.add(actualTokens, 0));
+        tokenUsageCounter.increment(actualTokens);
+        if (actualTokens < reservation.getTokens()) {
+            releasedTokenCounter.increment(reservation.getTokens() - actualTokens);
+        }
+        log.debug("Claude tokens settled for '{}': reserved={}, actual={}",
+                reservation.getOperation(), reservation.getTokens(), actualTokens);
+    }
 
-            // Budget allows - update atomically
-            return potentialUsage;
-        });
+    /**
+     * Atomically add tokens to today's usage if the budget allows, raising threshold alerts.
+     * A reservation also counts the tokens as outstanding until it is settled.
+     */
+    private Charge charge(int tokens, String operation, boolean reservation) {
+        // Compare-and-set on the whole window: concurrent calls never both pass the check when
+        // the budget is insufficient, and the charge lands in the generation it is stamped with
+        BudgetWindow previous;
+        BudgetWindow charged;
+        do {
+            previous = window.get();
+            if (previous.usage() + tokens > dailyTokenBudget) {
+                charged = null;
+                break;
+            }
+            charged = previous.add(tokens, reservation ? tokens : 0);
+        } while (!window.compareAndSet(previous, charged));
 
-        // Check if budget was exceeded during atomic update
-        if (budgetExceeded[0]) {
-            int currentUsage = previousUsageHolder[0];
+        if (charged == null) {
+            int currentUsage = previous.usage();
             log.warn("Claude token budget exceeded for operation '{}': requested={}, current={}, budget={}",
                     operation, tokens, currentUsage, dailyTokenBudget);
             budgetExceededCounter.increment();
-            return BudgetResult.budgetExceeded(currentUsage, dailyTokenBudget);
+            return new Charge(BudgetResult.budgetExceeded(currentUsage, dailyTokenBudget), previous.generation());
         }
 
-        // Budget allowed - record metrics
-        tokenUsageCounter.increment(tokens);
-
-        int currentUsage = previousUsageHolder[0];
+        int currentUsage = previous.usage();
+        int newUsage = charged.usage();
         int remainingTokens = dailyTokenBudget - newUsage;
 
         // Check warn threshold
@@ -174,15 +266,46 @@ public class ClaudeTokenBudgetService {
         log.debug("Claude tokens used for '{}': tokens={}, total_usage={}, remaining={}",
                 operation, tokens, newUsage, remainingTokens);
 
-        return BudgetResult.success(newUsage, dailyTokenBudget, usagePercentage >= warnThreshold);
+        return new Charge(BudgetResult.success(newUsage, dailyTokenBudget, usagePercentage >= warnThreshold),
+                charged.generation());
     }
     
     /**
-     * Get current token usage
+     * Record the token usage Claude reported for a response. Prompt cache reads are billed
+     * at a fraction of regular input tokens, so they are tracked apart from uncached input.
+     */
+    public void recordPromptUsage(String operation, TokenUsage usage) {
+        checkAndResetIfNewDay();
+
+        uncachedInputTokens.add(usage.inputTokens());
+        cacheWriteInputTokens.add(usage.cacheCreationInputTokens());
+        cacheReadInputTokens.add(usage.cacheReadInputTokens());
+        uncachedInputCounter.increment(usage.inputTokens());
+        cacheWriteInputCounter.increment(usage.cacheCreationInputTokens());
+        cacheReadInputCounter.increment(usage.cacheReadInputTokens());
+        outputTokenCounter.increment(usage.outputTokens());
+
+        log.debug("Claude usage for '{}': input={}, cache_write={}, cache_read={}, output={}",
+                operation, usage.inputTokens(), usage.cacheCreationInputTokens(),
+                usage.cacheReadInputTokens(), usage.outputTokens());
+    }
+
+    /**
+     * Share of today's input tokens served from the prompt cache (0.0 to 1.0)
+     */
+    public double getPromptCacheHitRatio() {
+        checkAndResetIfNewDay();
+        long read = cacheReadInputTokens.sum();
+        long total = read + cacheWriteInputTokens.sum() + uncachedInputTokens.sum();
+        return total > 0 ? (double) read / total : 0.0;
+    }
+
+    /**
+     * Get current token usage, outstanding reservations included
      */
     public int getCurrentUsage() {
         checkAndResetIfNewDay();
-        return currentTokenUsage.get();
+        return window.get().usage();
     }
     
     /**
@@ -190,7 +313,7 @@ public class ClaudeTokenBudgetService {
      */
     public int getRemainingTokens() {
         checkAndResetIfNewDay();
-        return Math.max(0, dailyTokenBudget - currentTokenUsage.get());
+        return Math.max(0, dailyTokenBudget - window.get().usage());
     }
     
     /**
@@ -198,7 +321,7 @@ public class ClaudeTokenBudgetService {
      */
     public double getUsagePercentage() {
         checkAndResetIfNewDay();
-        return (double) currentTokenUsage.get() / dailyTokenBudget;
+        return (double) window.get().usage() / dailyTokenBudget;
     }
     
     /**
@@ -207,7 +330,8 @@ public class ClaudeTokenBudgetService {
     public BudgetStatus getBudgetStatus() {
         checkAndResetIfNewDay();
         
-        int usage = currentTokenUsage.get();
+        BudgetWindow current = window.get();
+        int usage = current.usage();
         double percentage = (double) usage / dailyTokenBudget;
         
         return BudgetStatus.builder()
@@ -217,8 +341,12 @@ public class ClaudeTokenBudgetService {
                 .usagePercentage(percentage)
                 .warnThresholdExceeded(percentage >= warnThreshold)
                 .budgetExceeded(usage >= dailyTokenBudget)
-                .resetDate(lastResetDate.get())
+                .resetDate(current.date())
                 .nextResetTime(getNextResetTime())
+                .reservedTokens(current.reserved())
+                .uncachedInputTokens(uncachedInputTokens.sum())
+                .cacheWriteInputTokens(cacheWriteInputTokens.sum())
+                .cacheReadInputTokens(cacheReadInputTokens.sum())
                 .build();
     }
     
@@ -226,9 +354,7 @@ public class ClaudeTokenBudgetService {
      * Manually reset budget (admin endpoint)
      */
     public void resetBudget() {
-        currentTokenUsage.set(0);
-        lastResetDate.set(LocalDate.now());
-        lowBudgetAlertSent.set(false);
+        startWindow(LocalDate.now(), true);
 
         log.info("Claude token budget manually reset: budget={}", dailyTokenBudget);
         meterRegistry.counter("claude.budget.manual_reset").increment();
@@ -240,7 +366,7 @@ public class ClaudeTokenBudgetService {
     @Scheduled(cron = "${portfolio.ai.claude.budget-reset-cron:0 0 0 * * *}")
     public void scheduledReset() {
         LocalDate today = LocalDate.now();
-        if (!today.equals(lastResetDate.get())) {
+        if (!today.equals(window.get().date())) {
             resetBudget();
             log.info("Claude token budget scheduled reset completed");
         }
@@ -248,18 +374,43 @@ public class ClaudeTokenBudgetService {
     
     private void checkAndResetIfNewDay() {
         LocalDate today = LocalDate.now();
-        LocalDate lastReset = lastResetDate.get();
+        if (today.equals(window.get().date())) {
+            return;
+        }
+        BudgetWindow previous = startWindow(today, false);
+        if (previous == null) {
+            // Another thread reset first
+            return;
+        }
 
-        if (!today.equals(lastReset)) {
-            // Reset for new day
-            int previousUsage = currentTokenUsage.getAndSet(0);
-            lastResetDate.set(today);
-            lowBudgetAlertSent.set(false);
+        log.info("Claude token budget reset for new day: previous_usage={}, budget={}",
+                previous.usage(), dailyTokenBudget);
+        meterRegistry.counter("claude.budget.daily_reset").increment();
+    }
+    
+    /**
+     * Replace the window with an empty one of the next generation, dropping outstanding
+     * reservations with it. Unless forced, only a window of another day is replaced.
+     *
+     * @return the window replaced, or null when it already was for {@code day}
+     */
+    private BudgetWindow startWindow(LocalDate day, boolean force) {
+        BudgetWindow previous;
+        do {
+            previous = window.get();
+            if (!force && day.equals(previous.date())) {
+                return null;
+            }
+        } while (!window.compareAndSet(previous, previous.next(day)));
+        lowBudgetAlertSent.set(false);
+        resetPromptUsage();
+        return previous;
+    }
 
-            log.info("Claude token budget reset for new day: previous_usage={}, budget={}",
-                    previousUsage, dailyTokenBudget);
-            meterRegistry.counter("claude.budget.daily_reset").increment();
-        }
+    private void resetPromptUsage() {
+        uncachedInputTokens.reset();
+        cacheWriteInputTokens.reset();
+        cacheReadInputTokens.reset();
     }
     
     private LocalDateTime getNextResetTime() {
@@ -267,7 +418,102 @@ public class ClaudeTokenBudgetService {
         return LocalDateTime.of(tomorrow, LocalTime.of(budgetResetHour, 0));
     }
     
+    /**
+     * Budget state of one reset generation: committed usage plus outstanding reservations,
+     * and the reservations alone for reporting
+     */
+    private record BudgetWindow(long generation, LocalDate date, int usage, long reserved) {
+
+        static BudgetWindow first(LocalDate date) {
+            return new BudgetWindow(0, date, 0, 0);
+        }
+
+        BudgetWindow add(int tokens, long reservedTokens) {
+            return new BudgetWindow(generation, date, usage + tokens, reserved + reservedTokens);
+        }
+
+        BudgetWindow next(LocalDate day) {
+            return new BudgetWindow(generation + 1, day, 0, 0);
+        }
+    }
+
+    /**
+     * Outcome of a charge with the generation it was charged in
+     */
+    private record Charge(BudgetResult result, long generation) {}
+
     // Result classes
+
+    /**
+     * Tokens Claude reported for one response, or summed over several
+     */
+    public record TokenUsage(int inputTokens, int cacheCreationInputTokens, int cacheReadInputTokens, int outputTokens) {
+
+        // Prompt cache reads are billed at a tenth of the regular input price, writes at 1.25x
+        private static final int CACHE_READ_DISCOUNT = 10;
+        private static final int CACHE_WRITE_PREMIUM = 4;
+
+        /**
+         * Tokens charged to the budget, cache reads and writes weighted by their price
+         */
+        public int billedTokens() {
+            int cacheWrites = cacheCreationInputTokens + (cacheCreationInputTokens + CACHE_WRITE_PREMIUM - 1) / CACHE_WRITE_PREMIUM;
+            return inputTokens + cacheWrites + cacheReadInputTokens / CACHE_READ_DISCOUNT + outputTokens;
+        }
+
+        public TokenUsage plus(TokenUsage other) {
+            return new TokenUsage(inputTokens + other.inputTokens,
+                    cacheCreationInputTokens + other.cacheCreationInputTokens,
+                    cacheReadInputTokens + other.cacheReadInputTokens,
+                    outputTokens + other.outputTokens);
+        }
+    }
+
+    /**
+     * Tokens held against the budget for one Claude call until it is committed or released
+     */
+    public static class TokenReservation {
+        private final boolean allowed;
+        private final int tokens;
+        private final String operation;
+        private final long generation;
+        private final String reason;
+        private final AtomicBoolean settled;
+
+        private TokenReservation(boolean allowed, int tokens, String operation, long generation, String reason) {
+            this.allowed = allowed;
+            this.tokens = tokens;
+            this.operation = operation;
+            this.generation = generation;
+            this.reason = reason;
+            // A refused reservation holds nothing, so there is nothing to settle
+            this.settled = new AtomicBoolean(!allowed);
+        }
+
+        /**
+         * @param generation budget reset generation the tokens were charged in
+         */
+        public static TokenReservation granted(int tokens, String operation, long generation) {
+            return new TokenReservation(true, tokens, operation, generation, null);
+        }
+
+        public static TokenReservation denied(String operation, String reason) {
+            return new TokenReservation(false, 0, operation, -1, reason);
+        }
+
+        private boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+
+        // Getters
+        public boolean isAllowed() { return allowed; }
+        public int getTokens() { return tokens; }
+        public String getOperation() { return operation; }
+        public long getGeneration() { return generation; }
+        public String getReason() { return reason; }
+        public boolean isSettled() { return settled.get(); }
+    }
+
     public static class BudgetResult {
         private final boolean allowed;
         private final int currentUsage;
@@ -311,6 +557,10 @@ public class ClaudeTokenBudgetService {
         private boolean budgetExceeded;
         private LocalDate resetDate;
         private LocalDateTime nextResetTime;
+        private long reservedTokens;
+        private long uncachedInputTokens;
+        private long cacheWriteInputTokens;
+        private long cacheReadInputTokens;
 
         public BudgetStatus() {}
 
@@ -340,6 +590,10 @@ public class ClaudeTokenBudgetService {
             private boolean budgetExceeded;
             private LocalDate resetDate;
             private LocalDateTime nextResetTime;
+            private long reservedTokens;
+            private long uncachedInputTokens;
+            private long cacheWriteInputTokens;
+            private long cacheReadInputTokens;
 
             public Builder dailyBudget(int dailyBudget) {
                 this.dailyBudget = dailyBudget;
@@ -381,9 +635,34 @@ public class ClaudeTokenBudgetService {
                 return this;
             }
 
+            public Builder reservedTokens(long reservedTokens) {
+                this.reservedTokens = reservedTokens;
+                return this;
+            }
+
+            public Builder uncachedInputTokens(long uncachedInputTokens) {
+                this.uncachedInputTokens = uncachedInputTokens;
+                return this;
+            }
+
+            public Builder cacheWriteInputTokens(long cacheWriteInputTokens) {
+                this.cacheWriteInputTokens = cacheWriteInputTokens;
+                return this;
+            }
+
+            public Builder cacheReadInputTokens(long cacheReadInputTokens) {
+                this.cacheReadInputTokens = cacheReadInputTokens;
+                return this;
+            }
+
             public BudgetStatus build() {
-                return new BudgetStatus(dailyBudget, currentUsage, remainingTokens, usagePercentage,
+                BudgetStatus status = new BudgetStatus(dailyBudget, currentUsage, remainingTokens, usagePercentage,
                                        warnThresholdExceeded, budgetExceeded, resetDate, nextResetTime);
+                status.setReservedTokens(reservedTokens);
+                status.setUncachedInputTokens(uncachedInputTokens);
+                status.setCacheWriteInputTokens(cacheWriteInputTokens);
+                status.setCacheReadInputTokens(cacheReadInputTokens);
+                return status;
             }
         }
 
@@ -411,5 +690,17 @@ public class ClaudeTokenBudgetService {
 
         public LocalDateTime getNextResetTime() { return nextResetTime; }
         public void setNextResetTime(LocalDateTime nextResetTime) { this.nextResetTime = nextResetTime; }
+
+        public long getReservedTokens() { return reservedTokens; }
+        public void setReservedTokens(long reservedTokens) { this.reservedTokens = reservedTokens; }
+
+        public long getUncachedInputTokens() { return uncachedInputTokens; }
+        public void setUncachedInputTokens(long uncachedInputTokens) { this.uncachedInputTokens = uncachedInputTokens; }
+
+        public long getCacheWriteInputTokens() { return cacheWriteInputTokens; }
+        public void setCacheWriteInputTokens(long cacheWriteInputTokens) { this.cacheWriteInputTokens = cacheWriteInputTokens; }
+
+        public long getCacheReadInputTokens() { return cacheReadInputTokens; }
+        public void setCacheReadInputTokens(long cacheReadInputTokens) { this.cacheReadInputTokens = cacheReadInputTokens; }
     }
 }
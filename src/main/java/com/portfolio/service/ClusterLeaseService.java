@@ -0,0 +1,155 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.ClusterLeaseJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.ClusterLeaseJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cluster-wide mutual exclusion backed by the {@code cluster_leases} table.
+ *
+ * A lease is a row owned by one instance until {@code expires_at}. Acquiring is a single
+ * conditional UPDATE (take over an expired row or extend our own) with an INSERT fallback
+ * when no row exists, so it works the same on PostgreSQL and H2. A holder that dies simply
+ * stops renewing and the lease becomes available once it expires. Expiry is computed and
+ * checked with the database clock, never this instance's.
+ */
+@Service
+public class ClusterLeaseService {
+    private static final Logger log = LoggerFactory.getLogger(ClusterLeaseService.class);
+
+    private final ClusterLeaseJpaRepository leaseRepository;
+    private final String instanceId = resolveInstanceId();
+
+    public ClusterLeaseService(ClusterLeaseJpaRepository leaseRepository) {
+        this.leaseRepository = leaseRepository;
+    }
+
+    /**
+     * Try to hold {@code name} for {@code ttl}. Re-acquiring a lease this instance already
+     * holds succeeds and extends it.
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        if (leaseRepository.takeOver(name, instanceId, seconds(ttl)) > 0) {
+            return true;
+        }
+        if (leaseRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            leaseRepository.insert(name, instanceId, seconds(ttl));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the row between our check and insert
+            log.debug("Lease {} was acquired concurrently by another instance", name);
+            return false;
+        }
+    }
+
+    /**
+     * Try to hold each of {@code names} for {@code ttl} with a fixed number of statements
+     * however many there are: one UPDATE takes over expired rows and extends ours, one SELECT
+     * tells which rows are now ours, and only names that never had a row are inserted.
+     *
+     * @return the names this instance now holds
+     */
+    public Set<String> tryAcquireAll(Collection<String> names, Duration ttl) {
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+        leaseRepository.takeOverAll(names, instanceId, seconds(ttl));
+        Set<String> held = new HashSet<>();
+        Set<String> missing = new HashSet<>(names);
+        for (Object[] row : leaseRepository.findOwners(names)) {
+            missing.remove((String) row[0]);
+            if (instanceId.equals(row[1])) {
+                held.add((String) row[0]);
+            }
+        }
+        for (String name : missing) {
+            try {
+                leaseRepository.insert(name, instanceId, seconds(ttl));
+                held.add(name);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Lease {} was acquired concurrently by another instance", name);
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Extend a lease this instance holds.
+     *
+     * @return false when the lease expired or was taken over in the meantime
+     */
+    public boolean renew(String name, Duration ttl) {
+        boolean renewed = leaseRepository.renew(name, instanceId, seconds(ttl)) > 0;
+        if (!renewed) {
+            log.warn("Lost lease {} before it could be renewed", name);
+        }
+        return renewed;
+    }
+
+    public void release(String name) {
+        leaseRepository.release(name, instanceId);
+    }
+
+    /**
+     * Extend several leases this instance holds in one statement.
+     *
+     * @return how many of them were still ours and got extended
+     */
+    public int renewAll(Collection<String> names, Duration ttl) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+        int renewed = leaseRepository.renewAll(names, instanceId, seconds(ttl));
+        if (renewed < names.size()) {
+            log.warn("Lost {} of {} leases before they could be renewed", names.size() - renewed, names.size());
+        }
+        return renewed;
+    }
+
+    /**
+     * Release leases taken with {@link #tryAcquireAll}. The rows stay behind, expired, so the
+     * next {@link #tryAcquireAll} of the same names needs no inserts.
+     */
+    public void releaseAll(Collection<String> names) {
+        if (!names.isEmpty()) {
+            leaseRepository.expireAll(names, instanceId);
+        }
+    }
+
+    public Optional<ClusterLeaseJpaEntity> find(String name) {
+        return leaseRepository.findUnexpired(name);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private static long seconds(Duration ttl) {
+        return Math.max(1, ttl.toSeconds());
+    }
+
+    private static String resolveInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String id = host + ":" + UUID.randomUUID().toString().substring(0, 8);
+        return id.length() > 100 ? id.substring(id.length() - 100) : id;
+    }
+}
@@ -0,0 +1,358 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.CurationJobJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.CurationJobJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Durable curation queue in the {@code curation_jobs} table.
+ *
+ * Jobs are claimed with SELECT ... FOR UPDATE SKIP LOCKED, so any number of application
+ * instances can work the queue without handing out a job twice. A claimed job is leased to
+ * the claiming instance; if that instance dies the lease expires and another worker picks
+ * the job up. Failed jobs are retried with exponential backoff and dead-lettered after
+ * {@code portfolio.curation.jobs.max-attempts}.
+ */
+@Service
+public class CurationJobService {
+    private static final Logger log = LoggerFactory.getLogger(CurationJobService.class);
+
+    private static final List<CurationJobJpaEntity.Status> ACTIVE =
+        List.of(CurationJobJpaEntity.Status.PENDING, CurationJobJpaEntity.Status.RUNNING);
+
+    private final CurationJobJpaRepository jobRepository;
+    private final SyncMonitorService syncMonitorService;
+    private final MeterRegistry meterRegistry;
+    private final SyncMetricsService syncMetrics;
+    private final String instanceId;
+
+    @Value("${portfolio.curation.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${portfolio.curation.jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${portfolio.curation.jobs.lease:10m}")
+    private Duration lease;
+
+    @Value("${portfolio.curation.jobs.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${portfolio.curation.jobs.max-retry-backoff:10m}")
+    private Duration maxRetryBackoff;
+
+    @Value("${portfolio.curation.jobs.budget-deferral:1h}")
+    private Duration budgetDeferral;
+
+    @Value("${portfolio.curation.jobs.await-poll-interval:2s}")
+    private Duration awaitPollInterval;
+
+    @Value("${portfolio.curation.jobs.await-timeout:6h}")
+    private Duration awaitTimeout;
+
+    @Value("${portfolio.curation.estimated-tokens-per-source:3000}")
+    private int estimatedTokensPerSource;
+
+    @Value("${portfolio.curation.jobs.done-retention:7d}")
+    private Duration doneRetention;
+
+    public CurationJobService(CurationJobJpaRepository jobRepository,
+                              SyncMonitorService syncMonitorService,
+                              MeterRegistry meterRegistry,
+                              SyncMetricsService syncMetrics,
+                              ClusterLeaseService clusterLeaseService) {
+        this.jobRepository = jobRepository;
+        this.syncMonitorService = syncMonitorService;
+        this.meterRegistry = meterRegistry;
+        this.syncMetrics = syncMetrics;
+        // Same identity as the cluster leases, so logs and tables name instances consistently
+        this.instanceId = clusterLeaseService.getInstanceId();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Queue a curation unless the source already has a pending or running job.
+     * Not transactional on purpose: a unique-index race with another instance only
+     * rejects this insert.
+     *
+     * @return true when a new job was created
+     */
+    public boolean enqueue(PortfolioCurationExecutor.CurationTask task, String batchId) {
+        if (!jobRepository.findSourceIdsWithStatusIn(List.of(task.sourceRepositoryId()), ACTIVE).isEmpty()) {
+            return false;
+        }
+        try {
+            jobRepository.saveAndFlush(new CurationJobJpaEntity(task.sourceRepositoryId(), batchId, task.recuration(),
+                task.priority()));
+            meterRegistry.counter("curation.jobs.enqueued").increment();
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // uk_curation_jobs_active_source: another instance queued it first
+            log.debug("Curation job for source {} already queued", task.sourceRepositoryId());
+            return false;
+        }
+    }
+
+    /**
+     * Claim up to {@code limit} due jobs for this instance.
+     * Expired leases count as due; a job that already used all attempts is dead-lettered
+     * instead of being handed out again, so a job that keeps crashing its worker stops.
+     */
+    @Transactional
+    public List<CurationJobJpaEntity> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<CurationJobJpaEntity> claimed = new ArrayList<>();
+        for (CurationJobJpaEntity job : jobRepository.lockClaimable(now, limit)) {
+            if (job.getStatus() == CurationJobJpaEntity.Status.RUNNING) {
+                log.warn("Reclaiming curation job {} from {} (lease expired at {})",
+                    job.getId(), job.getLeaseOwner(), job.getLeaseExpiresAt());
+                meterRegistry.counter("curation.jobs.lease_expired").increment();
+                if (job.getAttempts() >= maxAttempts) {
+                    deadLetter(job, "Lease expired after " + job.getAttempts() + " attempts");
+                    continue;
+                }
+            }
+            job.setStatus(CurationJobJpaEntity.Status.RUNNING);
+            job.setLeaseOwner(instanceId);
+            job.setLeaseExpiresAt(now.plus(lease));
+            job.setAttempts(job.getAttempts() + 1);
+            claimed.add(job);
+        }
+        return claimed;
+    }
+
+    /**
+     * Record the outcome of a claimed job. Ignored when this instance no longer holds the lease.
+     */
+    @Transactional
+    public void finish(Long jobId, PortfolioCurationExecutor.CurationOutcome outcome) {
+        CurationJobJpaEntity job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != CurationJobJpaEntity.Status.RUNNING
+                || !instanceId.equals(job.getLeaseOwner())) {
+            log.warn("Lost lease on curation job {} before it finished, outcome {} discarded", jobId, outcome.status());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        switch (outcome.status()) {
+            case CURATED -> {
+                job.setStatus(CurationJobJpaEntity.Status.DONE);
+                job.setLastError(null);
+                meterRegistry.counter("curation.jobs.completed").increment();
+            }
+            case FAILED -> {
+                if (job.getAttempts() >= maxAttempts) {
+                    deadLetter(job, outcome.error());
+                } else {
+                    job.setStatus(CurationJobJpaEntity.Status.PENDING);
+                    job.setAvailableAt(now.plus(retryDelay(job.getAttempts())));
+                    job.setLastError(truncate(outcome.error()));
+                    meterRegistry.counter("curation.jobs.retried").increment();
+                }
+            }
+            case BUDGET_EXHAUSTED, INTERRUPTED, LOCKED -> {
+                // Not the job's fault: give the attempt back and try again later
+                job.setStatus(CurationJobJpaEntity.Status.PENDING);
+                job.setAttempts(Math.max(0, job.getAttempts() - 1));
+                job.setAvailableAt(switch (outcome.status()) {
+                    case BUDGET_EXHAUSTED -> now.plus(budgetDeferral);
+                    // The source is being resynced; curate again once that is over
+                    case LOCKED -> now.plus(retryBackoff);
+                    default -> now;
+                });
+                job.setLastError(outcome.error());
+            }
+        }
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+    }
+
+    Duration retryDelay(int attempts) {
+        long multiplier = 1L << Math.min(Math.max(0, attempts - 1), 20);
+        Duration delay = retryBackoff.multipliedBy(multiplier);
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private void deadLetter(CurationJobJpaEntity job, String error) {
+        job.setStatus(CurationJobJpaEntity.Status.DEAD);
+        job.setLastError(truncate(error));
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        meterRegistry.counter("curation.jobs.dead").increment();
+        syncMonitorService.appendLog("WARN", String.format(
+            "Curation job for source %d moved to dead letter after %d attempts: %s",
+            job.getSourceRepositoryId(), job.getAttempts(), error));
+    }
+
+    /**
+     * Queue dead-lettered sources again with a fresh attempt count.
+     *
+     * @return number of jobs queued
+     */
+    @Transactional
+    public int requeueDead() {
+        List<CurationJobJpaEntity> dead = jobRepository.findByStatusOrderByUpdatedAtDesc(CurationJobJpaEntity.Status.DEAD);
+        Set<Long> sourceIds = new LinkedHashSet<>();
+        dead.forEach(job -> sourceIds.add(job.getSourceRepositoryId()));
+        jobRepository.deleteAllInBatch(dead);
+
+        if (!sourceIds.isEmpty()) {
+            sourceIds.removeAll(jobRepository.findSourceIdsWithStatusIn(sourceIds, ACTIVE));
+        }
+        List<CurationJobJpaEntity> requeued = sourceIds.stream()
+            .map(sourceId -> new CurationJobJpaEntity(sourceId, null, false))
+            .toList();
+        jobRepository.saveAll(requeued);
+        syncMonitorService.appendLog("INFO", "Requeued " + requeued.size() + " dead-lettered curation jobs");
+        return requeued.size();
+    }
+
+    @Transactional
+    public int purgeCompleted() {
+        return jobRepository.deleteDoneBefore(LocalDateTime.now().minus(doneRetention));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        Map<CurationJobJpaEntity.Status, Long> counts = toCounts(jobRepository.countByStatus());
+        for (CurationJobJpaEntity.Status status : CurationJobJpaEntity.Status.values()) {
+            stats.put(status.name().toLowerCase(), counts.getOrDefault(status, 0L));
+        }
+        stats.put("enabled", enabled);
+        stats.put("instanceId", instanceId);
+        return stats;
+    }
+
+    public List<CurationJobJpaEntity> getDeadJobs() {
+        return jobRepository.findByStatusOrderByUpdatedAtDesc(CurationJobJpaEntity.Status.DEAD);
+    }
+
+    /**
+     * Start a batch whose curations are queued durably and worked by any instance.
+     */
+    public PortfolioCurationExecutor.CurationBatch openBatch() {
+        return openBatch(SyncRunLimits.NONE);
+    }
+
+    /**
+     * Batch that withdraws its not yet started jobs once {@code limits} are reached.
+     */
+    public PortfolioCurationExecutor.CurationBatch openBatch(SyncRunLimits limits) {
+        return new DurableBatch(UUID.randomUUID().toString(), limits);
+    }
+
+    private static Map<CurationJobJpaEntity.Status, Long> toCounts(List<Object[]> rows) {
+        Map<CurationJobJpaEntity.Status, Long> counts = new EnumMap<>(CurationJobJpaEntity.Status.class);
+        for (Object[] row : rows) {
+            counts.put((CurationJobJpaEntity.Status) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    /**
+     * Batch backed by curation_jobs rows tagged with a batch id. Submitting only inserts a
+     * row, so producers never block; {@link #await} polls until no job of the batch is
+     * running or due soon. Jobs deferred beyond {@code max-retry-backoff} (budget exhausted)
+     * are reported as skipped and stay queued.
+     */
+    private final class DurableBatch implements PortfolioCurationExecutor.CurationBatch {
+        private final String batchId;
+        private final SyncRunLimits limits;
+        private final long openedNanos = System.nanoTime();
+        private boolean limitReached;
+        private int withdrawn;
+
+        private DurableBatch(String batchId, SyncRunLimits limits) {
+            this.batchId = batchId;
+            this.limits = limits;
+        }
+
+        @Override
+        public boolean submit(PortfolioCurationExecutor.CurationTask task) {
+            return enqueue(task, batchId);
+        }
+
+        @Override
+        public PortfolioCurationExecutor.CurationResult await() {
+            long deadline = System.nanoTime() + awaitTimeout.toNanos();
+            try {
+                long outstanding;
+                while ((outstanding = jobRepository.countOutstandingInBatch(batchId, LocalDateTime.now().plus(maxRetryBackoff))) > 0) {
+                    syncMetrics.recordDurableQueueDepth(outstanding);
+                    if (System.nanoTime() > deadline) {
+                        syncMonitorService.appendLog("WARN", "Stopped waiting for curation batch " + batchId
+                            + " after " + awaitTimeout + "; its jobs stay queued");
+                        break;
+                    }
+                    if (!limitReached && !limits.allowsCuration(estimatedTokensPerSource)) {
+                        withdrawPending();
+                    }
+                    Thread.sleep(awaitPollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for curation batch " + batchId, e);
+            } finally {
+                syncMetrics.recordDurableQueueDepth(0);
+            }
+
+            Map<CurationJobJpaEntity.Status, Long> counts = toCounts(jobRepository.countByStatusForBatch(batchId));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - openedNanos);
+            return new PortfolioCurationExecutor.CurationResult(
+                counts.getOrDefault(CurationJobJpaEntity.Status.DONE, 0L).intValue(),
+                counts.getOrDefault(CurationJobJpaEntity.Status.DEAD, 0L).intValue(),
+                counts.getOrDefault(CurationJobJpaEntity.Status.PENDING, 0L).intValue()
+                    + counts.getOrDefault(CurationJobJpaEntity.Status.RUNNING, 0L).intValue() + withdrawn,
+                elapsed, elapsed, Duration.ZERO);
+        }
+
+        /**
+         * The run hit its deadline or token allowance: jobs already running finish, the rest
+         * are withdrawn so workers stop spending on this run. Their sources stay UNSYNCED.
+         */
+        private void withdrawPending() {
+            limitReached = true;
+            withdrawn = jobRepository.deletePendingInBatch(batchId);
+            for (int i = 0; i < withdrawn; i++) {
+                limits.recordDeferred();
+            }
+            meterRegistry.counter("sync.portfolio.deferred", "reason", limits.exhaustedReason()).increment(withdrawn);
+            syncMonitorService.appendLog("INFO", String.format(
+                "Sync run limit reached (%s): withdrew %d queued curations", limits.exhaustedReason(), withdrawn));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.CurationJobJpaEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Works the durable curation queue on this instance.
+ *
+ * Every poll claims as many due jobs as the curation pool has free workers, runs them on
+ * {@link PortfolioCurationExecutor} (rate limiter and token budget apply) and records each
+ * outcome against the job. Runs on every instance; SKIP LOCKED keeps them from colliding.
+ */
+@Service
+public class CurationJobWorker {
+    private static final Logger log = LoggerFactory.getLogger(CurationJobWorker.class);
+
+    private final CurationJobService curationJobService;
+    private final PortfolioCurationExecutor curationExecutor;
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    public CurationJobWorker(CurationJobService curationJobService, PortfolioCurationExecutor curationExecutor) {
+        this.curationJobService = curationJobService;
+        this.curationExecutor = curationExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.curation.jobs.poll-interval:2000}",
+               initialDelayString = "${portfolio.curation.jobs.initial-delay:30000}")
+    public void poll() {
+        if (!curationJobService.isEnabled()) {
+            return;
+        }
+        int free = curationExecutor.getConcurrency() - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+
+        List<CurationJobJpaEntity> claimed;
+        try {
+            claimed = curationJobService.claim(free);
+        } catch (Exception e) {
+            log.warn("Failed to claim curation jobs: {}", e.getMessage());
+            return;
+        }
+
+        for (CurationJobJpaEntity job : claimed) {
+            inFlight.incrementAndGet();
+            PortfolioCurationExecutor.CurationTask task = new PortfolioCurationExecutor.CurationTask(
+                job.getSourceRepositoryId(), "job " + job.getId() + " (source " + job.getSourceRepositoryId() + ")",
+                job.isRecuration());
+            curationExecutor.submit(task).whenComplete((outcome, error) -> {
+                try {
+                    curationJobService.finish(job.getId(), error == null ? outcome
+                        : new PortfolioCurationExecutor.CurationOutcome(
+                            PortfolioCurationExecutor.CurationStatus.FAILED, error.getMessage()));
+                } catch (Exception e) {
+                    // The lease runs out and another poll retries the job
+                    log.error("Failed to record outcome of curation job {}: {}", job.getId(), e.getMessage());
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Scheduled(cron = "${portfolio.curation.jobs.purge-cron:0 30 3 * * *}")
+    public void purgeCompleted() {
+        if (!curationJobService.isEnabled()) {
+            return;
+        }
+        int purged = curationJobService.purgeCompleted();
+        if (purged > 0) {
+            log.info("Purged {} completed curation jobs", purged);
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
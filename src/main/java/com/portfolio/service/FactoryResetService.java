@@ -9,12 +9,14 @@ import com.portfolio.core.application.usecase.FactoryResetUseCase;
 import com.portfolio.repository.ContactMessageRepository;
 import com.portfolio.repository.VisitorInsightRepository;
 import com.portfolio.core.domain.admin.ResetAudit;
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -31,6 +33,11 @@ public class FactoryResetService implements FactoryResetUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(FactoryResetService.class);
 
+    // Children first: sync_run_items references sync_runs
+    private static final String[] H2_SYNC_STATE_TABLES = {
+        "sync_run_items", "sync_runs", "curation_jobs", "github_etag_cache", "cluster_leases"
+    };
+
     private final ResetAuditJpaRepository resetAuditRepository;
     private final ResetAuditJpaMapper resetAuditMapper;
     private final EntityManager entityManager;
@@ -44,6 +51,7 @@ public class FactoryResetService implements FactoryResetUseCase {
     // Contact/Visitor features repositories
     private final ContactMessageRepository contactMessageRepository;
     private final VisitorInsightRepository visitorInsightRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.jpa.database-platform:}")
     private String databasePlatform;
@@ -67,7 +75,8 @@ public class FactoryResetService implements FactoryResetUseCase {
                                ExperienceJpaRepository experienceRepository,
                                SourceRepositoryJpaRepository sourceRepositoryRepository,
                                ContactMessageRepository contactMessageRepository,
-                               VisitorInsightRepository visitorInsightRepository) {
+                               VisitorInsightRepository visitorInsightRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.resetAuditRepository = resetAuditRepository;
         this.resetAuditMapper = resetAuditMapper;
         this.entityManager = entityManager;
@@ -78,6 +87,7 @@ public class FactoryResetService implements FactoryResetUseCase {
         this.sourceRepositoryRepository = sourceRepositoryRepository;
         this.contactMessageRepository = contactMessageRepository;
         this.visitorInsightRepository = visitorInsightRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @PostConstruct
@@ -158,6 +168,8 @@ public class FactoryResetService implements FactoryResetUseCase {
             sendSseMessage(jobId, "STARTED", "Factory reset process started");
 
             int tablesCleared = performDatabaseReset(jobId);
+            eventPublisher.publishEvent(PortfolioContentChangedEvent.skills());
+            eventPublisher.publishEvent(PortfolioContentChangedEvent.experiences());
 
             // Update audit record as completed
             updateAuditRecord(jobId, audit -> audit.complete(tablesCleared));
@@ -256,6 +268,15 @@ public class FactoryResetService implements FactoryResetUseCase {
             
             int tablesCleared = 0;
             
+            // Sync state kept about the content below: checkpoints, queued curations, GitHub
+            // validators and leases. Left behind, the next sync would resume a run and trust
+            // 304s for repositories that no longer exist
+            for (String table : H2_SYNC_STATE_TABLES) {
+                sendSseMessage(jobId, "STEP", "Clearing " + table);
+                entityManager.createNativeQuery("DELETE FROM " + table).executeUpdate();
+                tablesCleared++;
+            }
+            
             // Clear tables in dependency order (children first)
             // Visitor insights depend on contact messages via optional FK, so clear insights first
             sendSseMessage(jobId, "STEP", "Clearing visitor insights");
@@ -0,0 +1,180 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.GitHubEtagJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.GitHubEtagJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent ETag / Last-Modified store for GitHub conditional requests.
+ * A 304 answer costs no rate-limit quota when the request is authenticated,
+ * so every validator replayed here is a request GitHub does not charge for.
+ */
+@Service
+public class GitHubEtagCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubEtagCacheService.class);
+
+    private final GitHubEtagJpaRepository etagRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicLong> hits = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> misses = new ConcurrentHashMap<>();
+
+    public GitHubEtagCacheService(GitHubEtagJpaRepository etagRepository, MeterRegistry meterRegistry) {
+        this.etagRepository = etagRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Stored validators for a single endpoint, or null when none are known
+     */
+    public Validators find(String endpoint) {
+        return etagRepository.findByEndpoint(endpoint)
+                .map(this::toValidators)
+                .orElse(null);
+    }
+
+    /**
+     * Stored validators for several endpoints in one query, keyed by endpoint
+     */
+    public Map<String, Validators> findAll(Collection<String> endpoints) {
+        if (endpoints.isEmpty()) {
+            return Map.of();
+        }
+        return etagRepository.findByEndpointIn(endpoints).stream()
+                .map(this::toValidators)
+                .collect(Collectors.toMap(Validators::endpoint, Function.identity()));
+    }
+
+    /**
+     * Add If-None-Match / If-Modified-Since headers for the given validators
+     */
+    public void applyValidators(Validators validators, HttpHeaders headers) {
+        if (validators == null) {
+            return;
+        }
+        if (validators.etag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, validators.etag());
+        }
+        if (validators.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, validators.lastModified());
+        }
+    }
+
+    public void store(Validators validators) {
+        storeAll(List.of(validators));
+    }
+
+    /**
+     * Upsert validators for several endpoints with a single saveAll()
+     */
+    public void storeAll(Collection<Validators> validators) {
+        Map<String, Validators> incoming = new HashMap<>();
+        for (Validators v : validators) {
+            if (v != null && v.hasValidators()) {
+                incoming.put(v.endpoint(), v);
+            }
+        }
+        if (incoming.isEmpty()) {
+            return;
+        }
+
+        Map<String, GitHubEtagJpaEntity> existing = etagRepository.findByEndpointIn(incoming.keySet()).stream()
+                .collect(Collectors.toMap(GitHubEtagJpaEntity::getEndpoint, Function.identity()));
+
+        List<GitHubEtagJpaEntity> toSave = new ArrayList<>(incoming.size());
+        incoming.forEach((endpoint, v) -> {
+            GitHubEtagJpaEntity entity = existing.getOrDefault(endpoint, new GitHubEtagJpaEntity(endpoint, null, null));
+            entity.setEtag(v.etag());
+            entity.setLastModified(v.lastModified());
+            toSave.add(entity);
+        });
+
+        try {
+            etagRepository.saveAll(toSave);
+            log.debug("Stored GitHub validators for {} endpoints", toSave.size());
+        } catch (Exception e) {
+            // Losing a validator only costs a full download next time
+            log.warn("Failed to store GitHub validators: {}", e.getMessage());
+        }
+    }
+
+    public void recordHit(String resource) {
+        hits.computeIfAbsent(resource, k -> new AtomicLong()).incrementAndGet();
+        counter("hit", resource).increment();
+    }
+
+    public void recordMiss(String resource) {
+        misses.computeIfAbsent(resource, k -> new AtomicLong()).incrementAndGet();
+        counter("miss", resource).increment();
+    }
+
+    /**
+     * Hit/miss totals per resource type since startup
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long totalHits = 0;
+        long totalMisses = 0;
+
+        for (String resource : resources()) {
+            long h = hits.getOrDefault(resource, new AtomicLong()).get();
+            long m = misses.getOrDefault(resource, new AtomicLong()).get();
+            totalHits += h;
+            totalMisses += m;
+            stats.put(resource, Map.of("hits", h, "misses", m, "hitRate", rate(h, m)));
+        }
+
+        stats.put("totalHits", totalHits);
+        stats.put("totalMisses", totalMisses);
+        stats.put("hitRate", rate(totalHits, totalMisses));
+        return stats;
+    }
+
+    private List<String> resources() {
+        List<String> resources = new ArrayList<>(hits.keySet());
+        misses.keySet().stream().filter(r -> !resources.contains(r)).forEach(resources::add);
+        return resources;
+    }
+
+    private double rate(long hit, long miss) {
+        long total = hit + miss;
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    private Counter counter(String outcome, String resource) {
+        return Counter.builder("github.conditional.requests")
+                .description("GitHub conditional requests by outcome (hit = 304 Not Modified)")
+                .tag("outcome", outcome)
+                .tag("resource", resource)
+                .register(meterRegistry);
+    }
+
+    private Validators toValidators(GitHubEtagJpaEntity entity) {
+        return new Validators(entity.getEndpoint(), entity.getEtag(), entity.getLastModified());
+    }
+
+    /**
+     * ETag / Last-Modified pair for one endpoint
+     */
+    public record Validators(String endpoint, String etag, String lastModified) {
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.portfolio.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive pacing for GitHub API calls driven by the rate limit headers GitHub returns.
+ *
+ * GitHub keeps a separate quota per resource, named by X-RateLimit-Resource ({@code core}
+ * for REST, {@code graphql}, {@code search}), so the state and the gauges are kept per
+ * resource: a GraphQL response never moves the REST quota. Every response updates its
+ * resource from X-RateLimit-Remaining / X-RateLimit-Reset. Once a resource's remaining quota
+ * drops below {@code github.rate-limit.pace-below-fraction} of its limit, its requests are
+ * spaced so the rest of the quota lasts until the reset, and an exhausted quota holds them
+ * until the reset. A 403/429 with Retry-After (secondary limit) blocks all requests until it
+ * lifts. A 403 with quota left and no Retry-After is a secondary limit only when its message
+ * says so; otherwise it is a permission error and changes nothing.
+ */
+@Service
+public class GitHubRateLimitService {
+    private static final Logger log = LoggerFactory.getLogger(GitHubRateLimitService.class);
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+    static final String RESOURCE_HEADER = "X-RateLimit-Resource";
+
+    static final String CORE_RESOURCE = "core";
+    static final String GRAPHQL_RESOURCE = "graphql";
+    static final String SEARCH_RESOURCE = "search";
+
+    // GitHub asks clients to wait at least a minute on secondary limits without Retry-After
+    private static final Duration SECONDARY_LIMIT_DEFAULT_WAIT = Duration.ofSeconds(60);
+    // Message of a secondary limit response, e.g. "You have exceeded a secondary rate limit..."
+    private static final String SECONDARY_LIMIT_MESSAGE = "secondary rate limit";
+
+    private final MeterRegistry meterRegistry;
+    private final double paceBelowFraction;
+    private final Duration maxWait;
+
+    private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+
+    private final Counter throttledCounter;
+    private final Counter blockedCounter;
+    private final Timer waitTimer;
+
+    // Guarded by this, like the request slots of every quota: secondary limits hold back all resources
+    private long blockedUntilMillis = 0;
+
+    public GitHubRateLimitService(MeterRegistry meterRegistry,
+                                  @Value("${github.rate-limit.pace-below-fraction:0.2}") double paceBelowFraction,
+                                  @Value("${github.rate-limit.max-wait:15m}") Duration maxWait) {
+        this.meterRegistry = meterRegistry;
+        this.paceBelowFraction = paceBelowFraction;
+        this.maxWait = maxWait;
+
+        this.throttledCounter = Counter.builder("github.ratelimit.throttled")
+            .description("GitHub requests delayed to spread the remaining quota")
+            .register(meterRegistry);
+        this.blockedCounter = Counter.builder("github.ratelimit.blocked")
+            .description("GitHub responses that exhausted the quota or hit a secondary limit")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("github.ratelimit.wait")
+            .description("Time GitHub requests spent waiting for quota")
+            .register(meterRegistry);
+        // REST is always in use, so its gauges exist from the start
+        quota(CORE_RESOURCE);
+    }
+
+    /**
+     * WebClient filter that waits for a request slot before sending and
+     * feeds the response headers back into the pacing state.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            String resource = resourceOf(request);
+            return Mono.defer(() -> acquire(resource))
+                .then(Mono.defer(() -> next.exchange(request)))
+                .flatMap(response -> {
+                    int status = response.statusCode().value();
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    if (!needsMessage(status, headers)) {
+                        recordResponse(resource, status, headers, null);
+                        return Mono.just(response);
+                    }
+                    // Only the message tells a secondary limit from a permission error; hand the
+                    // buffered body on so the caller still sees it
+                    return response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> {
+                            recordResponse(resource, status, headers, body);
+                            return response.mutate().body(body).build();
+                        });
+                });
+        };
+    }
+
+    /**
+     * Completes once the caller may issue a REST request. Never blocks a thread.
+     */
+    public Mono<Void> acquire() {
+        return acquire(CORE_RESOURCE);
+    }
+
+    /**
+     * Completes once the caller may issue a request against {@code resource}. Never blocks a thread.
+     */
+    public Mono<Void> acquire(String resource) {
+        Duration delay = reserveSlot(resource);
+        if (delay.isZero()) {
+            return Mono.empty();
+        }
+        throttledCounter.increment();
+        waitTimer.record(delay);
+        log.debug("Delaying GitHub {} request by {} ms (remaining quota: {})", resource, delay.toMillis(),
+            quota(resource).remaining.get());
+        return Mono.delay(delay).then();
+    }
+
+    /**
+     * Update quota state from a GitHub response.
+     */
+    public void recordResponse(int status, HttpHeaders headers) {
+        recordResponse(CORE_RESOURCE, status, headers, null);
+    }
+
+    /**
+     * Update quota state from a GitHub response to a request against {@code requestResource},
+     * with its body when {@link #needsMessage} asked for it. The resource GitHub names in the
+     * response wins over the one guessed from the request.
+     */
+    public void recordResponse(String requestResource, int status, HttpHeaders headers, String body) {
+        String reported = headers.getFirst(RESOURCE_HEADER);
+        String resource = reported != null && !reported.isBlank() ? reported.trim() : requestResource;
+        Quota quota = quota(resource);
+
+        Long remainingValue = parseLong(headers.getFirst(REMAINING_HEADER));
+        Long limitValue = parseLong(headers.getFirst(LIMIT_HEADER));
+        Long resetValue = parseLong(headers.getFirst(RESET_HEADER));
+        Long retryAfterSeconds = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+
+        if (remainingValue != null) {
+            quota.remaining.set(remainingValue);
+        }
+        if (limitValue != null) {
+            quota.limit.set(limitValue);
+        }
+        if (resetValue != null) {
+            quota.resetEpochSeconds.set(resetValue);
+        }
+
+        if (status != 403 && status != 429) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long blockUntil;
+        boolean secondary = true;
+        if (retryAfterSeconds != null) {
+            blockUntil = now + retryAfterSeconds * 1000;
+        } else if (remainingValue != null && remainingValue == 0 && resetValue != null) {
+            // Exhausted quota: reserveSlot holds back this resource alone until the reset
+            blockUntil = resetValue * 1000;
+            secondary = false;
+        } else if (status == 429 || isSecondaryLimitMessage(body)) {
+            // Secondary limit without guidance
+            blockUntil = now + SECONDARY_LIMIT_DEFAULT_WAIT.toMillis();
+        } else {
+            // 403 with quota left and no Retry-After is a permission error, not a rate limit
+            return;
+        }
+
+        blockedCounter.increment();
+        if (secondary) {
+            synchronized (this) {
+                blockedUntilMillis = Math.max(blockedUntilMillis, blockUntil);
+            }
+        }
+        log.warn("GitHub {} rate limit hit (HTTP {}), pausing requests for {} s", resource, status,
+            Math.max(0, (blockUntil - now) / 1000));
+    }
+
+    /**
+     * Whether only the body of this response can tell if it is a rate limit: a 403 without
+     * Retry-After while quota is left.
+     */
+    static boolean needsMessage(int status, HttpHeaders headers) {
+        if (status != 403 || headers.getFirst(HttpHeaders.RETRY_AFTER) != null) {
+            return false;
+        }
+        Long remainingValue = parseLong(headers.getFirst(REMAINING_HEADER));
+        return remainingValue == null || remainingValue > 0;
+    }
+
+    private static boolean isSecondaryLimitMessage(String body) {
+        return body != null && body.toLowerCase(Locale.ROOT).contains(SECONDARY_LIMIT_MESSAGE);
+    }
+
+    /**
+     * Resource a request draws from, until its response names it
+     */
+    static String resourceOf(ClientRequest request) {
+        String path = request.url().getPath();
+        if (path.endsWith("/graphql")) {
+            return GRAPHQL_RESOURCE;
+        }
+        if (path.startsWith("/search/") || path.contains("/api/v3/search/")) {
+            return SEARCH_RESOURCE;
+        }
+        return CORE_RESOURCE;
+    }
+
+    synchronized Duration reserveSlot() {
+        return reserveSlot(CORE_RESOURCE);
+    }
+
+    /**
+     * Reserve the next request slot of {@code resource} and return how long the caller has to wait for it.
+     */
+    synchronized Duration reserveSlot(String resource) {
+        Quota quota = quota(resource);
+        long now = System.currentTimeMillis();
+        long start = Math.max(now, blockedUntilMillis);
+
+        long resetMillis = quota.resetEpochSeconds.get() * 1000;
+        if (quota.remaining.get() == 0 && resetMillis > now) {
+            // Quota spent: nothing can go out before the reset
+            start = Math.max(start, resetMillis);
+        }
+
+        long spacing = currentSpacingMillis(quota, now);
+        if (spacing > 0) {
+            start = Math.max(start, quota.nextSlotMillis);
+            quota.nextSlotMillis = start + spacing;
+        } else {
+            quota.nextSlotMillis = start;
+        }
+        // Count the reservation against the quota until the response reports the real value
+        quota.remaining.updateAndGet(value -> value > 0 ? value - 1 : value);
+
+        long waitMillis = Math.min(start - now, maxWait.toMillis());
+        return waitMillis > 0 ? Duration.ofMillis(waitMillis) : Duration.ZERO;
+    }
+
+    private long currentSpacingMillis(Quota quota, long now) {
+        long remainingQuota = quota.remaining.get();
+        long quotaLimit = quota.limit.get();
+        long resetMillis = quota.resetEpochSeconds.get() * 1000;
+        if (remainingQuota <= 0 || resetMillis <= now) {
+            return 0;
+        }
+        if (quotaLimit > 0 && remainingQuota > quotaLimit * paceBelowFraction) {
+            return 0;
+        }
+        return (resetMillis - now) / remainingQuota;
+    }
+
+    private Quota quota(String resource) {
+        return quotas.computeIfAbsent(resource, name -> {
+            Quota quota = new Quota();
+            Gauge.builder("github.ratelimit.remaining", quota.remaining, AtomicLong::get)
+                .description("Remaining GitHub API quota as last reported by X-RateLimit-Remaining (-1 = unknown)")
+                .tag("resource", name)
+                .register(meterRegistry);
+            Gauge.builder("github.ratelimit.reset.seconds", quota, Quota::secondsUntilReset)
+                .description("Seconds until the GitHub API quota resets")
+                .tag("resource", name)
+                .register(meterRegistry);
+            return quota;
+        });
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Remaining REST quota
+     */
+    public long getRemaining() {
+        return getRemaining(CORE_RESOURCE);
+    }
+
+    public long getRemaining(String resource) {
+        Quota quota = quotas.get(resource);
+        return quota != null ? quota.remaining.get() : -1;
+    }
+
+    /**
+     * REST quota at the top level as before, every resource under {@code resources}
+     */
+    public Map<String, Object> getStats() {
+        Quota core = quota(CORE_RESOURCE);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("remaining", core.remaining.get());
+        stats.put("limit", core.limit.get());
+        stats.put("resetEpochSeconds", core.resetEpochSeconds.get());
+        stats.put("secondsUntilReset", (long) core.secondsUntilReset());
+        Map<String, Object> resources = new TreeMap<>();
+        quotas.forEach((name, quota) -> resources.put(name, Map.of(
+            "remaining", quota.remaining.get(),
+            "limit", quota.limit.get(),
+            "resetEpochSeconds", quota.resetEpochSeconds.get())));
+        stats.put("resources", resources);
+        stats.put("throttledRequests", (long) throttledCounter.count());
+        stats.put("rateLimitResponses", (long) blockedCounter.count());
+        synchronized (this) {
+            stats.put("blocked", blockedUntilMillis > System.currentTimeMillis());
+        }
+        return stats;
+    }
+
+    /**
+     * Quota of one rate limit resource. {@code nextSlotMillis} is guarded by the service.
+     */
+    private static final class Quota {
+        private final AtomicLong remaining = new AtomicLong(-1);
+        private final AtomicLong limit = new AtomicLong(-1);
+        private final AtomicLong resetEpochSeconds = new AtomicLong(0);
+        // Next instant a request may start, in epoch millis
+        private long nextSlotMillis = 0;
+
+        private double secondsUntilReset() {
+            long reset = resetEpochSeconds.get();
+            return reset == 0 ? 0 : Math.max(0, reset - System.currentTimeMillis() / 1000);
+        }
+    }
+}
@@ -1,61 +1,191 @@
 package com.portfolio.service;
 
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryBulkUpsertRepository;
 import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
 import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import com.portfolio.adapter.out.persistence.jpa.SyncRunItemJpaEntity;
+import com.portfolio.exception.RepositoryLockedException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.Base64;
 
 @Service
 public class GitHubSourceRepositoryService {
     private static final Logger log = LoggerFactory.getLogger(GitHubSourceRepositoryService.class);
+    private static final int STARRED_PAGE_SIZE = 100;
+    private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"([^\"]+)\"");
+    private static final Pattern PAGE_PARAM_PATTERN = Pattern.compile("[?&]page=(\\d+)");
+    private static final int MAX_README_LENGTH = 50000;
+    private static final String INGEST_MODE_REST = "rest";
+    private static final String INGEST_MODE_GRAPHQL = "graphql";
+    private static final String GITHUB_POLICY = "github";
+    
+    // README lookups are aliased blob reads; the first non-null alias wins
+    private static final List<String> GRAPHQL_README_ALIASES =
+        List.of("readmeMd", "readmeLowerMd", "readmeRst", "readmePlain", "readmeMarkdown");
+    private static final String STARRED_GRAPHQL_QUERY = """
+        query($login: String!, $first: Int!, $after: String) {
+          user(login: $login) {
+            starredRepositories(first: $first, after: $after, orderBy: {field: STARRED_AT, direction: DESC}) {
+              totalCount
+              pageInfo { hasNextPage endCursor }
+              nodes {
+                databaseId
+                name
+                nameWithOwner
+                description
+                url
+                homepageUrl
+                isFork
+                stargazerCount
+                createdAt
+                updatedAt
+                pushedAt
+                primaryLanguage { name }
+                repositoryTopics(first: 20) { nodes { topic { name } } }
+                readmeMd: object(expression: "HEAD:README.md") { ... on Blob { oid text } }
+                readmeLowerMd: object(expression: "HEAD:readme.md") { ... on Blob { oid text } }
+                readmeRst: object(expression: "HEAD:README.rst") { ... on Blob { oid text } }
+                readmePlain: object(expression: "HEAD:README") { ... on Blob { oid text } }
+                readmeMarkdown: object(expression: "HEAD:README.markdown") { ... on Blob { oid text } }
+              }
+            }
+          }
+        }
+        """;
     private final SourceRepositoryJpaRepository sourceRepositoryRepository;
     private final SyncMonitorService syncMonitorService;
     private final GitHubSyncProgressService progressService;
     private final WebClient.Builder webClientBuilder;
+    private final GitHubEtagCacheService etagCacheService;
+    private final GitHubRateLimitService rateLimitService;
+    private final ReadmeStoreService readmeStoreService;
+    private final SourceRepositoryBulkUpsertRepository bulkUpsertRepository;
+    private final SyncLockRegistry syncLockRegistry;
+    private final SyncMetricsService syncMetrics;
+    private final ResiliencePolicyService resiliencePolicies;
 
     public GitHubSourceRepositoryService(SourceRepositoryJpaRepository sourceRepositoryRepository,
                                          SyncMonitorService syncMonitorService,
                                          GitHubSyncProgressService progressService,
-                                         WebClient.Builder webClientBuilder) {
+                                         WebClient.Builder webClientBuilder,
+                                         GitHubEtagCacheService etagCacheService,
+                                         GitHubRateLimitService rateLimitService,
+                                         ReadmeStoreService readmeStoreService,
+                                         SourceRepositoryBulkUpsertRepository bulkUpsertRepository,
+                                         SyncLockRegistry syncLockRegistry,
+                                         SyncMetricsService syncMetrics,
+                                         ResiliencePolicyService resiliencePolicies) {
         this.sourceRepositoryRepository = sourceRepositoryRepository;
         this.syncMonitorService = syncMonitorService;
         this.progressService = progressService;
         this.webClientBuilder = webClientBuilder;
+        this.etagCacheService = etagCacheService;
+        this.rateLimitService = rateLimitService;
+        this.readmeStoreService = readmeStoreService;
+        this.bulkUpsertRepository = bulkUpsertRepository;
+        this.syncLockRegistry = syncLockRegistry;
+        this.syncMetrics = syncMetrics;
+        this.resiliencePolicies = resiliencePolicies;
     }
     
     @Value("${github.api.token:}")
     private String githubToken;
     
+    @Value("${github.api.base-url:https://api.github.com}")
+    private String githubBaseUrl;
+    
     @Value("${github.username:BernardUriza}")
     private String githubUsername;
     
+    @Value("${github.readme.fetch-concurrency:4}")
+    private int readmeFetchConcurrency;
+    
+    @Value("${github.readme.max-retries:2}")
+    private int readmeMaxRetries;
+    
+    @Value("${github.starred.incremental:true}")
+    private boolean starredIncremental;
+    
+    @Value("${github.starred.max-pages:100}")
+    private int starredMaxPages;
+    
+    @Value("${github.ingest.mode:rest}")
+    private String ingestMode;
+    
+    @Value("${github.graphql.page-size:25}")
+    private int graphQlPageSize;
+    
+    // Built once: every request shares its filters and the pooled connector of the injected builder
+    private WebClient webClient;
+    
+    @PostConstruct
+    void initializeWebClient() {
+        // clone(): the injected builder is shared, filters and headers must not accumulate on it
+        WebClient.Builder builder = webClientBuilder.clone()
+            .baseUrl(githubBaseUrl)
+            .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader(HttpHeaders.USER_AGENT, "Portfolio-Application")
+            // Pace requests from the X-RateLimit-* headers GitHub returns
+            .filter(rateLimitService.filter());
+        
+        if (githubToken != null && !githubToken.isEmpty()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + githubToken);
+        }
+        
+        webClient = builder.build();
+    }
+    
 
+    /**
+     * Every public overload evicts on its own: calls between them bypass the caching proxy,
+     * so an annotation on the no-arg entry point alone misses the scheduler's calls.
+     */
     @CacheEvict(value = {"portfolio-projects", "portfolio-overview"}, allEntries = true)
     public void syncStarredRepositories() {
-        String syncId = java.util.UUID.randomUUID().toString();
+        syncStarredRepositories(sources -> { });
+    }
 
-        if (syncMonitorService.isSyncInProgress()) {
-            syncMonitorService.appendLog("WARN", "Sync already in progress, skipping");
-            progressService.markFailed(syncId, "Sync already in progress");
-            return;
-        }
+    /**
+     * Sync starred repositories, handing each page to {@code pagePersisted} as soon as its
+     * metadata and READMEs are stored. Lets curation start while later pages are still ingesting.
+     */
+    @CacheEvict(value = {"portfolio-projects", "portfolio-overview"}, allEntries = true)
+    public void syncStarredRepositories(Consumer<List<SourceRepositoryJpaEntity>> pagePersisted) {
+        syncStarredRepositories(SyncRunService.SyncRun.UNTRACKED, SyncRunLimits.NONE, pagePersisted);
+    }
+
+    /**
+     * Sync starred repositories as part of a recorded sync run. Every finished page is
+     * checkpointed on {@code syncRun}; a resumed run continues after its last checkpointed page
+     * and refetches READMEs an earlier attempt stored metadata for but never confirmed.
+     * Past the deadline in {@code limits} paging stops and the run is left to be resumed.
+     */
+    @CacheEvict(value = {"portfolio-projects", "portfolio-overview"}, allEntries = true)
+    public void syncStarredRepositories(SyncRunService.SyncRun syncRun, SyncRunLimits limits,
+                                        Consumer<List<SourceRepositoryJpaEntity>> pagePersisted) {
+        String syncId = java.util.UUID.randomUUID().toString();
 
         if (githubUsername == null || githubUsername.trim().isEmpty()) {
             syncMonitorService.appendLog("ERROR", "GitHub username not configured - cannot sync");
@@ -63,6 +193,12 @@ public class GitHubSourceRepositoryService {
             return;
         }
 
+        if (!syncLockRegistry.tryBeginIngest()) {
+            syncMonitorService.appendLog("WARN", "Sync already in progress, skipping");
+            progressService.markFailed(syncId, "Sync already in progress");
+            return;
+        }
+
         syncMonitorService.markSyncStarted();
         progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
             syncId, GitHubSyncProgressService.SyncPhase.STARTING, 0, 0, 0, 0,
@@ -72,131 +208,457 @@ public class GitHubSourceRepositoryService {
         try {
             syncMonitorService.appendLog("INFO", "Starting GitHub sync for user: " + githubUsername);
 
-            // Step 1: Fetch starred repositories from GitHub
-            progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
-                syncId, GitHubSyncProgressService.SyncPhase.FETCHING_REPOS, 10, 0, 0, 0,
-                "Fetching starred repositories from GitHub...", null
-            ));
+            // Without stored repositories neither conditional requests nor early termination are safe
+            boolean hasStoredRepositories = sourceRepositoryRepository.count() > 0;
+            boolean graphQl = useGraphQl();
+            SyncRunService.IngestCheckpoint checkpoint = syncRun.startIngest(graphQl ? INGEST_MODE_GRAPHQL : INGEST_MODE_REST,
+                starredIncremental && hasStoredRepositories);
+            IngestRun run = new IngestRun(checkpoint.incremental(), hasStoredRepositories, pagePersisted, syncRun, limits);
+            syncMonitorService.appendLog("INFO", run.incremental
+                ? "Incremental starred ingest: paging stops at the first fully known and unchanged page"
+                : "Full starred ingest: following every page");
+            if (syncRun.isResumed()) {
+                reportResume(syncId, syncRun, checkpoint);
+            }
+            run.pageNumber = checkpoint.pagesDone();
+
+            if (graphQl) {
+                try {
+                    ingestStarredViaGraphQl(syncId, run, checkpoint.cursor());
+                } catch (GitHubGraphQlException e) {
+                    // Pages already persisted stay; REST re-walks from the start and skips nothing it needs
+                    log.warn("GraphQL ingest failed, falling back to REST: {}", e.getMessage());
+                    syncMonitorService.appendLog("WARN", "GraphQL ingest failed, falling back to REST: " + e.getMessage());
+                    SyncRunService.IngestCheckpoint restart = syncRun.startIngest(INGEST_MODE_REST, run.incremental);
+                    run = new IngestRun(run.incremental, run.hasStoredRepositories, pagePersisted, syncRun, limits);
+                    ingestStarredViaRest(syncId, run, restart.cursor());
+                }
+            } else {
+                ingestStarredViaRest(syncId, run, checkpoint.cursor());
+            }
+            if (run.stoppedAtDeadline) {
+                syncMonitorService.appendLog("INFO", "Sync deadline reached after page " + run.pageNumber
+                    + " - remaining pages are left for the next run");
+            } else {
+                if (syncRun.isResumed()) {
+                    retryPendingReadmes(syncId, run);
+                }
+                if (run.readmeFailed.isEmpty()) {
+                    syncRun.ingestCompleted();
+                } else if (syncRun.getAttempt() <= readmeMaxRetries) {
+                    // Left unfinished so the next run resumes it and refetches just the pending READMEs
+                    syncMonitorService.appendLog("WARN", run.readmeFailed.size()
+                        + " READMEs could not be fetched - stored READMEs were kept and are retried by the next run");
+                } else {
+                    // A README that keeps failing must not hold every later sync back
+                    syncMonitorService.appendLog("WARN", String.format(
+                        "%d READMEs still failing after %d attempts - stored READMEs were kept, giving up on them",
+                        run.readmeFailed.size(), syncRun.getAttempt()));
+                    syncRun.ingestCompleted();
+                }
+            }
+
+            syncMonitorService.appendLog("INFO",
+                String.format("Sync completed: %d pages, %d synced (%d created, %d changed, %d unchanged), %d skipped%s",
+                    run.pageNumber, run.syncedCount, run.createdCount, run.changedCount, run.unchangedCount,
+                    run.skippedCount, run.stoppedEarly ? " (stopped early)" : ""));
+            syncMonitorService.recordIngestCounts(run.createdCount, run.changedCount, run.unchangedCount);
+            try {
+                readmeStoreService.deleteOrphans();
+            } catch (Exception e) {
+                log.warn("README blob cleanup failed: {}", e.getMessage());
+            }
+
+            int databaseCount = (int) sourceRepositoryRepository.count();
+            syncMonitorService.markSyncCompleted(
+                run.stoppedEarly ? Math.max(run.seenCount, databaseCount) : run.seenCount,
+                databaseCount,
+                run.unsyncedProjects
+            );
+
+            progressService.markCompleted(syncId, run.seenCount, run.syncedCount, run.skippedCount);
+
+        } catch (Exception e) {
+            log.error("GitHub sync failed", e);
+            syncMonitorService.markSyncFailed(e.getMessage());
+            progressService.markFailed(syncId, e.getMessage());
+        } finally {
+            syncLockRegistry.endIngest();
+        }
+    }
+    
+    private void reportResume(String syncId, SyncRunService.SyncRun syncRun, SyncRunService.IngestCheckpoint checkpoint) {
+        String message = checkpoint.cursor() != null
+            ? String.format("Resuming sync run %d (attempt %d) after page %d, %d repositories already ingested",
+                syncRun.getId(), syncRun.getAttempt(), checkpoint.pagesDone(), syncRun.getCarriedOver())
+            : String.format("Resuming sync run %d (attempt %d) from the first page, %d repositories already ingested",
+                syncRun.getId(), syncRun.getAttempt(), syncRun.getCarriedOver());
+        syncMonitorService.appendLog("INFO", message);
+        progressService.markResumed(syncId, syncRun.getId(), syncRun.getAttempt(), checkpoint.pagesDone(),
+            (int) syncRun.getCarriedOver(), message);
+    }
+
+    /**
+     * Refetch READMEs an earlier attempt of this run stored metadata for but never confirmed,
+     * directly by repository rather than by walking the pages they sit on. Those this walk
+     * already tried are skipped, so each README is requested at most once per attempt.
+     */
+    private void retryPendingReadmes(String syncId, IngestRun run) {
+        Set<Long> pending = run.syncRun.getReadmePending();
+        pending.removeAll(run.readmeFailed);
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<SourceRepositoryJpaEntity> targets = sourceRepositoryRepository.findAllById(pending).stream()
+            .filter(source -> source.getFullName() != null)
+            .collect(Collectors.toList());
+        Map<Long, GitHubRepo> repoByGithubId = new HashMap<>();
+        for (SourceRepositoryJpaEntity target : targets) {
+            GitHubRepo repo = new GitHubRepo();
+            repo.id = target.getGithubId();
+            repo.name = target.getName();
+            repo.full_name = target.getFullName();
+            repoByGithubId.put(repo.id, repo);
+        }
+        syncMonitorService.appendLog("INFO", "Retrying " + targets.size() + " READMEs left pending by an earlier attempt");
+
+        Set<Long> failed = fetchReadmesConcurrently(syncId, targets, repoByGithubId, 90, run.syncedCount, run.skippedCount);
+        run.syncRun.markStage(targets.stream()
+                .map(SourceRepositoryJpaEntity::getId)
+                .filter(id -> !failed.contains(id))
+                .collect(Collectors.toList()),
+            SyncRunItemJpaEntity.Stage.README_FETCHED);
+        run.readmeFailed.addAll(failed);
+    }
+
+    /**
+     * REST ingest: 1 request per page of starred repositories plus 1 per README that needs refreshing.
+     * Pages are streamed: fetch, persist, fetch READMEs, then move on.
+     *
+     * @param startUri page to start from when resuming; null for the first page
+     */
+    private void ingestStarredViaRest(String syncId, IngestRun run, String startUri) {
+        Integer lastPage = null;
+        String pageUri = startUri != null ? startUri : firstStarredPageUri();
+
+        while (pageUri != null) {
+            if (run.limits.isPastDeadline()) {
+                run.stoppedAtDeadline = true;
+                run.stoppedEarly = true;
+                return;
+            }
+            run.pageNumber++;
+            if (run.pageNumber > starredMaxPages) {
+                syncMonitorService.appendLog("WARN", "Reached github.starred.max-pages (" + starredMaxPages + "), stopping");
+                run.stoppedEarly = true;
+                return;
+            }
+
+            int progress = pageProgress(run.pageNumber, lastPage);
+            broadcastPageFetch(syncId, run, progress, lastPage);
+
+            ConditionalResponse<List<GitHubRepo>> page = fetchStarredPage(pageUri, run.hasStoredRepositories);
+            if (page.getLastPage() != null) {
+                lastPage = page.getLastPage();
+            }
+            String nextUri = page.getNextUri();
+
+            if (page.isNotModified()) {
+                // 304: this page is identical to what was persisted last time
+                syncMonitorService.appendLog("INFO", "Starred page " + run.pageNumber + " unchanged since last sync (304 Not Modified)");
+                if (run.incremental) {
+                    run.stoppedEarly = nextUri != null || lastPage == null || run.pageNumber < lastPage;
+                    return;
+                }
+                if (nextUri == null && lastPage != null && run.pageNumber >= lastPage) {
+                    return;
+                }
+                // GitHub may omit Link on 304, so keep walking by page number until an empty page
+                pageUri = nextUri != null ? nextUri : starredPageUri(run.pageNumber + 1);
+                run.syncRun.checkpointPage(run.pageNumber, pageUri);
+                continue;
+            }
 
-            List<GitHubRepo> starredRepos = fetchStarredRepositories();
+            List<GitHubRepo> starredRepos = page.getBody();
             if (starredRepos.isEmpty()) {
-                syncMonitorService.appendLog("WARN", "No starred repositories found for user: " + githubUsername);
-                syncMonitorService.markSyncCompleted(0, 0, Collections.emptyList());
-                progressService.markCompleted(syncId, 0, 0, 0);
+                if (run.pageNumber == 1) {
+                    syncMonitorService.appendLog("WARN", "No starred repositories found for user: " + githubUsername);
+                }
                 return;
             }
 
-            syncMonitorService.appendLog("INFO", "Fetched " + starredRepos.size() + " starred repositories from GitHub");
-            progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
-                syncId, GitHubSyncProgressService.SyncPhase.PROCESSING_REPOS, 30, 0, 0, 0,
-                "Processing " + starredRepos.size() + " repositories...", null
-            ));
-            
-            // Step 2: Update SourceRepository entities
-            // PERF-006: Use findAllWithTopics() to avoid N+1 query problem (1 query instead of N+1)
-            List<SourceRepositoryJpaEntity> existingRepositories = sourceRepositoryRepository.findAllWithTopics();
-            syncMonitorService.appendLog("INFO", "Found " + existingRepositories.size() + " source repositories in database (loaded with topics)");
-            
-            Map<Long, SourceRepositoryJpaEntity> existingRepoMap = existingRepositories.stream()
-                .collect(Collectors.toMap(SourceRepositoryJpaEntity::getGithubId, r -> r));
-            
-            List<SyncMonitorService.UnsyncedProject> unsyncedProjects = new ArrayList<>();
-            int syncedCount = 0;
-            int skippedCount = 0;
-            int totalRepos = starredRepos.size();
+            StarredPageOutcome outcome = ingestPage(syncId, run, starredRepos, null, progress);
 
-            // PERF-006: Batch save optimization - collect all entities to save at once
-            List<SourceRepositoryJpaEntity> entitiesToSave = new ArrayList<>();
-            List<SourceRepositoryJpaEntity> readmeFetchQueue = new ArrayList<>();
-            Map<SourceRepositoryJpaEntity, GitHubRepo> readmeFetchMap = new HashMap<>();
+            // Only remember a page's validators once everything derived from it is persisted
+            if (outcome.skipped == 0 && outcome.readmeFailed.isEmpty()) {
+                etagCacheService.store(page.getValidators());
+            }
+            run.syncRun.checkpointPage(run.pageNumber, nextUri);
 
-            for (int i = 0; i < starredRepos.size(); i++) {
-                GitHubRepo repo = starredRepos.get(i);
+            if (run.incremental && outcome.allKnownAndUnchanged) {
+                logIncrementalStop(run);
+                run.stoppedEarly = nextUri != null;
+                return;
+            }
 
-                try {
-                    SourceRepositoryJpaEntity sourceRepository;
-
-                    if (existingRepoMap.containsKey(repo.id)) {
-                        sourceRepository = existingRepoMap.get(repo.id);
-                        updateExistingSourceRepositoryInMemory(sourceRepository, repo);
-                        syncMonitorService.appendLog("DEBUG", "Updated source repository: " + repo.name);
-                    } else {
-                        sourceRepository = createNewSourceRepositoryInMemory(repo);
-                        syncMonitorService.appendLog("INFO", "Created new source repository: " + repo.name);
-                    }
+            pageUri = nextUri;
+        }
+    }
 
-                    entitiesToSave.add(sourceRepository);
+    /**
+     * GraphQL ingest: metadata, topics, pushedAt and README text for a whole page of
+     * starred repositories in one query, so a sync costs one request per page.
+     *
+     * @param startCursor end cursor of the last ingested page when resuming; null for the first page
+     */
+    private void ingestStarredViaGraphQl(String syncId, IngestRun run, String startCursor) {
+        Integer lastPage = null;
+        String cursor = startCursor;
+        int pageSize = Math.max(1, Math.min(100, graphQlPageSize));
 
-                    // Queue README fetch for later (after batch save)
-                    if (shouldFetchReadme(sourceRepository, repo)) {
-                        readmeFetchQueue.add(sourceRepository);
-                        readmeFetchMap.put(sourceRepository, repo);
-                    }
+        do {
+            if (run.limits.isPastDeadline()) {
+                run.stoppedAtDeadline = true;
+                run.stoppedEarly = true;
+                return;
+            }
+            run.pageNumber++;
+            if (run.pageNumber > starredMaxPages) {
+                syncMonitorService.appendLog("WARN", "Reached github.starred.max-pages (" + starredMaxPages + "), stopping");
+                run.stoppedEarly = true;
+                return;
+            }
 
-                    syncedCount++;
+            int progress = pageProgress(run.pageNumber, lastPage);
+            broadcastPageFetch(syncId, run, progress, lastPage);
 
-                    // Update progress periodically
-                    if (i % 5 == 0 || i == totalRepos - 1) {
-                        int progress = 30 + (int) ((i * 60.0) / totalRepos);
-                        progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
-                            syncId, GitHubSyncProgressService.SyncPhase.PROCESSING_REPOS,
-                            progress, i + 1, syncedCount, skippedCount,
-                            String.format("Processed %d/%d repositories", i + 1, totalRepos), null
-                        ));
-                    }
+            GraphQlStarredPage page = fetchStarredPageGraphQl(cursor, pageSize);
+            if (page.totalCount > 0) {
+                lastPage = (page.totalCount + pageSize - 1) / pageSize;
+            }
 
-                } catch (Exception e) {
-                    log.error("Error syncing repo: " + repo.name, e);
-                    unsyncedProjects.add(new SyncMonitorService.UnsyncedProject(
-                        repo.id.toString(),
-                        repo.name,
-                        e.getMessage()
-                    ));
-                    skippedCount++;
+            if (page.repos.isEmpty()) {
+                if (run.pageNumber == 1) {
+                    syncMonitorService.appendLog("WARN", "No starred repositories found for user: " + githubUsername);
                 }
+                return;
             }
 
-            // PERF-006: Batch save all entities at once (replaces N individual saves)
-            if (!entitiesToSave.isEmpty()) {
-                syncMonitorService.appendLog("INFO", "Batch saving " + entitiesToSave.size() + " repositories...");
-                sourceRepositoryRepository.saveAll(entitiesToSave);
-                syncMonitorService.appendLog("INFO", "Batch save completed");
+            StarredPageOutcome outcome = ingestPage(syncId, run, page.repos, page.readmes, progress);
+            cursor = page.hasNextPage ? page.endCursor : null;
+            run.syncRun.checkpointPage(run.pageNumber, cursor);
+
+            if (run.incremental && outcome.allKnownAndUnchanged) {
+                logIncrementalStop(run);
+                run.stoppedEarly = page.hasNextPage;
+                return;
             }
+        } while (cursor != null);
+    }
 
-            // Fetch READMEs after batch save (now that entities have IDs)
-            for (int i = 0; i < readmeFetchQueue.size(); i++) {
-                SourceRepositoryJpaEntity sourceRepository = readmeFetchQueue.get(i);
-                GitHubRepo repo = readmeFetchMap.get(sourceRepository);
+    private StarredPageOutcome ingestPage(String syncId, IngestRun run, List<GitHubRepo> starredRepos,
+                                          Map<Long, ReadmeContent> prefetchedReadmes, int progress) {
+        run.seenCount += starredRepos.size();
+        syncMonitorService.appendLog("INFO", "Fetched page " + run.pageNumber + " with " + starredRepos.size() + " starred repositories");
 
-                progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
-                    syncId, GitHubSyncProgressService.SyncPhase.FETCHING_README,
-                    30 + (int) ((i * 60.0) / totalRepos),
-                    i + 1, syncedCount, skippedCount,
-                    "Fetching README for: " + repo.name, null
+        StarredPageOutcome outcome = ingestStarredPage(syncId, starredRepos, prefetchedReadmes, run.unsyncedProjects,
+            run.syncRun, progress, run.syncedCount, run.skippedCount);
+        run.syncedCount += outcome.synced;
+        run.skippedCount += outcome.skipped;
+        run.createdCount += outcome.created;
+        run.changedCount += outcome.changed;
+        run.unchangedCount += outcome.unchanged;
+        run.readmeFailed.addAll(outcome.readmeFailed);
+        if (!outcome.sources.isEmpty()) {
+            run.pagePersisted.accept(outcome.sources);
+        }
+        return outcome;
+    }
+
+    private void broadcastPageFetch(String syncId, IngestRun run, int progress, Integer lastPage) {
+        progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
+            syncId, GitHubSyncProgressService.SyncPhase.FETCHING_REPOS, progress,
+            run.seenCount, run.syncedCount, run.skippedCount,
+            "Fetching starred repositories page " + run.pageNumber + (lastPage != null ? "/" + lastPage : "") + "...", null
+        ));
+    }
+
+    private void logIncrementalStop(IngestRun run) {
+        syncMonitorService.appendLog("INFO",
+            "Page " + run.pageNumber + " contains only known, unchanged repositories - stopping incremental ingest");
+    }
+
+    private boolean useGraphQl() {
+        if (!INGEST_MODE_GRAPHQL.equalsIgnoreCase(ingestMode)) {
+            return false;
+        }
+        if (githubToken == null || githubToken.isEmpty()) {
+            syncMonitorService.appendLog("WARN", "GraphQL ingest requires a GitHub token, using REST");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Map and persist a single page of starred repositories, then fetch its READMEs.
+     * Only the stored rows for this page are loaded, keeping memory bounded by page size.
+     */
+    private StarredPageOutcome ingestStarredPage(String syncId, List<GitHubRepo> starredRepos,
+                                                 Map<Long, ReadmeContent> prefetchedReadmes,
+                                                 List<SyncMonitorService.UnsyncedProject> unsyncedProjects,
+                                                 SyncRunService.SyncRun syncRun,
+                                                 int progress, int syncedSoFar, int skippedSoFar) {
+        List<Long> githubIds = starredRepos.stream().map(repo -> repo.id).collect(Collectors.toList());
+        Map<Long, SourceRepositoryJpaEntity> existingRepoMap = sourceRepositoryRepository
+            .findAllWithTopicsByGithubIdIn(githubIds).stream()
+            .collect(Collectors.toMap(SourceRepositoryJpaEntity::getGithubId, r -> r));
+        // Stored by an earlier attempt of this run, README still unconfirmed
+        Set<Long> readmePending = syncRun.findReadmePending(
+            existingRepoMap.values().stream().map(SourceRepositoryJpaEntity::getId).collect(Collectors.toList()));
+
+        int syncedCount = 0;
+        int skippedCount = 0;
+        int createdCount = 0;
+        int changedCount = 0;
+        int unchangedCount = 0;
+
+        // PERF-006: Batch save optimization - collect all entities to save at once
+        List<SourceRepositoryJpaEntity> entitiesToSave = new ArrayList<>();
+        List<SourceRepositoryJpaEntity> pageEntities = new ArrayList<>();
+        List<SourceRepositoryJpaEntity> readmeFetchQueue = new ArrayList<>();
+        Map<Long, GitHubRepo> readmeRepoByGithubId = new HashMap<>();
+        Map<String, String> newReadmeBlobs = new HashMap<>();
+
+        for (GitHubRepo repo : starredRepos) {
+            try {
+                SourceRepositoryJpaEntity sourceRepository = existingRepoMap.get(repo.id);
+                boolean created = sourceRepository == null;
+                // Decide before applying changes: afterwards githubUpdatedAt already matches the response
+                boolean readmeStale = created || shouldFetchReadme(sourceRepository, repo)
+                    || readmePending.contains(sourceRepository.getId());
+                boolean changed;
+
+                if (created) {
+                    sourceRepository = createNewSourceRepositoryInMemory(repo);
+                    changed = true;
+                } else {
+                    changed = updateExistingSourceRepositoryInMemory(sourceRepository, repo);
+                }
+
+                // GraphQL returns the README text with the metadata when it sits under a known name
+                ReadmeContent prefetchedReadme = prefetchedReadmes != null ? prefetchedReadmes.get(repo.id) : null;
+                if (prefetchedReadme != null && attachReadme(sourceRepository, prefetchedReadme, newReadmeBlobs)) {
+                    changed = true;
+                }
+
+                if (created) {
+                    createdCount++;
+                    syncMonitorService.appendLog("INFO", "Created new source repository: " + repo.name);
+                } else if (changed) {
+                    changedCount++;
+                    syncMonitorService.appendLog("DEBUG", "Updated source repository: " + repo.name);
+                } else {
+                    unchangedCount++;
+                }
+
+                // Unchanged rows are not flushed at all
+                if (changed) {
+                    entitiesToSave.add(sourceRepository);
+                }
+
+                pageEntities.add(sourceRepository);
+
+                if (prefetchedReadme == null && readmeStale) {
+                    // Queue README fetch for later (after batch save); REST /readme finds any README name
+                    readmeFetchQueue.add(sourceRepository);
+                    readmeRepoByGithubId.put(repo.id, repo);
+                }
+
+                syncedCount++;
+
+            } catch (Exception e) {
+                log.error("Error syncing repo: " + repo.name, e);
+                unsyncedProjects.add(new SyncMonitorService.UnsyncedProject(
+                    repo.id.toString(),
+                    repo.name,
+                    e.getMessage()
                 ));
-                fetchAndStoreReadme(sourceRepository, repo);
+                skippedCount++;
             }
+        }
 
-            syncMonitorService.appendLog("INFO",
-                String.format("Sync completed: %d synced, %d skipped", syncedCount, skippedCount));
+        progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
+            syncId, GitHubSyncProgressService.SyncPhase.PROCESSING_REPOS,
+            progress, syncedSoFar + syncedCount + skippedSoFar + skippedCount,
+            syncedSoFar + syncedCount, skippedSoFar + skippedCount,
+            String.format("Processed %d repositories from current page (%d new, %d changed, %d unchanged)",
+                starredRepos.size(), createdCount, changedCount, unchangedCount), null
+        ));
 
-            syncMonitorService.markSyncCompleted(
-                starredRepos.size(),
-                (int) sourceRepositoryRepository.count(),
-                unsyncedProjects
-            );
+        // Lock the stored rows this page writes; rows a single-repository refresh holds right
+        // now are left to it rather than overwritten with what may be older data
+        Set<Long> writtenIds = new HashSet<>();
+        entitiesToSave.forEach(entity -> writtenIds.add(entity.getId()));
+        readmeFetchQueue.forEach(entity -> writtenIds.add(entity.getId()));
+        writtenIds.remove(null);
+        Map<Long, SourceRepositoryJpaEntity> savedByGithubId = new HashMap<>();
+        try (SyncLockRegistry.RepositoryLock pageLock = syncLockRegistry.tryLockRepositories(writtenIds)) {
+            if (pageLock.getIds().size() < writtenIds.size()) {
+                entitiesToSave.removeIf(entity -> entity.getId() != null && !pageLock.holds(entity.getId()));
+                readmeFetchQueue.removeIf(entity -> entity.getId() != null && !pageLock.holds(entity.getId()));
+                syncMonitorService.appendLog("INFO", String.format(
+                    "%d repositories on this page are being refreshed concurrently and were left to that refresh",
+                    writtenIds.size() - pageLock.getIds().size()));
+            }
 
-            progressService.markCompleted(syncId, totalRepos, syncedCount, skippedCount);
+            // PERF-006: Write the whole page at once - a single INSERT ... ON CONFLICT on PostgreSQL
+            // Record pending READMEs before the upsert makes their staleness invisible
+            syncRun.markStage(readmeFetchQueue.stream().map(SourceRepositoryJpaEntity::getId).collect(Collectors.toList()),
+                SyncRunItemJpaEntity.Stage.INGESTED);
+            syncMetrics.timeDbFlush("readme_blobs", () -> readmeStoreService.storeAll(newReadmeBlobs));
+            if (!entitiesToSave.isEmpty()) {
+                syncMonitorService.appendLog("INFO", "Batch upserting " + entitiesToSave.size() + " repositories...");
+                // Keep the returned instances: they carry the id and @Version the README stage saves against
+                syncMetrics.timeDbFlush("source_upsert", () -> bulkUpsertRepository.upsertAll(entitiesToSave))
+                    .forEach(saved -> savedByGithubId.put(saved.getGithubId(), saved));
+                syncMonitorService.appendLog("INFO", "Batch upsert completed");
+            }
+        }
 
-        } catch (Exception e) {
-            log.error("GitHub sync failed", e);
-            syncMonitorService.markSyncFailed(e.getMessage());
-            progressService.markFailed(syncId, e.getMessage());
+        // Fetch READMEs after batch save (now that entities have IDs). The page lock is already
+        // released: the requests run unlocked and only their results are written under locks
+        List<SourceRepositoryJpaEntity> readmeTargets = readmeFetchQueue.stream()
+            .map(queued -> savedByGithubId.getOrDefault(queued.getGithubId(), queued))
+            .collect(Collectors.toList());
+        Set<Long> readmeFailed = fetchReadmesConcurrently(syncId, readmeTargets, readmeRepoByGithubId,
+            progress, syncedSoFar + syncedCount, skippedSoFar + skippedCount);
+
+        List<SourceRepositoryJpaEntity> persisted = pageEntities.stream()
+            .map(entity -> savedByGithubId.getOrDefault(entity.getGithubId(), entity))
+            .collect(Collectors.toList());
+        // Failed READMEs stay INGESTED, which makes a resumed run fetch them again
+        syncRun.markStage(persisted.stream()
+                .map(SourceRepositoryJpaEntity::getId)
+                .filter(id -> !readmeFailed.contains(id))
+                .collect(Collectors.toList()),
+            SyncRunItemJpaEntity.Stage.README_FETCHED);
+        return new StarredPageOutcome(syncedCount, skippedCount, createdCount, changedCount, unchangedCount,
+            readmeFailed, persisted);
+    }
+
+    private int pageProgress(int pageNumber, Integer lastPage) {
+        if (lastPage != null && lastPage > 0) {
+            return Math.min(90, 10 + (int) (((pageNumber - 1) * 80.0) / lastPage));
         }
+        return Math.min(90, 10 + (pageNumber - 1) * 5);
     }
-    
+
     /**
-     * Refresh single repository data from GitHub
+     * Refresh single repository data from GitHub.
+     * Runs alongside a full sync. The GitHub requests run unlocked; only the write holds this
+     * repository's lock.
+     *
+     * @throws RepositoryLockedException when the repository is being written or curated right now
      */
     public void refreshSingleRepository(String githubRepoUrl) {
         if (githubRepoUrl == null || githubRepoUrl.trim().isEmpty()) {
@@ -209,6 +671,12 @@ public class GitHubSourceRepositoryService {
             throw new IllegalArgumentException("Invalid GitHub repository URL format: " + githubRepoUrl);
         }
         
+        Optional<SourceRepositoryJpaEntity> knownOpt = sourceRepositoryRepository.findByGithubRepoUrl(githubRepoUrl);
+        if (knownOpt.isEmpty()) {
+            syncMonitorService.appendLog("WARN", "Repository not found in database, cannot refresh: " + fullName);
+            throw new IllegalArgumentException("Repository not found in database: " + fullName);
+        }
+        
         syncMonitorService.appendLog("INFO", "Refreshing single repository: " + fullName);
         
         try {
@@ -217,23 +685,26 @@ public class GitHubSourceRepositoryService {
             if (repo == null) {
                 throw new RuntimeException("Repository not found or not accessible: " + fullName);
             }
+            ConditionalResponse<ReadmeContent> readme = fetchReadme(knownOpt.get(), repo);
             
-            // Find existing source repository
-            Optional<SourceRepositoryJpaEntity> existingOpt = sourceRepositoryRepository.findByGithubRepoUrl(githubRepoUrl);
-            
-            if (existingOpt.isPresent()) {
-                SourceRepositoryJpaEntity existing = existingOpt.get();
-                updateExistingSourceRepository(existing, repo);
-                
-                // Fetch updated README
-                fetchAndStoreReadme(existing, repo);
-                
-                syncMonitorService.appendLog("INFO", "Successfully refreshed repository: " + repo.name);
-            } else {
-                syncMonitorService.appendLog("WARN", "Repository not found in database, cannot refresh: " + fullName);
-                throw new IllegalArgumentException("Repository not found in database: " + fullName);
+            try (SyncLockRegistry.RepositoryLock lock = syncLockRegistry.lockRepository(knownOpt.get().getId())) {
+                // Re-read under the lock: a sync may have written the row since the lookup
+                SourceRepositoryJpaEntity existing = sourceRepositoryRepository.findById(knownOpt.get().getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Repository not found in database: " + fullName));
+                boolean changed = updateExistingSourceRepositoryInMemory(existing, repo);
+                if (applyReadme(existing, repo, readme) || changed) {
+                    sourceRepositoryRepository.save(existing);
+                }
             }
+            if (readme != null && !readme.isNotModified() && readme.getValidators() != null) {
+                etagCacheService.store(readme.getValidators());
+            }
+            
+            syncMonitorService.appendLog("INFO", "Successfully refreshed repository: " + repo.name);
             
+        } catch (RepositoryLockedException e) {
+            syncMonitorService.appendLog("WARN", "Repository " + fullName + " is being synced right now, refresh skipped");
+            throw e;
         } catch (Exception e) {
             log.error("Failed to refresh repository {}: {}", fullName, e.getMessage(), e);
             syncMonitorService.appendLog("ERROR", "Failed to refresh repository " + fullName + ": " + e.getMessage());
@@ -263,19 +734,15 @@ public class GitHubSourceRepositoryService {
         }
     }
     
-    @Retry(name = "github", fallbackMethod = "fetchSingleRepositoryFallback")
-    @CircuitBreaker(name = "github", fallbackMethod = "fetchSingleRepositoryFallback")
-    @RateLimiter(name = "github")
-    @TimeLimiter(name = "github")
     private GitHubRepo fetchSingleRepository(String fullName) {
-        WebClient webClient = createWebClient();
         String uri = "/repos/" + fullName;
         
         try {
-            Mono<GitHubRepo> response = webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(GitHubRepo.class);
+            Mono<GitHubRepo> response = resiliencePolicies.decorate(GITHUB_POLICY,
+                syncMetrics.timeGitHubCall("repository", webClient.get()
+                    .uri(uri)
+                    .retrieve()
+                    .bodyToMono(GitHubRepo.class)));
             
             GitHubRepo repo = response.block();
             
@@ -291,32 +758,35 @@ public class GitHubSourceRepositoryService {
         }
     }
     
-    @Retry(name = "github", fallbackMethod = "fetchStarredRepositoriesFallback")
-    @CircuitBreaker(name = "github", fallbackMethod = "fetchStarredRepositoriesFallback")
-    @RateLimiter(name = "github")
-    @TimeLimiter(name = "github")
-    private List<GitHubRepo> fetchStarredRepositories() {
-        if (githubUsername == null || githubUsername.trim().isEmpty()) {
-            log.warn("GitHub username is null or empty, cannot fetch starred repositories");
-            return Collections.emptyList();
-        }
-        
-        WebClient webClient = createWebClient();
-        String uri = "/users/" + githubUsername.trim() + "/starred?per_page=100";
+    private String firstStarredPageUri() {
+        return starredPageUri(1);
+    }
+
+    // GitHub lists stars newest first with sort=created, which is what incremental mode relies on
+    private String starredPageUri(int page) {
+        return "/users/" + githubUsername.trim() + "/starred?per_page=" + STARRED_PAGE_SIZE
+            + "&sort=created&direction=desc&page=" + page;
+    }
+
+    private ConditionalResponse<List<GitHubRepo>> fetchStarredPage(String uri, boolean conditional) {
+        GitHubEtagCacheService.Validators validators = conditional ? etagCacheService.find(uri) : null;
         
         try {
-            Mono<GitHubRepo[]> response = webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(GitHubRepo[].class);
+            ConditionalResponse<GitHubRepo[]> response = resiliencePolicies.decorate(GITHUB_POLICY,
+                conditionalGet(uri, GitHubRepo[].class, "starred", validators)).block();
             
-            GitHubRepo[] repos = response.block();
-            
-            if (repos == null) {
+            if (response == null || (!response.isNotModified() && response.getBody() == null)) {
                 log.warn("Received null response from GitHub API for user: {}", githubUsername);
-                return Collections.emptyList();
+                return ConditionalResponse.modified(Collections.emptyList(), null);
+            }
+            
+            if (response.isNotModified()) {
+                log.debug("Starred page not modified: {}", uri);
+                return response.withBody(null);
             }
             
+            GitHubRepo[] repos = response.getBody();
+            
             // Filter out repos with missing essential data
             List<GitHubRepo> validRepos = Arrays.stream(repos)
                          .filter(repo -> {
@@ -338,7 +808,10 @@ public class GitHubSourceRepositoryService {
                          .collect(Collectors.toList());
                          
             log.debug("Filtered {} valid repositories out of {} total", validRepos.size(), repos.length);
-            return validRepos;
+            // A short page is the last one even if Link is missing
+            return repos.length < STARRED_PAGE_SIZE
+                ? ConditionalResponse.modified(validRepos, response.getValidators())
+                : response.withBody(validRepos);
                          
         } catch (Exception e) {
             log.error("Failed to fetch starred repositories for user: {}, Error: {}", githubUsername, e.getMessage());
@@ -346,43 +819,217 @@ public class GitHubSourceRepositoryService {
         }
     }
     
+    private GraphQlStarredPage fetchStarredPageGraphQl(String cursor, int pageSize) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", githubUsername.trim());
+        variables.put("first", pageSize);
+        variables.put("after", cursor);
+
+        JsonNode response;
+        try {
+            // Same retry, circuit breaker and time limit as the REST requests; the query only reads
+            response = resiliencePolicies.decorate(GITHUB_POLICY, syncMetrics.timeGitHubCall("graphql", webClient.post()
+                .uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("query", STARRED_GRAPHQL_QUERY, "variables", variables))
+                .retrieve()
+                .bodyToMono(JsonNode.class)))
+                .block();
+        } catch (Exception e) {
+            throw new GitHubGraphQlException("GraphQL request failed: " + e.getMessage(), e);
+        }
+
+        if (response == null) {
+            throw new GitHubGraphQlException("Empty GraphQL response", null);
+        }
+        JsonNode errors = response.path("errors");
+        if (errors.isArray() && errors.size() > 0) {
+            throw new GitHubGraphQlException("GraphQL errors: " + errors.get(0).path("message").asText(), null);
+        }
+
+        JsonNode starred = response.path("data").path("user").path("starredRepositories");
+        if (starred.isMissingNode() || starred.isNull()) {
+            throw new GitHubGraphQlException("No starredRepositories in GraphQL response for " + githubUsername, null);
+        }
+
+        List<GitHubRepo> repos = new ArrayList<>();
+        Map<Long, ReadmeContent> readmes = new HashMap<>();
+        for (JsonNode node : starred.path("nodes")) {
+            GitHubRepo repo = mapGraphQlRepository(node);
+            if (repo.id == null || repo.name == null || repo.name.trim().isEmpty() || !repo.hasValidFullName()) {
+                log.debug("Skipping GraphQL repository with missing essential data: {}", node.path("nameWithOwner").asText());
+                continue;
+            }
+            repos.add(repo);
+            ReadmeContent readme = graphQlReadme(node, repo.full_name);
+            if (readme != null) {
+                readmes.put(repo.id, readme);
+            }
+        }
+
+        JsonNode pageInfo = starred.path("pageInfo");
+        return new GraphQlStarredPage(
+            repos,
+            readmes,
+            starred.path("totalCount").asInt(0),
+            pageInfo.path("hasNextPage").asBoolean(false),
+            pageInfo.path("endCursor").isNull() ? null : pageInfo.path("endCursor").asText(null)
+        );
+    }
+
+    private GitHubRepo mapGraphQlRepository(JsonNode node) {
+        GitHubRepo repo = new GitHubRepo();
+        repo.id = node.hasNonNull("databaseId") ? node.get("databaseId").asLong() : null;
+        repo.name = textOrNull(node, "name");
+        repo.full_name = textOrNull(node, "nameWithOwner");
+        repo.description = textOrNull(node, "description");
+        repo.html_url = textOrNull(node, "url");
+        String homepage = textOrNull(node, "homepageUrl");
+        repo.homepage = homepage != null && homepage.isEmpty() ? null : homepage;
+        repo.language = textOrNull(node.path("primaryLanguage"), "name");
+        repo.fork = node.path("isFork").asBoolean(false);
+        repo.stargazers_count = node.path("stargazerCount").asInt(0);
+        repo.created_at = textOrNull(node, "createdAt");
+        repo.updated_at = textOrNull(node, "updatedAt");
+        repo.pushed_at = textOrNull(node, "pushedAt");
+        repo.topics = new ArrayList<>();
+        for (JsonNode topicNode : node.path("repositoryTopics").path("nodes")) {
+            String topic = textOrNull(topicNode.path("topic"), "name");
+            if (topic != null) {
+                repo.topics.add(topic);
+            }
+        }
+        return repo;
+    }
+
     /**
-     * Fallback method for GitHub API calls
+     * README text under one of the aliased names, or null when none of them has one; the
+     * README may still exist under another name, which REST /readme resolves.
      */
-    @SuppressWarnings("unused")
-    private List<GitHubRepo> fetchStarredRepositoriesFallback(Exception ex) {
-        log.warn("GitHub API fallback triggered due to: {}", ex.getMessage());
-        syncMonitorService.appendLog("WARN", "GitHub API unavailable, using empty result: " + ex.getMessage());
-        return Collections.emptyList();
+    private ReadmeContent graphQlReadme(JsonNode node, String fullName) {
+        for (String alias : GRAPHQL_README_ALIASES) {
+            String text = textOrNull(node.path(alias), "text");
+            if (text != null && !text.trim().isEmpty()) {
+                return new ReadmeContent(textOrNull(node.path(alias), "oid"), truncateReadme(text, fullName));
+            }
+        }
+        return null;
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isMissingNode() || value.isNull() ? null : value.asText();
     }
     
     /**
-     * Fallback method for single repository fetch
+     * GET with If-None-Match / If-Modified-Since replayed from stored validators.
+     * A 304 completes with a not-modified marker without touching the body.
      */
-    @SuppressWarnings("unused")
-    private GitHubRepo fetchSingleRepositoryFallback(String fullName, Exception ex) {
-        log.warn("GitHub API fallback triggered for repository {}: {}", fullName, ex.getMessage());
-        syncMonitorService.appendLog("WARN", "GitHub API unavailable for repository " + fullName + ": " + ex.getMessage());
-        return null;
+    private <T> Mono<ConditionalResponse<T>> conditionalGet(String uri, Class<T> bodyType, String resource,
+                                                            GitHubEtagCacheService.Validators validators) {
+        return syncMetrics.timeGitHubCall(resource, webClient.get()
+            .uri(uri)
+            .headers(headers -> etagCacheService.applyValidators(validators, headers))
+            .exchangeToMono(response -> {
+                HttpHeaders responseHeaders = response.headers().asHttpHeaders();
+                Map<String, String> links = parseLinkHeader(responseHeaders.getFirst(HttpHeaders.LINK));
+                if (response.statusCode().value() == 304) {
+                    etagCacheService.recordHit(resource);
+                    return response.releaseBody().thenReturn(ConditionalResponse.<T>notModified(links));
+                }
+                if (response.statusCode().is2xxSuccessful()) {
+                    etagCacheService.recordMiss(resource);
+                    GitHubEtagCacheService.Validators fresh = new GitHubEtagCacheService.Validators(
+                        uri, responseHeaders.getETag(), responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED));
+                    return response.bodyToMono(bodyType)
+                        .map(body -> ConditionalResponse.modified(body, fresh, links));
+                }
+                return response.createException().flatMap(Mono::error);
+            }), response -> response.isNotModified() ? "not_modified" : "ok");
+    }
+    
+    /**
+     * Parse an RFC 8288 Link header into rel -> request path. Absolute GitHub URLs are reduced
+     * to path and query so they resolve against the configured base URL and match ETag keys.
+     */
+    static Map<String, String> parseLinkHeader(String linkHeader) {
+        if (linkHeader == null || linkHeader.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> links = new HashMap<>();
+        for (String part : linkHeader.split(",")) {
+            Matcher matcher = LINK_PATTERN.matcher(part.trim());
+            if (matcher.matches()) {
+                java.net.URI target = java.net.URI.create(matcher.group(1));
+                String path = target.getRawQuery() != null
+                    ? target.getRawPath() + "?" + target.getRawQuery()
+                    : target.getRawPath();
+                links.put(matcher.group(2), path);
+            }
+        }
+        return links;
     }
     
     /**
      * PERF-006: Update existing source repository in memory (no immediate save)
      * Used by batch save optimization - saves happen via saveAll()
+     *
+     * Only fields whose GitHub value differs are touched, so Hibernate's dirty checking
+     * leaves unchanged rows (and their topics collection) alone and updatedAt keeps meaning
+     * "GitHub data last changed".
+     *
+     * @return true when at least one field changed
      */
-    private void updateExistingSourceRepositoryInMemory(SourceRepositoryJpaEntity existing, GitHubRepo repo) {
-        existing.setName(repo.name);
-        existing.setFullName(repo.full_name);
-        existing.setDescription(repo.description);
-        existing.setGithubRepoUrl(repo.html_url);
-        existing.setHomepage(repo.homepage);
-        existing.setLanguage(repo.language);
-        existing.setFork(repo.fork);
-        existing.setStargazersCount(repo.stargazers_count);
-        existing.setTopics(repo.topics != null ? new ArrayList<>(repo.topics) : new ArrayList<>());
-        existing.setGithubUpdatedAt(repo.updated_at);
-        existing.setUpdatedAt(LocalDateTime.now());
-        // No save() here - will be saved in batch
+    private boolean updateExistingSourceRepositoryInMemory(SourceRepositoryJpaEntity existing, GitHubRepo repo) {
+        boolean changed = false;
+        if (!Objects.equals(existing.getName(), repo.name)) {
+            existing.setName(repo.name);
+            changed = true;
+        }
+        if (!Objects.equals(existing.getFullName(), repo.full_name)) {
+            existing.setFullName(repo.full_name);
+            changed = true;
+        }
+        if (!Objects.equals(existing.getDescription(), repo.description)) {
+            existing.setDescription(repo.description);
+            changed = true;
+        }
+        if (!Objects.equals(existing.getGithubRepoUrl(), repo.html_url)) {
+            existing.setGithubRepoUrl(repo.html_url);
+            changed = true;
+        }
+        if (!Objects.equals(existing.getHomepage(), repo.homepage)) {
+            existing.setHomepage(repo.homepage);
+            changed = true;
+        }
+        if (!Objects.equals(existing.getLanguage(), repo.language)) {
+            existing.setLanguage(repo.language);
+            changed = true;
+        }
+        if (!Objects.equals(existing.getFork(), repo.fork)) {
+            existing.setFork(repo.fork);
+            changed = true;
+        }
+        if (!Objects.equals(existing.getStargazersCount(), repo.stargazers_count)) {
+            existing.setStargazersCount(repo.stargazers_count);
+            changed = true;
+        }
+        List<String> topics = repo.topics != null ? repo.topics : Collections.emptyList();
+        if (!topics.equals(existing.getTopics())) {
+            existing.setTopics(new ArrayList<>(topics));
+            changed = true;
+        }
+        if (!Objects.equals(existing.getGithubUpdatedAt(), repo.updated_at)) {
+            existing.setGithubUpdatedAt(repo.updated_at);
+            changed = true;
+        }
+        // GraphQL and newer REST responses always carry pushed_at; don't clear it when absent
+        if (repo.pushed_at != null && !repo.pushed_at.equals(existing.getGithubPushedAt())) {
+            existing.setGithubPushedAt(repo.pushed_at);
+            changed = true;
+        }
+        // updatedAt is maintained by @UpdateTimestamp when the row is actually flushed
+        return changed;
     }
 
     /**
@@ -403,6 +1050,7 @@ public class GitHubSourceRepositoryService {
             .topics(repo.topics != null ? new ArrayList<>(repo.topics) : new ArrayList<>())
             .githubCreatedAt(repo.created_at)
             .githubUpdatedAt(repo.updated_at)
+            .githubPushedAt(repo.pushed_at)
             .syncStatus(SourceRepositoryJpaEntity.SyncStatus.UNSYNCED)
             .createdAt(LocalDateTime.now())
             .updatedAt(LocalDateTime.now())
@@ -410,14 +1058,6 @@ public class GitHubSourceRepositoryService {
         // No save() here - will be saved in batch
     }
 
-    /**
-     * Legacy method for single repository updates (kept for refreshSingleRepository)
-     */
-    private void updateExistingSourceRepository(SourceRepositoryJpaEntity existing, GitHubRepo repo) {
-        updateExistingSourceRepositoryInMemory(existing, repo);
-        sourceRepositoryRepository.save(existing);
-    }
-
     /**
      * Legacy method for single repository creation (kept for refreshSingleRepository)
      */
@@ -427,103 +1067,439 @@ public class GitHubSourceRepositoryService {
     }
     
     private boolean shouldFetchReadme(SourceRepositoryJpaEntity sourceRepository, GitHubRepo repo) {
-        return sourceRepository.getReadmeMarkdown() == null || 
+        return !sourceRepository.hasReadme() || 
                (repo.updated_at != null && 
                 !repo.updated_at.equals(sourceRepository.getGithubUpdatedAt()));
     }
     
-    private void fetchAndStoreReadme(SourceRepositoryJpaEntity sourceRepository, GitHubRepo repo) {
+    /**
+     * PERF-007: README fetch stage with bounded parallelism.
+     * Up to {@code github.readme.fetch-concurrency} requests are in flight at once and
+     * all results are persisted with a single saveAll() instead of one save() per repository.
+     * A repository whose README request failed keeps the README it has stored.
+     *
+     * @return ids of the repositories whose README could not be fetched
+     */
+    private Set<Long> fetchReadmesConcurrently(String syncId, List<SourceRepositoryJpaEntity> targets,
+                                          Map<Long, GitHubRepo> repoByGithubId,
+                                          int progress, int syncedCount, int skippedCount) {
+        if (targets.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        int total = targets.size();
+        int concurrency = Math.max(1, readmeFetchConcurrency);
+        AtomicInteger completed = new AtomicInteger(0);
+        syncMonitorService.appendLog("INFO",
+            String.format("Fetching %d READMEs with concurrency %d", total, concurrency));
+
+        // Load stored validators up front so no DB lookup happens on the HTTP event loop
+        Map<String, GitHubEtagCacheService.Validators> validatorsByEndpoint = etagCacheService.findAll(
+            targets.stream()
+                .filter(SourceRepositoryJpaEntity::hasReadme)
+                .map(target -> readmeEndpoint(repoByGithubId.get(target.getGithubId()).full_name))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        List<GitHubEtagCacheService.Validators> freshValidators = new ArrayList<>();
+        Map<String, String> newReadmeBlobs = new HashMap<>();
+        AtomicInteger unchanged = new AtomicInteger(0);
+        Set<Long> failed = new HashSet<>();
+
+        List<SourceRepositoryJpaEntity> fetched = Flux.fromIterable(targets)
+            .flatMap(sourceRepository -> {
+                GitHubRepo repo = repoByGithubId.get(sourceRepository.getGithubId());
+                String endpoint = readmeEndpoint(repo.full_name);
+                return fetchRepositoryReadmeAsync(repo.full_name, validatorsByEndpoint.get(endpoint))
+                    .map(readme -> new ReadmeFetchResult(sourceRepository, repo, readme))
+                    .defaultIfEmpty(new ReadmeFetchResult(sourceRepository, repo, null));
+            }, concurrency)
+            // Serialize entity mutation and SSE broadcasting off the HTTP event loop
+            .publishOn(Schedulers.boundedElastic())
+            .map(result -> {
+                int done = completed.incrementAndGet();
+                if (result.readme == null) {
+                    // Unknown outcome: keep what is stored rather than mark the README as missing
+                    syncMonitorService.appendLog("WARN", "README fetch failed for: " + result.repo.name
+                        + " - stored README kept, retried by the next run");
+                    failed.add(result.sourceRepository.getId());
+                    result.changed = false;
+                } else if (result.readme.isNotModified()) {
+                    syncMonitorService.appendLog("DEBUG", "README unchanged (304) for: " + result.repo.name);
+                    result.changed = false;
+                } else {
+                    freshValidators.add(result.readme.getValidators());
+                    // Same blob sha as stored: nothing to write even though the body was downloaded
+                    result.changed = attachReadme(result.sourceRepository, result.readme.getBody(), newReadmeBlobs);
+                    syncMonitorService.appendLog("DEBUG", result.readme.getBody() != null
+                        ? "README successfully fetched for: " + result.repo.name
+                        : "No README available for: " + result.repo.name + " - marked as unavailable");
+                }
+                if (!result.changed && result.readme != null) {
+                    unchanged.incrementAndGet();
+                }
+                progressService.broadcastProgress(syncId, new GitHubSyncProgressService.SyncProgressEvent(
+                    syncId, GitHubSyncProgressService.SyncPhase.FETCHING_README,
+                    progress, syncedCount + skippedCount, syncedCount, skippedCount,
+                    String.format("Fetched README %d/%d: %s", done, total, result.repo.name), null
+                ));
+                return result;
+            })
+            .filter(result -> result.changed)
+            .map(result -> result.sourceRepository)
+            .collectList()
+            .block();
+
+        // Blobs are content-addressed, so writing one nobody ends up referencing is harmless
+        syncMetrics.timeDbFlush("readme_blobs", () -> readmeStoreService.storeAll(newReadmeBlobs));
+        if (fetched != null && !fetched.isEmpty()) {
+            int saved = syncMetrics.timeDbFlush("readme_results", () -> saveReadmeResults(fetched));
+            syncMonitorService.appendLog("INFO", "Batch saved " + saved + " README results");
+        }
+        etagCacheService.storeAll(freshValidators);
+        if (unchanged.get() > 0) {
+            syncMonitorService.appendLog("INFO",
+                String.format("%d READMEs unchanged since last sync", unchanged.get()));
+        }
+        return failed;
+    }
+
+    /**
+     * Write README results under their repositories' locks, taken only for the write. A
+     * repository a single-repository refresh holds, or wrote since the page upsert, is left
+     * to that refresh, which fetches the README itself.
+     *
+     * @return number of repositories written
+     */
+    private int saveReadmeResults(List<SourceRepositoryJpaEntity> fetched) {
+        Set<Long> ids = fetched.stream().map(SourceRepositoryJpaEntity::getId).collect(Collectors.toSet());
+        try (SyncLockRegistry.RepositoryLock lock = syncLockRegistry.tryLockRepositories(ids)) {
+            List<SourceRepositoryJpaEntity> held = fetched.stream()
+                .filter(entity -> lock.holds(entity.getId()))
+                .collect(Collectors.toList());
+            try {
+                sourceRepositoryRepository.saveAll(held);
+                return held.size();
+            } catch (OptimisticLockingFailureException e) {
+                // One stale row rolls back the whole batch; save the others one by one
+                int saved = 0;
+                for (SourceRepositoryJpaEntity entity : held) {
+                    try {
+                        sourceRepositoryRepository.save(entity);
+                        saved++;
+                    } catch (OptimisticLockingFailureException conflict) {
+                        log.debug("README result for {} skipped, row changed meanwhile", entity.getFullName());
+                    }
+                }
+                return saved;
+            }
+        }
+    }
+
+    /**
+     * Point the repository at the fetched README, collecting blobs that still have to be written.
+     *
+     * @return true when the repository now references a different README (or none)
+     */
+    private boolean attachReadme(SourceRepositoryJpaEntity sourceRepository, ReadmeContent readme,
+                                 Map<String, String> newReadmeBlobs) {
+        String previousSha = sourceRepository.getReadmeSha();
+        String sha = readmeStoreService.attach(sourceRepository,
+            readme != null ? readme.sha : null,
+            readme != null ? readme.markdown : null);
+        if (Objects.equals(previousSha, sha)) {
+            return false;
+        }
+        if (sha != null) {
+            newReadmeBlobs.put(sha, readme.markdown);
+        }
+        return true;
+    }
+
+    /**
+     * Fetch the README of one repository, conditional on its stored validators.
+     *
+     * @return the response, or null when the request failed
+     */
+    private ConditionalResponse<ReadmeContent> fetchReadme(SourceRepositoryJpaEntity sourceRepository, GitHubRepo repo) {
         try {
             syncMonitorService.appendLog("DEBUG", "Fetching README for: " + repo.name + " (fullName: " + repo.full_name + ")");
             
-            String readmeContent = fetchRepositoryReadme(repo.full_name);
-            if (readmeContent != null && !readmeContent.trim().isEmpty()) {
-                sourceRepository.setReadmeMarkdown(readmeContent);
-                sourceRepositoryRepository.save(sourceRepository);
-                syncMonitorService.appendLog("DEBUG", "README successfully fetched for: " + repo.name);
-            } else {
-                sourceRepository.setReadmeMarkdown(null);
-                sourceRepositoryRepository.save(sourceRepository);
-                syncMonitorService.appendLog("DEBUG", "No README available for: " + repo.name + " - marked as unavailable");
-            }
+            String endpoint = readmeEndpoint(repo.full_name);
+            GitHubEtagCacheService.Validators validators =
+                endpoint != null && sourceRepository.hasReadme() ? etagCacheService.find(endpoint) : null;
+            return fetchRepositoryReadmeAsync(repo.full_name, validators).block();
         } catch (Exception e) {
             log.warn("Failed to fetch README for {} ({}): {}", repo.name, repo.full_name, e.getMessage());
-            syncMonitorService.appendLog("WARN", "Failed to fetch README for " + repo.name + ": " + e.getMessage());
-            
-            sourceRepository.setReadmeMarkdown(null);
-            sourceRepositoryRepository.save(sourceRepository);
+            return null;
         }
     }
+
+    /**
+     * Point the repository at a fetched README and write its blob; the caller saves the repository.
+     * A failed request keeps the stored README: it says nothing about whether it still exists.
+     *
+     * @return true when the repository now references a different README (or none)
+     */
+    private boolean applyReadme(SourceRepositoryJpaEntity sourceRepository, GitHubRepo repo,
+                                ConditionalResponse<ReadmeContent> readme) {
+        if (readme == null) {
+            syncMonitorService.appendLog("WARN", "README fetch failed for: " + repo.name + " - stored README kept");
+            return false;
+        }
+        if (readme.isNotModified()) {
+            syncMonitorService.appendLog("DEBUG", "README unchanged (304) for: " + repo.name);
+            return false;
+        }
+        Map<String, String> newReadmeBlobs = new HashMap<>();
+        boolean changed = attachReadme(sourceRepository, readme.getBody(), newReadmeBlobs);
+        readmeStoreService.storeAll(newReadmeBlobs);
+        syncMonitorService.appendLog("DEBUG", readme.getBody() != null
+            ? "README successfully fetched for: " + repo.name
+            : "No README available for: " + repo.name + " - marked as unavailable");
+        return changed;
+    }
     
-    private String fetchRepositoryReadme(String fullName) {
+    private String readmeEndpoint(String fullName) {
+        if (fullName == null || !fullName.trim().matches("^[^/]+/[^/]+$")) {
+            return null;
+        }
+        return "/repos/" + fullName.trim() + "/readme";
+    }
+
+    /**
+     * Non-blocking README fetch that never signals an error. A 404 or an empty README
+     * completes with a null body: the repository has no README. Any other failure
+     * (5xx, timeout, secondary rate limit, undecodable content) completes empty, so
+     * callers can keep what they have stored. A 304 against the supplied validators
+     * completes with a not-modified marker.
+     */
+    private Mono<ConditionalResponse<ReadmeContent>> fetchRepositoryReadmeAsync(String fullName,
+                                                                        GitHubEtagCacheService.Validators validators) {
         if (fullName == null || fullName.trim().isEmpty()) {
             log.warn("Invalid repository full name provided for README fetch");
-            return null;
+            return Mono.empty();
         }
         
         String cleanFullName = fullName.trim();
-        if (!cleanFullName.matches("^[^/]+/[^/]+$")) {
+        String uri = readmeEndpoint(cleanFullName);
+        if (uri == null) {
             log.warn("Invalid fullName format: '{}'. Expected format: 'owner/repo'", cleanFullName);
-            return null;
+            return Mono.empty();
         }
         
-        WebClient webClient = createWebClient();
-        String uri = "/repos/" + cleanFullName + "/readme";
+        log.debug("Fetching README from GitHub API: {}", uri);
         
-        try {
-            log.debug("Fetching README from GitHub API: {}", uri);
-            
-            Mono<GitHubReadmeResponse> response = webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(GitHubReadmeResponse.class);
-            
-            GitHubReadmeResponse readmeResponse = response.timeout(java.time.Duration.ofSeconds(15))
-                                                          .block();
-                                                          
-            if (readmeResponse != null && readmeResponse.content != null && !readmeResponse.content.trim().isEmpty()) {
-                try {
-                    String cleanedContent = readmeResponse.content.replaceAll("\\s", "");
-                    byte[] decodedBytes = Base64.getDecoder().decode(cleanedContent);
-                    String decodedContent = new String(decodedBytes, java.nio.charset.StandardCharsets.UTF_8);
-                    
-                    if (decodedContent.length() > 50000) {
-                        log.debug("Truncating large README for repository: {} (size: {})", cleanFullName, decodedContent.length());
-                        return decodedContent.substring(0, 50000) + "\n\n... [README truncated due to size]";
-                    }
-                    
-                    log.debug("Successfully fetched and decoded README for: {}", cleanFullName);
-                    return decodedContent;
-                } catch (IllegalArgumentException e) {
-                    log.warn("Failed to decode base64 README content for {}: {}", cleanFullName, e.getMessage());
+        return conditionalGet(uri, GitHubReadmeResponse.class, "readme", validators)
+            .timeout(java.time.Duration.ofSeconds(15))
+            .doOnSubscribe(subscription -> syncMetrics.readmeFetchStarted())
+            .doFinally(signal -> syncMetrics.readmeFetchFinished())
+            .flatMap(response -> {
+                if (response.isNotModified()) {
+                    return Mono.just(ConditionalResponse.<ReadmeContent>notModified());
                 }
-            } else {
-                log.debug("Empty or null README response for: {}", cleanFullName);
-            }
-        } catch (org.springframework.web.reactive.function.client.WebClientResponseException e) {
-            if (e.getStatusCode().value() == 404) {
+                String decoded = decodeReadme(response.getBody(), cleanFullName);
+                return Mono.just(ConditionalResponse.modified(
+                    decoded != null ? new ReadmeContent(response.getBody().sha, decoded) : null,
+                    response.getValidators()));
+            })
+            .onErrorResume(org.springframework.web.reactive.function.client.WebClientResponseException.NotFound.class, e -> {
                 log.debug("README not found for repository: {} (404)", cleanFullName);
-            } else {
+                return Mono.just(ConditionalResponse.<ReadmeContent>modified(null, null));
+            })
+            .onErrorResume(org.springframework.web.reactive.function.client.WebClientResponseException.class, e -> {
                 log.warn("HTTP error {} fetching README for {}: {}", e.getStatusCode().value(), cleanFullName, e.getMessage());
+                return Mono.empty();
+            })
+            .onErrorResume(e -> {
+                log.warn("Could not fetch README for {}: {}", cleanFullName, e.getMessage());
+                return Mono.empty();
+            });
+    }
+    
+    /**
+     * @return the README text, or null when GitHub returned an empty one
+     * @throws IllegalArgumentException when the content is not valid base64
+     */
+    private String decodeReadme(GitHubReadmeResponse readmeResponse, String cleanFullName) {
+        if (readmeResponse == null || readmeResponse.content == null || readmeResponse.content.trim().isEmpty()) {
+            log.debug("Empty or null README response for: {}", cleanFullName);
+            return null;
+        }
+        
+        String cleanedContent = readmeResponse.content.replaceAll("\\s", "");
+        byte[] decodedBytes = Base64.getDecoder().decode(cleanedContent);
+        String decodedContent = new String(decodedBytes, java.nio.charset.StandardCharsets.UTF_8);
+        
+        log.debug("Successfully fetched and decoded README for: {}", cleanFullName);
+        return decodedContent.trim().isEmpty() ? null : truncateReadme(decodedContent, cleanFullName);
+    }
+    
+    private String truncateReadme(String content, String fullName) {
+        if (content.length() > MAX_README_LENGTH) {
+            log.debug("Truncating large README for repository: {} (size: {})", fullName, content.length());
+            return content.substring(0, MAX_README_LENGTH) + "\n\n... [README truncated due to size]";
+        }
+        return content;
+    }
+    
+    private static class ReadmeFetchResult {
+        private final SourceRepositoryJpaEntity sourceRepository;
+        private final GitHubRepo repo;
+        // null when the request failed
+        private final ConditionalResponse<ReadmeContent> readme;
+        private boolean changed;
+        
+        private ReadmeFetchResult(SourceRepositoryJpaEntity sourceRepository, GitHubRepo repo,
+                                  ConditionalResponse<ReadmeContent> readme) {
+            this.sourceRepository = sourceRepository;
+            this.repo = repo;
+            this.readme = readme;
+        }
+    }
+    
+    /**
+     * Decoded README text with the GitHub blob sha it came from (null when unknown)
+     */
+    private static class ReadmeContent {
+        private final String sha;
+        private final String markdown;
+        
+        private ReadmeContent(String sha, String markdown) {
+            this.sha = sha;
+            this.markdown = markdown;
+        }
+    }
+    
+    /**
+     * Outcome of a conditional GET: either 304 Not Modified or a body with fresh validators,
+     * plus the pagination links GitHub returned with it
+     */
+    private static class ConditionalResponse<T> {
+        private final boolean notModified;
+        private final T body;
+        private final GitHubEtagCacheService.Validators validators;
+        private final Map<String, String> links;
+        
+        private ConditionalResponse(boolean notModified, T body, GitHubEtagCacheService.Validators validators,
+                                    Map<String, String> links) {
+            this.notModified = notModified;
+            this.body = body;
+            this.validators = validators;
+            this.links = links;
+        }
+        
+        static <T> ConditionalResponse<T> notModified() {
+            return notModified(Collections.emptyMap());
+        }
+        
+        static <T> ConditionalResponse<T> notModified(Map<String, String> links) {
+            return new ConditionalResponse<>(true, null, null, links);
+        }
+        
+        static <T> ConditionalResponse<T> modified(T body, GitHubEtagCacheService.Validators validators) {
+            return modified(body, validators, Collections.emptyMap());
+        }
+        
+        static <T> ConditionalResponse<T> modified(T body, GitHubEtagCacheService.Validators validators,
+                                                   Map<String, String> links) {
+            return new ConditionalResponse<>(false, body, validators, links);
+        }
+        
+        <R> ConditionalResponse<R> withBody(R newBody) {
+            return new ConditionalResponse<>(notModified, newBody, validators, links);
+        }
+        
+        boolean isNotModified() { return notModified; }
+        T getBody() { return body; }
+        GitHubEtagCacheService.Validators getValidators() { return validators; }
+        String getNextUri() { return links.get("next"); }
+        
+        Integer getLastPage() {
+            String last = links.get("last");
+            if (last == null) {
+                return null;
             }
-        } catch (Exception e) {
-            log.debug("Could not fetch README for {}: {}", cleanFullName, e.getMessage());
+            Matcher matcher = PAGE_PARAM_PATTERN.matcher(last);
+            return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
         }
+    }
+    
+    /**
+     * Mutable counters for one starred ingest run, shared by the REST and GraphQL paths
+     */
+    private static class IngestRun {
+        private final boolean incremental;
+        private final boolean hasStoredRepositories;
+        private final List<SyncMonitorService.UnsyncedProject> unsyncedProjects = new ArrayList<>();
+        private int seenCount;
+        private int syncedCount;
+        private int skippedCount;
+        private int createdCount;
+        private int changedCount;
+        private int unchangedCount;
+        private final Set<Long> readmeFailed = new HashSet<>();
+        private int pageNumber;
+        private boolean stoppedEarly;
+        private boolean stoppedAtDeadline;
+        private final Consumer<List<SourceRepositoryJpaEntity>> pagePersisted;
+        private final SyncRunService.SyncRun syncRun;
+        private final SyncRunLimits limits;
         
-        return null;
+        private IngestRun(boolean incremental, boolean hasStoredRepositories,
+                          Consumer<List<SourceRepositoryJpaEntity>> pagePersisted, SyncRunService.SyncRun syncRun,
+                          SyncRunLimits limits) {
+            this.incremental = incremental;
+            this.hasStoredRepositories = hasStoredRepositories;
+            this.pagePersisted = pagePersisted;
+            this.syncRun = syncRun;
+            this.limits = limits;
+        }
     }
     
-    private WebClient createWebClient() {
-        WebClient.Builder builder = webClientBuilder
-            .baseUrl("https://api.github.com")
-            .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-            .defaultHeader(HttpHeaders.USER_AGENT, "Portfolio-Application");
+    private static class GraphQlStarredPage {
+        private final List<GitHubRepo> repos;
+        private final Map<Long, ReadmeContent> readmes;
+        private final int totalCount;
+        private final boolean hasNextPage;
+        private final String endCursor;
         
-        if (githubToken != null && !githubToken.isEmpty()) {
-            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + githubToken);
+        private GraphQlStarredPage(List<GitHubRepo> repos, Map<Long, ReadmeContent> readmes, int totalCount,
+                                   boolean hasNextPage, String endCursor) {
+            this.repos = repos;
+            this.readmes = readmes;
+            this.totalCount = totalCount;
+            this.hasNextPage = hasNextPage;
+            this.endCursor = endCursor;
         }
+    }
+    
+    private static class GitHubGraphQlException extends RuntimeException {
+        private GitHubGraphQlException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+    
+    private static class StarredPageOutcome {
+        private final int synced;
+        private final int skipped;
+        private final int created;
+        private final int changed;
+        private final int unchanged;
+        private final Set<Long> readmeFailed;
+        private final boolean allKnownAndUnchanged;
+        private final List<SourceRepositoryJpaEntity> sources;
         
-        return builder.build();
+        private StarredPageOutcome(int synced, int skipped, int created, int changed, int unchanged,
+                                   Set<Long> readmeFailed, List<SourceRepositoryJpaEntity> sources) {
+            this.sources = sources;
+            this.synced = synced;
+            this.skipped = skipped;
+            this.created = created;
+            this.changed = changed;
+            this.unchanged = unchanged;
+            this.readmeFailed = readmeFailed;
+            this.allKnownAndUnchanged = skipped == 0 && created == 0 && changed == 0 && readmeFailed.isEmpty();
+        }
     }
     
     // GitHub API response models
@@ -542,6 +1518,7 @@ public class GitHubSourceRepositoryService {
         public List<String> topics;
         public String created_at;
         public String updated_at;
+        public String pushed_at;
         
         public boolean hasValidFullName() {
             return full_name != null && full_name.matches("^[^/]+/[^/]+$");
@@ -60,6 +60,7 @@ public class GitHubSyncProgressService {
         // Update progress map
         SyncProgress progress = progressMap.computeIfAbsent(syncId, k -> new SyncProgress());
         progress.updateFromEvent(event);
+        event.resumed = progress.resumed;
 
         // Broadcast to all emitters
         List<SseEmitter> deadEmitters = new CopyOnWriteArrayList<>();
@@ -82,6 +83,23 @@ public class GitHubSyncProgressService {
         deadEmitters.forEach(SseEmitter::complete);
     }
 
+    /**
+     * Mark sync as the continuation of an interrupted run. Counts reported afterwards cover only
+     * the work done in this attempt; {@code carriedOver} is what the earlier attempts finished.
+     */
+    public void markResumed(String syncId, Long runId, int attempt, int pagesDone, int carriedOver, String message) {
+        SyncProgress progress = progressMap.computeIfAbsent(syncId, k -> new SyncProgress());
+        progress.resumed = true;
+        progress.runId = runId;
+        progress.attempt = attempt;
+        progress.resumedAfterPage = pagesDone;
+        progress.carriedOver = carriedOver;
+
+        broadcastProgress(syncId, new SyncProgressEvent(
+            syncId, SyncPhase.STARTING, 0, 0, 0, 0, message, null
+        ));
+    }
+
     /**
      * Mark sync as completed
      */
@@ -150,6 +168,7 @@ public class GitHubSyncProgressService {
         public int failureCount;
         public String message;
         public String errorDetail;
+        public boolean resumed;
         public LocalDateTime timestamp;
 
         public SyncProgressEvent(String syncId, SyncPhase phase, int progressPercentage,
@@ -190,6 +209,12 @@ public class GitHubSyncProgressService {
         public int progressPercentage = 0;
         public SyncPhase currentPhase = SyncPhase.STARTING;
         public LocalDateTime lastUpdate = LocalDateTime.now();
+        // Resumed runs: totalProcessed counts this attempt only, carriedOver what earlier attempts did
+        public boolean resumed = false;
+        public Long runId;
+        public int attempt = 1;
+        public int resumedAfterPage = 0;
+        public int carriedOver = 0;
 
         public void updateFromEvent(SyncProgressEvent event) {
             this.totalProcessed = event.totalProcessed;
@@ -29,6 +29,8 @@ public class NarrationMetricsService {
     private final Counter streamsErrored;
     private final Timer narrationGenerationTime;
     private final Counter contactMessagesCreated;
+    private final Counter narrationCacheHits;
+    private final Counter narrationCacheMisses;
     
     private final AtomicInteger activeStreams = new AtomicInteger(0);
     private final AtomicLong totalTokensLastMinute = new AtomicLong(0);
@@ -63,6 +65,16 @@ public class NarrationMetricsService {
         this.contactMessagesCreated = Counter.builder("portfolio.contact.messages.created")
                 .description("Total number of contact messages created")
                 .register(meterRegistry);
+                
+        this.narrationCacheHits = Counter.builder("portfolio.narration.cache.requests")
+                .description("Narrations served from an equivalent journey (hit) or generated by Claude (miss)")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+                
+        this.narrationCacheMisses = Counter.builder("portfolio.narration.cache.requests")
+                .description("Narrations served from an equivalent journey (hit) or generated by Claude (miss)")
+                .tag("outcome", "miss")
+                .register(meterRegistry);
         
         // Timer
         this.narrationGenerationTime = Timer.builder("portfolio.narration.generation.time")
@@ -85,6 +97,10 @@ public class NarrationMetricsService {
         Gauge.builder("portfolio.narration.rate.limit.hits", this, NarrationMetricsService::getRateLimitHits)
                 .description("Number of rate limit hits")
                 .register(meterRegistry);
+                
+        Gauge.builder("portfolio.narration.cache.hit.ratio", this, NarrationMetricsService::getNarrationCacheHitRatio)
+                .description("Share of narrations served from cache instead of a Claude call")
+                .register(meterRegistry);
     }
     
     public void recordSessionCreated() {
@@ -124,6 +140,14 @@ public class NarrationMetricsService {
         rateLimitHits.incrementAndGet();
     }
     
+    public void recordNarrationCacheHit() {
+        narrationCacheHits.increment();
+    }
+    
+    public void recordNarrationCacheMiss() {
+        narrationCacheMisses.increment();
+    }
+    
     public Timer.Sample startNarrationTimer() {
         return Timer.start();
     }
@@ -145,6 +169,12 @@ public class NarrationMetricsService {
         return rateLimitHits.get();
     }
     
+    public double getNarrationCacheHitRatio() {
+        double hits = narrationCacheHits.count();
+        double total = hits + narrationCacheMisses.count();
+        return total > 0 ? hits / total : 0.0;
+    }
+    
     public void recordContactMessageCreated() {
         contactMessagesCreated.increment();
     }
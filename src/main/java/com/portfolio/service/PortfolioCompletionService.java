@@ -147,7 +147,7 @@ public class PortfolioCompletionService {
             if (sourceOpt.isPresent()) {
                 SourceRepositoryJpaEntity source = sourceOpt.get();
                 
-                if (isNotEmpty(source.getReadmeMarkdown())) {
+                if (source.hasReadme()) {
                     score += 0.3; // Has README for analysis
                 }
                 
@@ -177,11 +177,11 @@ public class PortfolioCompletionService {
             score += 0.3; // Repository has description
         }
         
-        if (isNotEmpty(source.getReadmeMarkdown())) {
+        if (source.hasReadme()) {
             score += 0.5; // Repository has README
             
             // Bonus for substantial README content
-            if (source.getReadmeMarkdown().length() > 500) {
+            if (source.getReadmeSize() != null && source.getReadmeSize() > 500) {
                 score += 0.1;
             }
         }
@@ -0,0 +1,376 @@
+package com.portfolio.service;
+
+import com.portfolio.exception.RepositoryLockedException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.ratelimiter.internal.AtomicRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs portfolio curation for many source repositories with bounded concurrency.
+ *
+ * Each source is curated through {@link PortfolioService#curateFromSource(Long, boolean)}, so every
+ * source is written in its own short transaction after its Claude call. Before a Claude call is made a worker waits for a permit
+ * from the {@code claude} rate limiter and checks that the daily token budget still covers
+ * a curation; once the budget runs out the remaining sources are skipped instead of
+ * producing budget fallbacks. A source whose analysis is cached needs no Claude call, so it
+ * bypasses the permit and the budget and token allowance checks.
+ *
+ * A curation holds its source repository's lock from {@link SyncLockRegistry}, so a manual
+ * resync of the same project cannot create a second portfolio project next to it.
+ */
+@Service
+public class PortfolioCurationExecutor {
+    private static final Logger log = LoggerFactory.getLogger(PortfolioCurationExecutor.class);
+
+    static final String RATE_LIMITER_NAME = "claude";
+
+    private final PortfolioService portfolioService;
+    private final ClaudeTokenBudgetService tokenBudgetService;
+    private final RateLimiter rateLimiter;
+    private final SyncMonitorService syncMonitorService;
+    private final SyncLockRegistry syncLockRegistry;
+    private final SyncMetricsService syncMetrics;
+    private final MeterRegistry meterRegistry;
+    private final int concurrency;
+    private final int estimatedTokensPerSource;
+    private final int queueCapacity;
+    private final Duration permitWait;
+    private final ExecutorService executor;
+
+    public PortfolioCurationExecutor(PortfolioService portfolioService,
+                                     ClaudeTokenBudgetService tokenBudgetService,
+                                     RateLimiterRegistry rateLimiterRegistry,
+                                     SyncMonitorService syncMonitorService,
+                                     SyncLockRegistry syncLockRegistry,
+                                     SyncMetricsService syncMetrics,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${portfolio.curation.concurrency:4}") int concurrency,
+                                     @Value("${portfolio.curation.estimated-tokens-per-source:3000}") int estimatedTokensPerSource,
+                                     @Value("${portfolio.curation.queue-capacity:50}") int queueCapacity,
+                                     @Value("${portfolio.curation.permit-wait:10m}") Duration permitWait) {
+        this.portfolioService = portfolioService;
+        this.tokenBudgetService = tokenBudgetService;
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(RATE_LIMITER_NAME);
+        this.syncMonitorService = syncMonitorService;
+        this.syncLockRegistry = syncLockRegistry;
+        this.syncMetrics = syncMetrics;
+        this.meterRegistry = meterRegistry;
+        this.concurrency = Math.max(1, concurrency);
+        this.estimatedTokensPerSource = estimatedTokensPerSource;
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.permitWait = permitWait;
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(
+            this.concurrency, new CustomizableThreadFactory("curation-"));
+        syncMetrics.monitorCurationPool(pool);
+        this.executor = pool;
+    }
+
+    /**
+     * Curate all tasks and wait for them to finish.
+     * A source listed more than once is curated once (concurrent curations of the same
+     * source would both create a portfolio project).
+     */
+    public CurationResult curateAll(List<CurationTask> tasks) {
+        CurationSession session = openSession();
+        tasks.forEach(session::submit);
+        return session.await();
+    }
+
+    /**
+     * Start a curation session that accepts sources while they are still being produced,
+     * e.g. page by page during ingest. At most {@code concurrency + queue-capacity} sources
+     * are in flight; {@link CurationSession#submit} blocks the producer beyond that.
+     */
+    public CurationSession openSession() {
+        return openSession(SyncRunLimits.NONE);
+    }
+
+    /**
+     * Session that stops starting curations once {@code limits} are reached; sources still
+     * queued at that point are skipped and stay UNSYNCED.
+     */
+    public CurationSession openSession(SyncRunLimits limits) {
+        return new CurationSession(limits);
+    }
+
+    /**
+     * Run a single curation on the curation pool, outside of any session.
+     * Used by the durable job worker, which tracks its own capacity.
+     */
+    public CompletableFuture<CurationOutcome> submit(CurationTask task) {
+        return CompletableFuture.supplyAsync(() -> curate(task, isAnalysisCached(task)), executor);
+    }
+
+    private void curateOne(CurationTask task, CurationSession session) {
+        boolean cached = isAnalysisCached(task);
+        if (!cached && session.budgetExhausted.get()) {
+            session.skipped.incrementAndGet();
+            return;
+        }
+        if (cached ? session.limits.isPastDeadline() : !session.limits.allowsCuration(estimatedTokensPerSource)) {
+            session.skipped.incrementAndGet();
+            session.limits.recordDeferred();
+            meterRegistry.counter("sync.portfolio.deferred", "reason", session.limits.exhaustedReason()).increment();
+            return;
+        }
+        session.markStarted();
+        try {
+            CurationOutcome outcome = curate(task, cached);
+            switch (outcome.status()) {
+                case CURATED -> session.curated.incrementAndGet();
+                case FAILED -> session.failed.incrementAndGet();
+                case BUDGET_EXHAUSTED -> {
+                    session.budgetExhausted.set(true);
+                    session.skipped.incrementAndGet();
+                }
+                case INTERRUPTED, LOCKED -> session.skipped.incrementAndGet();
+            }
+        } finally {
+            session.markFinished();
+        }
+    }
+
+    /**
+     * Whether the curation will be answered from the analysis cache. A failed probe counts
+     * as a miss, so the curation is gated like any other.
+     */
+    private boolean isAnalysisCached(CurationTask task) {
+        try {
+            return portfolioService.hasCachedAnalysis(task.sourceRepositoryId());
+        } catch (Exception e) {
+            log.debug("Analysis cache probe failed for {}: {}", task.label(), e.getMessage());
+            return false;
+        }
+    }
+
+    private CurationOutcome curate(CurationTask task, boolean cached) {
+        long start = System.nanoTime();
+        CurationOutcome outcome = runCuration(task, cached);
+        syncMetrics.recordCuration(outcome.status().name().toLowerCase(), System.nanoTime() - start);
+        return outcome;
+    }
+
+    private CurationOutcome runCuration(CurationTask task, boolean cached) {
+        if (!cached && tokenBudgetService.getRemainingTokens() < estimatedTokensPerSource) {
+            meterRegistry.counter("sync.portfolio.skipped.budget").increment();
+            return new CurationOutcome(CurationStatus.BUDGET_EXHAUSTED, "Claude token budget exhausted");
+        }
+
+        try {
+            if (cached) {
+                meterRegistry.counter("sync.portfolio.cached").increment();
+                try (SyncLockRegistry.RepositoryLock lock = syncLockRegistry.lockRepository(task.sourceRepositoryId())) {
+                    portfolioService.curateFromSource(task.sourceRepositoryId(), false);
+                }
+            } else {
+                awaitRateLimitPermission();
+                try (SyncLockRegistry.RepositoryLock lock = syncLockRegistry.lockRepository(task.sourceRepositoryId())) {
+                    // The permit taken above covers the Claude call of this curation
+                    portfolioService.curateFromSource(task.sourceRepositoryId(), true);
+                }
+            }
+            meterRegistry.counter(task.recuration() ? "sync.portfolio.updated" : "sync.portfolio.created").increment();
+            return new CurationOutcome(CurationStatus.CURATED, null);
+        } catch (RepositoryLockedException e) {
+            // A resync of the same source is running; it curates the source anyway
+            log.info("Skipping curation of {}: {}", task.label(), e.getMessage());
+            meterRegistry.counter("sync.portfolio.skipped.locked").increment();
+            return new CurationOutcome(CurationStatus.LOCKED, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new CurationOutcome(CurationStatus.INTERRUPTED, "Interrupted");
+        } catch (Exception e) {
+            log.warn("Failed to curate {}: {}", task.label(), e.getMessage());
+            meterRegistry.counter("sync.portfolio.failed").increment();
+            return new CurationOutcome(CurationStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Block until the claude rate limiter hands out a permit, for at most
+     * {@code portfolio.curation.permit-wait}. The limiter itself only waits when a permit is
+     * due within its own timeout; otherwise the worker sleeps until the next refresh period
+     * instead of polling.
+     *
+     * @throws RequestNotPermitted when no permit was handed out in time
+     */
+    private void awaitRateLimitPermission() throws InterruptedException {
+        long deadline = System.nanoTime() + permitWait.toNanos();
+        while (!rateLimiter.acquirePermission()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(nanosUntilNextPermit(), remaining));
+        }
+    }
+
+    private long nanosUntilNextPermit() {
+        long nanos = rateLimiter instanceof AtomicRateLimiter atomic
+            ? atomic.getDetailedMetrics().getNanosToWait()
+            : rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod().toNanos();
+        return Math.max(nanos, TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    /**
+     * A set of curations a sync run waits for. Producers call {@link #submit} from a single
+     * thread and finish with {@link #await}.
+     */
+    public interface CurationBatch {
+
+        /**
+         * @return false when the source is already queued
+         */
+        boolean submit(CurationTask task);
+
+        CurationResult await();
+    }
+
+    /**
+     * In-memory batch running on this instance's curation pool.
+     */
+    public final class CurationSession implements CurationBatch {
+        private final SyncRunLimits limits;
+        private final Semaphore slots = new Semaphore(concurrency + queueCapacity);
+        private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+        private final List<Future<?>> futures = new ArrayList<>();
+        private final AtomicInteger curated = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicBoolean budgetExhausted = new AtomicBoolean(false);
+        private final AtomicLong firstStartNanos = new AtomicLong(0);
+        private final AtomicLong lastFinishNanos = new AtomicLong(0);
+        private final long openedNanos = System.nanoTime();
+        private long backpressureNanos;
+
+        private CurationSession(SyncRunLimits limits) {
+            this.limits = limits;
+        }
+
+        /**
+         * Queue a source for curation, waiting while the session is full.
+         *
+         * @return false when the source was already submitted to this session
+         */
+        @Override
+        public boolean submit(CurationTask task) {
+            if (!submitted.add(task.sourceRepositoryId())) {
+                return false;
+            }
+            long waitStart = System.nanoTime();
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing curation for " + task.label(), e);
+            }
+            backpressureNanos += System.nanoTime() - waitStart;
+            futures.add(executor.submit(() -> {
+                try {
+                    curateOne(task, this);
+                } finally {
+                    slots.release();
+                }
+            }));
+            return true;
+        }
+
+        /**
+         * Wait for every submitted curation to finish.
+         */
+        @Override
+        public CurationResult await() {
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Portfolio curation interrupted", e);
+            } catch (ExecutionException e) {
+                // curateOne handles its own failures; anything here is a programming error
+                throw new IllegalStateException("Portfolio curation worker failed", e.getCause());
+            }
+
+            if (budgetExhausted.get()) {
+                syncMonitorService.appendLog("WARN", String.format(
+                    "Claude token budget exhausted - skipped %d sources, they stay queued for the next run", skipped.get()));
+            }
+            long first = firstStartNanos.get();
+            Duration busy = first == 0 ? Duration.ZERO : Duration.ofNanos(lastFinishNanos.get() - first);
+            return new CurationResult(curated.get(), failed.get(), skipped.get(),
+                Duration.ofNanos(System.nanoTime() - openedNanos), busy, Duration.ofNanos(backpressureNanos));
+        }
+
+        private void markStarted() {
+            firstStartNanos.compareAndSet(0, System.nanoTime());
+        }
+
+        private void markFinished() {
+            lastFinishNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param priority higher runs first where the batch supports ordering (see {@link SyncPriorityService})
+     */
+    public record CurationTask(Long sourceRepositoryId, String label, boolean recuration, int priority) {
+
+        public CurationTask(Long sourceRepositoryId, String label, boolean recuration) {
+            this(sourceRepositoryId, label, recuration, 0);
+        }
+
+        public CurationTask withPriority(int priority) {
+            return new CurationTask(sourceRepositoryId, label, recuration, priority);
+        }
+    }
+
+    public enum CurationStatus {
+        CURATED, FAILED, BUDGET_EXHAUSTED, INTERRUPTED, LOCKED
+    }
+
+    public record CurationOutcome(CurationStatus status, String error) {}
+
+    /**
+     * @param elapsed      from opening the session until the last curation finished
+     * @param busy         from the first curation start until the last curation finished
+     * @param backpressure time producers spent blocked because the session was full
+     */
+    public record CurationResult(int curated, int failed, int skipped,
+                                 Duration elapsed, Duration busy, Duration backpressure) {}
+}
@@ -14,11 +14,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class PortfolioService {
@@ -30,27 +32,92 @@ public class PortfolioService {
     private final SyncMonitorService syncMonitorService;
     private final OptimisticLockingService optimisticLockingService;
     private final AuditTrailService auditTrailService;
+    private final ReadmeStoreService readmeStoreService;
+    private final SyncMetricsService syncMetrics;
+    private final TransactionTemplate transactionTemplate;
 
     public PortfolioService(PortfolioProjectJpaRepository portfolioProjectRepository,
                             SourceRepositoryJpaRepository sourceRepositoryRepository,
                             AIServicePort aiService,
                             SyncMonitorService syncMonitorService,
                             OptimisticLockingService optimisticLockingService,
-                            AuditTrailService auditTrailService) {
+                            AuditTrailService auditTrailService,
+                            ReadmeStoreService readmeStoreService,
+                            SyncMetricsService syncMetrics,
+                            TransactionTemplate transactionTemplate) {
         this.portfolioProjectRepository = portfolioProjectRepository;
         this.sourceRepositoryRepository = sourceRepositoryRepository;
         this.aiService = aiService;
         this.syncMonitorService = syncMonitorService;
         this.optimisticLockingService = optimisticLockingService;
         this.auditTrailService = auditTrailService;
+        this.readmeStoreService = readmeStoreService;
+        this.syncMetrics = syncMetrics;
+        this.transactionTemplate = transactionTemplate;
     }
     
     /**
-     * Curate portfolio project from source repository using Claude AI
+     * Curate portfolio project from source repository using Claude AI.
+     * The Claude call runs outside of any transaction so no connection is held while it
+     * takes seconds; the result is then written in a short transaction of its own.
      */
-    @Transactional
     @CacheEvict(value = {"portfolio-projects", "portfolio-completion", "portfolio-overview"}, allEntries = true)
     public PortfolioProject curateFromSource(Long sourceRepositoryId) {
+        return curateFromSource(sourceRepositoryId, false);
+    }
+    
+    /**
+     * {@link #curateFromSource(Long)} for a caller that may already hold a claude rate limiter
+     * permit, which then covers the Claude call
+     */
+    @CacheEvict(value = {"portfolio-projects", "portfolio-completion", "portfolio-overview"}, allEntries = true)
+    public PortfolioProject curateFromSource(Long sourceRepositoryId, boolean permitHeld) {
+        SourceRepositoryJpaEntity source = sourceRepositoryRepository.findById(sourceRepositoryId)
+            .orElseThrow(() -> new IllegalArgumentException("Source repository not found: " + sourceRepositoryId));
+        Function<SourceRepositoryJpaEntity, AIServicePort.ClaudeAnalysisResult> analyzer;
+        try {
+            // Call Claude API for analysis
+            String readme = readmeStoreService.getMarkdown(source);
+            AIServicePort.ClaudeAnalysisResult analysis = syncMetrics.timeClaudeCall(() -> aiService.analyzeRepository(
+                source.getName(),
+                source.getDescription(),
+                readme,
+                source.getTopics(),
+                source.getLanguage(),
+                permitHeld
+            ));
+            analyzer = stored -> analysis;
+        } catch (RuntimeException e) {
+            // Recorded on the source like any other curation failure
+            analyzer = stored -> {
+                throw e;
+            };
+        }
+        Function<SourceRepositoryJpaEntity, AIServicePort.ClaudeAnalysisResult> result = analyzer;
+        return transactionTemplate.execute(status -> curate(sourceRepositoryId, result));
+    }
+    
+    /**
+     * Whether {@link #curateFromSource} would reuse an analysis instead of calling Claude
+     */
+    public boolean hasCachedAnalysis(Long sourceRepositoryId) {
+        return sourceRepositoryRepository.findById(sourceRepositoryId)
+            .map(source -> aiService.isAnalysisCached(source.getName(), source.getDescription(),
+                readmeStoreService.getMarkdown(source), source.getTopics(), source.getLanguage()))
+            .orElse(false);
+    }
+    
+    /**
+     * Curate portfolio project from an analysis obtained elsewhere, e.g. a Message Batch result
+     */
+    @Transactional
+    @CacheEvict(value = {"portfolio-projects", "portfolio-completion", "portfolio-overview"}, allEntries = true)
+    public PortfolioProject curateFromAnalysis(Long sourceRepositoryId, AIServicePort.ClaudeAnalysisResult analysis) {
+        return curate(sourceRepositoryId, source -> analysis);
+    }
+    
+    private PortfolioProject curate(Long sourceRepositoryId,
+                                    Function<SourceRepositoryJpaEntity, AIServicePort.ClaudeAnalysisResult> analyzer) {
         log.debug("Starting curation for source repository ID: {}", sourceRepositoryId);
         
         // Get source repository
@@ -65,14 +132,7 @@ public class PortfolioService {
         Optional<PortfolioProjectJpaEntity> existingOpt = portfolioProjectRepository.findBySourceRepositoryId(sourceRepositoryId);
         
         try {
-            // Call Claude API for analysis
-            AIServicePort.ClaudeAnalysisResult analysis = aiService.analyzeRepository(
-                source.getName(),
-                source.getDescription(),
-                source.getReadmeMarkdown(),
-                source.getTopics(),
-                source.getLanguage()
-            );
+            AIServicePort.ClaudeAnalysisResult analysis = analyzer.apply(source);
             
             PortfolioProjectJpaEntity portfolioEntity;
             
@@ -0,0 +1,151 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.ReadmeBlobJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.ReadmeBlobJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed README store. Source repositories only carry the README's blob sha
+ * and size; the text lives gzip-compressed in readme_blobs and is read on demand.
+ */
+@Service
+public class ReadmeStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadmeStoreService.class);
+
+    private final ReadmeBlobJpaRepository readmeBlobRepository;
+
+    public ReadmeStoreService(ReadmeBlobJpaRepository readmeBlobRepository) {
+        this.readmeBlobRepository = readmeBlobRepository;
+    }
+
+    /**
+     * README text for a blob sha, if stored
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findMarkdown(String sha) {
+        if (sha == null) {
+            return Optional.empty();
+        }
+        return readmeBlobRepository.findById(sha).map(this::decode);
+    }
+
+    /**
+     * README text of a source repository, or null when it has none
+     */
+    public String getMarkdown(SourceRepositoryJpaEntity sourceRepository) {
+        return findMarkdown(sourceRepository.getReadmeSha()).orElse(null);
+    }
+
+    /**
+     * Store README blobs (sha -> markdown), skipping shas that are already present.
+     */
+    @Transactional
+    public void storeAll(Map<String, String> markdownBySha) {
+        if (markdownBySha.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(readmeBlobRepository.findExistingShas(markdownBySha.keySet()));
+        List<ReadmeBlobJpaEntity> blobs = new ArrayList<>();
+        markdownBySha.forEach((sha, markdown) -> {
+            if (!existing.contains(sha) && markdown != null) {
+                byte[] raw = markdown.getBytes(StandardCharsets.UTF_8);
+                blobs.add(new ReadmeBlobJpaEntity(sha, ReadmeBlobJpaEntity.ENCODING_GZIP, gzip(raw), markdown.length()));
+            }
+        });
+        if (!blobs.isEmpty()) {
+            readmeBlobRepository.saveAll(blobs);
+            log.debug("Stored {} README blobs ({} already present)", blobs.size(), existing.size());
+        }
+    }
+
+    /**
+     * Point a source repository at a README (or at none when markdown is null).
+     * Falls back to the git blob sha of the text when GitHub did not report one.
+     *
+     * @return the sha the repository now references
+     */
+    public String attach(SourceRepositoryJpaEntity sourceRepository, String sha, String markdown) {
+        if (markdown == null) {
+            sourceRepository.setReadmeSha(null);
+            sourceRepository.setReadmeSize(null);
+            return null;
+        }
+        String key = sha != null ? sha : gitBlobSha(markdown);
+        sourceRepository.setReadmeSha(key);
+        sourceRepository.setReadmeSize(markdown.length());
+        return key;
+    }
+
+    /**
+     * Drop blobs no longer referenced by any source repository
+     */
+    @Transactional
+    public int deleteOrphans() {
+        int deleted = readmeBlobRepository.deleteOrphans();
+        if (deleted > 0) {
+            log.info("Deleted {} orphaned README blobs", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Same id git (and GitHub) gives the blob: sha1("blob <size>\0" + content)
+     */
+    static String gitBlobSha(String markdown) {
+        try {
+            byte[] content = markdown.getBytes(StandardCharsets.UTF_8);
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    private String decode(ReadmeBlobJpaEntity blob) {
+        byte[] raw = ReadmeBlobJpaEntity.ENCODING_GZIP.equals(blob.getEncoding())
+                ? gunzip(blob.getContent())
+                : blob.getContent();
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress README", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress README", e);
+        }
+    }
+}
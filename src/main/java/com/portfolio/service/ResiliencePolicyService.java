@@ -0,0 +1,112 @@
+package com.portfolio.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies the {@code resilience4j.*} instances configured in application.properties to
+ * outbound calls. The annotations only work on public methods called through a Spring
+ * proxy, which the GitHub and Claude calls are not, so the policies are applied here.
+ *
+ * Both paths nest the policies in the annotation order: retry, circuit breaker, rate
+ * limiter, time limiter. Every attempt of a retried call passes the circuit breaker and
+ * the rate limiter again and is bounded by the time limiter, which interrupts a blocking
+ * attempt that runs out of time rather than leaving it running in the background.
+ *
+ * Reactive (GitHub) requests skip the rate limiter: {@link GitHubRateLimitService} paces
+ * them by the quota GitHub reports in its response headers, and a fixed permit rate on top
+ * only refused requests GitHub would have served.
+ */
+@Service
+public class ResiliencePolicyService {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    // Blocking calls run here so the time limiter can give up on them
+    private final ExecutorService callExecutor;
+
+    public ResiliencePolicyService(CircuitBreakerRegistry circuitBreakerRegistry,
+                                   RetryRegistry retryRegistry,
+                                   RateLimiterRegistry rateLimiterRegistry,
+                                   TimeLimiterRegistry timeLimiterRegistry,
+                                   @Value("${portfolio.resilience.call-threads:16}") int callThreads) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.retryRegistry = retryRegistry;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        // Bounded platform threads; a call waiting in the queue still counts against its time limit
+        int threads = Math.max(1, callThreads);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(threads * 4), new CustomizableThreadFactory("resilience-call-"));
+        pool.allowCoreThreadTimeOut(true);
+        this.callExecutor = pool;
+    }
+
+    /**
+     * Run a blocking call under the named policies.
+     */
+    public <T> T call(String instance, Callable<T> call) throws Exception {
+        return call(instance, false, call);
+    }
+
+    /**
+     * Run a blocking call under the named policies.
+     *
+     * @param permitHeld the caller already took a permit of the named rate limiter for this
+     *                   call; the first attempt uses it and retries take their own
+     */
+    public <T> T call(String instance, boolean permitHeld, Callable<T> call) throws Exception {
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(instance);
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(instance);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(instance);
+        Retry retry = retryRegistry.retry(instance);
+
+        // A submitted task, unlike a CompletableFuture, interrupts the call when the time limiter
+        // cancels it, which aborts a request blocked on its response
+        Callable<T> timed = () -> timeLimiter.executeFutureSupplier(() -> callExecutor.submit(call));
+        Callable<T> rateLimited = RateLimiter.decorateCallable(rateLimiter, timed);
+        AtomicBoolean admitted = new AtomicBoolean(permitHeld);
+        Callable<T> limited = () -> admitted.getAndSet(false) ? timed.call() : rateLimited.call();
+        return Retry.decorateCallable(retry, CircuitBreaker.decorateCallable(circuitBreaker, limited)).call();
+    }
+
+    /**
+     * Apply the named retry, circuit breaker and time limiter to a lazy request; its pacing
+     * is left to the caller. A retry resubscribes to it, so it must issue a fresh request
+     * per subscription, as WebClient requests do.
+     */
+    public <T> Mono<T> decorate(String instance, Mono<T> request) {
+        return request
+            .transformDeferred(TimeLimiterOperator.of(timeLimiterRegistry.timeLimiter(instance)))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(instance)))
+            .transformDeferred(RetryOperator.of(retryRegistry.retry(instance)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,132 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SyncConfigJpaEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs the full sync on the interval stored in {@code sync_config}.
+ *
+ * Every instance checks the schedule, but a run starts only on the instance that takes the
+ * {@link SyncSchedulerService#SYNC_LEASE} lease and still sees the run as due once it holds
+ * it; that instance advances {@code nextRunAt} before syncing. Each {@code nextRunAt} gets a
+ * random delay so runs do not always hit GitHub at the same wall-clock time.
+ */
+@Service
+public class ScheduledSyncRunner {
+    private static final Logger log = LoggerFactory.getLogger(ScheduledSyncRunner.class);
+
+    private final SyncConfigService syncConfigService;
+    private final SyncSchedulerService syncSchedulerService;
+    private final ClusterLeaseService clusterLeaseService;
+    private final SyncMonitorService syncMonitorService;
+    private final boolean enabled;
+    private final Duration leaseTtl;
+    private final Duration maxJitter;
+
+    public ScheduledSyncRunner(SyncConfigService syncConfigService,
+                               SyncSchedulerService syncSchedulerService,
+                               ClusterLeaseService clusterLeaseService,
+                               SyncMonitorService syncMonitorService,
+                               @Value("${portfolio.sync.scheduler.enabled:true}") boolean enabled,
+                               @Value("${portfolio.sync.scheduler.lease-ttl:5m}") Duration leaseTtl,
+                               @Value("${portfolio.sync.scheduler.max-jitter:5m}") Duration maxJitter) {
+        this.syncConfigService = syncConfigService;
+        this.syncSchedulerService = syncSchedulerService;
+        this.clusterLeaseService = clusterLeaseService;
+        this.syncMonitorService = syncMonitorService;
+        this.enabled = enabled;
+        this.leaseTtl = leaseTtl;
+        this.maxJitter = maxJitter;
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.sync.scheduler.check-interval:60000}",
+               initialDelayString = "${portfolio.sync.scheduler.initial-delay:60000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            runIfDue(Instant.now());
+        } catch (Exception e) {
+            log.error("Scheduled sync check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void runIfDue(Instant now) {
+        SyncConfigJpaEntity cfg = syncConfigService.getOrCreateEntity();
+        Duration interval = intervalOf(cfg);
+        if (interval == null) {
+            return;
+        }
+
+        if (cfg.getNextRunAt() == null) {
+            // Enabled without a schedule yet: continue from the last run, or start now
+            Instant base = cfg.getLastRunAt() != null ? cfg.getLastRunAt().plus(interval) : now;
+            Instant next = base.plus(jitter(interval));
+            syncConfigService.updateNextRun(next);
+            log.info("Scheduled next sync for {}", next);
+            return;
+        }
+        if (now.isBefore(cfg.getNextRunAt()) || syncSchedulerService.isSyncInProgress()) {
+            return;
+        }
+
+        if (!clusterLeaseService.tryAcquire(SyncSchedulerService.SYNC_LEASE, leaseTtl)) {
+            log.debug("Scheduled sync is due but another instance holds the sync lease");
+            return;
+        }
+        CompletableFuture<Void> sync = null;
+        try {
+            // Another instance may have run it between our read and taking the lease
+            SyncConfigJpaEntity current = syncConfigService.getOrCreateEntity();
+            if (intervalOf(current) == null
+                    || (current.getNextRunAt() != null && now.isBefore(current.getNextRunAt()))) {
+                return;
+            }
+
+            Instant next = now.plus(interval).plus(jitter(interval));
+            syncConfigService.updateLastRun(now);
+            syncConfigService.updateNextRun(next);
+            log.info("Starting scheduled sync, next run at {}", next);
+            syncMonitorService.appendLog("INFO", "Starting scheduled sync (next run at " + next + ")");
+
+            // The sync runs on the async executor: holding a scheduler thread for the whole run
+            // would starve the lease heartbeat and job polling sharing that pool. It re-acquires
+            // the lease we hold and renews it while it runs; ours is dropped once it is over.
+            sync = syncSchedulerService.runFullSyncAsync();
+        } finally {
+            if (sync == null) {
+                clusterLeaseService.release(SyncSchedulerService.SYNC_LEASE);
+            } else {
+                sync.whenComplete((result, error) -> clusterLeaseService.release(SyncSchedulerService.SYNC_LEASE));
+            }
+        }
+    }
+
+    /**
+     * Random delay of up to a tenth of the interval, capped at max-jitter.
+     */
+    Duration jitter(Duration interval) {
+        long boundMillis = Math.min(maxJitter.toMillis(), interval.toMillis() / 10);
+        if (boundMillis <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(boundMillis + 1));
+    }
+
+    private static Duration intervalOf(SyncConfigJpaEntity cfg) {
+        if (!Boolean.TRUE.equals(cfg.getEnabled()) || cfg.getIntervalHours() == null || cfg.getIntervalHours() <= 0) {
+            return null;
+        }
+        return Duration.ofHours(cfg.getIntervalHours());
+    }
+}
@@ -23,11 +23,14 @@ public class SourceRepositoryService {
 
     private final SourceRepositoryJpaRepository sourceRepositoryRepository;
     private final SyncMonitorService syncMonitorService;
+    private final ReadmeStoreService readmeStoreService;
 
     public SourceRepositoryService(SourceRepositoryJpaRepository sourceRepositoryRepository,
-                                  SyncMonitorService syncMonitorService) {
+                                  SyncMonitorService syncMonitorService,
+                                  ReadmeStoreService readmeStoreService) {
         this.sourceRepositoryRepository = sourceRepositoryRepository;
         this.syncMonitorService = syncMonitorService;
+        this.readmeStoreService = readmeStoreService;
     }
     
     public List<SourceRepositoryDto> getAllSourceRepositories() {
@@ -37,9 +40,16 @@ public class SourceRepositoryService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Single repository including README text; list endpoints leave the README out
+     */
     public Optional<SourceRepositoryDto> getSourceRepository(Long id) {
         return sourceRepositoryRepository.findById(id)
-                .map(this::mapToDto);
+                .map(entity -> {
+                    SourceRepositoryDto dto = mapToDto(entity);
+                    dto.setReadmeMarkdown(readmeStoreService.getMarkdown(entity));
+                    return dto;
+                });
     }
     
     @Transactional
@@ -154,7 +164,6 @@ public class SourceRepositoryService {
                 .topics(entity.getTopics())
                 .githubCreatedAt(entity.getGithubCreatedAt())
                 .githubUpdatedAt(entity.getGithubUpdatedAt())
-                .readmeMarkdown(entity.getReadmeMarkdown())
                 .syncStatus(entity.getSyncStatus())
                 .lastSyncAttempt(entity.getLastSyncAttempt())
                 .syncErrorMessage(entity.getSyncErrorMessage())
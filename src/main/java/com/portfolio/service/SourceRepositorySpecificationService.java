@@ -68,8 +68,7 @@ public class SourceRepositorySpecificationService {
             predicates.add(cb.or(
                 cb.and(cb.isNotNull(root.get("description")), 
                        cb.notEqual(root.get("description"), "")),
-                cb.and(cb.isNotNull(root.get("readmeMarkdown")), 
-                       cb.notEqual(root.get("readmeMarkdown"), ""))
+                cb.isNotNull(root.get("readmeSha"))
             ));
             
             // Minimum star count for quality
@@ -168,15 +167,9 @@ public class SourceRepositorySpecificationService {
             // Content filters
             if (criteria.getHasReadme() != null) {
                 if (criteria.getHasReadme()) {
-                    predicates.add(criteriaBuilder.and(
-                        criteriaBuilder.isNotNull(root.get("readmeMarkdown")),
-                        criteriaBuilder.notEqual(root.get("readmeMarkdown"), "")
-                    ));
+                    predicates.add(criteriaBuilder.isNotNull(root.get("readmeSha")));
                 } else {
-                    predicates.add(criteriaBuilder.or(
-                        criteriaBuilder.isNull(root.get("readmeMarkdown")),
-                        criteriaBuilder.equal(root.get("readmeMarkdown"), "")
-                    ));
+                    predicates.add(criteriaBuilder.isNull(root.get("readmeSha")));
                 }
             }
             
@@ -0,0 +1,501 @@
+package com.portfolio.service;
+
+import com.portfolio.config.FeatureFlagsConfig;
+import com.portfolio.exception.RepositoryLockedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single place that knows what is syncing right now.
+ *
+ * Pipeline operations (full sync, ingest only, curation only) take a slot; at most
+ * {@code portfolio.features.auto-sync.max-concurrent-syncs} run at once on an instance, and
+ * together they hold the cluster-wide {@link SyncSchedulerService#SYNC_LEASE} lease so no
+ * other instance runs the pipeline meanwhile. An operation never runs twice at once, and a
+ * full sync runs alone: it does both of the others' work and owns the sync run checkpoint.
+ *
+ * Work on one source repository (metadata and README writes, curation) takes that
+ * repository's lock instead: an in-memory lock for exactly that id for threads of this
+ * instance plus a {@code sync.repo.<id>} row in {@code cluster_leases} for other instances.
+ * A bulk lock takes the leases of a whole page in one go, and held repository leases are
+ * renewed together by one heartbeat until the last of them is released.
+ * A single-repository refresh or resync therefore runs alongside a full sync and only waits
+ * when both touch the same repository at the same moment.
+ */
+@Service
+public class SyncLockRegistry {
+    private static final Logger log = LoggerFactory.getLogger(SyncLockRegistry.class);
+
+    static final String REPOSITORY_LEASE_PREFIX = "sync.repo.";
+    private static final long LEASE_POLL_MILLIS = 250;
+
+    private final ClusterLeaseService clusterLeaseService;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrentSyncs;
+    private final Duration syncLeaseTtl;
+    private final Duration repositoryLeaseTtl;
+    private final Duration repositoryLockWait;
+
+    private final Set<SyncOperation> runningOperations = EnumSet.noneOf(SyncOperation.class);
+    private final AtomicBoolean ingestRunning = new AtomicBoolean(false);
+    // One lock per repository someone holds or waits for; removed when the last of them leaves
+    private final ConcurrentHashMap<Long, RepositoryMutex> repositoryLocks = new ConcurrentHashMap<>();
+    // Nesting depth per repository; only touched while holding the repository's lock
+    private final Map<Long, Integer> repositoryHolds = new ConcurrentHashMap<>();
+
+    private final Object syncLeaseMonitor = new Object();
+    private int syncLeaseHolders;
+    private ScheduledFuture<?> syncLeaseHeartbeat;
+
+    private final Object repositoryLeaseMonitor = new Object();
+    private ScheduledFuture<?> repositoryLeaseHeartbeat;
+
+    public SyncLockRegistry(ClusterLeaseService clusterLeaseService,
+                            FeatureFlagsConfig featureFlags,
+                            TaskScheduler taskScheduler,
+                            MeterRegistry meterRegistry,
+                            @Value("${portfolio.sync.scheduler.lease-ttl:5m}") Duration syncLeaseTtl,
+                            @Value("${portfolio.sync.repository-lock.ttl:5m}") Duration repositoryLeaseTtl,
+                            @Value("${portfolio.sync.repository-lock.wait:10s}") Duration repositoryLockWait) {
+        this.clusterLeaseService = clusterLeaseService;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrentSyncs = Math.max(1, featureFlags.getAutoSync().getMaxConcurrentSyncs());
+        this.syncLeaseTtl = syncLeaseTtl;
+        this.repositoryLeaseTtl = repositoryLeaseTtl;
+        this.repositoryLockWait = repositoryLockWait;
+        meterRegistry.gauge("sync.operations.running", this, SyncLockRegistry::countRunningOperations);
+    }
+
+    public boolean isSyncInProgress() {
+        return countRunningOperations() > 0 || ingestRunning.get();
+    }
+
+    private synchronized int countRunningOperations() {
+        return runningOperations.size();
+    }
+
+    public int getMaxConcurrentSyncs() {
+        return maxConcurrentSyncs;
+    }
+
+    /**
+     * Take a pipeline slot for {@code operation}.
+     *
+     * @return the slot to close when done, or null when the operation conflicts with one already
+     *         running, the concurrency limit is reached or another instance holds the sync lease
+     */
+    public SyncSlot tryAcquireSyncSlot(SyncOperation operation) {
+        synchronized (this) {
+            if (runningOperations.contains(operation) || runningOperations.contains(SyncOperation.FULL_SYNC)
+                    || (operation == SyncOperation.FULL_SYNC && !runningOperations.isEmpty())) {
+                log.warn("{} skipped: conflicts with running {}", operation.getLabel(), runningOperations);
+                meterRegistry.counter("sync.operations.rejected", "reason", "busy").increment();
+                return null;
+            }
+            if (runningOperations.size() >= maxConcurrentSyncs) {
+                log.warn("{} skipped: {} of {} sync slots in use", operation.getLabel(),
+                    runningOperations.size(), maxConcurrentSyncs);
+                meterRegistry.counter("sync.operations.rejected", "reason", "limit").increment();
+                return null;
+            }
+            runningOperations.add(operation);
+        }
+        boolean leased = false;
+        try {
+            leased = retainSyncLease();
+        } finally {
+            if (!leased) {
+                finish(operation);
+            }
+        }
+        if (!leased) {
+            log.info("{} skipped: another instance is running a sync", operation.getLabel());
+            meterRegistry.counter("sync.operations.rejected", "reason", "lease").increment();
+            return null;
+        }
+        return new SyncSlot(operation);
+    }
+
+    private synchronized void finish(SyncOperation operation) {
+        runningOperations.remove(operation);
+    }
+
+    /**
+     * Claim starred ingest; only one walk of the starred list runs per instance.
+     */
+    public boolean tryBeginIngest() {
+        return ingestRunning.compareAndSet(false, true);
+    }
+
+    public void endIngest() {
+        ingestRunning.set(false);
+    }
+
+    /**
+     * The first local holder takes the cluster lease and keeps renewing it; the last one
+     * releases it, so an instance that dies mid-run frees it within one TTL.
+     */
+    private boolean retainSyncLease() {
+        synchronized (syncLeaseMonitor) {
+            if (syncLeaseHolders == 0) {
+                if (!clusterLeaseService.tryAcquire(SyncSchedulerService.SYNC_LEASE, syncLeaseTtl)) {
+                    return false;
+                }
+                syncLeaseHeartbeat = taskScheduler.scheduleAtFixedRate(
+                    () -> clusterLeaseService.renew(SyncSchedulerService.SYNC_LEASE, syncLeaseTtl),
+                    syncLeaseTtl.dividedBy(3));
+            }
+            syncLeaseHolders++;
+            return true;
+        }
+    }
+
+    private void releaseSyncLease() {
+        synchronized (syncLeaseMonitor) {
+            if (--syncLeaseHolders > 0) {
+                return;
+            }
+            syncLeaseHeartbeat.cancel(false);
+            syncLeaseHeartbeat = null;
+            try {
+                clusterLeaseService.release(SyncSchedulerService.SYNC_LEASE);
+            } catch (Exception e) {
+                // The lease simply expires
+                log.warn("Failed to release sync lease: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lock one source repository, waiting up to {@code portfolio.sync.repository-lock.wait}.
+     * Reentrant for the current thread.
+     *
+     * @throws RepositoryLockedException when another operation keeps holding it
+     */
+    public RepositoryLock lockRepository(Long sourceRepositoryId) {
+        Objects.requireNonNull(sourceRepositoryId, "sourceRepositoryId");
+        long deadline = System.nanoTime() + repositoryLockWait.toNanos();
+        ReentrantLock lock = retainLock(sourceRepositoryId);
+        try {
+            if (!lock.tryLock(repositoryLockWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                releaseLock(sourceRepositoryId);
+                throw locked(sourceRepositoryId, "local");
+            }
+        } catch (InterruptedException e) {
+            releaseLock(sourceRepositoryId);
+            Thread.currentThread().interrupt();
+            throw locked(sourceRepositoryId, "local");
+        }
+        try {
+            while (!retainRepositoryLease(sourceRepositoryId)) {
+                if (System.nanoTime() >= deadline) {
+                    throw locked(sourceRepositoryId, "cluster");
+                }
+                Thread.sleep(LEASE_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            unlock(sourceRepositoryId, lock);
+            Thread.currentThread().interrupt();
+            throw locked(sourceRepositoryId, "cluster");
+        } catch (RuntimeException e) {
+            unlock(sourceRepositoryId, lock);
+            throw e;
+        }
+        return new RepositoryLock(Map.of(sourceRepositoryId, lock));
+    }
+
+    /**
+     * Lock as many of {@code sourceRepositoryIds} as possible for a bulk write, e.g. one
+     * ingested page. Ids are taken in ascending order so bulk lockers cannot deadlock each
+     * other; a repository still held when the wait runs out, locally or by another instance,
+     * is left out rather than waited for further. Check {@link RepositoryLock#holds} before writing.
+     */
+    public RepositoryLock tryLockRepositories(Collection<Long> sourceRepositoryIds) {
+        Set<Long> ids = new TreeSet<>();
+        for (Long id : sourceRepositoryIds) {
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        long deadline = System.nanoTime() + repositoryLockWait.toNanos();
+        Map<Long, ReentrantLock> local = new LinkedHashMap<>();
+        RepositoryLock bulkLock = new RepositoryLock(new HashMap<>());
+        try {
+            for (Long id : ids) {
+                ReentrantLock lock = retainLock(id);
+                try {
+                    if (!lock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                        releaseLock(id);
+                        locked(id, "local");
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    releaseLock(id);
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                local.put(id, lock);
+            }
+            Set<Long> leased = retainRepositoryLeases(local.keySet());
+            local.forEach((id, lock) -> {
+                if (leased.contains(id)) {
+                    bulkLock.locks.put(id, lock);
+                } else {
+                    unlock(id, lock);
+                    locked(id, "cluster");
+                }
+            });
+        } catch (RuntimeException e) {
+            local.forEach((id, lock) -> {
+                if (!bulkLock.holds(id)) {
+                    unlock(id, lock);
+                }
+            });
+            bulkLock.close();
+            throw e;
+        }
+        return bulkLock;
+    }
+
+    /**
+     * Register interest in a repository's lock, creating it for the first holder or waiter.
+     */
+    private ReentrantLock retainLock(Long id) {
+        return repositoryLocks.compute(id, (key, mutex) -> {
+            RepositoryMutex retained = mutex != null ? mutex : new RepositoryMutex();
+            retained.users++;
+            return retained;
+        }).lock;
+    }
+
+    /**
+     * Drop interest in a repository's lock; the last one out removes it from the map.
+     */
+    private void releaseLock(Long id) {
+        repositoryLocks.computeIfPresent(id, (key, mutex) -> --mutex.users == 0 ? null : mutex);
+    }
+
+    private void unlock(Long id, ReentrantLock lock) {
+        lock.unlock();
+        releaseLock(id);
+    }
+
+    int countRepositoryLocks() {
+        return repositoryLocks.size();
+    }
+
+    private boolean retainRepositoryLease(Long id) {
+        return retainRepositoryLeases(Set.of(id)).contains(id);
+    }
+
+    /**
+     * Hold the cluster leases of {@code ids}, taking the ones not already held by this
+     * instance in a single {@link ClusterLeaseService#tryAcquireAll} call.
+     *
+     * @return the ids now held; each gets one more hold to give back on release
+     */
+    private Set<Long> retainRepositoryLeases(Collection<Long> ids) {
+        Set<Long> leased = new HashSet<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (repositoryHolds.getOrDefault(id, 0) > 0) {
+                leased.add(id);
+            } else {
+                missing.add(id);
+            }
+        }
+        leased.addAll(acquireRepositoryLeases(missing));
+        leased.forEach(id -> repositoryHolds.merge(id, 1, Integer::sum));
+        if (!leased.isEmpty()) {
+            startRepositoryLeaseHeartbeat();
+        }
+        return leased;
+    }
+
+    private Collection<Long> acquireRepositoryLeases(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        try {
+            Set<String> held = clusterLeaseService.tryAcquireAll(leaseNames(ids), repositoryLeaseTtl);
+            return ids.stream().filter(id -> held.contains(REPOSITORY_LEASE_PREFIX + id)).toList();
+        } catch (Exception e) {
+            // Without the lease table only this instance is covered; the write itself may still succeed
+            log.warn("Repository leases for {} unavailable, locking locally only: {}", ids, e.getMessage());
+            return ids;
+        }
+    }
+
+    private void releaseRepositoryLeases(Collection<Long> ids) {
+        List<Long> released = new ArrayList<>();
+        for (Long id : ids) {
+            int holds = repositoryHolds.getOrDefault(id, 1) - 1;
+            if (holds > 0) {
+                repositoryHolds.put(id, holds);
+            } else {
+                repositoryHolds.remove(id);
+                released.add(id);
+            }
+        }
+        if (released.isEmpty()) {
+            return;
+        }
+        stopRepositoryLeaseHeartbeatWhenIdle();
+        try {
+            clusterLeaseService.releaseAll(leaseNames(released));
+        } catch (Exception e) {
+            log.debug("Failed to release repository leases {}: {}", released, e.getMessage());
+        }
+    }
+
+    /**
+     * One heartbeat renews every repository lease this instance holds, at a third of their TTL,
+     * so a slow page or curation keeps its leases however long it takes.
+     */
+    private void startRepositoryLeaseHeartbeat() {
+        synchronized (repositoryLeaseMonitor) {
+            if (repositoryLeaseHeartbeat == null) {
+                repositoryLeaseHeartbeat = taskScheduler.scheduleAtFixedRate(
+                    this::renewRepositoryLeases, repositoryLeaseTtl.dividedBy(3));
+            }
+        }
+    }
+
+    private void stopRepositoryLeaseHeartbeatWhenIdle() {
+        synchronized (repositoryLeaseMonitor) {
+            if (repositoryHolds.isEmpty() && repositoryLeaseHeartbeat != null) {
+                repositoryLeaseHeartbeat.cancel(false);
+                repositoryLeaseHeartbeat = null;
+            }
+        }
+    }
+
+    private void renewRepositoryLeases() {
+        Set<Long> held = Set.copyOf(repositoryHolds.keySet());
+        if (held.isEmpty()) {
+            return;
+        }
+        try {
+            clusterLeaseService.renewAll(leaseNames(held), repositoryLeaseTtl);
+        } catch (Exception e) {
+            log.warn("Failed to renew {} repository leases: {}", held.size(), e.getMessage());
+        }
+    }
+
+    private static List<String> leaseNames(Collection<Long> ids) {
+        return ids.stream().sorted().map(id -> REPOSITORY_LEASE_PREFIX + id).toList();
+    }
+
+    private RepositoryLockedException locked(Long id, String holder) {
+        meterRegistry.counter("sync.repository.lock.conflicts", "holder", holder).increment();
+        return new RepositoryLockedException(id);
+    }
+
+    /**
+     * Lock of one repository with the number of threads holding or waiting for it.
+     * {@code users} only changes inside {@link ConcurrentHashMap#compute}, which serializes it per key.
+     */
+    private static final class RepositoryMutex {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+
+    /**
+     * Pipeline slot; closing it twice is harmless.
+     */
+    public final class SyncSlot implements AutoCloseable {
+        private final SyncOperation operation;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private SyncSlot(SyncOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void close() {
+            if (open.compareAndSet(true, false)) {
+                try {
+                    releaseSyncLease();
+                } finally {
+                    finish(operation);
+                }
+            }
+        }
+    }
+
+    public enum SyncOperation {
+        FULL_SYNC("Full sync"),
+        INGEST("Source ingest"),
+        CURATION("Portfolio curation");
+
+        private final String label;
+
+        SyncOperation(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Locks on one or more source repositories. Must be closed by the thread that took it.
+     */
+    public final class RepositoryLock implements AutoCloseable {
+        private final Map<Long, ReentrantLock> locks;
+        private final Set<Long> ids;
+        private boolean closed;
+
+        private RepositoryLock(Map<Long, ReentrantLock> locks) {
+            this.locks = locks;
+            this.ids = Collections.unmodifiableSet(locks.keySet());
+        }
+
+        public boolean holds(Long sourceRepositoryId) {
+            return ids.contains(sourceRepositoryId);
+        }
+
+        public Set<Long> getIds() {
+            return ids;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                releaseRepositoryLeases(ids);
+            } finally {
+                locks.forEach(SyncLockRegistry.this::unlock);
+            }
+        }
+    }
+}
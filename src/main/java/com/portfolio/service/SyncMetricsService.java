@@ -0,0 +1,185 @@
+package com.portfolio.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sync pipeline telemetry, so it is visible where sync time goes.
+ *
+ * Every timer publishes p50/p95/p99 and a percentile histogram:
+ * <ul>
+ *   <li>{@code sync.github.call} - one GitHub request, by {@code call} (starred, readme, graphql, repository) and {@code outcome}</li>
+ *   <li>{@code sync.db.flush} - one batched write of an ingested page, by {@code operation}</li>
+ *   <li>{@code sync.claude.call} - the Claude analysis of one repository</li>
+ *   <li>{@code sync.curation.repository} - curating one repository end to end, by {@code outcome}</li>
+ *   <li>phase timers: {@code sync.pipeline.duration}, {@code sync.source.ingest.duration},
+ *       {@code sync.portfolio.curation.duration} and {@code sync.pipeline.stage.duration}</li>
+ * </ul>
+ * Meters are registered once and reused. Gauges read counters held by this service, so they
+ * report live state and never turn into NaN.
+ */
+@Service
+public class SyncMetricsService {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final AtomicLong sourcesTotal = new AtomicLong();
+    private final AtomicLong sourcesSynced = new AtomicLong();
+    private final AtomicLong durableQueueDepth = new AtomicLong();
+    private final AtomicInteger readmeFetchesInFlight = new AtomicInteger();
+
+    public SyncMetricsService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("sync.source.total", sourcesTotal, AtomicLong::get)
+                .description("Source repositories stored after the last ingest")
+                .register(meterRegistry);
+
+        Gauge.builder("sync.source.synced", sourcesSynced, AtomicLong::get)
+                .description("Source repositories curated into the portfolio after the last ingest")
+                .register(meterRegistry);
+
+        Gauge.builder("sync.source.unsynced", this, metrics -> Math.max(0, metrics.sourcesTotal.get() - metrics.sourcesSynced.get()))
+                .description("Source repositories still waiting for curation after the last ingest")
+                .register(meterRegistry);
+
+        Gauge.builder("sync.curation.queue.depth", durableQueueDepth, AtomicLong::get)
+                .description("Outstanding jobs of the durable curation batch being awaited")
+                .tag("queue", "durable")
+                .register(meterRegistry);
+
+        Gauge.builder("sync.github.readme.inflight", readmeFetchesInFlight, AtomicInteger::get)
+                .description("README requests to GitHub in flight")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordPipeline(Timer.Sample sample) {
+        sample.stop(timer("sync.pipeline.duration", "Duration of complete sync pipeline"));
+    }
+
+    public void recordIngestPhase(Timer.Sample sample) {
+        sample.stop(timer("sync.source.ingest.duration", "Duration of source ingestion phase"));
+    }
+
+    public void recordCurationPhase(Timer.Sample sample) {
+        sample.stop(timer("sync.portfolio.curation.duration", "Duration of portfolio curation phase"));
+    }
+
+    public void recordStage(String stage, Duration duration) {
+        timer("sync.pipeline.stage.duration", "Time spent in each stage of the pipelined sync", "stage", stage)
+            .record(duration);
+    }
+
+    /**
+     * Time a GitHub request from subscription until it completes or fails.
+     *
+     * @param outcome names a successful result, e.g. {@code not_modified} for a 304
+     */
+    public <T> Mono<T> timeGitHubCall(String call, Mono<T> request, Function<? super T, String> outcome) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request
+                .doOnSuccess(result -> recordGitHubCall(call, result != null ? outcome.apply(result) : "empty", start))
+                .doOnError(error -> recordGitHubCall(call, "error", start))
+                // A downstream timeout cancels the request; it still took this long
+                .doOnCancel(() -> recordGitHubCall(call, "cancelled", start));
+        });
+    }
+
+    public <T> Mono<T> timeGitHubCall(String call, Mono<T> request) {
+        return timeGitHubCall(call, request, result -> "ok");
+    }
+
+    private void recordGitHubCall(String call, String outcome, long startNanos) {
+        timer("sync.github.call", "Latency of GitHub requests made by the sync", "call", call, "outcome", outcome)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T timeDbFlush(String operation, Supplier<T> flush) {
+        return timer("sync.db.flush", "Batched database writes of ingested pages", "operation", operation)
+            .record(flush);
+    }
+
+    public void timeDbFlush(String operation, Runnable flush) {
+        timer("sync.db.flush", "Batched database writes of ingested pages", "operation", operation)
+            .record(flush);
+    }
+
+    public <T> T timeClaudeCall(Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "ok";
+            return result;
+        } finally {
+            timer("sync.claude.call", "Claude analysis of one repository", "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordCuration(String outcome, long elapsedNanos) {
+        timer("sync.curation.repository", "Curation of one repository, Claude call and writes included", "outcome", outcome)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSourceCounts(long total, long synced) {
+        sourcesTotal.set(total);
+        sourcesSynced.set(synced);
+    }
+
+    /**
+     * Expose the curation pool: tasks waiting in its queue and curations running on this instance.
+     */
+    public void monitorCurationPool(ThreadPoolExecutor pool) {
+        Gauge.builder("sync.curation.queue.depth", pool, executor -> executor.getQueue().size())
+                .description("Curations submitted to this instance and not started yet")
+                .tag("queue", "memory")
+                .register(meterRegistry);
+
+        Gauge.builder("sync.curation.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Curations running on this instance")
+                .register(meterRegistry);
+    }
+
+    public void recordDurableQueueDepth(long outstanding) {
+        durableQueueDepth.set(outstanding);
+    }
+
+    public void readmeFetchStarted() {
+        readmeFetchesInFlight.incrementAndGet();
+    }
+
+    public void readmeFetchFinished() {
+        readmeFetchesInFlight.decrementAndGet();
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return timers.computeIfAbsent(name + "|" + String.join(",", tags), key -> Timer.builder(name)
+            .description(description)
+            .tags(tags)
+            .publishPercentiles(PERCENTILES)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+}
@@ -27,29 +27,32 @@ public class SyncMonitorService {
     
     private volatile LocalDateTime lastSyncTime = LocalDateTime.now();
     
-    private volatile boolean syncInProgress = false;
-    
     private volatile int totalGitHubProjects = 0;
     
     private volatile int totalDatabaseProjects = 0;
     
     private volatile List<UnsyncedProject> unsyncedProjects = new LinkedList<>();
+    
+    private volatile IngestCounts lastIngestCounts = new IngestCounts(0, 0, 0);
 
-    public SyncMonitorService() {}
+    private final SyncLockRegistry syncLockRegistry;
+
+    public SyncMonitorService(SyncLockRegistry syncLockRegistry) {
+        this.syncLockRegistry = syncLockRegistry;
+    }
 
     public LocalDateTime getLastSyncTime() { return lastSyncTime; }
-    public boolean isSyncInProgress() { return syncInProgress; }
+    public boolean isSyncInProgress() { return syncLockRegistry.isSyncInProgress(); }
     public int getTotalGitHubProjects() { return totalGitHubProjects; }
     public int getTotalDatabaseProjects() { return totalDatabaseProjects; }
     public List<UnsyncedProject> getUnsyncedProjects() { return unsyncedProjects; }
+    public IngestCounts getLastIngestCounts() { return lastIngestCounts; }
     
     public void markSyncStarted() {
-        this.syncInProgress = true;
         appendLog("INFO", "Sync operation started");
     }
     
     public void markSyncCompleted(int gitHubCount, int dbCount, List<UnsyncedProject> unsynced) {
-        this.syncInProgress = false;
         this.lastSyncTime = LocalDateTime.now();
         this.totalGitHubProjects = gitHubCount;
         this.totalDatabaseProjects = dbCount;
@@ -59,13 +62,19 @@ public class SyncMonitorService {
             gitHubCount, dbCount, this.unsyncedProjects.size()));
     }
     
+    /**
+     * Record how many source repositories the last ingest created, changed or left untouched
+     */
+    public void recordIngestCounts(int created, int changed, int unchanged) {
+        this.lastIngestCounts = new IngestCounts(created, changed, unchanged);
+    }
+    
     public void markSyncFailed(String error) {
-        this.syncInProgress = false;
         appendLog("ERROR", "Sync failed: " + error);
     }
     
     public long getSecondsUntilNextSync() {
-        if (syncInProgress) {
+        if (isSyncInProgress()) {
             return 0;
         }
         LocalDateTime nextSync = lastSyncTime.plusSeconds(SYNC_INTERVAL_SECONDS);
@@ -172,4 +181,7 @@ public class SyncMonitorService {
         public String getName() { return name; }
         public String getReason() { return reason; }
     }
+    
+    /** Outcome of the last starred-repository ingest */
+    public record IngestCounts(int created, int changed, int unchanged) { }
 }
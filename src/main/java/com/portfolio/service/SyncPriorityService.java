@@ -0,0 +1,195 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
+import com.portfolio.repository.VisitorInsightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Decides what a sync run works on first and how long it may run.
+ *
+ * In {@code priority} scheduling mode curation is ordered by value instead of GitHub's
+ * starred order. A source scores up to 1000 points from four weighted signals, each scaled
+ * to 0..1:
+ * <ul>
+ *   <li>missing curation - never curated, or its last curation failed</li>
+ *   <li>stars - log scale, 10k stars is full marks</li>
+ *   <li>recent push - halves every {@code push-half-life}</li>
+ *   <li>visitor interest - project views in visitor insights within {@code interest-window}, log scale</li>
+ * </ul>
+ * Together with {@link SyncRunLimits} this makes a run on a tight budget spend it on the
+ * projects that matter most.
+ */
+@Service
+public class SyncPriorityService {
+    private static final Logger log = LoggerFactory.getLogger(SyncPriorityService.class);
+
+    public static final String MODE_FIFO = "fifo";
+    public static final String MODE_PRIORITY = "priority";
+
+    private final SourceRepositoryJpaRepository sourceRepositoryRepository;
+    private final VisitorInsightRepository visitorInsightRepository;
+    private final ClaudeTokenBudgetService tokenBudgetService;
+
+    @Value("${portfolio.sync.scheduling.mode:fifo}")
+    private String mode;
+
+    @Value("${portfolio.sync.max-duration:0}")
+    private Duration maxDuration;
+
+    @Value("${portfolio.sync.token-allowance:0}")
+    private long tokenAllowance;
+
+    @Value("${portfolio.sync.priority.weight.missing-curation:40}")
+    private double missingCurationWeight;
+
+    @Value("${portfolio.sync.priority.weight.stars:25}")
+    private double starsWeight;
+
+    @Value("${portfolio.sync.priority.weight.recent-push:20}")
+    private double recentPushWeight;
+
+    @Value("${portfolio.sync.priority.weight.visitor-interest:15}")
+    private double visitorInterestWeight;
+
+    @Value("${portfolio.sync.priority.push-half-life:30d}")
+    private Duration pushHalfLife;
+
+    @Value("${portfolio.sync.priority.interest-window:30d}")
+    private Duration interestWindow;
+
+    public SyncPriorityService(SourceRepositoryJpaRepository sourceRepositoryRepository,
+                               VisitorInsightRepository visitorInsightRepository,
+                               ClaudeTokenBudgetService tokenBudgetService) {
+        this.sourceRepositoryRepository = sourceRepositoryRepository;
+        this.visitorInsightRepository = visitorInsightRepository;
+        this.tokenBudgetService = tokenBudgetService;
+    }
+
+    public boolean isPriorityMode() {
+        return MODE_PRIORITY.equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Limits for a run starting now, from {@code portfolio.sync.max-duration} and
+     * {@code portfolio.sync.token-allowance}.
+     */
+    public SyncRunLimits openLimits() {
+        return SyncRunLimits.of(maxDuration, tokenAllowance, tokenBudgetService::getCurrentUsage);
+    }
+
+    /**
+     * Score the tasks and return them highest priority first, each carrying its score.
+     * A source listed more than once keeps its first task.
+     */
+    public List<PortfolioCurationExecutor.CurationTask> rank(List<PortfolioCurationExecutor.CurationTask> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        Map<Long, SourceRepositoryJpaEntity> sources = sourceRepositoryRepository.findAllById(
+                tasks.stream().map(PortfolioCurationExecutor.CurationTask::sourceRepositoryId).distinct().toList())
+            .stream()
+            .collect(Collectors.toMap(SourceRepositoryJpaEntity::getId, Function.identity()));
+        Map<String, Long> views = loadProjectViews();
+        Instant now = Instant.now();
+
+        Map<Long, PortfolioCurationExecutor.CurationTask> ranked = new HashMap<>();
+        for (PortfolioCurationExecutor.CurationTask task : tasks) {
+            SourceRepositoryJpaEntity source = sources.get(task.sourceRepositoryId());
+            int priority = source != null ? score(source, views, now) : 0;
+            ranked.putIfAbsent(task.sourceRepositoryId(), task.withPriority(priority));
+        }
+        List<PortfolioCurationExecutor.CurationTask> ordered = ranked.values().stream()
+            .sorted(Comparator.comparingInt(PortfolioCurationExecutor.CurationTask::priority).reversed()
+                .thenComparing(PortfolioCurationExecutor.CurationTask::sourceRepositoryId))
+            .toList();
+        log.debug("Ranked {} curation tasks, top priority {}", ordered.size(), ordered.get(0).priority());
+        return ordered;
+    }
+
+    int score(SourceRepositoryJpaEntity source, Map<String, Long> views, Instant now) {
+        double missing = source.getSyncStatus() != SourceRepositoryJpaEntity.SyncStatus.SYNCED ? 1.0 : 0.0;
+
+        int stargazers = source.getStargazersCount() != null ? source.getStargazersCount() : 0;
+        double stars = Math.min(1.0, Math.log10(1 + Math.max(0, stargazers)) / 4.0);
+
+        double recency = 0.0;
+        Instant pushedAt = parseInstant(source.getGithubPushedAt() != null
+            ? source.getGithubPushedAt() : source.getGithubUpdatedAt());
+        if (pushedAt != null && !pushHalfLife.isZero()) {
+            double ageDays = Math.max(0, Duration.between(pushedAt, now).toHours() / 24.0);
+            recency = Math.pow(0.5, ageDays / (pushHalfLife.toHours() / 24.0));
+        }
+
+        long viewCount = viewsOf(source, views);
+        double interest = Math.min(1.0, Math.log10(1 + viewCount) / 2.0);
+
+        double total = missingCurationWeight + starsWeight + recentPushWeight + visitorInterestWeight;
+        if (total <= 0) {
+            return 0;
+        }
+        double weighted = missingCurationWeight * missing + starsWeight * stars
+            + recentPushWeight * recency + visitorInterestWeight * interest;
+        return (int) Math.round(1000 * weighted / total);
+    }
+
+    /**
+     * Views per lower-cased project reference. The front end reports repositories by name,
+     * full name or URL depending on the page, so all three are matched.
+     */
+    private Map<String, Long> loadProjectViews() {
+        if (visitorInterestWeight <= 0) {
+            return Map.of();
+        }
+        try {
+            Map<String, Long> views = new HashMap<>();
+            for (Object[] row : visitorInsightRepository.countProjectViewsSince(LocalDateTime.now().minus(interestWindow))) {
+                if (row[0] != null) {
+                    views.merge(((String) row[0]).toLowerCase(Locale.ROOT), (Long) row[1], Long::sum);
+                }
+            }
+            return views;
+        } catch (Exception e) {
+            log.warn("Visitor interest unavailable for sync priority: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static long viewsOf(SourceRepositoryJpaEntity source, Map<String, Long> views) {
+        if (views.isEmpty()) {
+            return 0;
+        }
+        long count = 0;
+        for (String key : new String[]{source.getName(), source.getFullName(), source.getGithubRepoUrl()}) {
+            if (key != null) {
+                count += views.getOrDefault(key.toLowerCase(Locale.ROOT), 0L);
+            }
+        }
+        return count;
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
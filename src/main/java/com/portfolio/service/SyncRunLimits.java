@@ -0,0 +1,109 @@
+package com.portfolio.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Wall-clock deadline and Claude token allowance of one sync run.
+ *
+ * Ingest stops between pages once the deadline passes (the run checkpoint lets the next run
+ * continue); curation stops starting new sources once the deadline passes or the allowance
+ * cannot cover another curation. Whatever is left stays UNSYNCED for the next run.
+ */
+public final class SyncRunLimits {
+
+    public static final SyncRunLimits NONE = new SyncRunLimits(null, 0, () -> 0);
+
+    private final Instant deadline;
+    private final long tokenAllowance;
+    private final IntSupplier tokenUsage;
+    private final AtomicInteger deferred = new AtomicInteger();
+
+    private int lastSeenUsage;
+    private long tokensSpent;
+
+    /**
+     * @param deadline       null for no deadline
+     * @param tokenAllowance 0 for no allowance
+     * @param tokenUsage     current daily usage from the token budget; it drops to 0 at the daily reset
+     */
+    SyncRunLimits(Instant deadline, long tokenAllowance, IntSupplier tokenUsage) {
+        this.deadline = deadline;
+        this.tokenAllowance = tokenAllowance;
+        this.tokenUsage = tokenUsage;
+        this.lastSeenUsage = tokenUsage.getAsInt();
+    }
+
+    public boolean isLimited() {
+        return deadline != null || tokenAllowance > 0;
+    }
+
+    public boolean isPastDeadline() {
+        return deadline != null && !Instant.now().isBefore(deadline);
+    }
+
+    /**
+     * Whether a curation expected to use {@code estimatedTokens} may still start.
+     */
+    public boolean allowsCuration(int estimatedTokens) {
+        if (isPastDeadline()) {
+            return false;
+        }
+        return tokenAllowance <= 0 || getTokensSpent() + estimatedTokens <= tokenAllowance;
+    }
+
+    /**
+     * Claude tokens used since the run started. Usage by anything else running at the same
+     * time is included; the daily budget has no per-caller breakdown.
+     */
+    public synchronized long getTokensSpent() {
+        int usage = tokenUsage.getAsInt();
+        // A drop means the daily budget was reset in between
+        tokensSpent += usage >= lastSeenUsage ? usage - lastSeenUsage : usage;
+        lastSeenUsage = usage;
+        return tokensSpent;
+    }
+
+    public void recordDeferred() {
+        deferred.incrementAndGet();
+    }
+
+    /**
+     * Sources not curated because a limit was reached.
+     */
+    public int getDeferred() {
+        return deferred.get();
+    }
+
+    public String describe() {
+        if (!isLimited()) {
+            return "unlimited";
+        }
+        StringBuilder description = new StringBuilder();
+        if (deadline != null) {
+            description.append("deadline ").append(deadline);
+        }
+        if (tokenAllowance > 0) {
+            if (description.length() > 0) {
+                description.append(", ");
+            }
+            description.append(tokenAllowance).append(" tokens");
+        }
+        return description.toString();
+    }
+
+    /**
+     * Which limit stopped the run, for logs and metric tags.
+     */
+    public String exhaustedReason() {
+        return isPastDeadline() ? "deadline" : "tokens";
+    }
+
+    static SyncRunLimits of(Duration maxDuration, long tokenAllowance, IntSupplier tokenUsage) {
+        Instant deadline = maxDuration != null && !maxDuration.isZero() && !maxDuration.isNegative()
+            ? Instant.now().plus(maxDuration) : null;
+        return new SyncRunLimits(deadline, Math.max(0, tokenAllowance), tokenUsage);
+    }
+}
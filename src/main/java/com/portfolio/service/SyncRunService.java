@@ -0,0 +1,334 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SyncRunItemJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SyncRunItemJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SyncRunJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SyncRunJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Persists full sync runs so a run cut short by a crash or redeploy resumes where it stopped.
+ *
+ * The ingest checkpoint is the cursor of the first starred page not yet ingested; per
+ * repository the run records whether metadata was stored, the README confirmed current and
+ * the project curated. Checkpoint writes are best effort: when one fails the sync carries on
+ * and a later resume simply redoes a bit more work.
+ *
+ * Callers must hold the {@link SyncSchedulerService#SYNC_LEASE} lease, so any unfinished run
+ * found at start belongs to an instance that is gone.
+ */
+@Service
+public class SyncRunService {
+    private static final Logger log = LoggerFactory.getLogger(SyncRunService.class);
+
+    static final List<SyncRunJpaEntity.Status> UNFINISHED =
+        List.of(SyncRunJpaEntity.Status.RUNNING, SyncRunJpaEntity.Status.FAILED);
+
+    private final SyncRunJpaRepository runRepository;
+    private final SyncRunItemJpaRepository itemRepository;
+    private final ClusterLeaseService clusterLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxResumeAge;
+
+    public SyncRunService(SyncRunJpaRepository runRepository,
+                          SyncRunItemJpaRepository itemRepository,
+                          ClusterLeaseService clusterLeaseService,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${portfolio.sync.resume.max-age:24h}") Duration maxResumeAge) {
+        this.runRepository = runRepository;
+        this.itemRepository = itemRepository;
+        this.clusterLeaseService = clusterLeaseService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxResumeAge = maxResumeAge;
+    }
+
+    /**
+     * Resume the latest unfinished run if it is younger than {@code portfolio.sync.resume.max-age},
+     * otherwise start a fresh one. Older unfinished runs are marked ABANDONED.
+     */
+    public SyncRun beginOrResume() {
+        try {
+            SyncRun run = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                SyncRunJpaEntity entity = runRepository.findFirstByStatusInOrderByStartedAtDesc(UNFINISHED)
+                    .filter(unfinished -> unfinished.getStartedAt().isAfter(now.minus(maxResumeAge)))
+                    .orElse(null);
+                runRepository.abandonAllExcept(UNFINISHED, entity != null ? entity.getId() : null, now);
+
+                boolean resumed = entity != null;
+                if (resumed) {
+                    entity.setAttempts(entity.getAttempts() + 1);
+                    entity.setStatus(SyncRunJpaEntity.Status.RUNNING);
+                    entity.setOwner(clusterLeaseService.getInstanceId());
+                    entity.setLastError(null);
+                } else {
+                    entity = new SyncRunJpaEntity(clusterLeaseService.getInstanceId());
+                }
+                entity = runRepository.save(entity);
+                long carriedOver = resumed ? countItems(entity.getId()) : 0;
+                return new SyncRun(this, entity, resumed, carriedOver);
+            });
+            meterRegistry.counter("sync.run.started", "mode", run.isResumed() ? "resumed" : "fresh").increment();
+            if (run.isResumed()) {
+                log.info("Resuming sync run {} (attempt {}, phase {}, {} pages and {} repositories already done)",
+                    run.getId(), run.getAttempt(), run.getPhase(), run.entity.getPagesDone(), run.getCarriedOver());
+            }
+            return run;
+        } catch (Exception e) {
+            log.warn("Could not record sync run, continuing without checkpoints: {}", e.getMessage());
+            return SyncRun.UNTRACKED;
+        }
+    }
+
+    public List<SyncRunJpaEntity> getRecentRuns() {
+        return runRepository.findTop20ByOrderByStartedAtDesc();
+    }
+
+    private long countItems(Long runId) {
+        return itemRepository.countByStage(runId).stream().mapToLong(row -> (Long) row[1]).sum();
+    }
+
+    /**
+     * Where ingest continues: the stored cursor when resuming in the same mode, else the first page.
+     *
+     * @param cursor REST page URI or GraphQL end cursor; null to start from the first page
+     */
+    public record IngestCheckpoint(String cursor, int pagesDone, boolean incremental) {}
+
+    /**
+     * Handle on one sync run. {@link #UNTRACKED} stands in when no run is recorded (partial
+     * syncs, or the sync_runs table is unavailable) and ignores every checkpoint.
+     */
+    public static final class SyncRun {
+        public static final SyncRun UNTRACKED = new SyncRun(null, null, false, 0);
+
+        private final SyncRunService service;
+        private final SyncRunJpaEntity entity;
+        private final boolean resumed;
+        private final long carriedOver;
+
+        private SyncRun(SyncRunService service, SyncRunJpaEntity entity, boolean resumed, long carriedOver) {
+            this.service = service;
+            this.entity = entity;
+            this.resumed = resumed;
+            this.carriedOver = carriedOver;
+        }
+
+        public boolean isTracked() {
+            return entity != null;
+        }
+
+        public Long getId() {
+            return entity != null ? entity.getId() : null;
+        }
+
+        public boolean isResumed() {
+            return resumed;
+        }
+
+        public int getAttempt() {
+            return entity != null ? entity.getAttempts() : 1;
+        }
+
+        /**
+         * Repositories an earlier attempt of this run already got through at least ingest.
+         */
+        public long getCarriedOver() {
+            return carriedOver;
+        }
+
+        public SyncRunJpaEntity.Phase getPhase() {
+            return entity != null ? entity.getPhase() : SyncRunJpaEntity.Phase.INGEST;
+        }
+
+        public boolean isIngestDone() {
+            return getPhase() == SyncRunJpaEntity.Phase.CURATION;
+        }
+
+        /**
+         * Start (or continue) walking the starred list in {@code mode}. A checkpoint written in a
+         * different mode is useless - REST page URIs and GraphQL cursors do not translate - so
+         * the walk restarts from the first page.
+         */
+        public synchronized IngestCheckpoint startIngest(String mode, boolean incremental) {
+            if (entity == null) {
+                return new IngestCheckpoint(null, 0, incremental);
+            }
+            if (resumed && mode.equals(entity.getIngestMode()) && entity.getNextCursor() != null
+                    && entity.getIncremental() != null) {
+                return new IngestCheckpoint(entity.getNextCursor(), entity.getPagesDone(), entity.getIncremental());
+            }
+            entity.setIngestMode(mode);
+            entity.setIncremental(incremental);
+            entity.setPagesDone(0);
+            entity.setNextCursor(null);
+            save();
+            return new IngestCheckpoint(null, 0, incremental);
+        }
+
+        /**
+         * Record that every page up to {@code pagesDone} is fully stored, READMEs included.
+         *
+         * @param nextCursor where the next page starts; null when there is none
+         */
+        public synchronized void checkpointPage(int pagesDone, String nextCursor) {
+            if (entity == null) {
+                return;
+            }
+            entity.setPagesDone(pagesDone);
+            entity.setNextCursor(nextCursor);
+            save();
+        }
+
+        public synchronized void ingestCompleted() {
+            if (entity == null) {
+                return;
+            }
+            entity.setPhase(SyncRunJpaEntity.Phase.CURATION);
+            entity.setNextCursor(null);
+            save();
+        }
+
+        /**
+         * Of the given sources, those whose metadata this run stored without confirming the README.
+         * Their stored updated-at already matches GitHub, so without this the README would never be
+         * refetched after a crash between the two steps.
+         */
+        public Set<Long> findReadmePending(Collection<Long> sourceIds) {
+            List<Long> ids = sourceIds.stream().filter(Objects::nonNull).toList();
+            if (entity == null || ids.isEmpty()) {
+                return Collections.emptySet();
+            }
+            try {
+                return new HashSet<>(service.itemRepository.findSourceIdsAtStage(
+                    entity.getId(), SyncRunItemJpaEntity.Stage.INGESTED, ids));
+            } catch (Exception e) {
+                log.warn("Failed to read checkpoints of sync run {}: {}", entity.getId(), e.getMessage());
+                return Collections.emptySet();
+            }
+        }
+
+        /**
+         * Every source of the run whose README is still unconfirmed, e.g. because GitHub failed it.
+         */
+        public Set<Long> getReadmePending() {
+            if (entity == null) {
+                return new HashSet<>();
+            }
+            try {
+                return new HashSet<>(service.itemRepository.findAllSourceIdsAtStage(
+                    entity.getId(), SyncRunItemJpaEntity.Stage.INGESTED));
+            } catch (Exception e) {
+                log.warn("Failed to read checkpoints of sync run {}: {}", entity.getId(), e.getMessage());
+                return new HashSet<>();
+            }
+        }
+
+        public void markStage(Collection<Long> sourceIds, SyncRunItemJpaEntity.Stage stage) {
+            Set<Long> ids = sourceIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+            if (entity == null || ids.isEmpty()) {
+                return;
+            }
+            Long runId = entity.getId();
+            try {
+                service.transactionTemplate.executeWithoutResult(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    Set<Long> recorded = new HashSet<>(service.itemRepository.findRecordedSourceIds(runId, ids));
+                    if (!recorded.isEmpty()) {
+                        service.itemRepository.updateStage(runId, recorded, stage, now);
+                    }
+                    service.itemRepository.saveAll(ids.stream()
+                        .filter(id -> !recorded.contains(id))
+                        .map(id -> new SyncRunItemJpaEntity(runId, id, stage, now))
+                        .toList());
+                });
+            } catch (Exception e) {
+                log.warn("Failed to checkpoint {} repositories of sync run {}: {}", ids.size(), runId, e.getMessage());
+            }
+        }
+
+        /**
+         * Mark every repository of the run that has been curated by now.
+         */
+        public void curationCompleted() {
+            if (entity == null) {
+                return;
+            }
+            try {
+                service.transactionTemplate.executeWithoutResult(status ->
+                    service.itemRepository.markCuratedSources(entity.getId(), LocalDateTime.now()));
+            } catch (Exception e) {
+                log.warn("Failed to checkpoint curation of sync run {}: {}", entity.getId(), e.getMessage());
+            }
+        }
+
+        public Map<SyncRunItemJpaEntity.Stage, Long> getStageCounts() {
+            Map<SyncRunItemJpaEntity.Stage, Long> counts = new EnumMap<>(SyncRunItemJpaEntity.Stage.class);
+            if (entity != null) {
+                for (Object[] row : service.itemRepository.countByStage(entity.getId())) {
+                    counts.put((SyncRunItemJpaEntity.Stage) row[0], (Long) row[1]);
+                }
+            }
+            return counts;
+        }
+
+        /**
+         * Finish the run. Its per-repository checkpoints are no longer needed and are dropped.
+         */
+        public synchronized void complete() {
+            if (entity == null) {
+                return;
+            }
+            entity.setStatus(SyncRunJpaEntity.Status.COMPLETED);
+            entity.setFinishedAt(LocalDateTime.now());
+            try {
+                service.transactionTemplate.executeWithoutResult(status -> {
+                    service.itemRepository.deleteByRunId(entity.getId());
+                    service.runRepository.save(entity);
+                });
+            } catch (Exception e) {
+                log.warn("Failed to complete sync run {}: {}", entity.getId(), e.getMessage());
+            }
+        }
+
+        /**
+         * Leave the run resumable; the next sync continues from its checkpoints.
+         */
+        public synchronized void fail(String error) {
+            if (entity == null) {
+                return;
+            }
+            entity.setStatus(SyncRunJpaEntity.Status.FAILED);
+            entity.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            save();
+        }
+
+        private void save() {
+            try {
+                service.runRepository.save(entity);
+            } catch (Exception e) {
+                log.warn("Failed to checkpoint sync run {}: {}", entity.getId(), e.getMessage());
+            }
+        }
+    }
+}
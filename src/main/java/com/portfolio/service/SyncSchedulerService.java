@@ -8,38 +8,64 @@ package com.portfolio.service;
 import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
 import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
 import com.portfolio.adapter.out.persistence.jpa.PortfolioProjectJpaEntity;
+import com.portfolio.exception.RepositoryLockedException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @Service
 public class SyncSchedulerService {
 
     private static final Logger log = LoggerFactory.getLogger(SyncSchedulerService.class);
     
+    /** Cluster lease held by whichever instance is running a sync. */
+    public static final String SYNC_LEASE = "sync.pipeline";
+    
     private final GitHubSourceRepositoryService gitHubSourceRepositoryService;
     private final PortfolioService portfolioService;
     private final SourceRepositoryJpaRepository sourceRepositoryRepository;
     private final SyncMonitorService syncMonitorService;
+    private final PortfolioCurationExecutor curationExecutor;
+    private final CurationJobService curationJobService;
+    private final ClaudeBatchCurationService batchCurationService;
+    private final SyncLockRegistry syncLockRegistry;
+    private final SyncRunService syncRunService;
+    private final SyncPriorityService syncPriorityService;
+    private final SyncMetricsService syncMetrics;
     private final MeterRegistry meterRegistry;
-    
-    private final AtomicBoolean syncInProgress = new AtomicBoolean(false);
 
     // Constructor for all final fields
     public SyncSchedulerService(GitHubSourceRepositoryService gitHubSourceRepositoryService,
                                 PortfolioService portfolioService,
                                 SourceRepositoryJpaRepository sourceRepositoryRepository,
                                 SyncMonitorService syncMonitorService,
+                                PortfolioCurationExecutor curationExecutor,
+                                CurationJobService curationJobService,
+                                ClaudeBatchCurationService batchCurationService,
+                                SyncLockRegistry syncLockRegistry,
+                                SyncRunService syncRunService,
+                                SyncPriorityService syncPriorityService,
+                                SyncMetricsService syncMetrics,
                                 MeterRegistry meterRegistry) {
         this.gitHubSourceRepositoryService = gitHubSourceRepositoryService;
         this.portfolioService = portfolioService;
         this.sourceRepositoryRepository = sourceRepositoryRepository;
         this.syncMonitorService = syncMonitorService;
+        this.curationExecutor = curationExecutor;
+        this.curationJobService = curationJobService;
+        this.batchCurationService = batchCurationService;
+        this.syncLockRegistry = syncLockRegistry;
+        this.syncRunService = syncRunService;
+        this.syncPriorityService = syncPriorityService;
+        this.syncMetrics = syncMetrics;
         this.meterRegistry = meterRegistry;
     }
     
@@ -47,81 +73,187 @@ public class SyncSchedulerService {
      * Execute complete two-phase sync pipeline:
      * 1. Ingest: GitHubSourceRepositoryService.syncStarred() → upsert in SourceRepository
      * 2. Curate: For each SourceRepository, create/update PortfolioProject with AI analysis
+     *
+     * The phases overlap: every ingested page is handed to curation as soon as it is stored,
+     * so the run takes roughly max(ingest, curation) instead of their sum.
+     *
+     * Only one instance in the cluster syncs at a time; the others skip the run. Runs are
+     * checkpointed, so a run cut short by a crash or redeploy is resumed by the next one.
+     *
+     * In priority scheduling mode curation waits for ingest and then works through sources by
+     * value (see {@link SyncPriorityService}); either mode stops cleanly at the configured
+     * deadline or token allowance.
      */
     public void runFullSync() {
-        if (!syncInProgress.compareAndSet(false, true)) {
-            log.warn("Sync already in progress, skipping");
+        SyncLockRegistry.SyncSlot slot = acquireSyncSlot(SyncLockRegistry.SyncOperation.FULL_SYNC);
+        if (slot == null) {
             return;
         }
         
-        Timer.Sample sample = Timer.start(meterRegistry);
+        Timer.Sample sample = syncMetrics.start();
+        long pipelineStart = System.nanoTime();
+        SyncRunService.SyncRun run = SyncRunService.SyncRun.UNTRACKED;
         
         try {
+            run = syncRunService.beginOrResume();
             log.info("Starting two-phase sync pipeline");
-            syncMonitorService.appendLog("INFO", "Starting two-phase sync pipeline");
+            syncMonitorService.appendLog("INFO", run.isResumed()
+                ? String.format("Resuming interrupted sync run %d (attempt %d)", run.getId(), run.getAttempt())
+                : "Starting two-phase sync pipeline");
             
-            // Phase 1: Source ingestion
-            runSourceIngestPhase();
+            SyncRunLimits limits = syncPriorityService.openLimits();
+            boolean prioritized = syncPriorityService.isPriorityMode();
+            if (prioritized || limits.isLimited()) {
+                syncMonitorService.appendLog("INFO", String.format("Sync scheduling: %s order, limits: %s",
+                    prioritized ? "priority" : "GitHub", limits.describe()));
+            }
+            PortfolioCurationExecutor.CurationBatch curation = openCurationBatch(limits);
             
-            // Phase 2: Portfolio curation
-            runPortfolioCurationPhase();
+            // Phase 1: Source ingestion, feeding new sources into curation page by page
+            // (priority mode ranks the whole backlog after ingest instead)
+            long ingestStart = System.nanoTime();
+            if (run.isIngestDone()) {
+                syncMonitorService.appendLog("INFO", "Phase 1 skipped: ingest already finished in an earlier attempt of this run");
+            } else {
+                Consumer<List<SourceRepositoryJpaEntity>> handOff = prioritized
+                    ? sources -> { }
+                    : sources -> submitUnsyncedSources(curation, sources);
+                try {
+                    runSourceIngestPhase(run, limits, handOff);
+                } catch (RuntimeException e) {
+                    // Let curations that already started finish before reporting the failure
+                    curation.await();
+                    throw e;
+                }
+            }
+            Duration ingestElapsed = Duration.ofNanos(System.nanoTime() - ingestStart);
+            
+            // Phase 2: Portfolio curation of whatever is still queued or left over
+            PortfolioCurationExecutor.CurationResult curationResult = runPortfolioCurationPhase(curation);
+            run.curationCompleted();
+            if (limits.getDeferred() > 0) {
+                syncMonitorService.appendLog("INFO", String.format(
+                    "Sync run limit reached (%s): %d sources deferred to the next run, %d tokens used",
+                    limits.exhaustedReason(), limits.getDeferred(), limits.getTokensSpent()));
+            }
+            
+            recordStageTimings(ingestElapsed, curationResult, Duration.ofNanos(System.nanoTime() - pipelineStart));
+            
+            if (run.isIngestDone()) {
+                run.complete();
+            } else {
+                // Ingest gave up part-way (GitHub error, rate limit); the next run continues from its checkpoint
+                run.fail("Source ingest did not finish");
+            }
             
             log.info("Two-phase sync pipeline completed successfully");
             syncMonitorService.appendLog("INFO", "Two-phase sync pipeline completed successfully");
             
         } catch (Exception e) {
+            run.fail(e.getMessage());
             log.error("Error during sync pipeline execution", e);
             syncMonitorService.appendLog("ERROR", "Sync pipeline failed: " + e.getMessage());
             throw new RuntimeException("Sync pipeline failed: " + e.getMessage(), e);
         } finally {
-            syncInProgress.set(false);
-            sample.stop(Timer.builder("sync.pipeline.duration")
-                    .description("Duration of complete sync pipeline")
-                    .register(meterRegistry));
+            slot.close();
+            syncMetrics.recordPipeline(sample);
         }
     }
-
+    
+    /**
+     * Take a pipeline slot, which also holds the cluster-wide sync lease while the operation runs.
+     *
+     * @return null when a conflicting operation or {@code max-concurrent-syncs} operations
+     *         already run here, or another instance is syncing
+     */
+    private SyncLockRegistry.SyncSlot acquireSyncSlot(SyncLockRegistry.SyncOperation operation) {
+        SyncLockRegistry.SyncSlot slot = syncLockRegistry.tryAcquireSyncSlot(operation);
+        if (slot == null) {
+            syncMonitorService.appendLog("INFO", operation.getLabel()
+                + " skipped: a conflicting sync is running, the concurrent sync limit is reached or another instance holds the sync lease");
+        }
+        return slot;
+    }
+    
+    /**
+     * Durable batches survive restarts and are shared by every instance; the in-memory
+     * session is used when the job queue is disabled.
+     */
+    private PortfolioCurationExecutor.CurationBatch openCurationBatch(SyncRunLimits limits) {
+        if (batchCurationService.isEnabled()) {
+            return batchCurationService.openBatch(limits);
+        }
+        return curationJobService.isEnabled() ? curationJobService.openBatch(limits) : curationExecutor.openSession(limits);
+    }
+    
+    private void submitUnsyncedSources(PortfolioCurationExecutor.CurationBatch curation,
+                                       List<SourceRepositoryJpaEntity> sources) {
+        for (SourceRepositoryJpaEntity source : sources) {
+            if (source.getId() != null && source.getSyncStatus() == SourceRepositoryJpaEntity.SyncStatus.UNSYNCED) {
+                // In-memory sessions block here while full, slowing ingest down to curation speed
+                curation.submit(new PortfolioCurationExecutor.CurationTask(source.getId(), "source " + source.getName(), false));
+            }
+        }
+    }
+    
+    private void recordStageTimings(Duration ingest, PortfolioCurationExecutor.CurationResult curation, Duration total) {
+        syncMetrics.recordStage("ingest", ingest);
+        syncMetrics.recordStage("curation", curation.busy());
+        syncMetrics.recordStage("curation_backpressure", curation.backpressure());
+        
+        String summary = String.format(
+            "Pipeline stage timings: ingest %d ms, curation %d ms (ingest blocked %d ms on a full curation queue), total %d ms",
+            ingest.toMillis(), curation.busy().toMillis(), curation.backpressure().toMillis(), total.toMillis());
+        log.info(summary);
+        syncMonitorService.appendLog("INFO", summary);
+    }
+    
     /**
      * Fire-and-forget async wrapper to run full sync without blocking caller.
      * Any exception is logged and does not propagate to the caller.
+     *
+     * @return completes once the run is over, successful or not
      */
     @org.springframework.scheduling.annotation.Async
-    public void runFullSyncAsync() {
+    public CompletableFuture<Void> runFullSyncAsync() {
         try {
             runFullSync();
         } catch (Exception e) {
             log.error("Async sync failed", e);
             // Swallow exception to avoid bubbling to controller threads
         }
+        return CompletableFuture.completedFuture(null);
     }
     
     /**
      * Phase 1: Source ingestion from GitHub
      */
     public void runSourceIngestPhase() {
+        runSourceIngestPhase(SyncRunService.SyncRun.UNTRACKED, SyncRunLimits.NONE, sources -> { });
+    }
+    
+    private void runSourceIngestPhase(SyncRunService.SyncRun run, SyncRunLimits limits,
+                                      Consumer<List<SourceRepositoryJpaEntity>> pagePersisted) {
         log.info("Phase 1: Ingesting starred repositories from GitHub");
         syncMonitorService.appendLog("INFO", "Phase 1: Starting source repository ingestion");
         
-        Timer.Sample sample = Timer.start(meterRegistry);
+        Timer.Sample sample = syncMetrics.start();
         
         try {
-            gitHubSourceRepositoryService.syncStarredRepositories();
+            gitHubSourceRepositoryService.syncStarredRepositories(run, limits, pagePersisted);
             
             // Record metrics
             long totalSources = sourceRepositoryRepository.count();
             long syncedSources = sourceRepositoryRepository.countBySyncStatus(SourceRepositoryJpaEntity.SyncStatus.SYNCED);
             
-            meterRegistry.gauge("sync.source.total", totalSources);
-            meterRegistry.gauge("sync.source.synced", syncedSources);
+            syncMetrics.recordSourceCounts(totalSources, syncedSources);
             
             log.info("Phase 1 completed: {} total sources, {} synced", totalSources, syncedSources);
             syncMonitorService.appendLog("INFO", 
                 String.format("Phase 1 completed: %d total sources, %d synced", totalSources, syncedSources));
             
         } finally {
-            sample.stop(Timer.builder("sync.source.ingest.duration")
-                    .description("Duration of source ingestion phase")
-                    .register(meterRegistry));
+            syncMetrics.recordIngestPhase(sample);
         }
     }
     
@@ -129,62 +261,59 @@ public class SyncSchedulerService {
      * Phase 2: Portfolio curation using AI analysis
      */
     public void runPortfolioCurationPhase() {
+        runPortfolioCurationPhase(openCurationBatch(syncPriorityService.openLimits()));
+    }
+    
+    private PortfolioCurationExecutor.CurationResult runPortfolioCurationPhase(
+            PortfolioCurationExecutor.CurationBatch curation) {
         log.info("Phase 2: Starting portfolio curation with AI analysis");
         syncMonitorService.appendLog("INFO", "Phase 2: Starting portfolio curation");
         
-        Timer.Sample sample = Timer.start(meterRegistry);
+        Timer.Sample sample = syncMetrics.start();
         
         try {
-            // Get unsynced source repositories
+            // Get unsynced source repositories (ones already queued during ingest are not queued twice)
             List<SourceRepositoryJpaEntity> unsyncedSources = sourceRepositoryRepository
                     .findBySyncStatus(SourceRepositoryJpaEntity.SyncStatus.UNSYNCED);
             
             // Also get auto-linked projects that might need re-curation
             List<PortfolioProjectJpaEntity> needsCuration = portfolioService.getProjectsNeedingCuration();
             
-            int curated = 0;
-            int skipped = 0;
-            int failed = 0;
-            
-            // Process unsynced sources
+            List<PortfolioCurationExecutor.CurationTask> tasks = new ArrayList<>();
             for (SourceRepositoryJpaEntity source : unsyncedSources) {
-                try {
-                    portfolioService.curateFromSource(source.getId());
-                    curated++;
-                    meterRegistry.counter("sync.portfolio.created").increment();
-                } catch (Exception e) {
-                    log.warn("Failed to curate from source {}: {}", source.getName(), e.getMessage());
-                    failed++;
-                    meterRegistry.counter("sync.portfolio.failed").increment();
-                }
+                tasks.add(new PortfolioCurationExecutor.CurationTask(source.getId(), "source " + source.getName(), false));
             }
-            
+
             // Re-curate existing auto-linked projects
+            int unlinked = 0;
             for (PortfolioProjectJpaEntity portfolio : needsCuration) {
                 if (portfolio.getSourceRepositoryId() != null) {
-                    try {
-                        portfolioService.curateFromSource(portfolio.getSourceRepositoryId());
-                        curated++;
-                        meterRegistry.counter("sync.portfolio.updated").increment();
-                    } catch (Exception e) {
-                        log.warn("Failed to re-curate portfolio {}: {}", portfolio.getTitle(), e.getMessage());
-                        failed++;
-                        meterRegistry.counter("sync.portfolio.failed").increment();
-                    }
+                    tasks.add(new PortfolioCurationExecutor.CurationTask(
+                        portfolio.getSourceRepositoryId(), "portfolio " + portfolio.getTitle(), true));
                 } else {
-                    skipped++;
+                    unlinked++;
                     meterRegistry.counter("sync.portfolio.skipped.unlinked").increment();
                 }
             }
-            
+
+            if (syncPriorityService.isPriorityMode()) {
+                tasks = syncPriorityService.rank(tasks);
+            }
+            tasks.forEach(curation::submit);
+
+            // Wait for the batch; durable batches may be worked by any instance
+            PortfolioCurationExecutor.CurationResult result = curation.await();
+            int curated = result.curated();
+            int skipped = unlinked + result.skipped();
+            int failed = result.failed();
+
             log.info("Phase 2 completed: {} curated, {} skipped, {} failed", curated, skipped, failed);
             syncMonitorService.appendLog("INFO", 
                 String.format("Phase 2 completed: %d curated, %d skipped, %d failed", curated, skipped, failed));
+            return result;
             
         } finally {
-            sample.stop(Timer.builder("sync.portfolio.curation.duration")
-                    .description("Duration of portfolio curation phase")
-                    .register(meterRegistry));
+            syncMetrics.recordCurationPhase(sample);
         }
     }
     
@@ -192,15 +321,11 @@ public class SyncSchedulerService {
      * Run only source ingestion phase
      */
     public void runSourceIngest() {
-        if (!syncInProgress.compareAndSet(false, true)) {
-            log.warn("Sync already in progress, skipping source ingest");
-            return;
-        }
-        
-        try {
+        try (SyncLockRegistry.SyncSlot slot = acquireSyncSlot(SyncLockRegistry.SyncOperation.INGEST)) {
+            if (slot == null) {
+                return;
+            }
             runSourceIngestPhase();
-        } finally {
-            syncInProgress.set(false);
         }
     }
     
@@ -208,15 +333,11 @@ public class SyncSchedulerService {
      * Run only portfolio curation phase
      */
     public void runPortfolioCuration() {
-        if (!syncInProgress.compareAndSet(false, true)) {
-            log.warn("Sync already in progress, skipping portfolio curation");
-            return;
-        }
-        
-        try {
+        try (SyncLockRegistry.SyncSlot slot = acquireSyncSlot(SyncLockRegistry.SyncOperation.CURATION)) {
+            if (slot == null) {
+                return;
+            }
             runPortfolioCurationPhase();
-        } finally {
-            syncInProgress.set(false);
         }
     }
     
@@ -224,11 +345,14 @@ public class SyncSchedulerService {
      * Get sync status
      */
     public boolean isSyncInProgress() {
-        return syncInProgress.get();
+        return syncLockRegistry.isSyncInProgress();
     }
     
     /**
-     * Resync specific portfolio project (respect protections)
+     * Resync specific portfolio project (respect protections).
+     * Runs alongside a full sync; only the project's source repository is locked.
+     *
+     * @throws RepositoryLockedException when the source is being synced or curated right now
      */
     public void resyncPortfolioProject(Long portfolioProjectId) {
         log.info("Resyncing portfolio project ID: {}", portfolioProjectId);
@@ -238,10 +362,13 @@ public class SyncSchedulerService {
                 .orElseThrow(() -> new IllegalArgumentException("Portfolio project not found: " + portfolioProjectId));
         
         if (portfolio.getSourceRepositoryId() != null) {
-            try {
+            try (SyncLockRegistry.RepositoryLock lock = syncLockRegistry.lockRepository(portfolio.getSourceRepositoryId())) {
                 portfolioService.curateFromSource(portfolio.getSourceRepositoryId());
                 meterRegistry.counter("sync.portfolio.resync.success").increment();
                 log.info("Successfully resynced portfolio project: {}", portfolio.getTitle());
+            } catch (RepositoryLockedException e) {
+                meterRegistry.counter("sync.portfolio.resync.locked").increment();
+                throw e;
             } catch (Exception e) {
                 meterRegistry.counter("sync.portfolio.resync.failed").increment();
                 log.error("Failed to resync portfolio project {}: {}", portfolio.getTitle(), e.getMessage());
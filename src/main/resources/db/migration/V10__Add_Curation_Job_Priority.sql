@@ -0,0 +1,10 @@
+-- V10: Priority of queued curations so valuable projects are curated first
+-- Author: Bernard Uriza Orozco
+
+ALTER TABLE curation_jobs ADD COLUMN IF NOT EXISTS priority INTEGER NOT NULL DEFAULT 0;
+
+-- Claim scan now orders due jobs by priority
+DROP INDEX IF EXISTS idx_curation_jobs_claim;
+CREATE INDEX IF NOT EXISTS idx_curation_jobs_claim ON curation_jobs(status, priority DESC, available_at);
+
+COMMENT ON COLUMN curation_jobs.priority IS 'Higher is claimed first; 0..1000 from SyncPriorityService in priority scheduling mode';
@@ -0,0 +1,6 @@
+-- V10: Lease times as absolute instants, stamped and compared with the database clock
+-- Author: Bernard Uriza Orozco
+-- Plain TIMESTAMP values depended on each instance's clock and session time zone
+
+ALTER TABLE cluster_leases ALTER COLUMN acquired_at TYPE TIMESTAMP WITH TIME ZONE;
+ALTER TABLE cluster_leases ALTER COLUMN expires_at TYPE TIMESTAMP WITH TIME ZONE;
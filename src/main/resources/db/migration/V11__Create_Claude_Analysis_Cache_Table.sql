@@ -0,0 +1,17 @@
+-- V11: Persistent cache of Claude repository analyses keyed by prompt content
+-- Author: Bernard Uriza Orozco
+
+CREATE TABLE IF NOT EXISTS claude_analysis_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    model VARCHAR(100) NOT NULL,
+    prompt_version INTEGER NOT NULL,
+    response TEXT NOT NULL,
+    hit_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_used_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE claude_analysis_cache IS 'Raw Claude analysis responses, reused while the rendered prompt, prompt version and model are unchanged';
+COMMENT ON COLUMN claude_analysis_cache.cache_key IS 'SHA-256 of prompt version, model and the rendered analysis prompt';
+
+CREATE INDEX IF NOT EXISTS idx_claude_analysis_cache_last_used ON claude_analysis_cache(last_used_at);
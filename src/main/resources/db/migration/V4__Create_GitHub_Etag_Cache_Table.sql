@@ -0,0 +1,14 @@
+-- V4: Conditional-request cache for GitHub API endpoints
+-- Author: Bernard Uriza Orozco
+
+CREATE TABLE IF NOT EXISTS github_etag_cache (
+    id BIGSERIAL PRIMARY KEY,
+    endpoint VARCHAR(500) NOT NULL,
+    etag VARCHAR(255),
+    last_modified VARCHAR(100),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_github_etag_endpoint UNIQUE (endpoint)
+);
+
+COMMENT ON TABLE github_etag_cache IS 'ETag / Last-Modified validators per GitHub API endpoint for conditional requests';
+COMMENT ON COLUMN github_etag_cache.endpoint IS 'Request path relative to the GitHub API base URL, e.g. /repos/owner/repo/readme';
@@ -0,0 +1,6 @@
+-- V5: Track last push time for source repositories (REST pushed_at / GraphQL pushedAt)
+-- Author: Bernard Uriza Orozco
+
+ALTER TABLE source_repositories ADD COLUMN IF NOT EXISTS github_pushed_at VARCHAR(255);
+
+COMMENT ON COLUMN source_repositories.github_pushed_at IS 'ISO-8601 timestamp of the last push reported by GitHub';
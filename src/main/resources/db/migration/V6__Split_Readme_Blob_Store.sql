@@ -0,0 +1,32 @@
+-- V6: Move README text out of source_repositories into a content-addressed blob store
+-- Author: Bernard Uriza Orozco
+
+CREATE TABLE IF NOT EXISTS readme_blobs (
+    sha VARCHAR(64) PRIMARY KEY,
+    encoding VARCHAR(16) NOT NULL,
+    content BYTEA NOT NULL,
+    original_size INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE readme_blobs IS 'README content keyed by GitHub blob sha, gzip-compressed on write';
+COMMENT ON COLUMN readme_blobs.encoding IS 'gzip for rows written by the application, identity for rows migrated from readme_markdown';
+
+ALTER TABLE source_repositories ADD COLUMN IF NOT EXISTS readme_sha VARCHAR(64);
+ALTER TABLE source_repositories ADD COLUMN IF NOT EXISTS readme_size INTEGER;
+
+-- Existing READMEs have no known blob sha; key them by content hash until the next fetch replaces them
+INSERT INTO readme_blobs (sha, encoding, content, original_size)
+SELECT DISTINCT 'md5:' || md5(readme_markdown), 'identity', convert_to(readme_markdown, 'UTF8'), length(readme_markdown)
+FROM source_repositories
+WHERE readme_markdown IS NOT NULL AND readme_markdown <> ''
+ON CONFLICT (sha) DO NOTHING;
+
+UPDATE source_repositories
+SET readme_sha = 'md5:' || md5(readme_markdown),
+    readme_size = length(readme_markdown)
+WHERE readme_markdown IS NOT NULL AND readme_markdown <> '';
+
+ALTER TABLE source_repositories DROP COLUMN IF EXISTS readme_markdown;
+
+CREATE INDEX IF NOT EXISTS idx_source_readme_sha ON source_repositories(readme_sha);
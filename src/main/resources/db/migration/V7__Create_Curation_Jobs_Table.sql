@@ -0,0 +1,32 @@
+-- V7: Durable curation job queue shared by all application instances
+-- Author: Bernard Uriza Orozco
+
+CREATE TABLE IF NOT EXISTS curation_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    source_repository_id BIGINT NOT NULL,
+    batch_id VARCHAR(64),
+    recuration BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_curation_jobs_source FOREIGN KEY (source_repository_id)
+        REFERENCES source_repositories(id) ON DELETE CASCADE
+);
+
+-- At most one queued or running job per source repository
+CREATE UNIQUE INDEX IF NOT EXISTS uk_curation_jobs_active_source
+    ON curation_jobs(source_repository_id) WHERE status IN ('PENDING', 'RUNNING');
+
+-- Claim scan: pending jobs by due time, expired leases
+CREATE INDEX IF NOT EXISTS idx_curation_jobs_claim ON curation_jobs(status, available_at);
+CREATE INDEX IF NOT EXISTS idx_curation_jobs_lease ON curation_jobs(status, lease_expires_at);
+CREATE INDEX IF NOT EXISTS idx_curation_jobs_batch ON curation_jobs(batch_id, status);
+
+COMMENT ON TABLE curation_jobs IS 'Portfolio curation work items claimed with SELECT ... FOR UPDATE SKIP LOCKED';
+COMMENT ON COLUMN curation_jobs.status IS 'PENDING, RUNNING, DONE or DEAD (retries exhausted)';
+COMMENT ON COLUMN curation_jobs.lease_expires_at IS 'RUNNING jobs past this instant are reclaimed by any worker';
@@ -0,0 +1,14 @@
+-- V8: Named, time-limited leases so only one instance runs a given job
+-- Author: Bernard Uriza Orozco
+
+CREATE TABLE IF NOT EXISTS cluster_leases (
+    name VARCHAR(200) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    acquired_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cluster_leases_expires ON cluster_leases(expires_at);
+
+COMMENT ON TABLE cluster_leases IS 'Cluster-wide mutual exclusion: a row is held by owner until expires_at unless renewed';
+COMMENT ON COLUMN cluster_leases.owner IS 'Instance id of the holder (host name plus random suffix)';
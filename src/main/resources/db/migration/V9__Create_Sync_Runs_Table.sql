@@ -0,0 +1,40 @@
+-- V9: Persisted sync runs with per-repository checkpoints so an interrupted run can resume
+-- Author: Bernard Uriza Orozco
+
+CREATE TABLE IF NOT EXISTS sync_runs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    phase VARCHAR(20) NOT NULL DEFAULT 'INGEST',
+    ingest_mode VARCHAR(20),
+    incremental BOOLEAN,
+    pages_done INTEGER NOT NULL DEFAULT 0,
+    next_cursor VARCHAR(1000),
+    attempts INTEGER NOT NULL DEFAULT 1,
+    owner VARCHAR(100),
+    last_error VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_runs_status ON sync_runs(status, started_at);
+
+CREATE TABLE IF NOT EXISTS sync_run_items (
+    run_id BIGINT NOT NULL,
+    source_repository_id BIGINT NOT NULL,
+    stage VARCHAR(20) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (run_id, source_repository_id),
+    CONSTRAINT fk_sync_run_items_run FOREIGN KEY (run_id)
+        REFERENCES sync_runs(id) ON DELETE CASCADE,
+    CONSTRAINT fk_sync_run_items_source FOREIGN KEY (source_repository_id)
+        REFERENCES source_repositories(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_run_items_stage ON sync_run_items(run_id, stage);
+
+COMMENT ON TABLE sync_runs IS 'One row per full sync; RUNNING or FAILED rows are resumed by the next run';
+COMMENT ON COLUMN sync_runs.phase IS 'INGEST while starred pages are being walked, CURATION once ingest finished';
+COMMENT ON COLUMN sync_runs.next_cursor IS 'REST page URI or GraphQL end cursor of the first page not yet ingested';
+COMMENT ON COLUMN sync_runs.attempts IS 'Number of times the run was started, including resumes';
+COMMENT ON TABLE sync_run_items IS 'Per-repository checkpoint of a sync run: INGESTED, README_FETCHED or CURATED';
@@ -0,0 +1,40 @@
+package com.portfolio.adapter.out.external.ai;
+
+import com.portfolio.core.port.out.AIServicePort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIServiceAdapterTest {
+
+    @Mock
+    private AIServiceImpl aiService;
+
+    @InjectMocks
+    private AIServiceAdapter adapter;
+
+    @Test
+    void chatReplyIsPassedThrough() {
+        when(aiService.chatReply(anyString(), anyString())).thenReturn(AIServicePort.ChatReply.answered("Hola"));
+
+        assertEquals("Hola", adapter.chat("Be brief.", "Narrate"));
+        assertFalse(adapter.chatReply("Be brief.", "Narrate").fallback());
+    }
+
+    @Test
+    void chatFailureIsAFallback() {
+        when(aiService.chatReply(anyString(), anyString())).thenThrow(new IllegalStateException("boom"));
+
+        AIServicePort.ChatReply reply = adapter.chatReply("Be brief.", "Narrate");
+
+        assertTrue(reply.fallback());
+        assertEquals("Lo siento, no puedo generar una respuesta en este momento.", reply.text());
+    }
+}
@@ -0,0 +1,206 @@
+package com.portfolio.adapter.out.external.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SkillJpaRepository;
+import com.portfolio.core.port.out.AIServicePort;
+import com.portfolio.service.ClaudeAnalysisCacheService;
+import com.portfolio.service.ClaudeTokenBudgetService;
+import com.portfolio.service.ResiliencePolicyService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Message Batches flow of AIServiceImpl against a MockWebServer stand-in for the Anthropic API
+ */
+@ExtendWith(MockitoExtension.class)
+class AIServiceImplMessageBatchTest {
+
+    private static final String MODEL = "claude-3-haiku-20240307";
+
+    @Mock
+    private ClaudeTokenBudgetService tokenBudgetService;
+
+    @Mock
+    private ClaudeAnalysisCacheService analysisCache;
+
+    @Mock
+    private SkillJpaRepository skillRepository;
+
+    @Mock
+    private ExperienceJpaRepository experienceRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockWebServer server;
+    private AIServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        RestTemplate restTemplate = new RestTemplate();
+        ClaudeMessageBatchClient batchClient = new ClaudeMessageBatchClient(restTemplate, objectMapper,
+            "test-key", server.url("/v1/messages/batches").toString());
+        service = new AIServiceImpl(restTemplate, objectMapper, tokenBudgetService, analysisCache, batchClient, singleAttemptPolicies(),
+            new PortfolioPromptContext(skillRepository, experienceRepository, "tone"),
+            new ClaudeRequestCoalescer(Duration.ofMinutes(1), 100, new SimpleMeterRegistry()), "test-key", server.url("/v1/messages").toString(), MODEL, true);
+        lenient().when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        lenient().when(tokenBudgetService.reserve(anyInt(), anyString())).thenAnswer(invocation ->
+            ClaudeTokenBudgetService.TokenReservation.granted(invocation.getArgument(0), invocation.getArgument(1), 0L));
+        lenient().when(analysisCache.find(anyString())).thenReturn(Optional.empty());
+    }
+
+    private static ResiliencePolicyService singleAttemptPolicies() {
+        return new ResiliencePolicyService(CircuitBreakerRegistry.ofDefaults(),
+            RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()),
+            RateLimiterRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), 4);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private static AIServicePort.RepositoryAnalysisInput input(String customId, String repoName) {
+        return new AIServicePort.RepositoryAnalysisInput(customId, repoName, "desc", "# " + repoName, List.of("java"), "Java");
+    }
+
+    private static String analysis(String name) {
+        return "{\"project\":{\"name\":\"" + name + "\",\"description\":\"d\",\"technologies\":[\"Java\"],\"url\":\"\"},"
+            + "\"skills\":[\"Java\"],\"experiences\":[\"Backend\"]}";
+    }
+
+    private MockResponse json(Object body) throws IOException {
+        return new MockResponse().setHeader("Content-Type", "application/json")
+            .setBody(objectMapper.writeValueAsString(body));
+    }
+
+    private String succeeded(String customId, String text) throws IOException {
+        return objectMapper.writeValueAsString(Map.of("custom_id", customId, "result", Map.of(
+            "type", "succeeded",
+            "message", Map.of(
+                "content", List.of(Map.of("type", "text", "text", text)),
+                "usage", Map.of("input_tokens", 200, "cache_read_input_tokens", 3000, "output_tokens", 400)))));
+    }
+
+    @Test
+    void submitsPendingAnalysesAsOneBatchAndReservesBudgetOnce() throws Exception {
+        when(analysisCache.find(anyString())).thenReturn(Optional.empty(), Optional.of(analysis("Cached")));
+        server.enqueue(json(Map.of("id", "msgbatch_1", "processing_status", "in_progress")));
+
+        AIServicePort.AnalysisBatch batch = service.submitAnalysisBatch(List.of(input("source-1", "alpha"), input("source-2", "beta")));
+
+        assertEquals("msgbatch_1", batch.batchId());
+        assertEquals(List.of("source-1"), List.copyOf(batch.submitted().keySet()));
+        assertEquals("Cached", batch.ready().get("source-2").project.name);
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/v1/messages/batches", request.getPath());
+        assertEquals("test-key", request.getHeader("x-api-key"));
+        JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+        assertEquals(1, body.path("requests").size());
+        assertEquals("source-1", body.path("requests").get(0).path("custom_id").asText());
+        assertEquals(MODEL, body.path("requests").get(0).path("params").path("model").asText());
+        verify(tokenBudgetService).reserve(anyInt(), eq("claude_message_batch"));
+        verify(tokenBudgetService, never()).commit(any(), any(ClaudeTokenBudgetService.TokenUsage.class));
+    }
+
+    @Test
+    void rejectedSubmissionReleasesTheReservation() {
+        server.enqueue(new MockResponse().setResponseCode(529));
+
+        assertThrows(RuntimeException.class, () -> service.submitAnalysisBatch(List.of(input("source-1", "alpha"))));
+
+        verify(tokenBudgetService).release(argThat(reservation -> reservation.getOperation().equals("claude_message_batch")));
+    }
+
+    @Test
+    void requestsBeyondRemainingBudgetAreNotSubmitted() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(10);
+
+        AIServicePort.AnalysisBatch batch = service.submitAnalysisBatch(List.of(input("source-1", "alpha")));
+
+        assertFalse(batch.isSubmitted());
+        assertTrue(batch.rejected().containsKey("source-1"));
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    void pollReturnsNothingUntilTheBatchHasEnded() throws Exception {
+        server.enqueue(json(Map.of("id", "msgbatch_1", "processing_status", "in_progress")));
+        server.enqueue(json(Map.of("id", "msgbatch_1", "processing_status", "in_progress")));
+        AIServicePort.AnalysisBatch batch = service.submitAnalysisBatch(List.of(input("source-1", "alpha")));
+
+        AIServicePort.AnalysisBatchStatus status = service.pollAnalysisBatch(batch);
+
+        assertFalse(status.ended());
+        assertTrue(status.results().isEmpty());
+    }
+
+    @Test
+    void endedBatchYieldsParsedResultsAndErrorsAndCachesGoodAnswers() throws Exception {
+        server.enqueue(json(Map.of("id", "msgbatch_1", "processing_status", "in_progress")));
+        AIServicePort.AnalysisBatch batch = service.submitAnalysisBatch(List.of(
+            input("source-1", "alpha"), input("source-2", "beta"), input("source-3", "gamma")));
+        server.enqueue(json(Map.of("id", "msgbatch_1", "processing_status", "ended",
+            "results_url", server.url("/v1/messages/batches/msgbatch_1/results").toString())));
+        server.enqueue(new MockResponse().setBody(succeeded("source-1", analysis("Alpha")) + "\n"
+            + objectMapper.writeValueAsString(Map.of("custom_id", "source-2", "result", Map.of(
+                "type", "errored",
+                "error", Map.of("type", "error", "error", Map.of("type", "overloaded_error", "message", "Overloaded")))))
+            + "\n"));
+
+        AIServicePort.AnalysisBatchStatus status = service.pollAnalysisBatch(batch);
+
+        assertTrue(status.ended());
+        assertEquals("Alpha", status.results().get("source-1").project.name);
+        assertEquals("errored: Overloaded", status.errors().get("source-2"));
+        assertEquals("missing from batch results", status.errors().get("source-3"));
+        verify(analysisCache).store(batch.cacheKeys().get("source-1"), MODEL, AIServiceImpl.ANALYSIS_PROMPT_VERSION, analysis("Alpha"));
+        verify(tokenBudgetService).commit(any(), eq(new ClaudeTokenBudgetService.TokenUsage(200, 0, 3000, 400)));
+        server.takeRequest();
+        server.takeRequest();
+        assertEquals("/v1/messages/batches/msgbatch_1/results", server.takeRequest().getPath());
+    }
+
+    @Test
+    void cancelPostsToTheBatch() throws Exception {
+        server.enqueue(json(Map.of("id", "msgbatch_1", "processing_status", "in_progress")));
+        server.enqueue(json(Map.of("id", "msgbatch_1", "processing_status", "canceling")));
+        AIServicePort.AnalysisBatch batch = service.submitAnalysisBatch(List.of(input("source-1", "alpha")));
+
+        service.cancelAnalysisBatch(batch);
+
+        server.takeRequest();
+        RecordedRequest cancel = server.takeRequest();
+        assertEquals("POST", cancel.getMethod());
+        assertEquals("/v1/messages/batches/msgbatch_1/cancel", cancel.getPath());
+        verify(tokenBudgetService).commit(any(), anyInt());
+    }
+}
@@ -0,0 +1,267 @@
+package com.portfolio.adapter.out.external.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SkillJpaRepository;
+import com.portfolio.core.port.out.AIServicePort;
+import com.portfolio.service.ClaudeAnalysisCacheService;
+import com.portfolio.service.ClaudeTokenBudgetService;
+import com.portfolio.service.ResiliencePolicyService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIServiceImplTest {
+
+    private static final String MODEL = "claude-3-haiku-20240307";
+    private static final String ANALYSIS = "{\"project\":{\"name\":\"Cached\",\"description\":\"From cache\","
+        + "\"estimatedDurationWeeks\":null,\"technologies\":[\"Java\"],\"url\":\"\"},"
+        + "\"skills\":[\"Java\"],\"experiences\":[\"Backend\"]}";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private ClaudeTokenBudgetService tokenBudgetService;
+
+    @Mock
+    private ClaudeAnalysisCacheService analysisCache;
+
+    @Mock
+    private ClaudeMessageBatchClient batchClient;
+
+    @Mock
+    private SkillJpaRepository skillRepository;
+
+    @Mock
+    private ExperienceJpaRepository experienceRepository;
+
+    private AIServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AIServiceImpl(restTemplate, new ObjectMapper(), tokenBudgetService, analysisCache, batchClient, singleAttemptPolicies(),
+            new PortfolioPromptContext(skillRepository, experienceRepository, "tone"),
+            new ClaudeRequestCoalescer(Duration.ofMinutes(1), 100, new SimpleMeterRegistry()), "test-key", "http://localhost/v1/messages", MODEL, true);
+    }
+
+    private static ResiliencePolicyService singleAttemptPolicies() {
+        return new ResiliencePolicyService(CircuitBreakerRegistry.ofDefaults(),
+            RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()),
+            RateLimiterRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), 4);
+    }
+
+    private static String claudeMessage(String text) throws Exception {
+        return new ObjectMapper().writeValueAsString(Map.of(
+            "content", List.of(Map.of("type", "text", "text", text)),
+            "usage", Map.of("input_tokens", 120, "cache_creation_input_tokens", 0,
+                "cache_read_input_tokens", 2400, "output_tokens", 300)));
+    }
+
+    private void grantReservations() {
+        when(tokenBudgetService.reserve(anyInt(), anyString())).thenAnswer(invocation ->
+            ClaudeTokenBudgetService.TokenReservation.granted(invocation.getArgument(0), invocation.getArgument(1), 0L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> sentRequest() {
+        ArgumentCaptor<HttpEntity<Map<String, Object>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(anyString(), eq(HttpMethod.POST), request.capture(), eq(String.class));
+        return request.getValue().getBody();
+    }
+
+    @Test
+    void cachedAnalysisSkipsClaudeAndTokenBudget() {
+        when(analysisCache.find(anyString())).thenReturn(Optional.of(ANALYSIS));
+
+        AIServicePort.ClaudeAnalysisResult result =
+            service.analyzeRepository("repo", "desc", "# readme", List.of("java"), "Java");
+
+        assertEquals("Cached", result.project.name);
+        verifyNoInteractions(restTemplate, tokenBudgetService);
+        verify(analysisCache, never()).store(anyString(), anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void analysisFromClaudeIsStoredUnderPromptKey() throws Exception {
+        when(analysisCache.find(anyString())).thenReturn(Optional.empty());
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok(claudeMessage(ANALYSIS)));
+
+        service.analyzeRepository("repo", "desc", "# readme", List.of("java"), "Java");
+
+        ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+        verify(analysisCache).find(key.capture());
+        verify(analysisCache).store(key.getValue(), MODEL, AIServiceImpl.ANALYSIS_PROMPT_VERSION, ANALYSIS);
+    }
+
+    @Test
+    void malformedClaudeAnswerIsNotCached() throws Exception {
+        when(analysisCache.find(anyString())).thenReturn(Optional.empty());
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok(claudeMessage("Sorry, I cannot help with that")));
+
+        AIServicePort.ClaudeAnalysisResult result =
+            service.analyzeRepository("repo", "desc", null, List.of(), "Java");
+
+        assertEquals("repo", result.project.name);
+        verify(analysisCache, never()).store(anyString(), anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void changedReadmeMissesTheCache() {
+        when(analysisCache.find(anyString())).thenReturn(Optional.of(ANALYSIS));
+
+        service.analyzeRepository("repo", "desc", "# readme", List.of("java"), "Java");
+        service.analyzeRepository("repo", "desc", "# readme v2", List.of("java"), "Java");
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(analysisCache, times(2)).find(keys.capture());
+        assertNotEquals(keys.getAllValues().get(0), keys.getAllValues().get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void portfolioContextIsSentAsCachedSystemBlock() throws Exception {
+        when(analysisCache.find(anyString())).thenReturn(Optional.empty());
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok(claudeMessage(ANALYSIS)));
+
+        service.analyzeRepository("repo", "desc", "# readme", List.of("java"), "Java");
+
+        Map<String, Object> body = sentRequest();
+        Map<String, Object> system = ((List<Map<String, Object>>) body.get("system")).get(0);
+        assertEquals(Map.of("type", "ephemeral"), system.get("cache_control"));
+        assertTrue(((String) system.get("text")).startsWith("You are creating content"));
+        assertFalse(((String) system.get("text")).contains("Repository Name: repo"));
+        String user = (String) ((List<Map<String, Object>>) body.get("messages")).get(0).get("content");
+        assertTrue(user.contains("Repository Name: repo"));
+        assertFalse(user.contains("Skills Context"));
+        verify(tokenBudgetService).commit(any(), eq(new ClaudeTokenBudgetService.TokenUsage(120, 0, 2400, 300)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void chatSendsCallerInstructionsAsSystemBlock() throws Exception {
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok(claudeMessage("Hola")));
+
+        assertEquals("Hola", service.chat("  Be brief.  ", "Narrate"));
+
+        Map<String, Object> body = sentRequest();
+        Map<String, Object> system = ((List<Map<String, Object>>) body.get("system")).get(0);
+        assertEquals("Be brief.", system.get("text"));
+        assertEquals(List.of(Map.of("role", "user", "content", "Narrate")), body.get("messages"));
+    }
+
+    @Test
+    void chatWithoutInstructionsSendsNoSystemBlock() throws Exception {
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok(claudeMessage("Hola")));
+
+        service.chat("", "Narrate");
+
+        assertFalse(sentRequest().containsKey("system"));
+    }
+
+    @Test
+    void chatAnswerIsNotAFallback() throws Exception {
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok(claudeMessage("Hola")));
+
+        assertEquals(AIServicePort.ChatReply.answered("Hola"), service.chatReply("Be brief.", "Narrate"));
+    }
+
+    @Test
+    void chatWithoutPromptIsAFallback() {
+        assertTrue(service.chatReply("Be brief.", "  ").fallback());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void chatWithoutApiKeyIsAFallback() {
+        AIServiceImpl unconfigured = new AIServiceImpl(restTemplate, new ObjectMapper(), tokenBudgetService, analysisCache,
+            batchClient, singleAttemptPolicies(), new PortfolioPromptContext(skillRepository, experienceRepository, "tone"),
+            new ClaudeRequestCoalescer(Duration.ofMinutes(1), 100, new SimpleMeterRegistry()), "", "http://localhost/v1/messages", MODEL, true);
+
+        AIServicePort.ChatReply reply = unconfigured.chatReply("Be brief.", "Narrate");
+
+        assertTrue(reply.fallback());
+        assertEquals("El análisis AI no está disponible en este momento.", reply.text());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void emptyChatAnswerIsAFallback() throws Exception {
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok(claudeMessage("   ")));
+
+        assertTrue(service.chatReply("Be brief.", "Narrate").fallback());
+    }
+
+    @Test
+    void failedChatCallIsAFallback() {
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenThrow(new ResourceAccessException("connect timed out"));
+
+        assertTrue(service.chatReply("Be brief.", "Narrate").fallback());
+    }
+
+    @Test
+    void failedCallReleasesItsReservation() {
+        grantReservations();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+            .thenThrow(new ResourceAccessException("connect timed out"));
+
+        assertTrue(service.chat("Be brief.", "Narrate").startsWith("Error"));
+
+        ArgumentCaptor<ClaudeTokenBudgetService.TokenReservation> reservation =
+            ArgumentCaptor.forClass(ClaudeTokenBudgetService.TokenReservation.class);
+        verify(tokenBudgetService).release(reservation.capture());
+        verify(tokenBudgetService, never()).commit(any(), any(ClaudeTokenBudgetService.TokenUsage.class));
+        // Worst case reserved: prompt estimate plus the whole max_tokens allowance
+        assertTrue(reservation.getValue().getTokens() >= 1000);
+    }
+
+    @Test
+    void refusedReservationBlocksTheCall() {
+        when(tokenBudgetService.reserve(anyInt(), anyString()))
+            .thenReturn(ClaudeTokenBudgetService.TokenReservation.denied("claude_api_call", "Daily token budget exceeded"));
+
+        service.chat("Be brief.", "Narrate");
+
+        verifyNoInteractions(restTemplate);
+    }
+}
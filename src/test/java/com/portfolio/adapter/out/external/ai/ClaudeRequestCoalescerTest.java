@@ -0,0 +1,105 @@
+package com.portfolio.adapter.out.external.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaudeRequestCoalescerTest {
+
+    private static final AIServiceImpl.ClaudePrompt PROMPT = new AIServiceImpl.ClaudePrompt("context", "Java, Spring");
+
+    private SimpleMeterRegistry registry;
+    private ClaudeRequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        coalescer = new ClaudeRequestCoalescer(Duration.ofMinutes(1), 100, registry);
+    }
+
+    private double count(String outcome) {
+        return registry.get("claude.request.coalescing").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void concurrentIdenticalPromptsShareOneCall() throws Exception {
+        int callers = 20;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            responses.add(pool.submit(() -> coalescer.call(PROMPT, () -> {
+                calls.incrementAndGet();
+                inFlight.countDown();
+                release.await();
+                return "catalytic";
+            })));
+            assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                responses.add(pool.submit(() -> coalescer.call(PROMPT, () -> {
+                    calls.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            // Let the followers reach the in-flight call before it completes
+            while (count("joined") < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> response : responses) {
+                assertEquals("catalytic", response.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, count("called"));
+        assertEquals(callers - 1, count("joined"));
+    }
+
+    @Test
+    void responseIsServedFromCacheWithinTtl() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("first", coalescer.call(PROMPT, () -> {
+            calls.incrementAndGet();
+            return "first";
+        }));
+        assertEquals("first", coalescer.call(PROMPT, () -> {
+            calls.incrementAndGet();
+            return "second";
+        }));
+        assertEquals("other", coalescer.call(new AIServiceImpl.ClaudePrompt("context", "Rust"), () -> "other"));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, count("cached"));
+        assertEquals(2, count("called"));
+    }
+
+    @Test
+    void failedCallIsNotCached() throws Exception {
+        assertThrows(IOException.class, () -> coalescer.call(PROMPT, () -> {
+            throw new IOException("overloaded");
+        }));
+
+        assertEquals("recovered", coalescer.call(PROMPT, () -> "recovered"));
+        assertEquals(2, count("called"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.portfolio.adapter.out.external.ai;
+
+import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.ExperienceJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SkillJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SkillJpaRepository;
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
+import com.portfolio.core.domain.skill.SkillCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioPromptContextTest {
+
+    @Mock
+    private SkillJpaRepository skillRepository;
+
+    @Mock
+    private ExperienceJpaRepository experienceRepository;
+
+    private PortfolioPromptContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new PortfolioPromptContext(skillRepository, experienceRepository, "Tone: catalytic");
+    }
+
+    private static SkillJpaEntity skill(String name) {
+        SkillJpaEntity skill = new SkillJpaEntity();
+        skill.setName(name);
+        skill.setCategory(SkillCategory.BACKEND);
+        return skill;
+    }
+
+    private static ExperienceJpaEntity experience(String jobTitle) {
+        return ExperienceJpaEntity.builder().jobTitle(jobTitle).companyName("Acme").build();
+    }
+
+    @Test
+    void contextIsBuiltOnFirstUseAndReusedUntilAChange() {
+        verifyNoInteractions(skillRepository, experienceRepository);
+        when(skillRepository.findAll()).thenReturn(List.of(skill("Java")));
+        when(experienceRepository.findAll()).thenReturn(List.of(experience("Architect")));
+
+        String text = context.text();
+
+        assertTrue(text.contains("Tone: catalytic"));
+        assertTrue(text.contains("Java"));
+        assertTrue(text.contains("**Architect** at Acme"));
+        assertSame(text, context.text());
+        assertEquals(1, context.version());
+        verify(skillRepository, times(1)).findAll();
+        verify(experienceRepository, times(1)).findAll();
+    }
+
+    @Test
+    void skillChangeRebuildsOnlyTheSkillsSection() {
+        when(skillRepository.findAll()).thenReturn(List.of(skill("Java")), List.of(skill("Java"), skill("Kotlin")));
+        when(experienceRepository.findAll()).thenReturn(List.of(experience("Architect")));
+        context.text();
+
+        context.onContentChanged(PortfolioContentChangedEvent.skills());
+        String text = context.text();
+
+        assertTrue(text.contains("Kotlin"));
+        assertTrue(text.contains("**Architect** at Acme"));
+        assertEquals(2, context.version());
+        verify(skillRepository, times(2)).findAll();
+        verify(experienceRepository, times(1)).findAll();
+    }
+
+    @Test
+    void failedSectionIsRetriedOnNextUse() {
+        when(skillRepository.findAll())
+            .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+            .thenReturn(List.of(skill("Java")));
+
+        assertTrue(context.text().contains("Error loading skills data"));
+        assertTrue(context.text().contains("Java"));
+
+        assertEquals(2, context.version());
+        verify(experienceRepository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,97 @@
+package com.portfolio.adapter.out.persistence.jpa;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SourceRepositoryBulkUpsertRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SourceRepositoryJpaRepository sourceRepositoryRepository;
+
+    @InjectMocks
+    private SourceRepositoryBulkUpsertRepository bulkUpsertRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fallsBackToSaveAllOutsidePostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        List<SourceRepositoryJpaEntity> entities = List.of(repository(1L, List.of("java")));
+        when(sourceRepositoryRepository.saveAll(entities)).thenReturn(entities);
+
+        assertSame(entities, bulkUpsertRepository.upsertAll(entities));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesPageWithOneUpsertAndOneTopicInsert() throws Exception {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        LocalDateTime now = LocalDateTime.now();
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long githubId : new long[]{1L, 2L}) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("github_id")).thenReturn(githubId);
+                when(rs.getLong("id")).thenReturn(githubId * 10);
+                when(rs.getLong("version")).thenReturn(3L);
+                when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(now));
+                when(rs.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(now));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        List<SourceRepositoryJpaEntity> saved = bulkUpsertRepository.upsertAll(List.of(
+            repository(1L, List.of("java", "spring")),
+            repository(2L, List.of("rust"))));
+
+        ArgumentCaptor<String> upsertSql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(upsertSql.capture(), any(RowCallbackHandler.class), any(Object[].class));
+        assertTrue(upsertSql.getValue().contains("ON CONFLICT (github_id) DO UPDATE"));
+        assertEquals(SourceRepositoryBulkUpsertRepository.buildUpsertSql(2), upsertSql.getValue());
+
+        ArgumentCaptor<String> updateSql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(updateSql.capture(), any(Object[].class));
+        assertTrue(updateSql.getAllValues().get(0).startsWith("DELETE FROM source_repository_topics"));
+        assertTrue(updateSql.getAllValues().get(1).endsWith("VALUES (?, ?), (?, ?), (?, ?)"));
+
+        assertEquals(2, saved.size());
+        saved.forEach(entity -> {
+            assertEquals(entity.getGithubId() * 10, entity.getId());
+            assertEquals(3L, entity.getVersion());
+            assertEquals(now, entity.getCreatedAt());
+        });
+        verifyNoInteractions(sourceRepositoryRepository);
+    }
+
+    private SourceRepositoryJpaEntity repository(Long githubId, List<String> topics) {
+        return SourceRepositoryJpaEntity.builder()
+            .githubId(githubId)
+            .name("repo-" + githubId)
+            .fullName("owner/repo-" + githubId)
+            .githubRepoUrl("https://github.com/owner/repo-" + githubId)
+            .topics(topics)
+            .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.portfolio.config;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientPoolConfigTest {
+
+    private final HttpClientPoolConfig config = new HttpClientPoolConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MockWebServer server;
+    private ConnectionProvider pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Metrics.addRegistry(registry);
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (pool != null) {
+            pool.dispose();
+        }
+        server.shutdown();
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void claudeRequestsReusePooledConnections() throws Exception {
+        pool = config.claudeConnectionProvider(4);
+        RestTemplate restTemplate = new RestTemplate(
+            new ReactorClientHttpRequestFactory(HttpClientPoolConfig.pooledClient(pool, "claude")));
+        int requests = 5;
+        for (int i = 0; i < requests; i++) {
+            server.enqueue(new MockResponse().setBody("{\"ok\":true}"));
+        }
+
+        for (int i = 0; i < requests; i++) {
+            assertEquals("{\"ok\":true}", restTemplate.postForObject(server.url("/v1/messages").toString(), "{}", String.class));
+        }
+
+        // Plain HTTP falls back to HTTP/1.1; sequence number 0 marks a request on a new connection
+        int connectionsOpened = 0;
+        for (int i = 0; i < requests; i++) {
+            if (server.takeRequest().getSequenceNumber() == 0) {
+                connectionsOpened++;
+            }
+        }
+        assertTrue(connectionsOpened < requests, "expected pooled connections to be reused");
+    }
+
+    @Test
+    void githubPoolPublishesConnectionMetrics() throws Exception {
+        pool = config.githubConnectionProvider(4);
+        WebClient webClient = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(HttpClientPoolConfig.pooledClient(pool, "github")))
+            .baseUrl(server.url("/").toString())
+            .build();
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        assertEquals("[]", webClient.get().uri("/user/starred").retrieve().bodyToMono(String.class).block());
+        assertEquals("[]", webClient.get().uri("/repos/a/b").retrieve().bodyToMono(String.class).block());
+
+        assertEquals(4, registry.get("reactor.netty.connection.provider.max.connections")
+            .tag("name", "github").gauge().value());
+        assertTrue(registry.get("reactor.netty.connection.provider.total.connections")
+            .tag("name", "github").gauge().value() >= 1);
+        assertNotNull(registry.get("reactor.netty.http.client.response.time").tag("uri", "github").timer());
+    }
+}
@@ -6,7 +6,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Mock Claude AI Service for integration testing.
@@ -84,6 +86,29 @@ public class MockClaudeService {
                     return "Mock AI response to: " + userPrompt;
                 }
             }
+
+            @Override
+            public ChatReply chatReply(String systemPrompt, String userPrompt) {
+                return ChatReply.answered(chat(systemPrompt, userPrompt));
+            }
+
+            @Override
+            public AnalysisBatch submitAnalysisBatch(List<RepositoryAnalysisInput> inputs) {
+                // Everything is answered at once, so no batch is ever submitted
+                Map<String, ClaudeAnalysisResult> ready = new HashMap<>();
+                inputs.forEach(input -> ready.put(input.customId(), analyzeRepository(input.repoName(),
+                        input.description(), input.readmeContent(), input.topics(), input.language())));
+                return new AnalysisBatch(null, ready, Map.of(), Map.of(), Map.of());
+            }
+
+            @Override
+            public AnalysisBatchStatus pollAnalysisBatch(AnalysisBatch batch) {
+                return new AnalysisBatchStatus(true, Map.of(), Map.of());
+            }
+
+            @Override
+            public void cancelAnalysisBatch(AnalysisBatch batch) {
+            }
         };
     }
 }
@@ -0,0 +1,98 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.ClaudeAnalysisCacheJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.ClaudeAnalysisCacheJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaudeAnalysisCacheServiceTest {
+
+    @Mock
+    private ClaudeAnalysisCacheJpaRepository cacheRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ClaudeAnalysisCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ClaudeAnalysisCacheService(cacheRepository, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "retention", Duration.ofDays(90));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("claude.analysis.cache").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void keyChangesWithPromptVersionModelAndPrompt() {
+        String key = ClaudeAnalysisCacheService.key(1, "claude-3-haiku-20240307", "prompt");
+
+        assertEquals(64, key.length());
+        assertEquals(key, ClaudeAnalysisCacheService.key(1, "claude-3-haiku-20240307", "prompt"));
+        assertNotEquals(key, ClaudeAnalysisCacheService.key(2, "claude-3-haiku-20240307", "prompt"));
+        assertNotEquals(key, ClaudeAnalysisCacheService.key(1, "claude-3-5-haiku-latest", "prompt"));
+        assertNotEquals(key, ClaudeAnalysisCacheService.key(1, "claude-3-haiku-20240307", "prompt "));
+    }
+
+    @Test
+    void hitReturnsStoredResponseAndRecordsUse() {
+        when(cacheRepository.findById("k")).thenReturn(Optional.of(
+            new ClaudeAnalysisCacheJpaEntity("k", "model", 1, "{\"project\":{}}")));
+
+        assertEquals(Optional.of("{\"project\":{}}"), service.find("k"));
+        verify(cacheRepository).recordHit(eq("k"), any());
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    void missDoesNotRecordUse() {
+        when(cacheRepository.findById("k")).thenReturn(Optional.empty());
+
+        assertTrue(service.find("k").isEmpty());
+        verify(cacheRepository, never()).recordHit(anyString(), any());
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void unavailableCacheCountsAsMiss() {
+        when(cacheRepository.findById("k")).thenThrow(new IllegalStateException("db down"));
+
+        assertTrue(service.find("k").isEmpty());
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void concurrentStoreOfSameKeyIsIgnored() {
+        when(cacheRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertDoesNotThrow(() -> service.store("k", "model", 1, "{}"));
+    }
+
+    @Test
+    void disabledCacheIsBypassed() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        assertTrue(service.find("k").isEmpty());
+        service.store("k", "model", 1, "{}");
+        verifyNoInteractions(cacheRepository);
+    }
+}
@@ -0,0 +1,208 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
+import com.portfolio.core.port.out.AIServicePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaudeBatchCurationServiceTest {
+
+    @Mock
+    private SourceRepositoryJpaRepository sourceRepositoryRepository;
+
+    @Mock
+    private ReadmeStoreService readmeStoreService;
+
+    @Mock
+    private AIServicePort aiService;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private PortfolioCurationExecutor curationExecutor;
+
+    @Mock
+    private SyncLockRegistry syncLockRegistry;
+
+    @Mock
+    private SyncMonitorService syncMonitorService;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private ClaudeBatchCurationService service;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+        service = new ClaudeBatchCurationService(sourceRepositoryRepository, readmeStoreService, aiService,
+            portfolioService, curationExecutor, syncLockRegistry, syncMonitorService, taskScheduler, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "pollInterval", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(service, "awaitTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "maxLifetime", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "maxRequestsPerBatch", 1000);
+        ReflectionTestUtils.setField(service, "estimatedTokensPerSource", 3000);
+        lenient().when(sourceRepositoryRepository.findAllById(anyIterable())).thenReturn(List.of(source(1L), source(2L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    private static SourceRepositoryJpaEntity source(long id) {
+        return SourceRepositoryJpaEntity.builder()
+            .id(id)
+            .name("repo" + id)
+            .fullName("octocat/repo" + id)
+            .syncStatus(SourceRepositoryJpaEntity.SyncStatus.UNSYNCED)
+            .build();
+    }
+
+    private static AIServicePort.ClaudeAnalysisResult analysis(String name) {
+        return new AIServicePort.ClaudeAnalysisResult(
+            new AIServicePort.ProjectData(name, "d", null, List.of(), ""), List.of(), List.of());
+    }
+
+    private static AIServicePort.RepositoryAnalysisInput input(long id) {
+        return new AIServicePort.RepositoryAnalysisInput("source-" + id, "repo" + id, null, null, null, null);
+    }
+
+    private PortfolioCurationExecutor.CurationResult curateBoth(SyncRunLimits limits) {
+        ClaudeBatchCurationService.MessageBatchCuration batch = service.openBatch(limits);
+        assertTrue(batch.submit(new PortfolioCurationExecutor.CurationTask(1L, "source repo1", false)));
+        assertTrue(batch.submit(new PortfolioCurationExecutor.CurationTask(2L, "source repo2", false)));
+        assertFalse(batch.submit(new PortfolioCurationExecutor.CurationTask(2L, "portfolio repo2", true)));
+        return batch.await();
+    }
+
+    @Test
+    void appliesReadyAnswersAndPolledResults() {
+        AIServicePort.AnalysisBatch submitted = new AIServicePort.AnalysisBatch("msgbatch_1",
+            Map.of("source-1", analysis("cached")), Map.of("source-2", input(2L)), Map.of(), Map.of("source-2", "key"));
+        when(aiService.submitAnalysisBatch(anyList())).thenReturn(submitted);
+        when(aiService.pollAnalysisBatch(submitted)).thenReturn(
+            AIServicePort.AnalysisBatchStatus.inProgress(),
+            new AIServicePort.AnalysisBatchStatus(true, Map.of("source-2", analysis("fresh")), Map.of()));
+
+        PortfolioCurationExecutor.CurationResult result = curateBoth(SyncRunLimits.NONE);
+
+        assertEquals(2, result.curated());
+        verify(portfolioService).curateFromAnalysis(eq(1L), argThat(a -> a.project.name.equals("cached")));
+        verify(portfolioService).curateFromAnalysis(eq(2L), argThat(a -> a.project.name.equals("fresh")));
+        verify(aiService, times(2)).pollAnalysisBatch(submitted);
+        verify(syncLockRegistry).lockRepository(2L);
+    }
+
+    @Test
+    void failedRequestsAndPollErrorsAreRetriedOrCounted() {
+        AIServicePort.AnalysisBatch submitted = new AIServicePort.AnalysisBatch("msgbatch_1",
+            Map.of(), Map.of("source-1", input(1L), "source-2", input(2L)), Map.of(), Map.of());
+        when(aiService.submitAnalysisBatch(anyList())).thenReturn(submitted);
+        when(aiService.pollAnalysisBatch(submitted))
+            .thenThrow(new IllegalStateException("connection reset"))
+            .thenReturn(new AIServicePort.AnalysisBatchStatus(true,
+                Map.of("source-1", analysis("ok")), Map.of("source-2", "expired")));
+
+        PortfolioCurationExecutor.CurationResult result = curateBoth(SyncRunLimits.NONE);
+
+        assertEquals(1, result.curated());
+        assertEquals(1, result.failed());
+        verify(portfolioService, never()).curateFromAnalysis(eq(2L), any());
+    }
+
+    @Test
+    void submissionFailureFallsBackToDirectCuration() {
+        when(aiService.submitAnalysisBatch(anyList())).thenThrow(new IllegalStateException("503"));
+        when(curationExecutor.curateAll(anyList())).thenReturn(
+            new PortfolioCurationExecutor.CurationResult(2, 0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO));
+
+        PortfolioCurationExecutor.CurationResult result = curateBoth(SyncRunLimits.NONE);
+
+        assertEquals(2, result.curated());
+        ArgumentCaptor<List<PortfolioCurationExecutor.CurationTask>> tasks = ArgumentCaptor.forClass(List.class);
+        verify(curationExecutor).curateAll(tasks.capture());
+        assertEquals(List.of(1L, 2L), tasks.getValue().stream().map(PortfolioCurationExecutor.CurationTask::sourceRepositoryId).toList());
+    }
+
+    @Test
+    void batchStillRunningAtTimeoutIsHandedOffAndAppliedWhenItEnds() {
+        ReflectionTestUtils.setField(service, "awaitTimeout", Duration.ofMillis(100));
+        AIServicePort.AnalysisBatch submitted = new AIServicePort.AnalysisBatch("msgbatch_1",
+            Map.of(), Map.of("source-1", input(1L), "source-2", input(2L)), Map.of(), Map.of());
+        when(aiService.submitAnalysisBatch(anyList())).thenReturn(submitted);
+        AtomicBoolean ended = new AtomicBoolean();
+        when(aiService.pollAnalysisBatch(submitted)).thenAnswer(invocation -> ended.get()
+            ? new AIServicePort.AnalysisBatchStatus(true, Map.of("source-1", analysis("late"), "source-2", analysis("late")), Map.of())
+            : AIServicePort.AnalysisBatchStatus.inProgress());
+
+        PortfolioCurationExecutor.CurationResult result = curateBoth(SyncRunLimits.NONE);
+
+        // The run stops waiting without giving up on the batch
+        assertEquals(2, result.skipped());
+        verifyNoInteractions(portfolioService);
+
+        // Sources still in the batch are left out of the next run
+        ClaudeBatchCurationService.MessageBatchCuration next = service.openBatch(SyncRunLimits.NONE);
+        next.submit(new PortfolioCurationExecutor.CurationTask(1L, "source repo1", false));
+        assertEquals(1, next.await().skipped());
+        verify(aiService, times(1)).submitAnalysisBatch(anyList());
+
+        ended.set(true);
+        verify(portfolioService, timeout(2000)).curateFromAnalysis(eq(1L), any());
+        verify(portfolioService, timeout(2000)).curateFromAnalysis(eq(2L), any());
+        verify(aiService, never()).cancelAnalysisBatch(any());
+    }
+
+    @Test
+    void batchNotEndedWithinItsLifetimeIsCancelled() {
+        ReflectionTestUtils.setField(service, "maxLifetime", Duration.ofMillis(200));
+        AIServicePort.AnalysisBatch submitted = new AIServicePort.AnalysisBatch("msgbatch_1",
+            Map.of(), Map.of("source-1", input(1L), "source-2", input(2L)), Map.of(), Map.of());
+        when(aiService.submitAnalysisBatch(anyList())).thenReturn(submitted);
+        when(aiService.pollAnalysisBatch(submitted)).thenReturn(AIServicePort.AnalysisBatchStatus.inProgress());
+
+        PortfolioCurationExecutor.CurationResult result = curateBoth(SyncRunLimits.NONE);
+
+        assertEquals(2, result.failed());
+        verify(aiService).cancelAnalysisBatch(submitted);
+        verifyNoInteractions(portfolioService);
+    }
+
+    @Test
+    void tokenAllowanceCoversTheWholeBatchUpFront() {
+        when(aiService.submitAnalysisBatch(anyList())).thenAnswer(invocation -> new AIServicePort.AnalysisBatch(
+            null, Map.of("source-1", analysis("only")), Map.of(), Map.of(), Map.of()));
+        SyncRunLimits limits = new SyncRunLimits(null, 5000, () -> 0);
+
+        PortfolioCurationExecutor.CurationResult result = curateBoth(limits);
+
+        ArgumentCaptor<List<AIServicePort.RepositoryAnalysisInput>> inputs = ArgumentCaptor.forClass(List.class);
+        verify(aiService).submitAnalysisBatch(inputs.capture());
+        assertEquals(1, inputs.getValue().size());
+        assertEquals(1, result.curated());
+        assertEquals(1, result.skipped());
+        assertEquals(1, limits.getDeferred());
+        verify(aiService, never()).pollAnalysisBatch(any());
+    }
+}
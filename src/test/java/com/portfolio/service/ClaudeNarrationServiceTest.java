@@ -0,0 +1,105 @@
+package com.portfolio.service;
+
+import com.portfolio.core.port.out.AIServicePort;
+import com.portfolio.model.JourneyEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaudeNarrationServiceTest {
+
+    @Mock
+    private AIServicePort aiService;
+
+    @Mock
+    private NarrationMetricsService metricsService;
+
+    @InjectMocks
+    private ClaudeNarrationService narrationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(narrationService, "narrationCacheTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(narrationService, "narrationCacheMaxSize", 100);
+        narrationService.initNarrationCache();
+    }
+
+    private static JourneyEvent event(String type, String key, String value) {
+        return new JourneyEvent(type, 0L, Map.of(key, value));
+    }
+
+    @Test
+    void equivalentJourneysShareACacheKey() {
+        List<JourneyEvent> first = List.of(
+            event("route", "route", "/projects"),
+            event("project_view", "repo", "Portfolio-Spring"),
+            event("project_view", "repo", "journey-ai"),
+            event("project_click", "repo", "portfolio-spring"));
+        List<JourneyEvent> second = List.of(
+            event("route", "route", "/about"),
+            event("project_view", "repo", "journey-ai"),
+            event("project_click", "repo", "portfolio-spring "),
+            event("project_view", "repo", "portfolio-spring"));
+        List<JourneyEvent> deeper = List.of(
+            event("route", "route", "/projects"),
+            event("route", "route", "/skills"),
+            event("project_view", "repo", "portfolio-spring"),
+            event("project_view", "repo", "journey-ai"),
+            event("project_click", "repo", "portfolio-spring"));
+
+        assertEquals(ClaudeNarrationService.narrationCacheKey(first), ClaudeNarrationService.narrationCacheKey(second));
+        assertNotEquals(ClaudeNarrationService.narrationCacheKey(first), ClaudeNarrationService.narrationCacheKey(deeper));
+    }
+
+    @Test
+    void cachedNarrationIsServedWithoutCallingClaude() {
+        when(aiService.chatReply(anyString(), anyString()))
+            .thenReturn(AIServicePort.ChatReply.answered("Arquitectura hexagonal en acción."));
+
+        assertEquals("Arquitectura hexagonal en acción.", narrationService.narration("routes=1;views=2", "first visitor"));
+        assertEquals("Arquitectura hexagonal en acción.", narrationService.narration("routes=1;views=2", "second visitor"));
+
+        verify(aiService, times(1)).chatReply(anyString(), anyString());
+        verify(metricsService).recordNarrationCacheMiss();
+        verify(metricsService).recordNarrationCacheHit();
+    }
+
+    @Test
+    void fallbackReplyIsNotCached() {
+        // Any wording: the reply says it is a fallback
+        when(aiService.chatReply(anyString(), anyString()))
+            .thenReturn(AIServicePort.ChatReply.fallback("El análisis AI no está disponible en este momento."))
+            .thenReturn(AIServicePort.ChatReply.answered("Spring Boot con impacto medible."));
+
+        assertEquals("El análisis AI no está disponible en este momento.", narrationService.narration("routes=1", "first visitor"));
+        assertEquals("Spring Boot con impacto medible.", narrationService.narration("routes=1", "second visitor"));
+
+        verify(aiService, times(2)).chatReply(anyString(), anyString());
+        verify(metricsService, never()).recordNarrationCacheHit();
+    }
+
+    @Test
+    void blankAnswerIsNotCached() {
+        when(aiService.chatReply(anyString(), anyString()))
+            .thenReturn(AIServicePort.ChatReply.answered("  "))
+            .thenReturn(AIServicePort.ChatReply.answered("Microservicios que escalan."));
+
+        narrationService.narration("routes=1", "first visitor");
+        assertEquals("Microservicios que escalan.", narrationService.narration("routes=1", "second visitor"));
+
+        verify(aiService, times(2)).chatReply(anyString(), anyString());
+    }
+}
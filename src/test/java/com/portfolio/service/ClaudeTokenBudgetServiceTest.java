@@ -0,0 +1,165 @@
+package com.portfolio.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaudeTokenBudgetServiceTest {
+
+    @Mock
+    private AlertService alertService;
+
+    private SimpleMeterRegistry registry;
+    private ClaudeTokenBudgetService budget;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        budget = new ClaudeTokenBudgetService(registry, alertService);
+        ReflectionTestUtils.setField(budget, "dailyTokenBudget", 100_000);
+        ReflectionTestUtils.setField(budget, "warnThreshold", 0.8);
+        ReflectionTestUtils.setField(budget, "lowBudgetThreshold", 10_000);
+        budget.init();
+    }
+
+    @Test
+    void promptCacheUsageIsTrackedApartFromUncachedInput() {
+        budget.recordPromptUsage("claude_api_call", new ClaudeTokenBudgetService.TokenUsage(100, 2000, 0, 300));
+        budget.recordPromptUsage("claude_api_call", new ClaudeTokenBudgetService.TokenUsage(100, 0, 2000, 300));
+        budget.recordPromptUsage("claude_api_call", new ClaudeTokenBudgetService.TokenUsage(100, 0, 2000, 300));
+
+        ClaudeTokenBudgetService.BudgetStatus status = budget.getBudgetStatus();
+        assertEquals(300, status.getUncachedInputTokens());
+        assertEquals(2000, status.getCacheWriteInputTokens());
+        assertEquals(4000, status.getCacheReadInputTokens());
+        assertEquals(4000.0 / 6300, budget.getPromptCacheHitRatio(), 1e-9);
+        assertEquals(4000, registry.get("claude.tokens.input").tag("cache", "read").counter().count());
+        assertEquals(900, registry.get("claude.tokens.output").counter().count());
+        assertEquals(4000.0 / 6300, registry.get("claude.prompt_cache.hit_ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void resetClearsPromptCacheUsage() {
+        budget.recordPromptUsage("claude_api_call", new ClaudeTokenBudgetService.TokenUsage(100, 0, 2000, 300));
+
+        budget.resetBudget();
+
+        assertEquals(0, budget.getBudgetStatus().getCacheReadInputTokens());
+        assertEquals(0.0, budget.getPromptCacheHitRatio());
+    }
+
+    @Test
+    void commitChargesReportedUsageAndReturnsTheRestOfTheEstimate() {
+        ClaudeTokenBudgetService.TokenReservation reservation = budget.reserve(5000, "claude_api_call");
+        assertTrue(reservation.isAllowed());
+        assertEquals(95_000, budget.getRemainingTokens());
+        assertEquals(5000, budget.getBudgetStatus().getReservedTokens());
+
+        // 2000 cache-read tokens are billed as 200
+        budget.commit(reservation, new ClaudeTokenBudgetService.TokenUsage(300, 0, 2000, 500));
+        budget.release(reservation);
+
+        assertEquals(1000, budget.getCurrentUsage());
+        assertEquals(0, budget.getBudgetStatus().getReservedTokens());
+        assertEquals(4000, registry.get("claude.tokens.released").counter().count());
+        assertEquals(1000, registry.get("claude.tokens.used").counter().count());
+    }
+
+    @Test
+    void cacheWritesAreBilledAtAQuarterMoreThanInput() {
+        ClaudeTokenBudgetService.TokenReservation reservation = budget.reserve(5000, "claude_api_call");
+
+        // 2000 cache-write tokens are billed as 2500, 1000 cache-read tokens as 100
+        budget.commit(reservation, new ClaudeTokenBudgetService.TokenUsage(100, 2000, 1000, 300));
+
+        assertEquals(3000, budget.getCurrentUsage());
+        assertEquals(3, new ClaudeTokenBudgetService.TokenUsage(0, 2, 0, 0).billedTokens());
+    }
+
+    @Test
+    void releasedReservationGivesTheWholeEstimateBack() {
+        ClaudeTokenBudgetService.TokenReservation reservation = budget.reserve(60_000, "claude_api_call");
+        assertFalse(budget.reserve(60_000, "claude_api_call").isAllowed());
+
+        budget.release(reservation);
+
+        assertEquals(0, budget.getCurrentUsage());
+        assertTrue(budget.reserve(60_000, "claude_api_call").isAllowed());
+    }
+
+    @Test
+    void reservationOutstandingAcrossResetOnlyAddsItsUsage() {
+        ClaudeTokenBudgetService.TokenReservation reservation = budget.reserve(80_000, "claude_api_call");
+        assertTrue(reservation.isAllowed());
+
+        budget.resetBudget();
+        budget.commit(reservation, new ClaudeTokenBudgetService.TokenUsage(1000, 0, 0, 1000));
+
+        // Without the generation check this settles as 2000 - 80000 against the fresh counter
+        assertEquals(2000, budget.getCurrentUsage());
+        assertEquals(0, budget.getBudgetStatus().getReservedTokens());
+        assertTrue(budget.reserve(98_000, "claude_api_call").isAllowed());
+        assertFalse(budget.reserve(1, "claude_api_call").isAllowed());
+    }
+
+    @Test
+    void releaseAfterResetReturnsNothing() {
+        ClaudeTokenBudgetService.TokenReservation reservation = budget.reserve(50_000, "claude_api_call");
+
+        budget.resetBudget();
+        budget.release(reservation);
+
+        assertEquals(0, budget.getCurrentUsage());
+        assertEquals(100_000, budget.getRemainingTokens());
+    }
+
+    @Test
+    void concurrentReservationsNeverOverrunTheBudget() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    ClaudeTokenBudgetService.TokenReservation reservation = budget.reserve(4000, "claude_api_call");
+                    if (reservation.isAllowed()) {
+                        granted.incrementAndGet();
+                        budget.commit(reservation, new ClaudeTokenBudgetService.TokenUsage(500, 0, 0, 500));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Each call settles at 1000 tokens; outstanding reservations may refuse a few that would have fit
+        assertTrue(granted.get() > 0 && granted.get() <= 100);
+        assertEquals(granted.get() * 1000, budget.getCurrentUsage());
+        assertEquals(0, budget.getBudgetStatus().getReservedTokens());
+        assertEquals(granted.get() * 1000, registry.get("claude.tokens.used").counter().count());
+    }
+}
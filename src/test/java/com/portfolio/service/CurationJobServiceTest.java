@@ -0,0 +1,181 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.CurationJobJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.CurationJobJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurationJobServiceTest {
+
+    @Mock
+    private CurationJobJpaRepository jobRepository;
+
+    @Mock
+    private SyncMonitorService syncMonitorService;
+
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CurationJobService service;
+
+    @BeforeEach
+    void setUp() {
+        when(clusterLeaseService.getInstanceId()).thenReturn("node-a:1234");
+        service = new CurationJobService(jobRepository, syncMonitorService, meterRegistry,
+            new SyncMetricsService(meterRegistry), clusterLeaseService);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "lease", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "retryBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(service, "maxRetryBackoff", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "budgetDeferral", Duration.ofHours(1));
+    }
+
+    private CurationJobJpaEntity job(long id, CurationJobJpaEntity.Status status, int attempts) {
+        CurationJobJpaEntity job = new CurationJobJpaEntity(100 + id, "batch", false);
+        job.setId(id);
+        job.setStatus(status);
+        job.setAttempts(attempts);
+        return job;
+    }
+
+    private CurationJobJpaEntity claimedJob(long id, int attempts) {
+        CurationJobJpaEntity job = job(id, CurationJobJpaEntity.Status.RUNNING, attempts);
+        job.setLeaseOwner(service.getInstanceId());
+        when(jobRepository.findById(id)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private static PortfolioCurationExecutor.CurationOutcome outcome(PortfolioCurationExecutor.CurationStatus status) {
+        return new PortfolioCurationExecutor.CurationOutcome(status, status == PortfolioCurationExecutor.CurationStatus.CURATED ? null : "boom");
+    }
+
+    @Test
+    void claimLeasesJobsToThisInstance() {
+        CurationJobJpaEntity pending = job(1, CurationJobJpaEntity.Status.PENDING, 0);
+        when(jobRepository.lockClaimable(any(LocalDateTime.class), eq(2))).thenReturn(List.of(pending));
+
+        List<CurationJobJpaEntity> claimed = service.claim(2);
+
+        assertEquals(List.of(pending), claimed);
+        assertEquals(CurationJobJpaEntity.Status.RUNNING, pending.getStatus());
+        assertEquals(service.getInstanceId(), pending.getLeaseOwner());
+        assertEquals(1, pending.getAttempts());
+        assertTrue(pending.getLeaseExpiresAt().isAfter(LocalDateTime.now().plusMinutes(9)));
+    }
+
+    @Test
+    void expiredLeaseWithoutAttemptsLeftIsDeadLettered() {
+        CurationJobJpaEntity crashed = job(1, CurationJobJpaEntity.Status.RUNNING, 3);
+        crashed.setLeaseOwner("other-node");
+        CurationJobJpaEntity expired = job(2, CurationJobJpaEntity.Status.RUNNING, 1);
+        expired.setLeaseOwner("other-node");
+        when(jobRepository.lockClaimable(any(LocalDateTime.class), anyInt())).thenReturn(List.of(crashed, expired));
+
+        List<CurationJobJpaEntity> claimed = service.claim(5);
+
+        assertEquals(List.of(expired), claimed);
+        assertEquals(CurationJobJpaEntity.Status.DEAD, crashed.getStatus());
+        assertEquals(service.getInstanceId(), expired.getLeaseOwner());
+        assertEquals(2, expired.getAttempts());
+    }
+
+    @Test
+    void completedJobIsDone() {
+        CurationJobJpaEntity job = claimedJob(1, 1);
+
+        service.finish(1L, outcome(PortfolioCurationExecutor.CurationStatus.CURATED));
+
+        assertEquals(CurationJobJpaEntity.Status.DONE, job.getStatus());
+        assertNull(job.getLeaseOwner());
+    }
+
+    @Test
+    void failedJobIsRetriedWithBackoff() {
+        CurationJobJpaEntity job = claimedJob(1, 2);
+
+        service.finish(1L, outcome(PortfolioCurationExecutor.CurationStatus.FAILED));
+
+        assertEquals(CurationJobJpaEntity.Status.PENDING, job.getStatus());
+        assertEquals("boom", job.getLastError());
+        // Second attempt failed: 30s * 2
+        assertTrue(job.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+    }
+
+    @Test
+    void failedJobOnLastAttemptIsDeadLettered() {
+        CurationJobJpaEntity job = claimedJob(1, 3);
+
+        service.finish(1L, outcome(PortfolioCurationExecutor.CurationStatus.FAILED));
+
+        assertEquals(CurationJobJpaEntity.Status.DEAD, job.getStatus());
+        assertEquals(1.0, meterRegistry.counter("curation.jobs.dead").count());
+    }
+
+    @Test
+    void budgetExhaustionDefersWithoutUsingAnAttempt() {
+        CurationJobJpaEntity job = claimedJob(1, 1);
+
+        service.finish(1L, outcome(PortfolioCurationExecutor.CurationStatus.BUDGET_EXHAUSTED));
+
+        assertEquals(CurationJobJpaEntity.Status.PENDING, job.getStatus());
+        assertEquals(0, job.getAttempts());
+        assertTrue(job.getAvailableAt().isAfter(LocalDateTime.now().plusMinutes(59)));
+    }
+
+    @Test
+    void outcomeIsDiscardedWhenLeaseWasLost() {
+        CurationJobJpaEntity job = job(1, CurationJobJpaEntity.Status.RUNNING, 1);
+        job.setLeaseOwner("other-node");
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        service.finish(1L, outcome(PortfolioCurationExecutor.CurationStatus.CURATED));
+
+        assertEquals(CurationJobJpaEntity.Status.RUNNING, job.getStatus());
+        assertEquals("other-node", job.getLeaseOwner());
+    }
+
+    @Test
+    void enqueueSkipsSourcesWithActiveJob() {
+        PortfolioCurationExecutor.CurationTask task = new PortfolioCurationExecutor.CurationTask(7L, "source", false);
+        when(jobRepository.findSourceIdsWithStatusIn(anyCollection(), anyCollection())).thenReturn(List.of(7L));
+
+        assertFalse(service.enqueue(task, "batch"));
+        verify(jobRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void enqueueTreatsUniqueViolationAsAlreadyQueued() {
+        PortfolioCurationExecutor.CurationTask task = new PortfolioCurationExecutor.CurationTask(7L, "source", false);
+        when(jobRepository.findSourceIdsWithStatusIn(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(jobRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_curation_jobs_active_source"));
+
+        assertFalse(service.enqueue(task, "batch"));
+    }
+
+    @Test
+    void retryDelayIsCapped() {
+        assertEquals(Duration.ofSeconds(30), service.retryDelay(1));
+        assertEquals(Duration.ofSeconds(120), service.retryDelay(3));
+        assertEquals(Duration.ofMinutes(10), service.retryDelay(12));
+    }
+}
@@ -3,6 +3,7 @@ package com.portfolio.service;
 import com.portfolio.adapter.out.persistence.jpa.*;
 import com.portfolio.core.domain.admin.ResetAudit;
 import com.portfolio.core.domain.admin.ResetStatus;
+import com.portfolio.core.domain.shared.PortfolioContentChangedEvent;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -56,6 +58,9 @@ class FactoryResetServiceTest {
     @Mock
     private com.portfolio.repository.VisitorInsightRepository visitorInsightRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private FactoryResetService factoryResetService;
 
@@ -283,7 +288,7 @@ class FactoryResetServiceTest {
         int result = factoryResetService.performH2Reset(jobId);
 
         // Then
-        assertThat(result).isEqualTo(6);  // 6 repositories: source, project, experience, skill, contact, visitor
+        assertThat(result).isEqualTo(11);  // 6 repositories plus 5 sync state tables
 
         verify(sourceRepositoryRepository).deleteAllInBatch();
         verify(projectRepository).deleteAllInBatch();
@@ -291,7 +296,27 @@ class FactoryResetServiceTest {
         verify(skillRepository).deleteAllInBatch();
         verify(contactMessageRepository).deleteAllInBatch();
         verify(visitorInsightRepository).deleteAllInBatch();
-        verify(entityManager, times(6)).createNativeQuery(anyString());
+        verify(entityManager).createNativeQuery("DELETE FROM sync_run_items");
+        verify(entityManager).createNativeQuery("DELETE FROM sync_runs");
+        verify(entityManager).createNativeQuery("DELETE FROM curation_jobs");
+        verify(entityManager).createNativeQuery("DELETE FROM github_etag_cache");
+        verify(entityManager).createNativeQuery("DELETE FROM cluster_leases");
+        verify(entityManager, times(11)).createNativeQuery(anyString());  // 5 deletes, 6 sequence resets
+    }
+
+    @Test
+    void performFactoryResetAsync_ShouldPublishContentChangedEvents() {
+        // Given
+        String jobId = "test-job-id";
+        when(entityManager.createNativeQuery(anyString())).thenReturn(mock(Query.class));
+
+        // When
+        factoryResetService.performFactoryResetAsync(jobId);
+
+        // Then - cached skills and experiences are dropped after the reset
+        verify(eventPublisher).publishEvent(PortfolioContentChangedEvent.skills());
+        verify(eventPublisher).publishEvent(PortfolioContentChangedEvent.experiences());
+        verifyNoMoreInteractions(eventPublisher);
     }
 
     @Test
@@ -0,0 +1,183 @@
+package com.portfolio.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for header-driven GitHub pacing against a MockWebServer stand-in
+ */
+class GitHubRateLimitServiceTest {
+
+    private MockWebServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private GitHubRateLimitService rateLimitService;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new GitHubRateLimitService(meterRegistry, 0.2, Duration.ofSeconds(10));
+        webClient = WebClient.builder()
+            .baseUrl(server.url("/").toString())
+            .filter(rateLimitService.filter())
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void remainingQuotaGaugeFollowsResponseHeaders() {
+        server.enqueue(quotaResponse(200, 5000, 4321, epochSecondsFromNow(3600)));
+
+        get();
+
+        assertEquals(4321, rateLimitService.getRemaining());
+        assertEquals(4321.0, meterRegistry.get("github.ratelimit.remaining").tag("resource", "core").gauge().value());
+    }
+
+    @Test
+    void graphQlQuotaIsKeptApartFromTheRestQuota() {
+        server.enqueue(quotaResponse(200, 5000, 4321, epochSecondsFromNow(3600)));
+        server.enqueue(quotaResponse(200, 5000, 0, epochSecondsFromNow(3600))
+            .addHeader("X-RateLimit-Resource", "graphql"));
+        server.enqueue(quotaResponse(200, 5000, 4320, epochSecondsFromNow(3600)));
+
+        get();
+        webClient.post().uri("/graphql").retrieve().toBodilessEntity().block(Duration.ofSeconds(15));
+
+        assertEquals(4321, rateLimitService.getRemaining());
+        assertEquals(0, rateLimitService.getRemaining("graphql"));
+        assertEquals(0.0, meterRegistry.get("github.ratelimit.remaining").tag("resource", "graphql").gauge().value());
+        // The spent GraphQL quota holds back GraphQL requests only
+        long elapsed = timed(this::get);
+        assertTrue(elapsed < 500, "REST request waited for the GraphQL quota: " + elapsed + " ms");
+        assertEquals(Duration.ofSeconds(10), rateLimitService.reserveSlot("graphql"));
+    }
+
+    @Test
+    void plentyOfQuotaIsNotThrottled() {
+        server.enqueue(quotaResponse(200, 5000, 4000, epochSecondsFromNow(3600)));
+        server.enqueue(quotaResponse(200, 5000, 3999, epochSecondsFromNow(3600)));
+
+        get();
+        long elapsed = timed(this::get);
+
+        assertTrue(elapsed < 500, "unexpected delay: " + elapsed + " ms");
+        assertEquals(0.0, meterRegistry.get("github.ratelimit.throttled").counter().count());
+    }
+
+    @Test
+    void exhaustedQuotaWaitsForReset() {
+        server.enqueue(quotaResponse(200, 60, 0, epochSecondsFromNow(2)));
+        server.enqueue(quotaResponse(200, 60, 60, epochSecondsFromNow(3600)));
+
+        get();
+        long elapsed = timed(this::get);
+
+        assertTrue(elapsed >= 900, "request was not held until reset: " + elapsed + " ms");
+        assertEquals(1.0, meterRegistry.get("github.ratelimit.throttled").counter().count());
+    }
+
+    @Test
+    void secondaryLimitRetryAfterBlocksFollowingRequests() {
+        server.enqueue(new MockResponse().setResponseCode(403)
+            .addHeader("Retry-After", "1")
+            .addHeader("X-RateLimit-Limit", "5000")
+            .addHeader("X-RateLimit-Remaining", "4000")
+            .addHeader("X-RateLimit-Reset", String.valueOf(epochSecondsFromNow(3600))));
+        server.enqueue(quotaResponse(200, 5000, 3999, epochSecondsFromNow(3600)));
+
+        getIgnoringErrors();
+        long elapsed = timed(this::get);
+
+        assertTrue(elapsed >= 900, "Retry-After was not honoured: " + elapsed + " ms");
+        assertEquals(1.0, meterRegistry.get("github.ratelimit.blocked").counter().count());
+    }
+
+    @Test
+    void permissionDeniedIsNotTreatedAsRateLimit() {
+        server.enqueue(quotaResponse(403, 5000, 4000, epochSecondsFromNow(3600)));
+        server.enqueue(quotaResponse(200, 5000, 3999, epochSecondsFromNow(3600)));
+
+        getIgnoringErrors();
+        long elapsed = timed(this::get);
+
+        assertTrue(elapsed < 500, "unexpected delay: " + elapsed + " ms");
+        assertEquals(0.0, meterRegistry.get("github.ratelimit.blocked").counter().count());
+    }
+
+    @Test
+    void secondaryLimitMessageWithoutRetryAfterBlocksForAMinute() {
+        server.enqueue(quotaResponse(403, 5000, 4000, epochSecondsFromNow(3600))
+            .setBody("{\"message\":\"You have exceeded a secondary rate limit. Please wait a few minutes before you try again.\"}"));
+
+        String body = webClient.get().uri("/rate_limited")
+            .exchangeToMono(response -> response.bodyToMono(String.class))
+            .block(Duration.ofSeconds(15));
+
+        // The caller still gets the message, and the next request waits (capped by max-wait)
+        assertTrue(body.contains("secondary rate limit"));
+        assertEquals(1.0, meterRegistry.get("github.ratelimit.blocked").counter().count());
+        assertEquals(Duration.ofSeconds(10), rateLimitService.reserveSlot());
+    }
+
+    @Test
+    void lowQuotaIsSpreadUntilReset() {
+        // 10 of 100 left with ~3s to reset: requests are spaced roughly 300 ms apart
+        server.enqueue(quotaResponse(200, 100, 10, epochSecondsFromNow(3)));
+        server.enqueue(quotaResponse(200, 100, 9, epochSecondsFromNow(3)));
+        server.enqueue(quotaResponse(200, 100, 8, epochSecondsFromNow(3)));
+
+        get();
+        long elapsed = timed(() -> {
+            get();
+            get();
+        });
+
+        assertTrue(elapsed >= 200, "requests were not paced: " + elapsed + " ms");
+        assertTrue(meterRegistry.get("github.ratelimit.throttled").counter().count() >= 1.0);
+    }
+
+    private MockResponse quotaResponse(int status, long limit, long remaining, long reset) {
+        return new MockResponse().setResponseCode(status)
+            .setHeader("Content-Type", "application/json")
+            .setBody("{}")
+            .addHeader("X-RateLimit-Limit", String.valueOf(limit))
+            .addHeader("X-RateLimit-Remaining", String.valueOf(remaining))
+            .addHeader("X-RateLimit-Reset", String.valueOf(reset));
+    }
+
+    private void get() {
+        webClient.get().uri("/rate_limited").retrieve().toBodilessEntity().block(Duration.ofSeconds(15));
+    }
+
+    private void getIgnoringErrors() {
+        webClient.get().uri("/rate_limited").exchangeToMono(response -> response.releaseBody())
+            .block(Duration.ofSeconds(15));
+    }
+
+    private long timed(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private long epochSecondsFromNow(long seconds) {
+        return System.currentTimeMillis() / 1000 + seconds;
+    }
+}
@@ -0,0 +1,686 @@
+package com.portfolio.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.adapter.out.persistence.jpa.GitHubEtagJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.GitHubEtagJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.ReadmeBlobJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryBulkUpsertRepository;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
+import com.portfolio.config.FeatureFlagsConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Starred ingest against a MockWebServer stand-in for the GitHub API, with the
+ * persistence layer mocked. Responses are served by path, so concurrent README
+ * requests do not depend on arrival order; GraphQL pages are keyed by their cursor.
+ */
+@ExtendWith(MockitoExtension.class)
+class GitHubSourceRepositoryServiceTest {
+
+    @Mock
+    private SourceRepositoryJpaRepository sourceRepositoryRepository;
+
+    @Mock
+    private SyncMonitorService syncMonitorService;
+
+    @Mock
+    private GitHubSyncProgressService progressService;
+
+    @Mock
+    private GitHubEtagJpaRepository etagRepository;
+
+    @Mock
+    private ReadmeBlobJpaRepository readmeBlobRepository;
+
+    @Mock
+    private SourceRepositoryBulkUpsertRepository bulkUpsertRepository;
+
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final Map<String, MockResponse> responses = new ConcurrentHashMap<>();
+    private final List<RecordedRequest> requests = new ArrayList<>();
+    private MockWebServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private GitHubSourceRepositoryService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                synchronized (requests) {
+                    requests.add(request);
+                }
+                MockResponse response = responses.get(responseKey(request));
+                return response != null ? response : new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+
+        // Leases are free; a stored upsert comes back as written
+        lenient().when(clusterLeaseService.tryAcquireAll(anyCollection(), any()))
+            .thenAnswer(invocation -> Set.copyOf(invocation.<Collection<String>>getArgument(0)));
+        lenient().when(bulkUpsertRepository.upsertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        FeatureFlagsConfig featureFlags = new FeatureFlagsConfig();
+        SyncLockRegistry syncLockRegistry = new SyncLockRegistry(clusterLeaseService, featureFlags, taskScheduler,
+            meterRegistry, Duration.ofMinutes(5), Duration.ofMinutes(5), Duration.ofSeconds(1));
+        ResiliencePolicyService resiliencePolicies = new ResiliencePolicyService(CircuitBreakerRegistry.ofDefaults(),
+            RetryRegistry.ofDefaults(), RateLimiterRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), 4);
+
+        service = new GitHubSourceRepositoryService(sourceRepositoryRepository, syncMonitorService, progressService,
+            WebClient.builder(), new GitHubEtagCacheService(etagRepository, meterRegistry),
+            new GitHubRateLimitService(meterRegistry, 0.2, Duration.ofSeconds(10)),
+            new ReadmeStoreService(readmeBlobRepository), bulkUpsertRepository, syncLockRegistry,
+            new SyncMetricsService(meterRegistry), resiliencePolicies);
+        ReflectionTestUtils.setField(service, "githubToken", "test-token");
+        ReflectionTestUtils.setField(service, "githubBaseUrl", server.url("/").toString().replaceAll("/$", ""));
+        ReflectionTestUtils.setField(service, "githubUsername", "testuser");
+        ReflectionTestUtils.setField(service, "readmeFetchConcurrency", 4);
+        ReflectionTestUtils.setField(service, "readmeMaxRetries", 2);
+        ReflectionTestUtils.setField(service, "starredIncremental", true);
+        ReflectionTestUtils.setField(service, "starredMaxPages", 100);
+        ReflectionTestUtils.setField(service, "ingestMode", "rest");
+        ReflectionTestUtils.setField(service, "graphQlPageSize", 25);
+        service.initializeWebClient();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void failedReadmeFetchKeepsStoredReadme() {
+        SourceRepositoryJpaEntity stored = storedRepository(10L, 1L, "repo-one", "2024-01-01T00:00:00Z");
+        stored.setReadmeSha("oldsha");
+        stored.setReadmeSize(12);
+        when(sourceRepositoryRepository.count()).thenReturn(1L);
+        when(sourceRepositoryRepository.findAllWithTopicsByGithubIdIn(anyCollection())).thenReturn(List.of(stored));
+        responses.put(starredPath(1), json(starredJson(repoJson(1L, "repo-one", "2024-02-01T00:00:00Z"))));
+        responses.put("/repos/testuser/repo-one/readme", new MockResponse().setResponseCode(500));
+
+        service.syncStarredRepositories();
+
+        assertEquals("oldsha", stored.getReadmeSha());
+        assertEquals(12, stored.getReadmeSize());
+        // Metadata changed and is written, still pointing at the stored blob; no README result is saved
+        verify(bulkUpsertRepository).upsertAll(argThat(saved -> saved.size() == 1
+            && "oldsha".equals(saved.get(0).getReadmeSha())));
+        verify(sourceRepositoryRepository, never()).saveAll(anyIterable());
+        verify(readmeBlobRepository, never()).saveAll(anyIterable());
+        assertTrue(requests.stream().anyMatch(request -> "/repos/testuser/repo-one/readme".equals(request.getPath())));
+    }
+
+    @Test
+    void readmeFailingBeyondMaxRetriesNoLongerHoldsTheIngestOpen() {
+        ReflectionTestUtils.setField(service, "readmeMaxRetries", 0);
+        SourceRepositoryJpaEntity stored = storedRepository(10L, 1L, "repo-one", "2024-01-01T00:00:00Z");
+        stored.setReadmeSha("oldsha");
+        when(sourceRepositoryRepository.count()).thenReturn(1L);
+        when(sourceRepositoryRepository.findAllWithTopicsByGithubIdIn(anyCollection())).thenReturn(List.of(stored));
+        responses.put(starredPath(1), json(starredJson(repoJson(1L, "repo-one", "2024-02-01T00:00:00Z"))));
+        responses.put("/repos/testuser/repo-one/readme", new MockResponse().setResponseCode(500));
+
+        service.syncStarredRepositories();
+
+        assertEquals("oldsha", stored.getReadmeSha());
+        verify(syncMonitorService).appendLog("WARN",
+            "1 READMEs still failing after 1 attempts - stored READMEs were kept, giving up on them");
+    }
+
+    @Test
+    void missingReadmeClearsStoredReadme() {
+        SourceRepositoryJpaEntity stored = storedRepository(10L, 1L, "repo-one", "2024-01-01T00:00:00Z");
+        stored.setReadmeSha("oldsha");
+        stored.setReadmeSize(12);
+        when(sourceRepositoryRepository.count()).thenReturn(1L);
+        when(sourceRepositoryRepository.findAllWithTopicsByGithubIdIn(anyCollection())).thenReturn(List.of(stored));
+        responses.put(starredPath(1), json(starredJson(repoJson(1L, "repo-one", "2024-02-01T00:00:00Z"))));
+        // No README response: the dispatcher answers 404
+
+        service.syncStarredRepositories();
+
+        assertNull(stored.getReadmeSha());
+        assertNull(stored.getReadmeSize());
+        verify(sourceRepositoryRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void unchangedStarredPageIsAnsweredWith304AndNotWrittenAgain() {
+        Map<String, GitHubEtagJpaEntity> storedValidators = storeValidatorsInMemory();
+        SourceRepositoryJpaEntity stored = storedRepository(10L, 1L, "repo-one", "2024-01-01T00:00:00Z");
+        stored.setReadmeSha("oldsha");
+        when(sourceRepositoryRepository.count()).thenReturn(1L);
+        when(sourceRepositoryRepository.findAllWithTopicsByGithubIdIn(anyCollection())).thenReturn(List.of(stored));
+        responses.put(starredPath(1), json(starredJson(repoJson(1L, "repo-one", "2024-02-01T00:00:00Z")))
+            .setHeader(HttpHeaders.ETAG, "\"page-1\""));
+        responses.put("/repos/testuser/repo-one/readme", json("""
+            {"sha": "newsha", "encoding": "base64", "content": "IyBSZXBvIG9uZQ=="}"""));
+
+        service.syncStarredRepositories();
+
+        assertNull(starredRequests().get(0).getHeader(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("\"page-1\"", storedValidators.get(starredPath(1)).getEtag());
+        verify(bulkUpsertRepository).upsertAll(anyList());
+
+        // Second sync: the stored ETag is replayed and GitHub answers 304
+        responses.put(starredPath(1), new MockResponse().setResponseCode(304));
+
+        service.syncStarredRepositories();
+
+        List<RecordedRequest> starred = starredRequests();
+        assertEquals(2, starred.size());
+        assertEquals("\"page-1\"", starred.get(1).getHeader(HttpHeaders.IF_NONE_MATCH));
+        // Nothing from the 304 page is read back or written
+        verify(sourceRepositoryRepository, times(1)).findAllWithTopicsByGithubIdIn(anyCollection());
+        verify(bulkUpsertRepository, times(1)).upsertAll(anyList());
+        assertEquals(1.0, conditionalRequests("miss", "starred"));
+        assertEquals(1.0, conditionalRequests("hit", "starred"));
+    }
+
+    @Test
+    void fullIngestFollowsLinkHeaderToTheLastPage() {
+        when(sourceRepositoryRepository.count()).thenReturn(0L);
+        responses.put(starredPath(1), json(starredPage(1, 100)).setHeader(HttpHeaders.LINK, links(2, 3)));
+        responses.put(starredPath(2), json(starredPage(101, 100)).setHeader(HttpHeaders.LINK, links(3, 3)));
+        responses.put(starredPath(3), json(starredPage(201, 50)));
+
+        service.syncStarredRepositories();
+
+        assertEquals(List.of(starredPath(1), starredPath(2), starredPath(3)),
+            starredRequests().stream().map(RecordedRequest::getPath).toList());
+        verify(bulkUpsertRepository, times(3)).upsertAll(anyList());
+        verify(syncMonitorService).recordIngestCounts(250, 0, 0);
+
+        // rel="last" from page 1 gives later pages a known total
+        ArgumentCaptor<GitHubSyncProgressService.SyncProgressEvent> events =
+            ArgumentCaptor.forClass(GitHubSyncProgressService.SyncProgressEvent.class);
+        verify(progressService, atLeastOnce()).broadcastProgress(anyString(), events.capture());
+        Map<String, Integer> fetchProgress = events.getAllValues().stream()
+            .filter(event -> event.phase == GitHubSyncProgressService.SyncPhase.FETCHING_REPOS)
+            .collect(Collectors.toMap(event -> event.message, event -> event.progressPercentage));
+        assertEquals(Map.of(
+            "Fetching starred repositories page 1...", 10,
+            "Fetching starred repositories page 2/3...", 36,
+            "Fetching starred repositories page 3/3...", 63), fetchProgress);
+    }
+
+    @Test
+    void incrementalIngestStopsAtAFullyUnchangedPage() {
+        List<SourceRepositoryJpaEntity> stored = new ArrayList<>();
+        for (long githubId = 1; githubId <= 100; githubId++) {
+            SourceRepositoryJpaEntity repository = storedRepository(githubId + 1000, githubId, "repo-" + githubId,
+                "2024-01-01T00:00:00Z");
+            repository.setReadmeSha("sha-" + githubId);
+            stored.add(repository);
+        }
+        when(sourceRepositoryRepository.count()).thenReturn(100L);
+        when(sourceRepositoryRepository.findAllWithTopicsByGithubIdIn(anyCollection())).thenReturn(stored);
+        responses.put(starredPath(1), json(starredPage(1, 100)).setHeader(HttpHeaders.LINK, links(2, 3)));
+        responses.put(starredPath(2), json(starredPage(101, 100)).setHeader(HttpHeaders.LINK, links(3, 3)));
+
+        service.syncStarredRepositories();
+
+        assertEquals(List.of(starredPath(1)), starredRequests().stream().map(RecordedRequest::getPath).toList());
+        verify(bulkUpsertRepository, never()).upsertAll(anyList());
+        verify(syncMonitorService).recordIngestCounts(0, 0, 100);
+        verify(syncMonitorService).appendLog("INFO",
+            "Page 1 contains only known, unchanged repositories - stopping incremental ingest");
+    }
+
+    @Test
+    void linkHeaderIsReducedToRequestPaths() {
+        Map<String, String> links = GitHubSourceRepositoryService.parseLinkHeader(
+            "<https://api.github.com/user/1/starred?per_page=100&page=2>; rel=\"next\", "
+                + "<https://api.github.com/user/1/starred?per_page=100&page=7>; rel=\"last\"");
+
+        assertEquals(Map.of(
+            "next", "/user/1/starred?per_page=100&page=2",
+            "last", "/user/1/starred?per_page=100&page=7"), links);
+        assertTrue(GitHubSourceRepositoryService.parseLinkHeader(null).isEmpty());
+        assertTrue(GitHubSourceRepositoryService.parseLinkHeader("").isEmpty());
+    }
+
+    @Test
+    void graphQlIngestMapsNodesAndPrefetchesReadmes() throws IOException {
+        ReflectionTestUtils.setField(service, "ingestMode", "graphql");
+        responses.put(graphQlKey(null), json(graphQlPage(2, true, "cursor-1", """
+            {"databaseId": 1, "name": "repo-one", "nameWithOwner": "testuser/repo-one",
+             "description": "First repository", "url": "https://github.com/testuser/repo-one", "homepageUrl": "",
+             "isFork": true, "stargazerCount": 42, "createdAt": "2023-01-01T00:00:00Z",
+             "updatedAt": "2024-01-01T00:00:00Z", "pushedAt": "2024-01-02T00:00:00Z",
+             "primaryLanguage": {"name": "Java"},
+             "repositoryTopics": {"nodes": [{"topic": {"name": "spring"}}, {"topic": {"name": "graphql"}}]},
+             "readmeMd": null, "readmeLowerMd": {"oid": "readme-oid", "text": "# Repo one"}}""")));
+        responses.put(graphQlKey("cursor-1"), json(graphQlPage(2, false, "cursor-2", """
+            {"databaseId": 2, "name": "repo-two", "nameWithOwner": "testuser/repo-two",
+             "url": "https://github.com/testuser/repo-two", "homepageUrl": "https://repo-two.dev",
+             "isFork": false, "stargazerCount": 0, "updatedAt": "2024-03-01T00:00:00Z",
+             "primaryLanguage": null, "repositoryTopics": {"nodes": []}}""")));
+        // No README under any aliased name: REST /readme resolves whatever name it has
+        responses.put("/repos/testuser/repo-two/readme", json("""
+            {"sha": "rest-sha", "encoding": "base64", "content": "UmVwbyB0d28="}"""));
+
+        service.syncStarredRepositories();
+
+        // One query per page, the second continuing from the first page's end cursor
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> variables = new ArrayList<>();
+        for (RecordedRequest request : requests) {
+            if (!"/graphql".equals(request.getPath())) {
+                continue;
+            }
+            variables.add(objectMapper.readTree(request.getBody().clone().readUtf8()).path("variables"));
+        }
+        assertEquals(2, variables.size());
+        assertTrue(variables.get(0).path("after").isNull());
+        assertEquals("cursor-1", variables.get(1).path("after").asText());
+        assertEquals("testuser", variables.get(0).path("login").asText());
+        assertEquals(25, variables.get(0).path("first").asInt());
+
+        ArgumentCaptor<List<SourceRepositoryJpaEntity>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(bulkUpsertRepository, times(2)).upsertAll(upserts.capture());
+        SourceRepositoryJpaEntity first = upserts.getAllValues().get(0).get(0);
+        assertEquals(1L, first.getGithubId());
+        assertEquals("repo-one", first.getName());
+        assertEquals("testuser/repo-one", first.getFullName());
+        assertEquals("First repository", first.getDescription());
+        assertEquals("https://github.com/testuser/repo-one", first.getGithubRepoUrl());
+        assertNull(first.getHomepage());
+        assertEquals("Java", first.getLanguage());
+        assertTrue(first.getFork());
+        assertEquals(42, first.getStargazersCount());
+        assertEquals(List.of("spring", "graphql"), first.getTopics());
+        assertEquals("2024-01-01T00:00:00Z", first.getGithubUpdatedAt());
+        assertEquals("2024-01-02T00:00:00Z", first.getGithubPushedAt());
+        // README text came with the metadata: stored as a blob, no REST README request
+        assertTrue(requests.stream().noneMatch(request -> "/repos/testuser/repo-one/readme".equals(request.getPath())));
+        assertEquals("readme-oid", first.getReadmeSha());
+        assertEquals("# Repo one".length(), first.getReadmeSize());
+        verify(readmeBlobRepository, times(2)).saveAll(anyIterable());
+
+        SourceRepositoryJpaEntity second = upserts.getAllValues().get(1).get(0);
+        assertEquals(2L, second.getGithubId());
+        assertEquals("https://repo-two.dev", second.getHomepage());
+        assertNull(second.getLanguage());
+        assertEquals("rest-sha", second.getReadmeSha());
+        verify(syncMonitorService).recordIngestCounts(2, 0, 0);
+    }
+
+    @Test
+    void failingGraphQlRequestIsRetriedBeforeFallingBackToRest() {
+        ReflectionTestUtils.setField(service, "ingestMode", "graphql");
+        responses.put(graphQlKey(null), new MockResponse().setResponseCode(503));
+        responses.put(starredPath(1), json(starredJson(repoJson(1L, "repo-one", "2024-02-01T00:00:00Z"))));
+
+        service.syncStarredRepositories();
+
+        // Default retry policy: three attempts
+        assertEquals(3, requests.stream().filter(request -> "/graphql".equals(request.getPath())).count());
+        assertEquals(1, starredRequests().size());
+        verify(bulkUpsertRepository).upsertAll(anyList());
+    }
+
+    @Test
+    void graphQlIngestFallsBackToRestWithoutToken() {
+        ReflectionTestUtils.setField(service, "ingestMode", "graphql");
+        ReflectionTestUtils.setField(service, "githubToken", "");
+        service.initializeWebClient();
+        responses.put(starredPath(1), json(starredJson(repoJson(1L, "repo-one", "2024-02-01T00:00:00Z"))));
+
+        service.syncStarredRepositories();
+
+        verify(syncMonitorService).appendLog("WARN", "GraphQL ingest requires a GitHub token, using REST");
+        assertTrue(requests.stream().noneMatch(request -> "/graphql".equals(request.getPath())));
+        assertEquals(1, starredRequests().size());
+        verify(bulkUpsertRepository).upsertAll(argThat(saved -> saved.size() == 1
+            && "repo-one".equals(saved.get(0).getName())));
+    }
+
+    @Test
+    void changedNameIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("name", "renamed");
+
+        assertEquals("renamed", stored.getName());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedFullNameIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("full_name", "testuser/renamed");
+
+        assertEquals("testuser/renamed", stored.getFullName());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedDescriptionIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("description", "New description");
+
+        assertEquals("New description", stored.getDescription());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedHtmlUrlIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("html_url", "https://github.com/other/repo-one");
+
+        assertEquals("https://github.com/other/repo-one", stored.getGithubRepoUrl());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedHomepageIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("homepage", null);
+
+        assertNull(stored.getHomepage());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedLanguageIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("language", "Kotlin");
+
+        assertEquals("Kotlin", stored.getLanguage());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedForkIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("fork", true);
+
+        assertTrue(stored.getFork());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedStargazersIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("stargazers_count", 6);
+
+        assertEquals(6, stored.getStargazersCount());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedTopicsIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("topics", List.of("java", "spring"));
+
+        assertEquals(List.of("java", "spring"), stored.getTopics());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedUpdatedAtIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("updated_at", "2024-02-01T00:00:00Z");
+
+        assertEquals("2024-02-01T00:00:00Z", stored.getGithubUpdatedAt());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void changedPushedAtIsDetected() throws IOException {
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("pushed_at", "2024-02-02T00:00:00Z");
+
+        assertEquals("2024-02-02T00:00:00Z", stored.getGithubPushedAt());
+        verify(syncMonitorService).recordIngestCounts(0, 1, 0);
+        verify(bulkUpsertRepository).upsertAll(List.of(stored));
+    }
+
+    @Test
+    void unchangedRepositoryIsNotWritten() throws IOException {
+        // The stored name again: every field matches
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("name", "repo-one");
+
+        assertEquals("repo-one", stored.getName());
+        verify(syncMonitorService).recordIngestCounts(0, 0, 1);
+        verify(bulkUpsertRepository, never()).upsertAll(anyList());
+    }
+
+    @Test
+    void missingPushedAtKeepsStoredValue() throws IOException {
+        // Older REST responses omit pushed_at; that is not a change
+        SourceRepositoryJpaEntity stored = syncStoredRepositoryWith("pushed_at", null);
+
+        assertEquals("2024-01-02T00:00:00Z", stored.getGithubPushedAt());
+        verify(syncMonitorService).recordIngestCounts(0, 0, 1);
+        verify(bulkUpsertRepository, never()).upsertAll(anyList());
+    }
+
+    @Test
+    void ingestCountsCreatedChangedAndUnchangedRepositories() throws IOException {
+        SourceRepositoryJpaEntity unchanged = trackedStoredRepository(1L, "repo-one");
+        SourceRepositoryJpaEntity changed = trackedStoredRepository(2L, "repo-two");
+        when(sourceRepositoryRepository.count()).thenReturn(2L);
+        when(sourceRepositoryRepository.findAllWithTopicsByGithubIdIn(anyCollection()))
+            .thenReturn(List.of(unchanged, changed));
+        Map<String, Object> starredChanged = trackedRepoFields(2L, "repo-two");
+        starredChanged.put("stargazers_count", 7);
+        responses.put(starredPath(1), json(new ObjectMapper().writeValueAsString(List.of(
+            trackedRepoFields(1L, "repo-one"), starredChanged, trackedRepoFields(3L, "repo-three")))));
+
+        service.syncStarredRepositories();
+
+        verify(syncMonitorService).recordIngestCounts(1, 1, 1);
+        // Only the new and the changed row are written
+        verify(bulkUpsertRepository).upsertAll(argThat(saved -> saved.size() == 2
+            && saved.contains(changed) && !saved.contains(unchanged)
+            && saved.stream().anyMatch(entity -> Long.valueOf(3L).equals(entity.getGithubId()))));
+    }
+
+    /**
+     * Back the ETag repository with a map so validators survive from one sync to the next
+     */
+    private Map<String, GitHubEtagJpaEntity> storeValidatorsInMemory() {
+        Map<String, GitHubEtagJpaEntity> stored = new ConcurrentHashMap<>();
+        lenient().when(etagRepository.findByEndpoint(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+        lenient().when(etagRepository.findByEndpointIn(anyCollection()))
+            .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream()
+                .map(stored::get)
+                .filter(Objects::nonNull)
+                .toList());
+        lenient().when(etagRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<GitHubEtagJpaEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> stored.put(entity.getEndpoint(), entity));
+            return entities;
+        });
+        return stored;
+    }
+
+    /**
+     * Sync a single stored repository whose starred entry differs from it only in {@code field}
+     */
+    private SourceRepositoryJpaEntity syncStoredRepositoryWith(String field, Object value) throws IOException {
+        SourceRepositoryJpaEntity stored = trackedStoredRepository(1L, "repo-one");
+        when(sourceRepositoryRepository.count()).thenReturn(1L);
+        when(sourceRepositoryRepository.findAllWithTopicsByGithubIdIn(anyCollection())).thenReturn(List.of(stored));
+        Map<String, Object> starred = trackedRepoFields(1L, "repo-one");
+        starred.put(field, value);
+        responses.put(starredPath(1), json(new ObjectMapper().writeValueAsString(List.of(starred))));
+
+        service.syncStarredRepositories();
+
+        return stored;
+    }
+
+    /**
+     * Stored repository with every tracked field set and a current README
+     */
+    static SourceRepositoryJpaEntity trackedStoredRepository(Long githubId, String name) {
+        SourceRepositoryJpaEntity repository = storedRepository(githubId + 10, githubId, name, "2024-01-01T00:00:00Z");
+        repository.setDescription("Description of " + name);
+        repository.setHomepage("https://" + name + ".dev");
+        repository.setLanguage("Java");
+        repository.setStargazersCount(5);
+        repository.setTopics(new ArrayList<>(List.of("java")));
+        repository.setGithubPushedAt("2024-01-02T00:00:00Z");
+        repository.setReadmeSha("sha-" + name);
+        return repository;
+    }
+
+    /**
+     * Starred entry matching {@link #trackedStoredRepository(Long, String)} field for field
+     */
+    static Map<String, Object> trackedRepoFields(Long githubId, String name) {
+        Map<String, Object> repo = new LinkedHashMap<>();
+        repo.put("id", githubId);
+        repo.put("name", name);
+        repo.put("full_name", "testuser/" + name);
+        repo.put("description", "Description of " + name);
+        repo.put("html_url", "https://github.com/testuser/" + name);
+        repo.put("homepage", "https://" + name + ".dev");
+        repo.put("language", "Java");
+        repo.put("fork", false);
+        repo.put("stargazers_count", 5);
+        repo.put("topics", List.of("java"));
+        repo.put("updated_at", "2024-01-01T00:00:00Z");
+        repo.put("pushed_at", "2024-01-02T00:00:00Z");
+        return repo;
+    }
+
+    private static String responseKey(RecordedRequest request) {
+        if (!"/graphql".equals(request.getPath())) {
+            return request.getPath();
+        }
+        try {
+            JsonNode after = new ObjectMapper().readTree(request.getBody().clone().readUtf8())
+                .path("variables").path("after");
+            return graphQlKey(after.isNull() || after.isMissingNode() ? null : after.asText());
+        } catch (IOException e) {
+            return request.getPath();
+        }
+    }
+
+    static String graphQlKey(String after) {
+        return "/graphql?after=" + (after != null ? after : "");
+    }
+
+    private List<RecordedRequest> starredRequests() {
+        synchronized (requests) {
+            return requests.stream()
+                .filter(request -> request.getPath() != null && request.getPath().startsWith("/users/testuser/starred"))
+                .toList();
+        }
+    }
+
+    private double conditionalRequests(String outcome, String resource) {
+        return meterRegistry.get("github.conditional.requests")
+            .tags("outcome", outcome, "resource", resource)
+            .counter()
+            .count();
+    }
+
+    private String links(int next, int last) {
+        return String.format("<%s>; rel=\"next\", <%s>; rel=\"last\"",
+            server.url(starredPath(next)), server.url(starredPath(last)));
+    }
+
+    static SourceRepositoryJpaEntity storedRepository(Long id, Long githubId, String name, String githubUpdatedAt) {
+        SourceRepositoryJpaEntity repository = new SourceRepositoryJpaEntity();
+        repository.setId(id);
+        repository.setGithubId(githubId);
+        repository.setName(name);
+        repository.setFullName("testuser/" + name);
+        repository.setGithubRepoUrl("https://github.com/testuser/" + name);
+        repository.setFork(false);
+        repository.setStargazersCount(0);
+        repository.setTopics(new ArrayList<>());
+        repository.setGithubUpdatedAt(githubUpdatedAt);
+        return repository;
+    }
+
+    static String starredPath(int page) {
+        return "/users/testuser/starred?per_page=100&sort=created&direction=desc&page=" + page;
+    }
+
+    static String repoJson(Long githubId, String name, String updatedAt) {
+        return String.format("""
+            {"id": %d, "name": "%s", "full_name": "testuser/%s", "html_url": "https://github.com/testuser/%s",
+             "fork": false, "stargazers_count": 0, "topics": [], "updated_at": "%s"}""",
+            githubId, name, name, name, updatedAt);
+    }
+
+    /**
+     * {@code count} repositories with consecutive ids, unchanged since 2024-01-01
+     */
+    static String starredPage(long firstGithubId, int count) {
+        return starredJson(LongStream.range(firstGithubId, firstGithubId + count)
+            .mapToObj(githubId -> repoJson(githubId, "repo-" + githubId, "2024-01-01T00:00:00Z"))
+            .toArray(String[]::new));
+    }
+
+    static String graphQlPage(int totalCount, boolean hasNextPage, String endCursor, String... nodes) {
+        return String.format("""
+            {"data": {"user": {"starredRepositories": {"totalCount": %d,
+             "pageInfo": {"hasNextPage": %s, "endCursor": "%s"}, "nodes": [%s]}}}}""",
+            totalCount, hasNextPage, endCursor, String.join(",", nodes));
+    }
+
+    static String starredJson(String... repos) {
+        return "[" + String.join(",", repos) + "]";
+    }
+
+    static MockResponse json(String body) {
+        return new MockResponse()
+            .setResponseCode(200)
+            .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .setBody(body);
+    }
+}
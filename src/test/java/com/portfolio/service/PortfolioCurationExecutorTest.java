@@ -0,0 +1,249 @@
+package com.portfolio.service;
+
+import com.portfolio.exception.RepositoryLockedException;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioCurationExecutorTest {
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private ClaudeTokenBudgetService tokenBudgetService;
+
+    @Mock
+    private SyncMonitorService syncMonitorService;
+
+    @Mock
+    private SyncLockRegistry syncLockRegistry;
+
+    private PortfolioCurationExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private PortfolioCurationExecutor executor(int concurrency, RateLimiterRegistry rateLimiters) {
+        return executor(concurrency, rateLimiters, 10);
+    }
+
+    private PortfolioCurationExecutor executor(int concurrency, RateLimiterRegistry rateLimiters, int queueCapacity) {
+        return executor(concurrency, rateLimiters, queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private PortfolioCurationExecutor executor(int concurrency, RateLimiterRegistry rateLimiters, int queueCapacity,
+                                               Duration permitWait) {
+        executor = new PortfolioCurationExecutor(portfolioService, tokenBudgetService, rateLimiters,
+            syncMonitorService, syncLockRegistry, new SyncMetricsService(new SimpleMeterRegistry()), new SimpleMeterRegistry(), concurrency, 1000, queueCapacity,
+            permitWait);
+        return executor;
+    }
+
+    @Test
+    void curatesSourcesConcurrently() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(portfolioService.curateFromSource(anyLong(), anyBoolean())).thenAnswer(invocation -> {
+            allStarted.countDown();
+            // Only returns if all three curations are in flight at the same time
+            assertTrue(allStarted.await(5, TimeUnit.SECONDS), "curations did not overlap");
+            return null;
+        });
+
+        PortfolioCurationExecutor.CurationResult result = executor(3, RateLimiterRegistry.ofDefaults()).curateAll(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "a", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "b", false),
+            new PortfolioCurationExecutor.CurationTask(3L, "c", true)));
+
+        assertEquals(3, result.curated());
+        assertEquals(0, result.failed());
+    }
+
+    @Test
+    void curatesDuplicateSourceOnce() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+
+        PortfolioCurationExecutor.CurationResult result = executor(2, RateLimiterRegistry.ofDefaults()).curateAll(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "source a", false),
+            new PortfolioCurationExecutor.CurationTask(1L, "portfolio a", true)));
+
+        assertEquals(1, result.curated());
+        verify(portfolioService, times(1)).curateFromSource(1L, true);
+    }
+
+    @Test
+    void skipsRemainingSourcesOnceBudgetIsExhausted() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(500);
+
+        PortfolioCurationExecutor.CurationResult result = executor(1, RateLimiterRegistry.ofDefaults()).curateAll(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "a", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "b", false)));
+
+        assertEquals(0, result.curated());
+        assertEquals(2, result.skipped());
+        verify(portfolioService, never()).curateFromSource(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void cachedAnalysesBypassBudgetAndRateLimiter() {
+        lenient().when(tokenBudgetService.getRemainingTokens()).thenReturn(500);
+        when(portfolioService.hasCachedAnalysis(1L)).thenReturn(true);
+        when(portfolioService.hasCachedAnalysis(2L)).thenReturn(false);
+        RateLimiterRegistry rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofHours(1))
+            .timeoutDuration(Duration.ZERO)
+            .build());
+        // No permit left for the rest of the test
+        assertTrue(rateLimiters.rateLimiter(PortfolioCurationExecutor.RATE_LIMITER_NAME).acquirePermission());
+
+        PortfolioCurationExecutor.CurationResult result = executor(1, rateLimiters).curateAll(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "cached", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "uncached", false)));
+
+        assertEquals(1, result.curated());
+        assertEquals(1, result.skipped());
+        verify(portfolioService).curateFromSource(1L, false);
+        verify(portfolioService, never()).curateFromSource(eq(2L), anyBoolean());
+    }
+
+    @Test
+    void countsFailuresWithoutStoppingOtherSources() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        when(portfolioService.curateFromSource(anyLong(), anyBoolean())).thenAnswer(invocation -> {
+            if (invocation.<Long>getArgument(0) == 1L) {
+                throw new RuntimeException("Curation failed");
+            }
+            return null;
+        });
+
+        PortfolioCurationExecutor.CurationResult result = executor(2, RateLimiterRegistry.ofDefaults()).curateAll(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "a", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "b", false)));
+
+        assertEquals(1, result.curated());
+        assertEquals(1, result.failed());
+    }
+
+    @Test
+    void waitsForRateLimiterPermits() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        RateLimiterRegistry rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofMillis(300))
+            .timeoutDuration(Duration.ZERO)
+            .build());
+
+        PortfolioCurationExecutor.CurationResult result = executor(3, rateLimiters).curateAll(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "a", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "b", false),
+            new PortfolioCurationExecutor.CurationTask(3L, "c", false)));
+
+        assertEquals(3, result.curated());
+        // One permit per 300 ms: the third curation cannot start before the third period
+        assertTrue(result.elapsed().toMillis() >= 500, "rate limiter was not respected: " + result.elapsed());
+    }
+
+    @Test
+    void curationFailsWhenNoPermitArrivesInTime() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        RateLimiterRegistry rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofHours(1))
+            .timeoutDuration(Duration.ZERO)
+            .build());
+        assertTrue(rateLimiters.rateLimiter(PortfolioCurationExecutor.RATE_LIMITER_NAME).acquirePermission());
+
+        PortfolioCurationExecutor.CurationResult result = executor(1, rateLimiters, 10, Duration.ofMillis(200))
+            .curateAll(List.of(new PortfolioCurationExecutor.CurationTask(1L, "a", false)));
+
+        assertEquals(1, result.failed());
+        assertTrue(result.elapsed().toMillis() < 5000, "permit wait was not bounded: " + result.elapsed());
+        verify(portfolioService, never()).curateFromSource(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void sessionBlocksProducerWhileQueueIsFull() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        when(portfolioService.curateFromSource(anyLong(), anyBoolean())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return null;
+        });
+
+        PortfolioCurationExecutor.CurationSession session =
+            executor(1, RateLimiterRegistry.ofDefaults(), 0).openSession();
+        assertTrue(session.submit(new PortfolioCurationExecutor.CurationTask(1L, "a", false)));
+        assertTrue(session.submit(new PortfolioCurationExecutor.CurationTask(2L, "b", false)));
+        assertFalse(session.submit(new PortfolioCurationExecutor.CurationTask(2L, "b again", true)));
+        PortfolioCurationExecutor.CurationResult result = session.await();
+
+        assertEquals(2, result.curated());
+        // The second submit had to wait for the first curation to free its slot
+        assertTrue(result.backpressure().toMillis() >= 100, "no backpressure: " + result.backpressure());
+        assertTrue(result.busy().toMillis() >= 350, "curations overlapped: " + result.busy());
+    }
+
+    @Test
+    void sessionDefersSourcesOnceRunAllowanceIsSpent() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        AtomicInteger usage = new AtomicInteger();
+        when(portfolioService.curateFromSource(anyLong(), anyBoolean())).thenAnswer(invocation -> {
+            usage.addAndGet(1500);
+            return null;
+        });
+        SyncRunLimits limits = new SyncRunLimits(null, 2000, usage::get);
+
+        PortfolioCurationExecutor.CurationSession session = executor(1, RateLimiterRegistry.ofDefaults()).openSession(limits);
+        session.submit(new PortfolioCurationExecutor.CurationTask(1L, "a", false));
+        session.submit(new PortfolioCurationExecutor.CurationTask(2L, "b", false));
+        session.submit(new PortfolioCurationExecutor.CurationTask(3L, "c", false));
+        PortfolioCurationExecutor.CurationResult result = session.await();
+
+        // 1000 estimated tokens per source: only the first fits into the 2000 token allowance
+        assertEquals(1, result.curated());
+        assertEquals(2, result.skipped());
+        assertEquals(2, limits.getDeferred());
+        verify(portfolioService, never()).curateFromSource(eq(2L), anyBoolean());
+    }
+
+    @Test
+    void skipsSourceLockedByConcurrentResync() {
+        when(tokenBudgetService.getRemainingTokens()).thenReturn(100_000);
+        when(syncLockRegistry.lockRepository(anyLong())).thenAnswer(invocation -> {
+            if (invocation.<Long>getArgument(0) == 2L) {
+                throw new RepositoryLockedException(2L);
+            }
+            return null;
+        });
+
+        PortfolioCurationExecutor.CurationResult result = executor(1, RateLimiterRegistry.ofDefaults()).curateAll(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "a", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "b", false)));
+
+        assertEquals(1, result.curated());
+        assertEquals(1, result.skipped());
+        assertEquals(0, result.failed());
+        verify(portfolioService, never()).curateFromSource(eq(2L), anyBoolean());
+    }
+}
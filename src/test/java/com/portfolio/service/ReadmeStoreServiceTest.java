@@ -0,0 +1,78 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.ReadmeBlobJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.ReadmeBlobJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadmeStoreServiceTest {
+
+    @Mock
+    private ReadmeBlobJpaRepository readmeBlobRepository;
+
+    @InjectMocks
+    private ReadmeStoreService readmeStoreService;
+
+    @Test
+    void gitBlobShaMatchesGit() {
+        // git hash-object of "hello\n"
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a", ReadmeStoreService.gitBlobSha("hello\n"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storesCompressedBlobsAndReadsThemBack() {
+        String markdown = "# Title\n\n" + "Lorem ipsum dolor sit amet. ".repeat(200);
+        when(readmeBlobRepository.findExistingShas(anyCollection())).thenReturn(List.of());
+
+        readmeStoreService.storeAll(Map.of("abc123", markdown));
+
+        ArgumentCaptor<List<ReadmeBlobJpaEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(readmeBlobRepository).saveAll(captor.capture());
+        ReadmeBlobJpaEntity blob = captor.getValue().get(0);
+        assertEquals(ReadmeBlobJpaEntity.ENCODING_GZIP, blob.getEncoding());
+        assertTrue(blob.getContent().length < markdown.length() / 4, "README was not compressed");
+
+        when(readmeBlobRepository.findById("abc123")).thenReturn(Optional.of(blob));
+        assertEquals(markdown, readmeStoreService.findMarkdown("abc123").orElseThrow());
+    }
+
+    @Test
+    void skipsBlobsThatAreAlreadyStored() {
+        when(readmeBlobRepository.findExistingShas(anyCollection())).thenReturn(List.of("abc123"));
+
+        readmeStoreService.storeAll(Map.of("abc123", "# Title"));
+
+        verify(readmeBlobRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void attachUsesContentShaWhenGitHubDidNotReportOne() {
+        SourceRepositoryJpaEntity repository = new SourceRepositoryJpaEntity();
+
+        String sha = readmeStoreService.attach(repository, null, "hello\n");
+
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a", sha);
+        assertEquals(sha, repository.getReadmeSha());
+        assertEquals(6, repository.getReadmeSize());
+
+        readmeStoreService.attach(repository, null, null);
+        assertFalse(repository.hasReadme());
+        assertNull(repository.getReadmeSize());
+    }
+}
@@ -0,0 +1,185 @@
+package com.portfolio.service;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResiliencePolicyServiceTest {
+
+    private ResiliencePolicyService policies;
+
+    @AfterEach
+    void tearDown() {
+        if (policies != null) {
+            policies.shutdown();
+        }
+    }
+
+    private ResiliencePolicyService policies(CircuitBreakerConfig circuitBreaker, RetryConfig retry,
+                                             RateLimiterConfig rateLimiter, TimeLimiterConfig timeLimiter) {
+        policies = new ResiliencePolicyService(CircuitBreakerRegistry.of(circuitBreaker), RetryRegistry.of(retry),
+            RateLimiterRegistry.of(rateLimiter), TimeLimiterRegistry.of(timeLimiter), 4);
+        return policies;
+    }
+
+    private static RetryConfig retries(int maxAttempts) {
+        return RetryConfig.custom().maxAttempts(maxAttempts).waitDuration(Duration.ofMillis(1)).build();
+    }
+
+    @Test
+    void retriesAFailedCallUntilItSucceeds() throws Exception {
+        policies(CircuitBreakerConfig.ofDefaults(), retries(3), RateLimiterConfig.ofDefaults(), TimeLimiterConfig.ofDefaults());
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = policies.call("claude", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("connection reset");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void openCircuitRejectsCallsWithoutMakingThem() {
+        CircuitBreakerConfig circuitBreaker = CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .build();
+        policies(circuitBreaker, retries(1), RateLimiterConfig.ofDefaults(), TimeLimiterConfig.ofDefaults());
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> policies.call("github", () -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("502");
+            }));
+        }
+        assertThrows(CallNotPermittedException.class, () -> policies.call("github", () -> {
+            attempts.incrementAndGet();
+            return "ok";
+        }));
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void rateLimiterRejectsCallsOverTheLimitUnlessAlreadyAdmitted() throws Exception {
+        RateLimiterConfig rateLimiter = RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofMinutes(1))
+            .timeoutDuration(Duration.ZERO)
+            .build();
+        policies(CircuitBreakerConfig.ofDefaults(), retries(1), rateLimiter, TimeLimiterConfig.ofDefaults());
+
+        assertEquals("first", policies.call("claude", () -> "first"));
+        assertThrows(RequestNotPermitted.class, () -> policies.call("claude", () -> "second"));
+
+        // The caller's permit covers its own call only; the next call is limited again
+        assertEquals("admitted", policies.call("claude", true, () -> "admitted"));
+        assertThrows(RequestNotPermitted.class, () -> policies.call("claude", () -> "again"));
+    }
+
+    @Test
+    void heldPermitCoversOnlyTheFirstAttempt() {
+        RateLimiterConfig rateLimiter = RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofMinutes(1))
+            .timeoutDuration(Duration.ZERO)
+            .build();
+        policies(CircuitBreakerConfig.ofDefaults(), retries(3), rateLimiter, TimeLimiterConfig.ofDefaults());
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Attempt 1 uses the held permit, attempt 2 takes the limiter's only one, attempt 3 is refused
+        assertThrows(RequestNotPermitted.class, () -> policies.call("claude", true, () -> {
+            attempts.incrementAndGet();
+            throw new IOException("connection reset");
+        }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void timeLimiterInterruptsSlowCalls() throws Exception {
+        TimeLimiterConfig timeLimiter = TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(50)).build();
+        policies(CircuitBreakerConfig.ofDefaults(), retries(1), RateLimiterConfig.ofDefaults(), timeLimiter);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(TimeoutException.class, () -> policies.call("claude", () -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "late";
+        }));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "timed-out call kept running");
+    }
+
+    @Test
+    void checkedExceptionsReachTheCallerUnwrapped() {
+        policies(CircuitBreakerConfig.ofDefaults(), retries(1), RateLimiterConfig.ofDefaults(), TimeLimiterConfig.ofDefaults());
+
+        assertThrows(IOException.class, () -> policies.call("claude", () -> {
+            throw new IOException("connection reset");
+        }));
+    }
+
+    @Test
+    void decoratedRequestIsResubscribedOnRetry() {
+        policies(CircuitBreakerConfig.ofDefaults(), retries(3), RateLimiterConfig.ofDefaults(), TimeLimiterConfig.ofDefaults());
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> subscriptions.incrementAndGet() < 2
+            ? Mono.error(new IOException("connection reset"))
+            : Mono.just("page"));
+
+        assertEquals("page", policies.decorate("github", request).block());
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    void decoratedRequestsAreNotRateLimited() {
+        RateLimiterConfig rateLimiter = RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofMinutes(1))
+            .timeoutDuration(Duration.ZERO)
+            .build();
+        policies(CircuitBreakerConfig.ofDefaults(), retries(1), rateLimiter, TimeLimiterConfig.ofDefaults());
+
+        // GitHub paces itself by its quota headers; a fixed permit rate must not refuse the calls
+        for (int i = 0; i < 3; i++) {
+            assertEquals("page", policies.decorate("github", Mono.just("page")).block());
+        }
+    }
+
+    @Test
+    void decoratedRequestTimesOut() {
+        TimeLimiterConfig timeLimiter = TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(50)).build();
+        policies(CircuitBreakerConfig.ofDefaults(), retries(1), RateLimiterConfig.ofDefaults(), timeLimiter);
+
+        Exception error = assertThrows(Exception.class, () -> policies.decorate("github", Mono.never()).block());
+        assertInstanceOf(TimeoutException.class, error.getCause() != null ? error.getCause() : error);
+    }
+}
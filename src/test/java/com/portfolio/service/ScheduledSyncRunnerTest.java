@@ -0,0 +1,150 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SyncConfigJpaEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledSyncRunnerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private SyncConfigService syncConfigService;
+
+    @Mock
+    private SyncSchedulerService syncSchedulerService;
+
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    @Mock
+    private SyncMonitorService syncMonitorService;
+
+    private ScheduledSyncRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new ScheduledSyncRunner(syncConfigService, syncSchedulerService, clusterLeaseService,
+            syncMonitorService, true, Duration.ofMinutes(5), Duration.ofMinutes(5));
+    }
+
+    private static SyncConfigJpaEntity config(boolean enabled, Instant lastRunAt, Instant nextRunAt) {
+        return SyncConfigJpaEntity.builder()
+            .enabled(enabled)
+            .intervalHours(6)
+            .lastRunAt(lastRunAt)
+            .nextRunAt(nextRunAt)
+            .build();
+    }
+
+    @Test
+    void disabledConfigNeverSyncs() {
+        when(syncConfigService.getOrCreateEntity()).thenReturn(config(false, null, NOW.minusSeconds(60)));
+
+        runner.runIfDue(NOW);
+
+        verifyNoInteractions(clusterLeaseService, syncSchedulerService);
+    }
+
+    @Test
+    void missingNextRunIsScheduledFromLastRunWithJitter() {
+        Instant lastRun = NOW.minus(Duration.ofHours(1));
+        when(syncConfigService.getOrCreateEntity()).thenReturn(config(true, lastRun, null));
+
+        runner.runIfDue(NOW);
+
+        ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+        verify(syncConfigService).updateNextRun(next.capture());
+        Instant earliest = lastRun.plus(Duration.ofHours(6));
+        assertFalse(next.getValue().isBefore(earliest));
+        assertFalse(next.getValue().isAfter(earliest.plus(Duration.ofMinutes(5))));
+        verifyNoInteractions(syncSchedulerService);
+    }
+
+    @Test
+    void runNotYetDueIsLeftAlone() {
+        when(syncConfigService.getOrCreateEntity()).thenReturn(config(true, null, NOW.plusSeconds(60)));
+
+        runner.runIfDue(NOW);
+
+        verifyNoInteractions(clusterLeaseService, syncSchedulerService);
+    }
+
+    @Test
+    void dueRunSyncsUnderLeaseAndAdvancesSchedule() {
+        when(syncConfigService.getOrCreateEntity()).thenReturn(config(true, null, NOW.minusSeconds(1)));
+        when(clusterLeaseService.tryAcquire(eq(SyncSchedulerService.SYNC_LEASE), any())).thenReturn(true);
+        CompletableFuture<Void> sync = new CompletableFuture<>();
+        when(syncSchedulerService.runFullSyncAsync()).thenReturn(sync);
+
+        runner.runIfDue(NOW);
+
+        verify(syncConfigService).updateLastRun(NOW);
+        ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+        verify(syncConfigService).updateNextRun(next.capture());
+        assertFalse(next.getValue().isBefore(NOW.plus(Duration.ofHours(6))));
+        verify(syncSchedulerService, never()).runFullSync();
+        // The tick returns while the sync runs; the lease is kept until it is over
+        verify(clusterLeaseService, never()).release(any());
+
+        sync.complete(null);
+
+        verify(clusterLeaseService).release(SyncSchedulerService.SYNC_LEASE);
+    }
+
+    @Test
+    void leaseIsReleasedWhenTheSyncCannotBeDispatched() {
+        when(syncConfigService.getOrCreateEntity()).thenReturn(config(true, null, NOW.minusSeconds(1)));
+        when(clusterLeaseService.tryAcquire(eq(SyncSchedulerService.SYNC_LEASE), any())).thenReturn(true);
+        when(syncSchedulerService.runFullSyncAsync()).thenThrow(new IllegalStateException("executor full"));
+
+        assertThrows(IllegalStateException.class, () -> runner.runIfDue(NOW));
+
+        verify(clusterLeaseService).release(SyncSchedulerService.SYNC_LEASE);
+    }
+
+    @Test
+    void leaseHeldElsewhereSkipsTheRun() {
+        when(syncConfigService.getOrCreateEntity()).thenReturn(config(true, null, NOW.minusSeconds(1)));
+        when(clusterLeaseService.tryAcquire(eq(SyncSchedulerService.SYNC_LEASE), any())).thenReturn(false);
+
+        runner.runIfDue(NOW);
+
+        verify(syncSchedulerService, never()).runFullSyncAsync();
+        verify(syncConfigService, never()).updateLastRun(any());
+    }
+
+    @Test
+    void runAlreadyTakenByAnotherInstanceIsNotRepeated() {
+        when(syncConfigService.getOrCreateEntity())
+            .thenReturn(config(true, null, NOW.minusSeconds(1)))
+            .thenReturn(config(true, NOW.minusSeconds(1), NOW.plus(Duration.ofHours(6))));
+        when(clusterLeaseService.tryAcquire(eq(SyncSchedulerService.SYNC_LEASE), any())).thenReturn(true);
+
+        runner.runIfDue(NOW);
+
+        verify(syncSchedulerService, never()).runFullSyncAsync();
+        verify(clusterLeaseService).release(SyncSchedulerService.SYNC_LEASE);
+    }
+
+    @Test
+    void jitterIsBoundedByIntervalAndCap() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(runner.jitter(Duration.ofMinutes(10)).compareTo(Duration.ofMinutes(1)) <= 0);
+            assertTrue(runner.jitter(Duration.ofHours(24)).compareTo(Duration.ofMinutes(5)) <= 0);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.portfolio.service;
+
+import com.portfolio.config.FeatureFlagsConfig;
+import com.portfolio.exception.RepositoryLockedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncLockRegistryTest {
+
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ScheduledFuture<Object> heartbeat;
+
+    @BeforeEach
+    void setUp() {
+        // Leases are free unless a test says otherwise; not every test takes the sync lease
+        lenient().when(clusterLeaseService.tryAcquire(anyString(), any())).thenReturn(true);
+        lenient().when(clusterLeaseService.tryAcquireAll(anyCollection(), any()))
+            .thenAnswer(invocation -> Set.copyOf(invocation.<Collection<String>>getArgument(0)));
+        lenient().doReturn(heartbeat).when(taskScheduler).scheduleAtFixedRate(any(Runnable.class), any(Duration.class));
+    }
+
+    private SyncLockRegistry registry(int maxConcurrentSyncs) {
+        FeatureFlagsConfig featureFlags = new FeatureFlagsConfig();
+        featureFlags.getAutoSync().setMaxConcurrentSyncs(maxConcurrentSyncs);
+        return new SyncLockRegistry(clusterLeaseService, featureFlags, taskScheduler, new SimpleMeterRegistry(),
+            Duration.ofMinutes(5), Duration.ofMinutes(5), Duration.ofMillis(300));
+    }
+
+    @Test
+    void fullSyncRunsAlone() {
+        SyncLockRegistry registry = registry(3);
+
+        SyncLockRegistry.SyncSlot ingest = registry.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.INGEST);
+
+        assertNotNull(ingest);
+        assertNull(registry.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.FULL_SYNC));
+        assertNull(registry.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.INGEST));
+        assertTrue(registry.isSyncInProgress());
+        ingest.close();
+        assertFalse(registry.isSyncInProgress());
+        assertNotNull(registry.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.FULL_SYNC));
+    }
+
+    @Test
+    void concurrentOperationsHonorConfiguredLimit() {
+        SyncLockRegistry single = registry(1);
+        assertNotNull(single.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.INGEST));
+        assertNull(single.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.CURATION));
+
+        SyncLockRegistry two = registry(2);
+        assertNotNull(two.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.INGEST));
+        assertNotNull(two.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.CURATION));
+    }
+
+    @Test
+    void syncLeaseIsSharedByLocalOperationsAndReleasedByTheLast() {
+        SyncLockRegistry registry = registry(2);
+
+        SyncLockRegistry.SyncSlot ingest = registry.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.INGEST);
+        SyncLockRegistry.SyncSlot curation = registry.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.CURATION);
+        ingest.close();
+        ingest.close();
+
+        verify(clusterLeaseService, times(1)).tryAcquire(eq(SyncSchedulerService.SYNC_LEASE), any());
+        verify(clusterLeaseService, never()).release(SyncSchedulerService.SYNC_LEASE);
+        curation.close();
+        verify(clusterLeaseService).release(SyncSchedulerService.SYNC_LEASE);
+        verify(heartbeat).cancel(false);
+    }
+
+    @Test
+    void slotIsGivenBackWhenAnotherInstanceHoldsTheSyncLease() {
+        when(clusterLeaseService.tryAcquire(eq(SyncSchedulerService.SYNC_LEASE), any())).thenReturn(false);
+        SyncLockRegistry registry = registry(1);
+
+        assertNull(registry.tryAcquireSyncSlot(SyncLockRegistry.SyncOperation.FULL_SYNC));
+        assertFalse(registry.isSyncInProgress());
+    }
+
+    @Test
+    void repositoryLockIsReentrantAndExcludesOtherThreads() throws Exception {
+        SyncLockRegistry registry = registry(1);
+
+        try (SyncLockRegistry.RepositoryLock outer = registry.lockRepository(7L);
+             SyncLockRegistry.RepositoryLock inner = registry.lockRepository(7L)) {
+            assertTrue(inner.holds(7L));
+            CompletableFuture<Void> other = CompletableFuture.runAsync(() -> registry.lockRepository(7L).close());
+            Exception failure = assertThrows(Exception.class, other::get);
+            assertInstanceOf(RepositoryLockedException.class, failure.getCause());
+        }
+
+        // Only the outermost hold releases the lease, after which another thread gets in
+        verify(clusterLeaseService, times(1)).tryAcquireAll(eq(List.of("sync.repo.7")), any());
+        verify(clusterLeaseService, times(1)).releaseAll(List.of("sync.repo.7"));
+        CompletableFuture.runAsync(() -> registry.lockRepository(7L).close()).get();
+    }
+
+    @Test
+    void differentRepositoriesNeverContendAndLocksAreDroppedWhenFree() throws Exception {
+        SyncLockRegistry registry = registry(1);
+
+        try (SyncLockRegistry.RepositoryLock held = registry.lockRepository(7L)) {
+            // Any other id is free right away, however the ids hash
+            for (long id = 8; id < 1032; id++) {
+                long other = id;
+                CompletableFuture.runAsync(() -> registry.lockRepository(other).close()).get();
+            }
+            Set<Long> pageIds = CompletableFuture.supplyAsync(() -> {
+                try (SyncLockRegistry.RepositoryLock page = registry.tryLockRepositories(List.of(6L, 7L, 263L))) {
+                    return Set.copyOf(page.getIds());
+                }
+            }).get();
+            assertEquals(Set.of(6L, 263L), pageIds);
+        }
+        assertEquals(0, registry.countRepositoryLocks());
+    }
+
+    @Test
+    void repositoryLeasedByAnotherInstanceIsWaitedForThenRefused() {
+        when(clusterLeaseService.tryAcquireAll(eq(List.of("sync.repo.7")), any())).thenReturn(Set.of());
+        SyncLockRegistry registry = registry(1);
+
+        assertThrows(RepositoryLockedException.class, () -> registry.lockRepository(7L));
+        verify(clusterLeaseService, atLeast(2)).tryAcquireAll(eq(List.of("sync.repo.7")), any());
+        verify(taskScheduler, never()).scheduleAtFixedRate(any(Runnable.class), any(Duration.class));
+    }
+
+    @Test
+    void bulkLockLeavesOutRepositoriesHeldElsewhere() {
+        when(clusterLeaseService.tryAcquireAll(eq(List.of("sync.repo.1", "sync.repo.2", "sync.repo.3")), any()))
+            .thenReturn(Set.of("sync.repo.1", "sync.repo.3"));
+        SyncLockRegistry registry = registry(1);
+
+        try (SyncLockRegistry.RepositoryLock page = registry.tryLockRepositories(List.of(3L, 2L, 1L))) {
+            assertTrue(page.holds(1L));
+            assertFalse(page.holds(2L));
+            assertTrue(page.holds(3L));
+        }
+        // One lease round trip for the whole page, one to give it back
+        verify(clusterLeaseService, times(1)).tryAcquireAll(anyCollection(), any());
+        verify(clusterLeaseService).releaseAll(List.of("sync.repo.1", "sync.repo.3"));
+        verify(clusterLeaseService, never()).tryAcquire(anyString(), any());
+        assertEquals(0, registry.countRepositoryLocks());
+    }
+
+    @Test
+    void heldRepositoryLeasesAreRenewedUntilTheLastIsReleased() {
+        SyncLockRegistry registry = registry(1);
+        ArgumentCaptor<Runnable> renewal = ArgumentCaptor.forClass(Runnable.class);
+
+        SyncLockRegistry.RepositoryLock single = registry.lockRepository(9L);
+        try (SyncLockRegistry.RepositoryLock page = registry.tryLockRepositories(List.of(7L, 8L))) {
+            verify(taskScheduler, times(1)).scheduleAtFixedRate(renewal.capture(), eq(Duration.ofSeconds(100)));
+            renewal.getValue().run();
+            verify(clusterLeaseService).renewAll(List.of("sync.repo.7", "sync.repo.8", "sync.repo.9"), Duration.ofMinutes(5));
+        }
+        verify(heartbeat, never()).cancel(anyBoolean());
+        single.close();
+        verify(heartbeat).cancel(false);
+    }
+
+    @Test
+    void unavailableLeaseTableFallsBackToLocalLocking() {
+        when(clusterLeaseService.tryAcquireAll(eq(List.of("sync.repo.7")), any())).thenThrow(new IllegalStateException("db down"));
+        SyncLockRegistry registry = registry(1);
+
+        try (SyncLockRegistry.RepositoryLock lock = registry.lockRepository(7L)) {
+            assertTrue(lock.holds(7L));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.portfolio.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncMetricsServiceTest {
+
+    private SimpleMeterRegistry registry;
+    private SyncMetricsService metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new SyncMetricsService(registry);
+    }
+
+    @Test
+    void sourceGaugesFollowTheLatestCounts() {
+        metrics.recordSourceCounts(10, 4);
+        System.gc();
+        metrics.recordSourceCounts(12, 9);
+
+        assertEquals(12, registry.get("sync.source.total").gauge().value());
+        assertEquals(9, registry.get("sync.source.synced").gauge().value());
+        assertEquals(3, registry.get("sync.source.unsynced").gauge().value());
+    }
+
+    @Test
+    void stageTimersAreRegisteredOnceAndPublishPercentiles() {
+        metrics.recordStage("ingest", Duration.ofMillis(100));
+        metrics.recordStage("ingest", Duration.ofMillis(300));
+        metrics.recordStage("curation", Duration.ofMillis(50));
+
+        Timer ingest = registry.get("sync.pipeline.stage.duration").tag("stage", "ingest").timer();
+        assertEquals(2, ingest.count());
+        assertEquals(2, registry.get("sync.pipeline.stage.duration").timers().size());
+        double[] percentiles = Arrays.stream(ingest.takeSnapshot().percentileValues())
+            .mapToDouble(ValueAtPercentile::percentile)
+            .toArray();
+        assertArrayEquals(new double[]{0.5, 0.95, 0.99}, percentiles);
+    }
+
+    @Test
+    void gitHubCallsAreTimedByOutcome() {
+        assertEquals("body", metrics.timeGitHubCall("starred", Mono.just("body"), body -> "not_modified").block());
+        assertThrows(IllegalStateException.class,
+            () -> metrics.timeGitHubCall("readme", Mono.error(new IllegalStateException("502"))).block());
+        metrics.timeGitHubCall("readme", Mono.never()).timeout(Duration.ofMillis(10), Mono.just("late")).block();
+
+        assertEquals(1, registry.get("sync.github.call").tags("call", "starred", "outcome", "not_modified").timer().count());
+        assertEquals(1, registry.get("sync.github.call").tags("call", "readme", "outcome", "error").timer().count());
+        assertEquals(1, registry.get("sync.github.call").tags("call", "readme", "outcome", "cancelled").timer().count());
+    }
+
+    @Test
+    void failedClaudeCallIsTimedAsError() {
+        assertThrows(IllegalStateException.class, () -> metrics.timeClaudeCall(() -> {
+            throw new IllegalStateException("overloaded");
+        }));
+        assertEquals("ok", metrics.timeClaudeCall(() -> "ok"));
+
+        assertEquals(1, registry.get("sync.claude.call").tag("outcome", "error").timer().count());
+        assertEquals(1, registry.get("sync.claude.call").tag("outcome", "ok").timer().count());
+    }
+
+    @Test
+    void curationPoolGaugesReadTheLivePool() throws Exception {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        metrics.monitorCurationPool(pool);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            pool.submit(() -> {
+                release.await();
+                return null;
+            });
+            pool.submit(() -> { });
+
+            assertEquals(1, registry.get("sync.curation.queue.depth").tag("queue", "memory").gauge().value());
+            release.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, registry.get("sync.curation.queue.depth").tag("queue", "memory").gauge().value());
+        assertEquals(0, registry.get("sync.curation.active").gauge().value());
+    }
+}
@@ -0,0 +1,130 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SourceRepositoryJpaRepository;
+import com.portfolio.repository.VisitorInsightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncPriorityServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Mock
+    private SourceRepositoryJpaRepository sourceRepositoryRepository;
+
+    @Mock
+    private VisitorInsightRepository visitorInsightRepository;
+
+    @Mock
+    private ClaudeTokenBudgetService tokenBudgetService;
+
+    private SyncPriorityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SyncPriorityService(sourceRepositoryRepository, visitorInsightRepository, tokenBudgetService);
+        ReflectionTestUtils.setField(service, "mode", SyncPriorityService.MODE_PRIORITY);
+        ReflectionTestUtils.setField(service, "maxDuration", Duration.ZERO);
+        ReflectionTestUtils.setField(service, "missingCurationWeight", 40.0);
+        ReflectionTestUtils.setField(service, "starsWeight", 25.0);
+        ReflectionTestUtils.setField(service, "recentPushWeight", 20.0);
+        ReflectionTestUtils.setField(service, "visitorInterestWeight", 15.0);
+        ReflectionTestUtils.setField(service, "pushHalfLife", Duration.ofDays(30));
+        ReflectionTestUtils.setField(service, "interestWindow", Duration.ofDays(30));
+    }
+
+    private static SourceRepositoryJpaEntity source(long id, String name, SourceRepositoryJpaEntity.SyncStatus status,
+                                                    int stars, Instant pushedAt) {
+        return SourceRepositoryJpaEntity.builder()
+            .id(id)
+            .name(name)
+            .fullName("octocat/" + name)
+            .syncStatus(status)
+            .stargazersCount(stars)
+            .githubPushedAt(pushedAt != null ? pushedAt.toString() : null)
+            .build();
+    }
+
+    @Test
+    void scoreStaysWithinBounds() {
+        SourceRepositoryJpaEntity best = source(1L, "best", SourceRepositoryJpaEntity.SyncStatus.UNSYNCED, 50_000, NOW);
+        SourceRepositoryJpaEntity worst = source(2L, "worst", SourceRepositoryJpaEntity.SyncStatus.SYNCED, 0, null);
+
+        assertEquals(1000, service.score(best, Map.of("best", 1000L), NOW));
+        assertEquals(0, service.score(worst, Map.of(), NOW));
+    }
+
+    @Test
+    void recentPushOutranksStalePush() {
+        SourceRepositoryJpaEntity fresh = source(1L, "fresh", SourceRepositoryJpaEntity.SyncStatus.SYNCED, 10, NOW);
+        SourceRepositoryJpaEntity stale = source(2L, "stale", SourceRepositoryJpaEntity.SyncStatus.SYNCED, 10,
+            NOW.minus(Duration.ofDays(365)));
+
+        assertTrue(service.score(fresh, Map.of(), NOW) > service.score(stale, Map.of(), NOW));
+    }
+
+    @Test
+    void rankPutsUncuratedPopularViewedSourcesFirst() {
+        Instant recent = Instant.now().minus(Duration.ofDays(2));
+        when(sourceRepositoryRepository.findAllById(anyIterable())).thenReturn(List.of(
+            source(1L, "curated", SourceRepositoryJpaEntity.SyncStatus.SYNCED, 5, recent),
+            source(2L, "popular", SourceRepositoryJpaEntity.SyncStatus.UNSYNCED, 9_000, recent),
+            source(3L, "obscure", SourceRepositoryJpaEntity.SyncStatus.UNSYNCED, 0, null)));
+        when(visitorInsightRepository.countProjectViewsSince(any()))
+            .thenReturn(List.<Object[]>of(new Object[]{"octocat/popular", 40L}));
+
+        List<PortfolioCurationExecutor.CurationTask> ranked = service.rank(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "portfolio curated", true),
+            new PortfolioCurationExecutor.CurationTask(3L, "source obscure", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "source popular", false),
+            new PortfolioCurationExecutor.CurationTask(2L, "portfolio popular", true)));
+
+        assertEquals(List.of(2L, 3L, 1L), ranked.stream().map(PortfolioCurationExecutor.CurationTask::sourceRepositoryId).toList());
+        assertEquals("source popular", ranked.get(0).label());
+        assertTrue(ranked.get(0).priority() > ranked.get(1).priority());
+    }
+
+    @Test
+    void missingVisitorInsightsDoNotBlockRanking() {
+        when(sourceRepositoryRepository.findAllById(anyIterable())).thenReturn(List.of(
+            source(1L, "a", SourceRepositoryJpaEntity.SyncStatus.UNSYNCED, 100, null)));
+        when(visitorInsightRepository.countProjectViewsSince(any())).thenThrow(new IllegalStateException("db down"));
+
+        List<PortfolioCurationExecutor.CurationTask> ranked = service.rank(List.of(
+            new PortfolioCurationExecutor.CurationTask(1L, "source a", false)));
+
+        assertEquals(1, ranked.size());
+        assertTrue(ranked.get(0).priority() > 0);
+    }
+
+    @Test
+    void tokenAllowanceCountsUsageSinceRunStartAcrossDailyReset() {
+        ReflectionTestUtils.setField(service, "tokenAllowance", 10_000L);
+        AtomicInteger usage = new AtomicInteger(90_000);
+        when(tokenBudgetService.getCurrentUsage()).thenAnswer(invocation -> usage.get());
+
+        SyncRunLimits limits = service.openLimits();
+        usage.set(96_000);
+        assertTrue(limits.allowsCuration(3_000));
+        usage.set(2_000); // daily reset
+        assertEquals(8_000, limits.getTokensSpent());
+        assertFalse(limits.allowsCuration(3_000));
+        assertEquals("tokens", limits.exhaustedReason());
+    }
+}
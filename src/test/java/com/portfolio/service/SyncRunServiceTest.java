@@ -0,0 +1,196 @@
+package com.portfolio.service;
+
+import com.portfolio.adapter.out.persistence.jpa.SyncRunItemJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SyncRunItemJpaRepository;
+import com.portfolio.adapter.out.persistence.jpa.SyncRunJpaEntity;
+import com.portfolio.adapter.out.persistence.jpa.SyncRunJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncRunServiceTest {
+
+    @Mock
+    private SyncRunJpaRepository runRepository;
+
+    @Mock
+    private SyncRunItemJpaRepository itemRepository;
+
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SyncRunService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Not every test opens a transaction or saves a run
+        lenient().when(clusterLeaseService.getInstanceId()).thenReturn("node-a:1234");
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(runRepository.save(any(SyncRunJpaEntity.class))).thenAnswer(invocation -> {
+            SyncRunJpaEntity run = invocation.getArgument(0);
+            if (run.getId() == null) {
+                run.setId(1L);
+                run.onCreate();
+            }
+            return run;
+        });
+        service = new SyncRunService(runRepository, itemRepository, clusterLeaseService, transactionTemplate,
+            meterRegistry, Duration.ofHours(24));
+    }
+
+    private static SyncRunJpaEntity interrupted(long id, LocalDateTime startedAt) {
+        SyncRunJpaEntity run = new SyncRunJpaEntity("node-b:5678");
+        run.setId(id);
+        run.setStartedAt(startedAt);
+        run.setIngestMode("rest");
+        run.setIncremental(false);
+        run.setPagesDone(3);
+        run.setNextCursor("https://api.github.com/users/u/starred?per_page=100&page=4");
+        return run;
+    }
+
+    @Test
+    void startsFreshRunWhenNothingIsUnfinished() {
+        when(runRepository.findFirstByStatusInOrderByStartedAtDesc(anyCollection())).thenReturn(Optional.empty());
+
+        SyncRunService.SyncRun run = service.beginOrResume();
+
+        assertTrue(run.isTracked());
+        assertFalse(run.isResumed());
+        assertEquals(SyncRunJpaEntity.Phase.INGEST, run.getPhase());
+        verify(runRepository).abandonAllExcept(anyCollection(), isNull(), any(LocalDateTime.class));
+        assertEquals(1.0, meterRegistry.counter("sync.run.started", "mode", "fresh").count());
+    }
+
+    @Test
+    void resumesInterruptedRunFromItsCursor() {
+        SyncRunJpaEntity unfinished = interrupted(7L, LocalDateTime.now().minusHours(1));
+        when(runRepository.findFirstByStatusInOrderByStartedAtDesc(anyCollection())).thenReturn(Optional.of(unfinished));
+        when(itemRepository.countByStage(7L)).thenReturn(List.<Object[]>of(
+            new Object[]{SyncRunItemJpaEntity.Stage.README_FETCHED, 250L},
+            new Object[]{SyncRunItemJpaEntity.Stage.INGESTED, 50L}));
+
+        SyncRunService.SyncRun run = service.beginOrResume();
+        // Incremental was off when the run started; the stored setting wins
+        SyncRunService.IngestCheckpoint checkpoint = run.startIngest("rest", true);
+
+        assertTrue(run.isResumed());
+        assertEquals(2, run.getAttempt());
+        assertEquals(300, run.getCarriedOver());
+        assertEquals("node-a:1234", unfinished.getOwner());
+        assertEquals(SyncRunJpaEntity.Status.RUNNING, unfinished.getStatus());
+        assertEquals(unfinished.getNextCursor(), checkpoint.cursor());
+        assertEquals(3, checkpoint.pagesDone());
+        assertFalse(checkpoint.incremental());
+        verify(runRepository).abandonAllExcept(anyCollection(), eq(7L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void checkpointFromAnotherIngestModeRestartsFromFirstPage() {
+        SyncRunJpaEntity unfinished = interrupted(7L, LocalDateTime.now().minusHours(1));
+        when(runRepository.findFirstByStatusInOrderByStartedAtDesc(anyCollection())).thenReturn(Optional.of(unfinished));
+        when(itemRepository.countByStage(7L)).thenReturn(List.of());
+
+        SyncRunService.IngestCheckpoint checkpoint = service.beginOrResume().startIngest("graphql", true);
+
+        assertNull(checkpoint.cursor());
+        assertEquals(0, checkpoint.pagesDone());
+        assertEquals("graphql", unfinished.getIngestMode());
+        assertNull(unfinished.getNextCursor());
+    }
+
+    @Test
+    void runOlderThanMaxAgeIsAbandoned() {
+        SyncRunJpaEntity stale = interrupted(7L, LocalDateTime.now().minusDays(3));
+        when(runRepository.findFirstByStatusInOrderByStartedAtDesc(anyCollection())).thenReturn(Optional.of(stale));
+
+        SyncRunService.SyncRun run = service.beginOrResume();
+
+        assertFalse(run.isResumed());
+        verify(runRepository).abandonAllExcept(anyCollection(), isNull(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void markStageUpdatesRecordedItemsAndInsertsTheRest() {
+        when(runRepository.findFirstByStatusInOrderByStartedAtDesc(anyCollection())).thenReturn(Optional.empty());
+        SyncRunService.SyncRun run = service.beginOrResume();
+        when(itemRepository.findRecordedSourceIds(eq(1L), anyCollection())).thenReturn(List.of(10L));
+
+        run.markStage(List.of(10L, 11L), SyncRunItemJpaEntity.Stage.README_FETCHED);
+
+        verify(itemRepository).updateStage(eq(1L), eq(Set.of(10L)), eq(SyncRunItemJpaEntity.Stage.README_FETCHED),
+            any(LocalDateTime.class));
+        verify(itemRepository).saveAll(argThat((List<SyncRunItemJpaEntity> items) ->
+            items.size() == 1 && items.get(0).getSourceRepositoryId() == 11L));
+    }
+
+    @Test
+    void completedRunDropsItsCheckpoints() {
+        when(runRepository.findFirstByStatusInOrderByStartedAtDesc(anyCollection())).thenReturn(Optional.empty());
+        SyncRunService.SyncRun run = service.beginOrResume();
+
+        run.complete();
+
+        verify(itemRepository).deleteByRunId(1L);
+        verify(runRepository, atLeastOnce()).save(argThat(saved ->
+            saved.getStatus() == SyncRunJpaEntity.Status.COMPLETED && saved.getFinishedAt() != null));
+    }
+
+    @Test
+    void untrackedRunIgnoresCheckpoints() {
+        SyncRunService.SyncRun run = SyncRunService.SyncRun.UNTRACKED;
+
+        SyncRunService.IngestCheckpoint checkpoint = run.startIngest("rest", true);
+        run.checkpointPage(2, "next");
+        run.markStage(List.of(1L), SyncRunItemJpaEntity.Stage.INGESTED);
+        run.complete();
+
+        assertNull(checkpoint.cursor());
+        assertTrue(checkpoint.incremental());
+        assertTrue(run.findReadmePending(List.of(1L)).isEmpty());
+        assertTrue(run.getReadmePending().isEmpty());
+        verifyNoInteractions(runRepository, itemRepository);
+    }
+
+    @Test
+    void checkpointFailuresDoNotFailTheSync() {
+        when(runRepository.findFirstByStatusInOrderByStartedAtDesc(anyCollection())).thenReturn(Optional.empty());
+        SyncRunService.SyncRun run = service.beginOrResume();
+        when(runRepository.save(any(SyncRunJpaEntity.class))).thenThrow(new IllegalStateException("db down"));
+        when(itemRepository.findSourceIdsAtStage(anyLong(), any(), anyCollection())).thenThrow(new IllegalStateException("db down"));
+        when(itemRepository.findAllSourceIdsAtStage(anyLong(), any())).thenThrow(new IllegalStateException("db down"));
+
+        assertDoesNotThrow(() -> run.checkpointPage(1, "next"));
+        assertTrue(run.findReadmePending(List.of(1L)).isEmpty());
+        assertTrue(run.getReadmePending().isEmpty());
+    }
+}